@@ -0,0 +1,229 @@
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * NOTE: Ein materialisiertes Aggregat einer Selektion: die Anzahl der
+ * selektierten Elemente, Summen beliebiger Werte und der frueheste bzw.
+ * spaeteste Zeitpunkt. Das Aggregat ist bei der Slotliste angemeldet und wird
+ * bei jeder Veraenderung um die Differenz (Delta) nachgefuehrt, die Abfragen
+ * kosten daher keinen Durchlauf.
+ * 
+ * NOTE: Fuer jedes nicht geloeschte Element wird sein letzter bekannter
+ * Beitrag gemerkt. Aendert sich ein Element, wird der alte Beitrag abgezogen
+ * und der neue addiert. Elemente, die nicht (mehr) in der Slotliste sind,
+ * werden dabei ignoriert.
+ * 
+ * Invariante: list, kette, summanden, beitraege, summen und zeitpunkte sind
+ * ungleich null. anzahl, summen und zeitpunkte entsprechen den Beitraegen
+ * aller selektierten Elemente in beitraege.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+class Aggregat<T> implements Slotbeobachter<T> {
+	private Slotliste<T> list;
+	private Selector<T> kette;
+	private List<ToDoubleFunction<T>> summanden;
+	private Zeitindexer<T> zeitindexer;
+
+	private IdentityHashMap<T, Beitrag> beitraege;
+	private int anzahl;
+	private PostenSpalten.Summe[] summen;
+
+	// NOTE: Zeitpunkt -> Anzahl der selektierten Elemente mit diesem Zeitpunkt
+	private TreeMap<Long, Integer> zeitpunkte;
+
+	/**
+	 * NOTE: Durchlaeuft list einmal und meldet das Aggregat an.
+	 * 
+	 * Vorbedingung: list, kette und summanden sind ungleich null. summanden
+	 * enthaelt keine Elemente gleich null.
+	 * 
+	 * @param kette
+	 *            selektiert die zu aggregierenden Elemente
+	 * @param summanden
+	 *            liefern die zu summierenden Werte eines Elementes
+	 * @param zeitindexer
+	 *            liefert den Zeitpunkt eines Elementes, oder null
+	 */
+	public Aggregat(Slotliste<T> list, Selector<T> kette,
+			List<ToDoubleFunction<T>> summanden, Zeitindexer<T> zeitindexer) {
+		this.list = list;
+		this.kette = kette;
+		this.summanden = summanden;
+		this.zeitindexer = zeitindexer;
+		this.beitraege = new IdentityHashMap<T, Beitrag>();
+		this.summen = new PostenSpalten.Summe[summanden.size()];
+		this.zeitpunkte = new TreeMap<Long, Integer>();
+
+		for (int i = 0; i < summen.length; i++) {
+			summen[i] = new PostenSpalten.Summe();
+		}
+
+		int slots = list.getSlots();
+		for (int i = list.naechste(0); i < slots; i = list.naechste(i + 1)) {
+			einfuegen(list.get(i));
+		}
+		list.anmelden(this);
+	}
+
+	/**
+	 * Nachbedingung: das Aggregat wird nicht mehr nachgefuehrt
+	 */
+	public void abmelden() {
+		list.abmelden(this);
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist >= 0
+	 */
+	public int getAnzahl() {
+		return anzahl;
+	}
+
+	/**
+	 * Vorbedingung: 0 <= summand < Anzahl der Summanden
+	 * 
+	 * @return die Summe der Werte des Summanden ueber alle selektierten
+	 *         Elemente
+	 */
+	public double getSumme(int summand) {
+		return summen[summand].getWert();
+	}
+
+	/**
+	 * @return der frueheste Zeitpunkt, oder null wenn kein Element selektiert
+	 *         ist bzw. es keinen Zeitindexer gibt.
+	 */
+	public Long getMinimum() {
+		return zeitpunkte.isEmpty() ? null : zeitpunkte.firstKey();
+	}
+
+	/**
+	 * @return der spaeteste Zeitpunkt, oder null wenn kein Element selektiert
+	 *         ist bzw. es keinen Zeitindexer gibt.
+	 */
+	public Long getMaximum() {
+		return zeitpunkte.isEmpty() ? null : zeitpunkte.lastKey();
+	}
+
+	@Override
+	public void eingefuegt(int von, int bis) {
+		for (int i = von; i < bis; i++) {
+			einfuegen(list.get(i));
+		}
+	}
+
+	/**
+	 * Vorbedingung: element ist ungleich null und wurde in einen Slot
+	 * eingefuegt.
+	 */
+	private void einfuegen(T element) {
+		Beitrag beitrag = beitraege.get(element);
+
+		if (beitrag == null) {
+			beitrag = new Beitrag(summanden.size());
+			erfasse(element, beitrag);
+			beitraege.put(element, beitrag);
+		}
+
+		beitrag.vorkommen++;
+		addiere(beitrag, 1);
+	}
+
+	@Override
+	public void geloescht(int position) {
+		T element = list.get(position);
+		Beitrag beitrag = beitraege.get(element);
+
+		addiere(beitrag, -1);
+		beitrag.vorkommen--;
+
+		if (beitrag.vorkommen == 0) {
+			beitraege.remove(element);
+		}
+	}
+
+	@Override
+	public void vorKompaktierung() {
+		// NOTE: die Beitraege haengen nicht von den Positionen ab
+	}
+
+	@Override
+	public void elementGeaendert(T element, IntListe positionen) {
+		Beitrag beitrag = beitraege.get(element);
+
+		if (beitrag != null) {
+			addiere(beitrag, -beitrag.vorkommen);
+			erfasse(element, beitrag);
+			addiere(beitrag, beitrag.vorkommen);
+		}
+	}
+
+	/**
+	 * Vorbedingung: element und beitrag sind ungleich null
+	 * 
+	 * Nachbedingung: beitrag enthaelt den aktuellen Beitrag von element
+	 */
+	private void erfasse(T element, Beitrag beitrag) {
+		beitrag.selektiert = kette.select(element);
+
+		if (beitrag.selektiert) {
+			for (int i = 0; i < beitrag.werte.length; i++) {
+				beitrag.werte[i] = summanden.get(i).applyAsDouble(element);
+			}
+			if (zeitindexer != null) {
+				beitrag.zeitpunkt = zeitindexer.getZeitpunkt(element);
+			}
+		}
+	}
+
+	/**
+	 * NOTE: Addiert bzw. subtrahiert (faktor < 0) einen Beitrag.
+	 * 
+	 * Vorbedingung: beitrag ist ungleich null
+	 */
+	private void addiere(Beitrag beitrag, int faktor) {
+		if (!beitrag.selektiert || faktor == 0) {
+			return;
+		}
+
+		anzahl += faktor;
+
+		for (int i = 0; i < summen.length; i++) {
+			summen[i].add(faktor * beitrag.werte[i]);
+		}
+
+		if (zeitindexer != null) {
+			Integer alt = zeitpunkte.get(beitrag.zeitpunkt);
+			int neu = (alt == null ? 0 : alt) + faktor;
+
+			if (neu == 0) {
+				zeitpunkte.remove(beitrag.zeitpunkt);
+			} else {
+				zeitpunkte.put(beitrag.zeitpunkt, neu);
+			}
+		}
+	}
+
+	/**
+	 * NOTE: Der zuletzt erfasste Beitrag eines Elementes. Ein Element kann in
+	 * mehreren Slots vorkommen.
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private static class Beitrag {
+		private int vorkommen;
+		private boolean selektiert;
+		private double[] werte;
+		private long zeitpunkt;
+
+		/**
+		 * Vorbedingung: summanden >= 0
+		 */
+		public Beitrag(int summanden) {
+			this.werte = new double[summanden];
+		}
+	}
+}
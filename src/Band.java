@@ -2,6 +2,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -28,13 +29,30 @@ public class Band implements Serializable {
 	 * Songs, Termine, Mitglieder, Orte und GuV Posten sind leer
 	 */
 	public Band(String name, String ausrichtung, int minProben) {
+		this(name, ausrichtung, minProben, false);
+	}
+
+	/**
+	 * NOTE: Mit nebenlaeufig true duerfen die Termine und Mitglieder der Band
+	 * von mehreren Threads gleichzeitig gelesen (iterator, count, Streams,
+	 * Konflikte, ...) und mit add, addAll, remove und restore veraendert
+	 * werden, ohne die Band von aussen zu sperren. Die Pruefung auf Konflikte
+	 * erfolgt dabei unter der selben Sperre wie das Hinzufuegen. Fuer
+	 * Terminserien, gespeicherte Sichten und die Eigenschaften der einzelnen
+	 * Termine und Mitglieder gilt das nicht (siehe Selection und Termine).
+	 * 
+	 * Vorbedingung: name und ausrichtung sind ungleich null Nachbedingung: alle
+	 * Songs, Termine, Mitglieder, Orte und GuV Posten sind leer
+	 */
+	public Band(String name, String ausrichtung, int minProben,
+			boolean nebenlaeufig) {
 		this.name = name;
 		this.ausrichtung = ausrichtung;
 		this.minProben = minProben;
 
 		this.repertoire = new Songs();
-		this.termine = new Termine();
-		this.mitglieder = new Mitglieder();
+		this.termine = new Termine(nebenlaeufig);
+		this.mitglieder = new Mitglieder(nebenlaeufig);
 		this.orte = new Orte();
 		this.guv = new GuV(this);
 	}
@@ -187,7 +205,9 @@ public class Band implements Serializable {
 	 * NOTE: Ein Termin ist ungueltig, wenn ein Teilnehmer nicht teilnehmen
 	 * darf. Wenn <code>termin</code> ungueltig ist, wird false zurueckgegeben.
 	 * Ein Ersatzmitglied muss mindestens <code>minProben</code> pro Jahr
-	 * absolvieren um an einem Auftritt teilzunehmen.
+	 * absolvieren um an einem Auftritt teilzunehmen. Ein Termin ist auch
+	 * ungueltig, wenn sein Ort oder einer seiner Teilnehmer zur selben Zeit
+	 * bereits belegt ist (siehe Termine.getKonflikte).
 	 * 
 	 * BAD: Schwacher Klassenzusammenhalt: Die Methode gehoert nicht wirklich
 	 * zur Klasse Band. Es waere besser fuer den Klassenzusammenhalt, diese
@@ -202,6 +222,78 @@ public class Band implements Serializable {
 	 */
 	public boolean sendeTerminvorschlag(Termin termin) {
 		Terminvorschlag vorschlag = new Terminvorschlag(termin, termine);
+
+		if (!termine.getKonflikte(termin).isEmpty()) {
+			return false; // NOTE: Ort oder Teilnehmer doppelt belegt
+		}
+
+		if (!genugProben(termin)) {
+			return false; // NOTE: Mindestanzahl nicht erfuellt
+		}
+
+		// Zusicherung: alle Teilnehmer erfuellen die Vorraussetzungen um an dem
+		// Termin teilzunehmen
+
+		for (Mitglied teilnehmer : termin.getTeilnehmer()) {
+			teilnehmer.sende(vorschlag);
+		}
+
+		return true;
+	}
+
+	/**
+	 * NOTE: Schlaegt eine ganze Terminserie vor (z.B. die woechentliche
+	 * Probe). Die Serie wird erst im System uebernommen, wenn alle
+	 * Teilnehmer zugestimmt haben.
+	 * 
+	 * NOTE: Eine Serie ist ungueltig, wenn eines ihrer Vorkommen als
+	 * einzelner Termin ungueltig waere (siehe sendeTerminvorschlag(Termin)).
+	 * Bei einer Serie von Auftritten wird die Mindestanzahl an Proben daher
+	 * fuer jedes Vorkommen geprueft.
+	 * 
+	 * Nachbedingung: ein Terminvorschlag zu serie ist in der
+	 * Terminvorschlag-Queue jedes Teilnehmers.
+	 * 
+	 * @param serie
+	 * @return true, wenn der Terminvorschlag an alle Teilnehmer gesendet wurde,
+	 *         false wenn die Serie ungueltig ist.
+	 */
+	public boolean sendeTerminvorschlag(Terminserie serie) {
+		Terminvorschlag vorschlag = new Terminvorschlag(serie, termine);
+		Termin.TypSelektor auftritte = new Termin.TypSelektor(
+				Termin.Typ.Auftritt);
+
+		if (!termine.getKonflikte(serie).isEmpty()) {
+			return false; // NOTE: Ort oder Teilnehmer doppelt belegt
+		}
+
+		if (auftritte.select(serie.getVorlage())) {
+			Iterator<Termin> vorkommen = serie.iterator(null);
+
+			while (vorkommen.hasNext()) {
+				if (!genugProben(vorkommen.next())) {
+					return false; // NOTE: Mindestanzahl nicht erfuellt
+				}
+			}
+		}
+
+		for (Mitglied teilnehmer : serie.getTeilnehmer()) {
+			teilnehmer.sende(vorschlag);
+		}
+
+		return true;
+	}
+
+	/**
+	 * NOTE: Ein Ersatzmitglied muss mindestens <code>minProben</code> im Jahr
+	 * vor Beginn eines Auftrittes absolviert haben.
+	 * 
+	 * Vorbedingung: termin ist ungleich null
+	 * 
+	 * @return true, wenn termin kein Auftritt ist oder alle Ersatzmitglieder
+	 *         unter seinen Teilnehmern genug Proben absolviert haben
+	 */
+	private boolean genugProben(Termin termin) {
 		Termin.TypSelektor auftritte = new Termin.TypSelektor(
 				Termin.Typ.Auftritt);
 		Mitglied.TypSelector ersatzmitglieder = new Mitglied.TypSelector(true);
@@ -225,13 +317,8 @@ public class Band implements Serializable {
 
 			for (Mitglied teilnehmer : termin.getTeilnehmer()) {
 				if (ersatzmitglieder.select(teilnehmer)) {
-					List<Selector<Termin>> selectors = new ArrayList<Selector<Termin>>();
-					selectors.add(new Termin.TypSelektor(Termin.Typ.Probe));
-					selectors.add(new Termin.ZeitraumSelektor(einJahr));
-					selectors.add(new Termin.TeilnehmerSelektor(teilnehmer));
-
-					if (termine.select(selectors).count() < minProben) {
-						return false; // NOTE: Mindestanzahl nicht erfuellt
+					if (termine.zaehleProben(teilnehmer, einJahr) < minProben) {
+						return false;
 					}
 				}
 			}
@@ -240,13 +327,6 @@ public class Band implements Serializable {
 			// genug Proben im letzten Jahr absolviert
 		}
 
-		// Zusicherung: alle Teilnehmer erfuellen die Vorraussetzungen um an dem
-		// Termin teilzunehmen
-
-		for (Mitglied teilnehmer : termin.getTeilnehmer()) {
-			teilnehmer.sende(vorschlag);
-		}
-
 		return true;
 	}
 
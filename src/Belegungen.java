@@ -0,0 +1,434 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NOTE: Ein Index ueber die Belegung von Orten und Mitgliedern durch Termine.
+ * Fuer jeden Ort und jeden Teilnehmer gibt es einen Intervallbaum ueber die
+ * Zeitraeume der Termine. Damit koennen die Termine, die sich mit einem
+ * Zeitraum ueberschneiden, in O(log n + k) gefunden werden.
+ * 
+ * NOTE: Zwei Termine ueberschneiden sich, wenn einer beginnt, bevor der andere
+ * endet. Termine, die nur aneinander grenzen (Ende des einen = Beginn des
+ * anderen), sind kein Konflikt.
+ * 
+ * NOTE: Wie beim Index werden neue Slots nachgetragen, dabei werden nur die
+ * Baeume der betroffenen Orte und Teilnehmer verworfen und bei Bedarf neu
+ * erstellt. Belegungen ist bei der Slotliste angemeldet: aendert sich ein
+ * Termin, werden nur seine Positionen von den bisherigen zu den aktuellen
+ * Ressourcen verschoben und deren Baeume verworfen. Nur nach einer
+ * Kompaktierung wird alles neu erstellt. Geloeschte Slots werden bei der
+ * Abfrage uebersprungen.
+ * 
+ * Invariante: list, nachOrt, nachTeilnehmer und ressourcen sind ungleich
+ * null. Die Slots 0 bis bis - 1 der list sind unter den Ressourcen
+ * eingetragen, die ressourcen fuer ihren Termin enthaelt.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+class Belegungen implements Slotbeobachter<Termin> {
+	private Slotliste<Termin> list;
+	private Map<Ort, Belegung> nachOrt;
+	private Map<Mitglied, Belegung> nachTeilnehmer;
+
+	// NOTE: Ort und Teilnehmer, unter denen ein Termin eingetragen ist
+	private Map<Termin, Ressourcen> ressourcen;
+	private int bis;
+	private int epoche;
+
+	/**
+	 * NOTE: Meldet die Belegungen bei list an.
+	 * 
+	 * Vorbedingung: list ist ungleich null
+	 */
+	public Belegungen(Slotliste<Termin> list) {
+		this.list = list;
+		erstelle();
+		list.anmelden(this);
+	}
+
+	/**
+	 * NOTE: Liefert alle Termine, die sich mit termin ueberschneiden und am
+	 * selben Ort stattfinden oder einen gemeinsamen Teilnehmer haben. termin
+	 * selbst ist nicht enthalten.
+	 * 
+	 * Vorbedingung: termin ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert enthaelt aufsteigend die Positionen
+	 * der Termine ohne doppelte Eintraege.
+	 */
+	public BitSet konflikte(Termin termin) {
+		BitSet konflikte = new BitSet();
+		long von = termin.getZeitraum().getErsterZeitpunkt();
+		long bis = termin.getZeitraum().getLetzterZeitpunkt();
+
+		aktualisiere();
+
+		Belegung belegung = nachOrt.get(termin.getOrt());
+		if (belegung != null) {
+			belegung.getBaum().ueberschneidungen(von, bis, konflikte);
+		}
+
+		for (Mitglied teilnehmer : termin.getTeilnehmer()) {
+			belegung = nachTeilnehmer.get(teilnehmer);
+			if (belegung != null) {
+				belegung.getBaum().ueberschneidungen(von, bis, konflikte);
+			}
+		}
+
+		for (int i = konflikte.nextSetBit(0); i >= 0; i = konflikte
+				.nextSetBit(i + 1)) {
+			if (list.istGeloescht(i) || list.get(i) == termin) {
+				konflikte.clear(i);
+			}
+		}
+
+		return konflikte;
+	}
+
+	/**
+	 * NOTE: Sucht alle Konflikte, getrennt nach Ort bzw. Teilnehmer. Haben
+	 * zwei Termine den selben Ort und gemeinsame Teilnehmer, wird fuer jede
+	 * Ressource ein Konflikt gemeldet.
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	public List<Konflikt> alleKonflikte() {
+		List<Konflikt> konflikte = new ArrayList<Konflikt>();
+
+		aktualisiere();
+
+		for (Map.Entry<Ort, Belegung> eintrag : nachOrt.entrySet()) {
+			eintrag.getValue().getBaum()
+					.konflikte(eintrag.getKey(), konflikte);
+		}
+		for (Map.Entry<Mitglied, Belegung> eintrag : nachTeilnehmer
+				.entrySet()) {
+			eintrag.getValue().getBaum()
+					.konflikte(eintrag.getKey(), konflikte);
+		}
+
+		return konflikte;
+	}
+
+	/**
+	 * NOTE: Erstellt nach einer Kompaktierung alles neu und traegt sonst die
+	 * neuen Slots ein.
+	 * 
+	 * Nachbedingung: alle Slots der list sind eingetragen
+	 */
+	private void aktualisiere() {
+		if (epoche != list.getEpoche()) {
+			erstelle();
+		}
+
+		for (int i = list.naechste(bis); i < list.getSlots(); i = list
+				.naechste(i + 1)) {
+			Termin termin = list.get(i);
+			Ressourcen r = new Ressourcen(termin);
+
+			trageEin(r, i);
+			ressourcen.put(termin, r);
+		}
+
+		bis = list.getSlots();
+	}
+
+	/**
+	 * Vorbedingung: r ist ungleich null
+	 * 
+	 * Nachbedingung: position ist unter dem Ort und allen Teilnehmern von r
+	 * eingetragen, deren Baeume sind verworfen.
+	 */
+	private void trageEin(Ressourcen r, int position) {
+		trageEin(nachOrt, r.ort, position);
+		for (Mitglied teilnehmer : r.teilnehmer) {
+			trageEin(nachTeilnehmer, teilnehmer, position);
+		}
+	}
+
+	/**
+	 * Vorbedingung: belegungen und ressource sind ungleich null
+	 */
+	private <R> void trageEin(Map<R, Belegung> belegungen,
+			R ressource, int position) {
+		Belegung belegung = belegungen.get(ressource);
+
+		if (belegung == null) {
+			belegung = new Belegung();
+			belegungen.put(ressource, belegung);
+		}
+
+		belegung.positionen.add(position);
+		belegung.baum = null;
+	}
+
+	/**
+	 * Vorbedingung: belegungen, ressource und positionen sind ungleich null
+	 * 
+	 * Nachbedingung: keine der positionen ist unter ressource eingetragen,
+	 * der Baum von ressource ist verworfen.
+	 */
+	private <R> void trageAus(Map<R, Belegung> belegungen, R ressource,
+			IntListe positionen) {
+		Belegung belegung = belegungen.get(ressource);
+
+		if (belegung == null) {
+			return;
+		}
+
+		IntListe rest = new IntListe();
+		for (int i = 0; i < belegung.positionen.size(); i++) {
+			int position = belegung.positionen.get(i);
+
+			if (!enthaelt(positionen, position)) {
+				rest.add(position);
+			}
+		}
+
+		if (rest.size() == 0) {
+			belegungen.remove(ressource);
+		} else {
+			belegung.positionen = rest;
+			belegung.baum = null;
+		}
+	}
+
+	/**
+	 * @return true, wenn liste den wert enthaelt
+	 */
+	private static boolean enthaelt(IntListe liste, int wert) {
+		for (int i = 0; i < liste.size(); i++) {
+			if (liste.get(i) == wert) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Nachbedingung: es ist nichts eingetragen
+	 */
+	private void erstelle() {
+		this.nachOrt = new IdentityHashMap<Ort, Belegung>();
+		this.nachTeilnehmer = new IdentityHashMap<Mitglied, Belegung>();
+		this.ressourcen = new IdentityHashMap<Termin, Ressourcen>();
+		this.bis = 0;
+		this.epoche = list.getEpoche();
+	}
+
+	@Override
+	public void eingefuegt(int von, int bis) {
+		// NOTE: neue Slots werden bei der naechsten Abfrage eingetragen
+	}
+
+	@Override
+	public void geloescht(int position) {
+		// NOTE: geloeschte Slots werden bei der Abfrage uebersprungen
+	}
+
+	@Override
+	public void vorKompaktierung() {
+		// NOTE: nach der Kompaktierung wird bei der naechsten Abfrage alles
+		// neu erstellt
+	}
+
+	/**
+	 * NOTE: Die Positionen des Termins werden unter seinen bisherigen
+	 * Ressourcen aus- und unter den aktuellen eingetragen. Bleiben Ort und
+	 * Teilnehmer gleich (z.B. bei setZeitraum), werden nur deren Baeume
+	 * verworfen.
+	 */
+	@Override
+	public void elementGeaendert(Termin termin, IntListe positionen) {
+		Ressourcen alt = ressourcen.get(termin);
+
+		if (alt == null || epoche != list.getEpoche()) {
+			return;
+		}
+
+		IntListe eingetragen = new IntListe();
+		for (int i = 0; i < positionen.size() && positionen.get(i) < bis; i++) {
+			eingetragen.add(positionen.get(i));
+		}
+
+		trageAus(nachOrt, alt.ort, eingetragen);
+		for (Mitglied teilnehmer : alt.teilnehmer) {
+			trageAus(nachTeilnehmer, teilnehmer, eingetragen);
+		}
+
+		Ressourcen neu = new Ressourcen(termin);
+		for (int i = 0; i < eingetragen.size(); i++) {
+			trageEin(neu, eingetragen.get(i));
+		}
+		ressourcen.put(termin, neu);
+	}
+
+	/**
+	 * NOTE: Ort und Teilnehmer eines Termins zum Zeitpunkt des Eintragens
+	 * 
+	 * Invariante: ort und teilnehmer sind ungleich null
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private static class Ressourcen {
+		private final Ort ort;
+		private final Mitglied[] teilnehmer;
+
+		/**
+		 * Vorbedingung: termin ist ungleich null
+		 */
+		public Ressourcen(Termin termin) {
+			this.ort = termin.getOrt();
+			this.teilnehmer = termin.getTeilnehmer().toArray(new Mitglied[0]);
+		}
+	}
+
+	/**
+	 * NOTE: Die Positionen der Termine einer Ressource. Der Intervallbaum wird
+	 * erst bei Bedarf erstellt.
+	 * 
+	 * Invariante: positionen ist ungleich null. baum ist null oder enthaelt
+	 * genau die Positionen.
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private class Belegung {
+		private IntListe positionen = new IntListe();
+		private Intervallbaum baum;
+
+		/**
+		 * Nachbedingung: der Rueckgabewert ist ungleich null
+		 */
+		public Intervallbaum getBaum() {
+			if (baum == null) {
+				baum = new Intervallbaum(positionen);
+			}
+			return baum;
+		}
+	}
+
+	/**
+	 * NOTE: Ein statischer, erweiterter Intervallbaum. Die Intervalle sind nach
+	 * Beginn sortiert, der Baum ist implizit: die Wurzel eines Bereiches
+	 * [links, rechts) ist seine Mitte. Fuer jede Wurzel wird das spaeteste
+	 * Ende im Bereich gespeichert, damit Teilbaeume ohne Ueberschneidungen
+	 * uebersprungen werden koennen.
+	 * 
+	 * Invariante: positionen, von, bis und maxBis haben die selbe Laenge. von
+	 * ist aufsteigend sortiert.
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private class Intervallbaum {
+		private int[] positionen;
+		private long[] von;
+		private long[] bis;
+		private long[] maxBis;
+
+		/**
+		 * Vorbedingung: eintraege ist ungleich null und enthaelt Positionen
+		 * von list.
+		 */
+		public Intervallbaum(IntListe eintraege) {
+			int anzahl = eintraege.size();
+			int[] werte = eintraege.getWerte();
+
+			this.positionen = new int[anzahl];
+			this.von = new long[anzahl];
+			this.bis = new long[anzahl];
+			this.maxBis = new long[anzahl];
+
+			for (int i = 0; i < anzahl; i++) {
+				positionen[i] = werte[i];
+				von[i] = list.get(werte[i]).getZeitraum().getErsterZeitpunkt();
+			}
+
+			Sortierung.sortiere(von, positionen, anzahl);
+
+			for (int i = 0; i < anzahl; i++) {
+				bis[i] = list.get(positionen[i]).getZeitraum()
+						.getLetzterZeitpunkt();
+			}
+
+			berechneMaxBis(0, anzahl);
+		}
+
+		/**
+		 * Nachbedingung: maxBis der Wurzel von [links, rechts) ist das
+		 * spaeteste Ende im Bereich.
+		 * 
+		 * @return das spaeteste Ende im Bereich, Long.MIN_VALUE wenn er leer
+		 *         ist.
+		 */
+		private long berechneMaxBis(int links, int rechts) {
+			if (links >= rechts) {
+				return Long.MIN_VALUE;
+			}
+
+			int mitte = (links + rechts) >>> 1;
+			long max = Math.max(bis[mitte], Math.max(
+					berechneMaxBis(links, mitte),
+					berechneMaxBis(mitte + 1, rechts)));
+
+			maxBis[mitte] = max;
+			return max;
+		}
+
+		/**
+		 * Nachbedingung: die Positionen aller Intervalle, die sich mit
+		 * (anfang, ende) ueberschneiden, sind in ergebnis gesetzt.
+		 */
+		public void ueberschneidungen(long anfang, long ende, BitSet ergebnis) {
+			ueberschneidungen(0, positionen.length, anfang, ende, ergebnis);
+		}
+
+		private void ueberschneidungen(int links, int rechts, long anfang,
+				long ende, BitSet ergebnis) {
+			if (links >= rechts) {
+				return;
+			}
+
+			int mitte = (links + rechts) >>> 1;
+
+			// NOTE: kein Intervall im Bereich endet nach anfang
+			if (maxBis[mitte] <= anfang) {
+				return;
+			}
+
+			ueberschneidungen(links, mitte, anfang, ende, ergebnis);
+
+			// NOTE: rechts beginnen alle Intervalle nicht vor von[mitte]
+			if (von[mitte] < ende) {
+				if (anfang < bis[mitte]) {
+					ergebnis.set(positionen[mitte]);
+				}
+				ueberschneidungen(mitte + 1, rechts, anfang, ende, ergebnis);
+			}
+		}
+
+		/**
+		 * NOTE: Durchlaeuft die Intervalle nach Beginn sortiert. Jedes spaeter
+		 * beginnende Intervall, das vor dem Ende des aktuellen beginnt, ist
+		 * ein Konflikt. Die Laufzeit ist daher O(n + k).
+		 * 
+		 * Vorbedingung: ressource und konflikte sind ungleich null
+		 */
+		public void konflikte(Object ressource, List<Konflikt> konflikte) {
+			for (int i = 0; i < positionen.length; i++) {
+				if (list.istGeloescht(positionen[i])) {
+					continue;
+				}
+
+				for (int j = i + 1; j < positionen.length && von[j] < bis[i]; j++) {
+					if (!list.istGeloescht(positionen[j])) {
+						konflikte.add(new Konflikt(list.get(positionen[i]),
+								list.get(positionen[j]), ressource));
+					}
+				}
+			}
+		}
+	}
+}
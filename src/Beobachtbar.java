@@ -0,0 +1,53 @@
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * NOTE: Basisklasse fuer Elemente, deren Eigenschaften sich aendern koennen,
+ * waehrend sie in einer Selection gespeichert sind. Die Slotlisten der
+ * Selektionen melden sich als Beobachter an, um abgeleitete Daten (Indizes,
+ * Bitmaps) aktuell zu halten.
+ * 
+ * Invariante: beobachter ist null oder enthaelt keine Elemente gleich null
+ * und keine doppelten Eintraege.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+public abstract class Beobachtbar implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	// NOTE: Beobachter werden nicht gespeichert. Sie melden sich nach dem
+	// Laden erneut an.
+	private transient List<Beobachter> beobachter;
+
+	/**
+	 * Vorbedingung: b ist ungleich null
+	 * 
+	 * Nachbedingung: b wird ueber alle weiteren Aenderungen informiert.
+	 */
+	void anmelden(Beobachter b) {
+		if (beobachter == null) {
+			beobachter = new ArrayList<Beobachter>(1);
+		}
+		if (!beobachter.contains(b)) {
+			beobachter.add(b);
+		}
+	}
+
+	/**
+	 * NOTE: Ein Beobachter darf dabei weitere anmelden (ein geaendertes
+	 * Vorkommen wird z.B. in Termine aufgenommen). Informiert werden nur die
+	 * vor der Aenderung angemeldeten.
+	 * 
+	 * Nachbedingung: alle angemeldeten Beobachter wurden ueber die Aenderung
+	 * informiert.
+	 */
+	protected void meldeAenderung() {
+		if (beobachter != null) {
+			for (Beobachter b : beobachter.toArray(new Beobachter[beobachter
+					.size()])) {
+				b.geaendert(this);
+			}
+		}
+	}
+}
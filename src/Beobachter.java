@@ -0,0 +1,14 @@
+/**
+ * NOTE: Wird ueber Aenderungen an beobachtbaren Elementen informiert.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+public interface Beobachter {
+	/**
+	 * Vorbedingung: element ist ungleich null
+	 * 
+	 * @param element
+	 *            das Element, dessen Zustand sich geaendert hat
+	 */
+	public void geaendert(Beobachtbar element);
+}
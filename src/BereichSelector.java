@@ -0,0 +1,28 @@
+/**
+ * NOTE: Ein Selektor, dessen Ergebnis ueber einen sortierten Bereichsindex
+ * eingeschraenkt werden kann. Eine Selection durchlaeuft dann nicht mehr alle
+ * Elemente, sondern nur jene, deren Zeitpunkt in einem der Bereiche liegt.
+ * 
+ * Invariante: Wenn <code>select(item)</code> true liefert, liegt
+ * <code>getZeitindexer().getZeitpunkt(item)</code> in einem der Bereiche von
+ * <code>getBereiche()</code>.
+ * 
+ * @author Peter Pilgerstorfer
+ * @param <T>
+ */
+public interface BereichSelector<T> extends Selector<T> {
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null. Fuer alle Instanzen
+	 * einer Selektor-Klasse wird das selbe Objekt geliefert.
+	 */
+	public Zeitindexer<T> getZeitindexer();
+
+	/**
+	 * NOTE: Die Bereiche werden als Paare [von, bis] in Millisekunden seit
+	 * 1.1.1970 angegeben, beide Grenzen sind enthalten.
+	 * 
+	 * @return die Bereiche, oder null wenn die Zeitpunkte nicht beschraenkt
+	 *         sind
+	 */
+	public long[] getBereiche();
+}
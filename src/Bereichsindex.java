@@ -0,0 +1,288 @@
+import java.util.Arrays;
+
+/**
+ * NOTE: Ordnet die Positionen der Elemente einer Slotliste nach ihrem
+ * Zeitpunkt. Die Eintraege liegen in zwei primitiven Arrays, aufsteigend
+ * nach Zeitpunkt und bei gleichem Zeitpunkt nach Position sortiert. Die
+ * Eintraege eines Bereichs werden mit binaerer Suche gefunden und liegen
+ * hintereinander, die Positionen aller Elemente in einem Bereich werden so
+ * in O(log n + k) kopiert. Sortiert werden muessen sie nur, wenn die
+ * Reihenfolge der Zeitpunkte nicht der Reihenfolge der Positionen entspricht.
+ * 
+ * NOTE: Wie beim Index bleiben geloeschte Slots im Bereichsindex, neue Slots
+ * werden bei <code>aktualisiere()</code> nachgetragen (sortiert und mit den
+ * vorhandenen Eintraegen zusammengefuehrt). Hat sich der Zeitpunkt eines
+ * Elementes geaendert, wird nur sein Eintrag verschoben. Nur nach einer
+ * Kompaktierung muss der Bereichsindex neu erstellt werden.
+ * 
+ * Invariante: indexer, list, zeitpunkte, positionen und slotZeitpunkte sind
+ * ungleich null. Die ersten anzahl Eintraege von zeitpunkte und positionen
+ * sind nach (Zeitpunkt, Position) aufsteigend sortiert und enthalten genau
+ * die Slots 0 bis bis - 1 der list, die beim Eintragen nicht geloescht
+ * waren. slotZeitpunkte enthaelt fuer diese Slots den eingetragenen
+ * Zeitpunkt.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+class Bereichsindex<T> {
+	private Zeitindexer<T> indexer;
+	private Slotliste<T> list;
+	private long[] zeitpunkte;
+	private int[] positionen;
+	private int anzahl;
+	private long[] slotZeitpunkte;
+	private int bis;
+	private int epoche;
+
+	/**
+	 * Vorbedingung: indexer und list sind ungleich null
+	 * 
+	 * Nachbedingung: alle Slots von list sind im Bereichsindex enthalten.
+	 */
+	public Bereichsindex(Zeitindexer<T> indexer, Slotliste<T> list) {
+		this.indexer = indexer;
+		this.list = list;
+		this.zeitpunkte = new long[0];
+		this.positionen = new int[0];
+		this.anzahl = 0;
+		this.slotZeitpunkte = new long[0];
+		this.bis = 0;
+		this.epoche = list.getEpoche();
+
+		aktualisiere();
+	}
+
+	/**
+	 * @return true, wenn der Bereichsindex nach einer Kompaktierung der
+	 *         Slotliste neu erstellt werden muss.
+	 */
+	public boolean istVeraltet() {
+		return epoche != list.getEpoche();
+	}
+
+	/**
+	 * NOTE: Traegt alle seit dem letzten Aufruf angefuegten Slots ein. Sind
+	 * die neuen Zeitpunkte nicht kleiner als der letzte eingetragene (der
+	 * haeufigste Fall), werden sie nur angehaengt, sonst werden sie sortiert
+	 * und mit den vorhandenen Eintraegen zusammengefuehrt.
+	 * 
+	 * Vorbedingung: istVeraltet() liefert false
+	 * 
+	 * Nachbedingung: alle Slots von list sind im Bereichsindex enthalten.
+	 */
+	public void aktualisiere() {
+		int slots = list.getSlots();
+
+		if (bis == slots) {
+			return;
+		}
+
+		long[] neueZeitpunkte = new long[slots - bis];
+		int[] neuePositionen = new int[slots - bis];
+		int neu = 0;
+		boolean sortiert = true;
+
+		if (slotZeitpunkte.length < slots) {
+			slotZeitpunkte = Arrays.copyOf(slotZeitpunkte,
+					Math.max(slots, slotZeitpunkte.length * 3 / 2));
+		}
+
+		for (int i = list.naechste(bis); i < slots; i = list.naechste(i + 1)) {
+			long zeitpunkt = indexer.getZeitpunkt(list.get(i));
+
+			if (neu > 0 && zeitpunkt < neueZeitpunkte[neu - 1]) {
+				sortiert = false;
+			}
+			neueZeitpunkte[neu] = zeitpunkt;
+			neuePositionen[neu] = i;
+			slotZeitpunkte[i] = zeitpunkt;
+			neu++;
+		}
+		bis = slots;
+
+		if (neu == 0) {
+			return;
+		}
+		if (!sortiert) {
+			Sortierung.sortiere(neueZeitpunkte, neuePositionen, neu);
+		}
+
+		// NOTE: die neuen Positionen sind groesser als alle eingetragenen,
+		// bei gleichem Zeitpunkt kommen sie also danach
+		if (anzahl == 0 || neueZeitpunkte[0] >= zeitpunkte[anzahl - 1]) {
+			if (zeitpunkte.length < anzahl + neu) {
+				int laenge = Math.max(anzahl + neu, zeitpunkte.length * 3 / 2);
+				zeitpunkte = Arrays.copyOf(zeitpunkte, laenge);
+				positionen = Arrays.copyOf(positionen, laenge);
+			}
+			System.arraycopy(neueZeitpunkte, 0, zeitpunkte, anzahl, neu);
+			System.arraycopy(neuePositionen, 0, positionen, anzahl, neu);
+			anzahl += neu;
+		} else {
+			zusammenfuehren(neueZeitpunkte, neuePositionen, neu);
+		}
+	}
+
+	/**
+	 * NOTE: Hat sich der Zeitpunkt von element geaendert, wird der Eintrag
+	 * jeder seiner Positionen an die neue Stelle verschoben. Nur die Eintraege
+	 * zwischen alter und neuer Stelle werden dabei um eins verschoben.
+	 * 
+	 * Vorbedingung: element und positionen sind ungleich null. positionen
+	 * enthaelt alle Positionen von element.
+	 * 
+	 * Nachbedingung: alle Positionen von element bis bis - 1 sind unter
+	 * seinem aktuellen Zeitpunkt eingetragen.
+	 */
+	public void elementGeaendert(T element, IntListe positionen) {
+		if (istVeraltet() || positionen.size() == 0) {
+			return;
+		}
+
+		long neu = indexer.getZeitpunkt(element);
+
+		for (int i = 0; i < positionen.size(); i++) {
+			int position = positionen.get(i);
+
+			if (position >= bis || slotZeitpunkte[position] == neu) {
+				continue;
+			}
+
+			int alt = suche(slotZeitpunkte[position], position);
+			int ziel = suche(neu, position);
+
+			if (ziel > alt) {
+				ziel--;
+				System.arraycopy(zeitpunkte, alt + 1, zeitpunkte, alt, ziel
+						- alt);
+				System.arraycopy(this.positionen, alt + 1, this.positionen,
+						alt, ziel - alt);
+			} else {
+				System.arraycopy(zeitpunkte, ziel, zeitpunkte, ziel + 1, alt
+						- ziel);
+				System.arraycopy(this.positionen, ziel, this.positionen,
+						ziel + 1, alt - ziel);
+			}
+
+			zeitpunkte[ziel] = neu;
+			this.positionen[ziel] = position;
+			slotZeitpunkte[position] = neu;
+		}
+	}
+
+	/**
+	 * Vorbedingung: bereiche ist ungleich null und enthaelt Paare [von, bis]
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und enthaelt
+	 * aufsteigend und ohne Duplikate die Positionen aller Elemente, deren
+	 * Zeitpunkt in einem der Bereiche liegt. Er kann Positionen geloeschter
+	 * Slots enthalten.
+	 */
+	public IntListe getPositionen(long[] bereiche) {
+		int[] grenzen = new int[bereiche.length & ~0x1];
+		int laenge = 0;
+
+		for (int i = 0; i < grenzen.length; i += 2) {
+			if (bereiche[i] <= bereiche[i + 1]) {
+				grenzen[i] = untereGrenze(bereiche[i]);
+				grenzen[i + 1] = bereiche[i + 1] == Long.MAX_VALUE ? anzahl
+						: untereGrenze(bereiche[i + 1] + 1);
+				laenge += grenzen[i + 1] - grenzen[i];
+			}
+		}
+
+		int[] ergebnis = new int[laenge];
+		boolean sortiert = true;
+		int n = 0;
+
+		for (int i = 0; i < grenzen.length; i += 2) {
+			int von = grenzen[i];
+			int ende = grenzen[i + 1];
+
+			System.arraycopy(positionen, von, ergebnis, n, ende - von);
+			for (int j = Math.max(n, 1); sortiert && j < n + ende - von; j++) {
+				sortiert = ergebnis[j - 1] < ergebnis[j];
+			}
+			n += ende - von;
+		}
+
+		IntListe liste = new IntListe(ergebnis, n);
+		if (!sortiert) {
+			liste.sortiere();
+		}
+		return liste;
+	}
+
+	/**
+	 * @return der Index des ersten Eintrages mit einem Zeitpunkt >= zeitpunkt
+	 */
+	private int untereGrenze(long zeitpunkt) {
+		int von = 0;
+		int ende = anzahl;
+
+		while (von < ende) {
+			int mitte = (von + ende) >>> 1;
+
+			if (zeitpunkte[mitte] < zeitpunkt) {
+				von = mitte + 1;
+			} else {
+				ende = mitte;
+			}
+		}
+
+		return von;
+	}
+
+	/**
+	 * @return der Index des ersten Eintrages, der nach (Zeitpunkt, Position)
+	 *         nicht kleiner als (zeitpunkt, position) ist
+	 */
+	private int suche(long zeitpunkt, int position) {
+		int von = 0;
+		int ende = anzahl;
+
+		while (von < ende) {
+			int mitte = (von + ende) >>> 1;
+
+			if (zeitpunkte[mitte] < zeitpunkt || zeitpunkte[mitte] == zeitpunkt
+					&& positionen[mitte] < position) {
+				von = mitte + 1;
+			} else {
+				ende = mitte;
+			}
+		}
+
+		return von;
+	}
+
+	/**
+	 * NOTE: Fuehrt die sortierten neuen Eintraege mit den vorhandenen
+	 * zusammen, in O(anzahl + neu).
+	 * 
+	 * Vorbedingung: die ersten neu Eintraege von neueZeitpunkte und
+	 * neuePositionen sind sortiert, alle neuen Positionen sind groesser als
+	 * die eingetragenen.
+	 */
+	private void zusammenfuehren(long[] neueZeitpunkte, int[] neuePositionen,
+			int neu) {
+		int laenge = Math.max(anzahl + neu, zeitpunkte.length);
+		long[] z = new long[laenge];
+		int[] p = new int[laenge];
+		int a = 0;
+		int b = 0;
+
+		for (int i = 0; i < anzahl + neu; i++) {
+			if (b == neu || a < anzahl && zeitpunkte[a] <= neueZeitpunkte[b]) {
+				z[i] = zeitpunkte[a];
+				p[i] = positionen[a++];
+			} else {
+				z[i] = neueZeitpunkte[b];
+				p[i] = neuePositionen[b++];
+			}
+		}
+
+		zeitpunkte = z;
+		positionen = p;
+		anzahl += neu;
+	}
+}
@@ -0,0 +1,589 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.text.DateFormat;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DecimalStyle;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * NOTE: Schreibt Termine, Posten, Mitglieder, Varianten und Zeitraeume
+ * fortlaufend in ein Appendable (z.B. einen Writer). Es wird kein String fuer
+ * den ganzen Bericht und keiner pro Element aufgebaut, auch sehr grosse
+ * Berichte kommen daher mit annaehernd konstantem Speicher aus. Die Ausgabe
+ * eines Elementes entspricht genau seinem toString bzw. toDetailString, die
+ * selbst ueber einen Bericht erstellt werden.
+ * 
+ * NOTE: Die Datumsformate (java.time) sind unveraenderlich und werden fuer
+ * die zuletzt verwendete Locale und Zeitzone zwischengespeichert. Betraege
+ * werden ohne String.format direkt als Ziffern geschrieben, gerundet und
+ * gruppiert wie mit "%,.2f".
+ * 
+ * NOTE: Zeitpunkte vor 1901 oder nach dem Jahr 9000 und Locales mit anderen
+ * Kalendern werden wie bisher mit java.text formatiert, da java.time dort
+ * anders rechnet.
+ * 
+ * NOTE: Ein Writer als Ziel sollte gepuffert sein (z.B. BufferedWriter), da
+ * viele kurze Teile geschrieben werden. Ein Bericht ist nicht threadsicher.
+ * 
+ * Invariante: ziel, formate und ziffern sind ungleich null
+ * 
+ * @author Peter Pilgerstorfer
+ */
+public class Bericht {
+	// NOTE: ab hier rundet Math.round(betrag * 100) nicht mehr genau
+	private static final double MAX_BETRAG = 1e13;
+
+	// NOTE: vor 1901 rechnen java.util.TimeZone und java.time mit
+	// unterschiedlichen historischen Zeitzonen
+	private static final long JAHR_1901 = -2177452800000L;
+	private static final long JAHR_9000 = 221845392000000L;
+
+	private static volatile Formate zuletzt;
+
+	private Appendable ziel;
+	private Formate formate;
+	private char[] ziffern = new char[40];
+	private DateFormat datumAlt;
+	private DateFormat zeitAlt;
+
+	/**
+	 * NOTE: Verwendet die aktuelle Standard-Locale und -Zeitzone
+	 * 
+	 * Vorbedingung: ziel ist ungleich null
+	 */
+	public Bericht(Appendable ziel) {
+		this(ziel, Locale.getDefault(Locale.Category.FORMAT), TimeZone
+				.getDefault().toZoneId());
+	}
+
+	/**
+	 * Vorbedingung: ziel, locale und zone sind ungleich null
+	 */
+	public Bericht(Appendable ziel, Locale locale, ZoneId zone) {
+		Formate formate = zuletzt;
+
+		if (formate == null || !formate.locale.equals(locale)
+				|| !formate.zone.equals(zone)) {
+			formate = new Formate(locale, zone);
+			zuletzt = formate;
+		}
+
+		this.ziel = ziel;
+		this.formate = formate;
+	}
+
+	/**
+	 * NOTE: Liefert den Text, den ein Bericht fuer element schreibt
+	 * (Grundlage der toString-Methoden).
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	static String alsText(Object element, boolean details) {
+		StringBuilder text = new StringBuilder(64);
+
+		try {
+			new Bericht(text).element(element, details);
+		} catch (IOException e) {
+			// NOTE: ein StringBuilder wirft keine IOException
+			throw new AssertionError(e);
+		}
+
+		return text.toString();
+	}
+
+	/**
+	 * NOTE: Schreibt element wie toString. Unbekannte Elemente werden ueber
+	 * ihr toString geschrieben.
+	 */
+	public Bericht element(Object element) throws IOException {
+		return element(element, false);
+	}
+
+	/**
+	 * NOTE: Schreibt element wie toDetailString (bzw. toString, wenn es keine
+	 * Details gibt).
+	 */
+	public Bericht details(Object element) throws IOException {
+		return element(element, true);
+	}
+
+	private Bericht element(Object element, boolean details)
+			throws IOException {
+		if (element instanceof Termin) {
+			Termin termin = (Termin) element;
+			if (details) {
+				termin.schreibeDetails(this);
+			} else {
+				termin.schreibe(this);
+			}
+		} else if (element instanceof Posten) {
+			Posten posten = (Posten) element;
+			if (details) {
+				posten.schreibeDetails(this);
+			} else {
+				posten.schreibe(this);
+			}
+		} else if (element instanceof Mitglied && details) {
+			((Mitglied) element).schreibeDetails(this);
+		} else if (element instanceof Nachricht) {
+			((Nachricht) element).schreibe(this);
+		} else if (element instanceof Variante) {
+			((Variante) element).schreibe(this);
+		} else if (element instanceof Zeitraum) {
+			zeitraum((Zeitraum) element);
+		} else if (element instanceof Selection) {
+			liste((Selection<?>) element);
+		} else {
+			text(String.valueOf(element));
+		}
+		return this;
+	}
+
+	/**
+	 * NOTE: Schreibt die Elemente im Format einer java.util.Collection
+	 * ("[a, b, c]"), jedes wie toString.
+	 * 
+	 * Vorbedingung: elemente ist ungleich null
+	 */
+	public Bericht liste(Iterable<?> elemente) throws IOException {
+		Iterator<?> iter = elemente.iterator();
+
+		zeichen('[');
+
+		if (iter.hasNext()) {
+			element(iter.next(), false);
+		}
+		while (iter.hasNext()) {
+			text(", ");
+			element(iter.next(), false);
+		}
+
+		return zeichen(']');
+	}
+
+	/**
+	 * NOTE: Schreibt jedes Element wie toDetailString in eine eigene Zeile.
+	 * 
+	 * Vorbedingung: elemente ist ungleich null
+	 */
+	public Bericht zeilen(Iterable<?> elemente) throws IOException {
+		for (Object element : elemente) {
+			element(element, true);
+			zeichen('\n');
+		}
+		return this;
+	}
+
+	/**
+	 * NOTE: Schreibt alle Termine mit Kosten und Umsatz und zum Schluss den
+	 * Gewinn.
+	 * 
+	 * Vorbedingung: termine ist ungleich null
+	 */
+	public Bericht termine(Termine termine) throws IOException {
+		zeilen(termine);
+		text("Gewinn: ");
+		betrag(termine.getGewinn(), true);
+		return zeichen('\n');
+	}
+
+	/**
+	 * NOTE: Schreibt alle Posten mit Datum, Einnahmen und Ausgaben und zum
+	 * Schluss den Gewinn.
+	 * 
+	 * Vorbedingung: guv ist ungleich null
+	 */
+	public Bericht guv(GuV guv) throws IOException {
+		zeilen(guv);
+		text("Gewinn: ");
+		betrag(guv.getGewinn(), true);
+		return zeichen('\n');
+	}
+
+	/**
+	 * Vorbedingung: mitglieder ist ungleich null
+	 */
+	public Bericht mitglieder(Mitglieder mitglieder) throws IOException {
+		return zeilen(mitglieder);
+	}
+
+	/**
+	 * Vorbedingung: text ist ungleich null
+	 */
+	public Bericht text(String text) throws IOException {
+		ziel.append(text);
+		return this;
+	}
+
+	public Bericht zeichen(char zeichen) throws IOException {
+		ziel.append(zeichen);
+		return this;
+	}
+
+	/**
+	 * NOTE: Schreibt wert wie "%d" bzw. mit mindestens stellen Ziffern wie
+	 * "%0<stellen>d".
+	 * 
+	 * Vorbedingung: 0 <= stellen <= 20
+	 */
+	public Bericht zahl(long wert, int stellen) throws IOException {
+		int ende = ziffern.length;
+		int position = ende;
+		long rest = wert;
+
+		do {
+			ziffern[--position] = ziffer(Math.abs(rest % 10));
+			rest /= 10;
+		} while (rest != 0);
+
+		while (ende - position < stellen - (wert < 0 ? 1 : 0)) {
+			ziffern[--position] = formate.nullZiffer;
+		}
+		if (wert < 0) {
+			ziffern[--position] = '-';
+		}
+
+		return schreibe(position, ende);
+	}
+
+	/**
+	 * NOTE: Schreibt wert wie "%,.2f" bzw. mit vorzeichen wie "%+,.2f":
+	 * kaufmaennisch gerundet auf zwei Nachkommastellen, mit Tausender-
+	 * und Dezimaltrennzeichen der Locale.
+	 */
+	public Bericht betrag(double wert, boolean vorzeichen) throws IOException {
+		if (Double.isNaN(wert) || Double.isInfinite(wert)
+				|| Math.abs(wert) >= MAX_BETRAG) {
+			return text(String.format(formate.locale, vorzeichen ? "%+,.2f"
+					: "%,.2f", wert));
+		}
+
+		// NOTE: wie bei String.format ist auch -0.0 negativ
+		boolean negativ = Double.compare(wert, 0.0) < 0;
+		long cent = cent(Math.abs(wert));
+		long euro = cent / 100;
+		int ende = ziffern.length;
+		int position = ende;
+		int stellen = 0;
+
+		ziffern[--position] = ziffer(cent % 10);
+		ziffern[--position] = ziffer(cent / 10 % 10);
+		ziffern[--position] = formate.dezimal;
+
+		do {
+			if (stellen > 0 && stellen % formate.gruppe == 0
+					&& formate.trenner != 0) {
+				ziffern[--position] = formate.trenner;
+			}
+			ziffern[--position] = ziffer(euro % 10);
+			euro /= 10;
+			stellen++;
+		} while (euro != 0);
+
+		if (negativ) {
+			ziffern[--position] = '-';
+		} else if (vorzeichen) {
+			ziffern[--position] = '+';
+		}
+
+		return schreibe(position, ende);
+	}
+
+	/**
+	 * NOTE: String.format rundet die kuerzeste Dezimaldarstellung (wie
+	 * Double.toString) kaufmaennisch. Hat betrag hoechstens zwei
+	 * Nachkommastellen, ist das Math.round(betrag * 100), sonst werden die
+	 * Ziffern der Dezimaldarstellung gerundet.
+	 * 
+	 * Vorbedingung: 0 <= betrag < MAX_BETRAG
+	 * 
+	 * @return betrag in Hundertsteln
+	 */
+	private static long cent(double betrag) {
+		long cent = Math.round(betrag * 100);
+
+		if (cent / 100.0 == betrag) {
+			return cent;
+		}
+
+		String text = Double.toString(betrag);
+		int e = text.indexOf('E');
+		int ende = e < 0 ? text.length() : e;
+		// NOTE: Stelle (Zehnerpotenz) der ersten Ziffer
+		int stelle = text.indexOf('.') - 1
+				+ (e < 0 ? 0 : Integer.parseInt(text.substring(e + 1)));
+
+		cent = 0;
+		for (int i = 0; i < ende; i++) {
+			char zeichen = text.charAt(i);
+
+			if (zeichen == '.') {
+				continue;
+			}
+			if (stelle >= -2) {
+				cent = cent * 10 + (zeichen - '0');
+			} else {
+				if (stelle == -3 && zeichen >= '5') {
+					cent++;
+				}
+				break;
+			}
+			stelle--;
+		}
+
+		// NOTE: fehlende Ziffern bis zur zweiten Nachkommastelle
+		for (; stelle >= -2; stelle--) {
+			cent *= 10;
+		}
+
+		return cent;
+	}
+
+	/**
+	 * NOTE: Schreibt das Datum von zeitpunkt im Format
+	 * DateFormat.getDateInstance().
+	 */
+	public Bericht datum(long zeitpunkt) throws IOException {
+		if (formate.datum == null || !imBereich(zeitpunkt)) {
+			if (datumAlt == null) {
+				datumAlt = DateFormat.getDateInstance(DateFormat.DEFAULT,
+						formate.locale);
+				datumAlt.setTimeZone(TimeZone.getTimeZone(formate.zone));
+			}
+			return text(datumAlt.format(new Date(zeitpunkt)));
+		}
+
+		formate.datum.formatTo(Instant.ofEpochMilli(zeitpunkt), ziel);
+		return this;
+	}
+
+	/**
+	 * NOTE: Schreibt zeitpunkt im Format "dd.MM.yyyy hh:mm".
+	 */
+	public Bericht uhrzeit(long zeitpunkt) throws IOException {
+		if (formate.zeit == null || !imBereich(zeitpunkt)) {
+			if (zeitAlt == null) {
+				zeitAlt = new SimpleDateFormat(Formate.ZEIT, formate.locale);
+				zeitAlt.setTimeZone(TimeZone.getTimeZone(formate.zone));
+			}
+			return text(zeitAlt.format(new Date(zeitpunkt)));
+		}
+
+		formate.zeit.formatTo(Instant.ofEpochMilli(zeitpunkt), ziel);
+		return this;
+	}
+
+	/**
+	 * NOTE: Schreibt zeitraum wie toString(), d.h. nur die Daten
+	 * 
+	 * Vorbedingung: zeitraum ist ungleich null
+	 */
+	public Bericht zeitraum(Zeitraum zeitraum) throws IOException {
+		return zeitraum(zeitraum, false);
+	}
+
+	/**
+	 * NOTE: Schreibt zeitraum im Format von Zeitraum.toString(DateFormat), die
+	 * Zeitpunkte mit Uhrzeit oder nur als Datum.
+	 * 
+	 * Vorbedingung: zeitraum ist ungleich null
+	 */
+	public Bericht zeitraum(Zeitraum zeitraum, boolean uhrzeit)
+			throws IOException {
+		if (zeitraum.istLeer()) {
+			return text("[leer]");
+		}
+
+		int anzahl = zeitraum.getAnzahlZeitpunkte();
+
+		zeichen('[');
+
+		for (int i = 0; i < anzahl; i++) {
+			if (i > 0) {
+				text((i & 0x1) == 1 ? " - " : ", ");
+			}
+			if (uhrzeit) {
+				uhrzeit(zeitraum.getZeitpunkt(i));
+			} else {
+				datum(zeitraum.getZeitpunkt(i));
+			}
+		}
+
+		// NOTE: das Endintervall ist offen
+		if ((anzahl & 0x1) == 1) {
+			text(" - ");
+		}
+
+		return zeichen(']');
+	}
+
+	/**
+	 * @return true, wenn java.time zeitpunkt wie java.text formatiert
+	 */
+	private static boolean imBereich(long zeitpunkt) {
+		return zeitpunkt >= JAHR_1901 && zeitpunkt < JAHR_9000;
+	}
+
+	/**
+	 * Vorbedingung: 0 <= wert <= 9
+	 */
+	private char ziffer(long wert) {
+		return (char) (formate.nullZiffer + wert);
+	}
+
+	/**
+	 * NOTE: Schreibt ziffern[von] bis ziffern[bis - 1], ohne einen String zu
+	 * erzeugen.
+	 */
+	private Bericht schreibe(int von, int bis) throws IOException {
+		if (ziel instanceof StringBuilder) {
+			((StringBuilder) ziel).append(ziffern, von, bis - von);
+		} else if (ziel instanceof Writer) {
+			((Writer) ziel).write(ziffern, von, bis - von);
+		} else {
+			for (int i = von; i < bis; i++) {
+				ziel.append(ziffern[i]);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * NOTE: Die Formate einer Locale und Zeitzone. Alle Felder sind
+	 * unveraenderlich, ein Formate-Objekt kann daher von beliebig vielen
+	 * Berichten gleichzeitig verwendet werden.
+	 * 
+	 * NOTE: Zeichen und Gruppierung werden wie von java.util.Formatter
+	 * ermittelt.
+	 * 
+	 * Invariante: locale und zone sind ungleich null. datum und zeit sind
+	 * null, wenn die Locale keinen Gregorianischen Kalender verwendet.
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private static class Formate {
+		static final String ZEIT = "dd.MM.yyyy hh:mm";
+
+		final Locale locale;
+		final ZoneId zone;
+		final DateTimeFormatter datum;
+		final DateTimeFormatter zeit;
+		final char nullZiffer;
+		final char dezimal;
+		final char trenner; // NOTE: 0, wenn nicht gruppiert wird
+		final int gruppe;
+
+		Formate(Locale locale, ZoneId zone) {
+			this.locale = locale;
+			this.zone = zone;
+
+			if ("gregory".equals(Calendar.getInstance(locale)
+					.getCalendarType())) {
+				DecimalStyle stil = DecimalStyle.of(locale);
+
+				DateFormat datum = DateFormat.getDateInstance(
+						DateFormat.DEFAULT, locale);
+				DateFormat zeit = new SimpleDateFormat(ZEIT, locale);
+
+				this.datum = pruefe(format(datum, locale, stil, zone), datum,
+						zone);
+				this.zeit = pruefe(format(zeit, locale, stil, zone), zeit,
+						zone);
+			} else {
+				this.datum = null;
+				this.zeit = null;
+			}
+
+			if (locale.equals(Locale.US)) {
+				this.nullZiffer = '0';
+				this.dezimal = '.';
+				this.trenner = ',';
+				this.gruppe = 3;
+				return;
+			}
+
+			DecimalFormatSymbols symbole = DecimalFormatSymbols
+					.getInstance(locale);
+			NumberFormat zahlen = NumberFormat.getNumberInstance(locale);
+			int gruppe = 3;
+			boolean gruppiert = true;
+
+			if (zahlen instanceof DecimalFormat) {
+				gruppe = ((DecimalFormat) zahlen).getGroupingSize();
+				gruppiert = zahlen.isGroupingUsed() && gruppe > 0;
+			}
+
+			this.nullZiffer = symbole.getZeroDigit();
+			this.dezimal = symbole.getDecimalSeparator();
+			this.trenner = gruppiert ? symbole.getGroupingSeparator() : 0;
+			this.gruppe = gruppiert ? gruppe : 3;
+		}
+
+		/**
+		 * NOTE: Uebernimmt das Muster von format, da die lokalisierten Formate
+		 * von java.time fuer manche Locales anders aussehen.
+		 * 
+		 * @return das Format, oder null wenn das Muster nicht uebernommen
+		 *         werden kann
+		 */
+		private static DateTimeFormatter format(DateFormat format,
+				Locale locale, DecimalStyle stil, ZoneId zone) {
+			if (!(format instanceof SimpleDateFormat)) {
+				return null;
+			}
+
+			try {
+				return DateTimeFormatter
+						.ofPattern(((SimpleDateFormat) format).toPattern(),
+								locale).withDecimalStyle(stil).withZone(zone);
+			} catch (IllegalArgumentException e) {
+				return null;
+			}
+		}
+
+		/**
+		 * NOTE: Auch bei gleichem Muster koennen sich z.B. die Monatsnamen von
+		 * java.text und java.time unterscheiden. Daher wird je ein Zeitpunkt
+		 * in jedem Monat (vor- und nachmittags, an verschiedenen Wochentagen)
+		 * mit beiden Formaten verglichen.
+		 * 
+		 * @return neu, wenn es fuer alle Zeitpunkte gleich wie alt formatiert,
+		 *         sonst null
+		 */
+		private static DateTimeFormatter pruefe(DateTimeFormatter neu,
+				DateFormat alt, ZoneId zone) {
+			if (neu == null) {
+				return null;
+			}
+
+			Calendar kalender = new GregorianCalendar(
+					TimeZone.getTimeZone(zone));
+
+			alt.setTimeZone(kalender.getTimeZone());
+			kalender.clear();
+
+			for (int monat = 0; monat < 12; monat++) {
+				kalender.set(2001, monat, 3 + 2 * monat, 5 + 3 * monat, 7);
+				Date zeitpunkt = kalender.getTime();
+
+				if (!alt.format(zeitpunkt).equals(
+						neu.format(zeitpunkt.toInstant()))) {
+					return null;
+				}
+			}
+
+			return neu;
+		}
+	}
+}
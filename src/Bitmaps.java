@@ -0,0 +1,256 @@
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * NOTE: Verwaltet die Bitmaps einer Selection. Die Bitmap eines Selektors
+ * enthaelt genau die Positionen jener Slots, deren Elemente vom Selektor
+ * selektiert werden. Eine Konjunktion mehrerer Selektoren ist damit ein
+ * wortweises UND der Bitmaps, die Anzahl der selektierten Elemente die Anzahl
+ * der gesetzten Bits.
+ * 
+ * NOTE: Alle Sichten auf die selben Daten teilen sich ein Bitmaps-Objekt.
+ * Bitmaps werden pro Selektor-Objekt zwischengespeichert, damit ein
+ * wiederverwendeter Selektor nur einmal ausgewertet wird. Sie sind bei der
+ * Slotliste angemeldet und werden schrittweise nachgefuehrt: ein geloeschter
+ * Slot wird geloescht, fuer ein geaendertes Element wird nur sein Bit neu
+ * berechnet, neue Slots werden beim naechsten Zugriff geprueft. Nur eine
+ * Kompaktierung verwirft alle Bitmaps.
+ * 
+ * NOTE: Die Bitmaps werden nicht komprimiert. Ihr geschaetzter Speicher ist
+ * durch MAX_BYTES beschraenkt, die am laengsten nicht verwendeten werden
+ * zuerst verworfen.
+ * 
+ * Invariante: list und bitmaps sind ungleich null. Jede Bitmap in bitmaps
+ * enthaelt genau die Positionen der nicht geloeschten Slots unter bis, deren
+ * Elemente von ihrem Selektor selektiert werden. bytes ist die Summe der
+ * geschaetzten Groessen aller Bitmaps.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+class Bitmaps<T> implements Slotbeobachter<T> {
+	private static final long MAX_BYTES = 4L << 20;
+
+	private Slotliste<T> list;
+	private Indizes<T> indizes;
+	private LinkedHashMap<Selector<T>, Bitmap> bitmaps;
+	private long bytes;
+
+	/**
+	 * NOTE: Meldet die Bitmaps bei list an.
+	 * 
+	 * Vorbedingung: list und indizes sind ungleich null. indizes verwaltet die
+	 * Indizes von list.
+	 */
+	public Bitmaps(Slotliste<T> list, Indizes<T> indizes) {
+		this.list = list;
+		this.indizes = indizes;
+		this.bitmaps = new LinkedHashMap<Selector<T>, Bitmap>(16, 0.75f, true);
+		this.bytes = 0;
+		list.anmelden(this);
+	}
+
+	/**
+	 * NOTE: Bildet das UND der Bitmaps aller Selektoren. Die Bitmap mit den
+	 * wenigsten gesetzten Bits wird zuerst kopiert, dadurch bleibt das
+	 * Zwischenergebnis klein.
+	 * 
+	 * Vorbedingung: selectors ist ungleich null und enthaelt keine Elemente
+	 * gleich null.
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist eine neue Bitmap, in der genau die
+	 * Positionen der nicht geloeschten Slots gesetzt sind, deren Elemente von
+	 * allen Selektoren selektiert werden.
+	 */
+	public BitSet konjunktion(Iterable<Selector<T>> selectors) {
+		Bitmap kleinste = null;
+
+		for (Selector<T> selector : selectors) {
+			Bitmap bitmap = getBitmap(selector);
+
+			if (kleinste == null || bitmap.anzahl < kleinste.anzahl) {
+				kleinste = bitmap;
+			}
+		}
+
+		if (kleinste == null) {
+			return list.getBelegt();
+		}
+
+		BitSet ergebnis = (BitSet) kleinste.bits.clone();
+
+		for (Selector<T> selector : selectors) {
+			if (ergebnis.isEmpty()) {
+				break;
+			}
+
+			Bitmap bitmap = getBitmap(selector);
+			if (bitmap != kleinste) {
+				ergebnis.and(bitmap.bits);
+			}
+		}
+
+		return ergebnis;
+	}
+
+	/**
+	 * Vorbedingung: selector ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und darf nicht
+	 * veraendert werden.
+	 */
+	public BitSet get(Selector<T> selector) {
+		return getBitmap(selector).bits;
+	}
+
+	/**
+	 * NOTE: Traegt die seit dem letzten Zugriff angefuegten Slots nach.
+	 * 
+	 * Vorbedingung: selector ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und enthaelt alle
+	 * Slots von list.
+	 */
+	private Bitmap getBitmap(Selector<T> selector) {
+		Bitmap bitmap = bitmaps.get(selector);
+
+		if (bitmap == null) {
+			bitmap = erstelle(selector);
+			bitmaps.put(selector, bitmap);
+			bytes += bitmap.bytes;
+		} else if (bitmap.bis < list.getSlots()) {
+			bytes -= bitmap.bytes;
+			pruefe(selector, bitmap, bitmap.bis);
+			bytes += bitmap.bytes;
+		}
+
+		// NOTE: die am laengsten nicht verwendeten Bitmaps verwerfen, die
+		// gerade verwendete bleibt erhalten
+		Iterator<Bitmap> iter = bitmaps.values().iterator();
+		while (bytes > MAX_BYTES && bitmaps.size() > 1) {
+			bytes -= iter.next().bytes;
+			iter.remove();
+		}
+
+		return bitmap;
+	}
+
+	/**
+	 * NOTE: Koennen die Kandidaten des Selektors ueber einen Index ermittelt
+	 * werden, werden nur diese geprueft, sonst alle Slots.
+	 * 
+	 * Vorbedingung: selector ist ungleich null
+	 */
+	private Bitmap erstelle(Selector<T> selector) {
+		IntListe kandidaten = indizes.kandidaten(selector);
+		Bitmap bitmap = new Bitmap(list.getSlots());
+
+		if (kandidaten == null) {
+			pruefe(selector, bitmap, 0);
+			return bitmap;
+		}
+
+		int[] positionen = kandidaten.getWerte();
+
+		for (int i = 0; i < kandidaten.size(); i++) {
+			int position = positionen[i];
+
+			if (!list.istGeloescht(position)
+					&& selector.select(list.get(position))) {
+				bitmap.bits.set(position);
+				bitmap.anzahl++;
+			}
+		}
+		bitmap.bis = list.getSlots();
+		bitmap.bytes = bitmap.bits.size() / 8;
+
+		return bitmap;
+	}
+
+	/**
+	 * Vorbedingung: selector und bitmap sind ungleich null, 0 <= von
+	 * 
+	 * Nachbedingung: die nicht geloeschten Slots ab von sind in bitmap
+	 * eingetragen.
+	 */
+	private void pruefe(Selector<T> selector, Bitmap bitmap, int von) {
+		int slots = list.getSlots();
+
+		for (int i = list.naechste(von); i < slots; i = list.naechste(i + 1)) {
+			if (selector.select(list.get(i))) {
+				bitmap.bits.set(i);
+				bitmap.anzahl++;
+			}
+		}
+
+		bitmap.bis = slots;
+		bitmap.bytes = bitmap.bits.size() / 8;
+	}
+
+	@Override
+	public void eingefuegt(int von, int bis) {
+		// NOTE: neue Slots werden beim naechsten Zugriff geprueft
+	}
+
+	@Override
+	public void geloescht(int position) {
+		for (Bitmap bitmap : bitmaps.values()) {
+			if (bitmap.bits.get(position)) {
+				bitmap.bits.clear(position);
+				bitmap.anzahl--;
+			}
+		}
+	}
+
+	@Override
+	public void vorKompaktierung() {
+		bitmaps.clear();
+		bytes = 0;
+	}
+
+	@Override
+	public void elementGeaendert(T element, IntListe positionen) {
+		if (positionen.size() == 0) {
+			return;
+		}
+
+		for (Map.Entry<Selector<T>, Bitmap> eintrag : bitmaps.entrySet()) {
+			Bitmap bitmap = eintrag.getValue();
+			boolean selektiert = eintrag.getKey().select(element);
+
+			for (int i = 0; i < positionen.size(); i++) {
+				int position = positionen.get(i);
+
+				if (position < bitmap.bis
+						&& bitmap.bits.get(position) != selektiert) {
+					bitmap.bits.set(position, selektiert);
+					bitmap.anzahl += selektiert ? 1 : -1;
+				}
+			}
+		}
+	}
+
+	/**
+	 * NOTE: Die Bitmap eines Selektors mit der Anzahl ihrer gesetzten Bits,
+	 * damit konjunktion sie nicht jedes Mal zaehlen muss.
+	 * 
+	 * Invariante: bits ist ungleich null, anzahl ist die Anzahl der gesetzten
+	 * Bits.
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private static class Bitmap {
+		private BitSet bits;
+		private int anzahl;
+		private int bis; // die Anzahl der eingetragenen Slots
+		private long bytes; // der geschaetzte Speicherbedarf
+
+		/**
+		 * Vorbedingung: slots >= 0
+		 */
+		public Bitmap(int slots) {
+			this.bits = new BitSet(slots);
+		}
+	}
+}
@@ -0,0 +1,574 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NOTE: Protokolliert, wann Termine in eine Slotliste aufgenommen und wann
+ * sie daraus entfernt wurden, und laesst die aufgenommenen Termine ihre
+ * Versionen fuehren. Damit kann der Bestand zu einem beliebigen frueheren
+ * Zeitpunkt bestimmt werden. Die Ereignisse werden in der Reihenfolge ihres
+ * Eintretens in Arrays angehaengt, die Zeitpunkte sind daher aufsteigend
+ * sortiert und das letzte Ereignis vor einem Zeitpunkt wird mit binaerer
+ * Suche gefunden.
+ * 
+ * NOTE: Die Chronik protokolliert nur, solange sie aktiv ist (siehe
+ * Termine.aktiviereChronik), und wird auch nur dann mitgespeichert. Termine,
+ * die beim Aktivieren bereits enthalten sind, gelten als seit jeher
+ * aufgenommen.
+ * 
+ * NOTE: Damit nicht alle Ereignisse abgespielt werden muessen, haelt die
+ * Chronik Zwischenstaende fest. Der Abstand zweier Zwischenstaende ist
+ * mindestens so gross wie der letzte Zwischenstand (und MIN_ABSTAND), sie
+ * belegen daher nicht mehr Speicher als die Ereignisse, und getBestand spielt
+ * vom letzten Zwischenstand aus hoechstens so viele Ereignisse ab wie der
+ * Bestand gross ist.
+ * 
+ * NOTE: Sind mehr als grenze Ereignisse gespeichert, wird die aeltere Haelfte
+ * zur Basis zusammengefasst: der Bestand zu diesem Zeitpunkt gilt dann als
+ * seit jeher aufgenommen, aeltere Versionen der Termine werden verworfen.
+ * 
+ * NOTE: Auch das Aufnehmen und Entfernen der Terminserien wird
+ * protokolliert (die Ausnahmen fuehrt jede Serie selbst, siehe
+ * Terminserie.getStand). Es gibt nur wenige Serien, ihre Ereignisse werden
+ * ohne Zwischenstaende abgespielt und nur beim Zusammenfassen gekuerzt.
+ * 
+ * Invariante: list und serien sind ungleich null. Ist die Chronik aktiv
+ * (grenze > 0), sind basis, elemente, zeitpunkte, entfernt, punkte,
+ * zwischenstaende, serienBasis und serienEreignisse ungleich null, sonst
+ * sind sie null. elemente und zeitpunkte sind gleich
+ * lang, die ersten anzahl Eintraege sind die Ereignisse. zeitpunkte ist
+ * aufsteigend sortiert. In entfernt ist das Bit eines Ereignisses gesetzt,
+ * wenn der Termin entfernt wurde. Die ersten anzahlPunkte Eintraege von
+ * zwischenstaende enthalten den Bestand nach den ersten punkte[i]
+ * Ereignissen, punkte ist aufsteigend sortiert.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+class Chronik implements Slotbeobachter<Termin>, Serializable {
+	private static final long serialVersionUID = 1L;
+
+	// NOTE: der kleinste Abstand zweier Zwischenstaende (in Ereignissen)
+	private static final int MIN_ABSTAND = 32;
+
+	private Slotliste<Termin> list;
+	private List<Terminserie> serien;
+	private int grenze;
+	private transient Termin[] basis;
+	private transient Termin[] elemente;
+	private transient long[] zeitpunkte;
+	private transient BitSet entfernt;
+	private transient int anzahl;
+	private transient int[] punkte;
+	private transient Termin[][] zwischenstaende;
+	private transient int anzahlPunkte;
+
+	// NOTE: die Serien der Basis und die Ereignisse der Serien, aufsteigend
+	// nach Zeitpunkt
+	private transient List<Terminserie> serienBasis;
+	private transient List<Ereignis> serienEreignisse;
+
+	/**
+	 * Vorbedingung: list und serien sind ungleich null. serien sind die
+	 * Terminserien zu list.
+	 * 
+	 * Nachbedingung: die Chronik ist nicht aktiv
+	 */
+	public Chronik(Slotliste<Termin> list, List<Terminserie> serien) {
+		this.list = list;
+		this.serien = serien;
+		this.grenze = 0;
+	}
+
+	/**
+	 * @return true, wenn die Chronik protokolliert
+	 */
+	public boolean istAktiv() {
+		return grenze > 0;
+	}
+
+	/**
+	 * NOTE: Ist die Chronik bereits aktiv, wird nur die Grenze geaendert.
+	 * 
+	 * Vorbedingung: grenze >= 2
+	 * 
+	 * Nachbedingung: die Chronik ist aktiv und haelt hoechstens grenze
+	 * Ereignisse. Die Termine von list und die Serien sind (falls die Chronik
+	 * nicht bereits aktiv war) seit jeher aufgenommen, die Termine fuehren
+	 * ihre Versionen.
+	 */
+	public void aktiviere(int grenze) {
+		if (istAktiv()) {
+			this.grenze = grenze;
+			if (anzahl > grenze) {
+				kompaktiere();
+			}
+			return;
+		}
+
+		List<Termin> bestand = new ArrayList<Termin>();
+
+		for (Termin termin : list) {
+			termin.beginneVersionen();
+			bestand.add(termin);
+		}
+
+		this.grenze = grenze;
+		leere(bestand.toArray(new Termin[bestand.size()]));
+		serienBasis.addAll(serien);
+		list.anmelden(this);
+	}
+
+	/**
+	 * Nachbedingung: die Chronik ist nicht aktiv, die protokollierten Termine
+	 * fuehren keine Versionen mehr.
+	 */
+	public void beende() {
+		if (!istAktiv()) {
+			return;
+		}
+
+		list.abmelden(this);
+		for (Termin termin : basis) {
+			termin.beendeVersionen();
+		}
+		for (int i = 0; i < anzahl; i++) {
+			elemente[i].beendeVersionen();
+		}
+
+		grenze = 0;
+		basis = null;
+		elemente = null;
+		zeitpunkte = null;
+		entfernt = null;
+		anzahl = 0;
+		punkte = null;
+		zwischenstaende = null;
+		anzahlPunkte = 0;
+		serienBasis = null;
+		serienEreignisse = null;
+	}
+
+	/**
+	 * NOTE: Wird von Termine nach dem Aufnehmen (bzw. Entfernen) einer Serie
+	 * aufgerufen, ohne aktive Chronik passiert nichts.
+	 * 
+	 * Vorbedingung: serie ist ungleich null
+	 */
+	public void serieGeaendert(Terminserie serie, boolean weg) {
+		if (istAktiv()) {
+			serienEreignisse.add(new Ereignis(serie, jetzt(), weg));
+		}
+	}
+
+	/**
+	 * NOTE: Die Serien werden (wie die Termine) in der Reihenfolge ihrer
+	 * letzten Aufnahme geliefert, so wie sie in der Liste der Serien stehen.
+	 * 
+	 * Vorbedingung: die Chronik ist aktiv
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und enthaelt die
+	 * Serien, die zu zeitpunkt enthalten waren (mit ihren heutigen
+	 * Ausnahmen).
+	 */
+	public List<Terminserie> getSerien(long zeitpunkt) {
+		List<Terminserie> bestand = new ArrayList<Terminserie>(serienBasis);
+
+		for (Ereignis ereignis : serienEreignisse) {
+			if (ereignis.zeitpunkt > zeitpunkt) {
+				break;
+			}
+			ereignis.abspielen(bestand);
+		}
+
+		return bestand;
+	}
+
+	/**
+	 * NOTE: Spielt die Ereignisse ab dem letzten Zwischenstand vor zeitpunkt
+	 * ab. Ein Termin steht (wie in der Slotliste) an der Stelle seiner
+	 * letzten Aufnahme. Wurde ein Termin mehrfach aufgenommen, ist er auch
+	 * mehrfach enthalten. Vor dem aeltesten Ereignis ist das die Basis.
+	 * 
+	 * Vorbedingung: die Chronik ist aktiv
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und enthaelt die
+	 * Termine, die zu zeitpunkt in list enthalten waren.
+	 */
+	public List<Termin> getBestand(long zeitpunkt) {
+		return Arrays.asList(abspielen(ende(zeitpunkt)));
+	}
+
+	/**
+	 * @return die Anzahl der Ereignisse bis (inklusive) zeitpunkt
+	 */
+	private int ende(long zeitpunkt) {
+		int von = 0;
+		int bis = anzahl;
+
+		while (von < bis) {
+			int mitte = (von + bis) >>> 1;
+
+			if (zeitpunkte[mitte] <= zeitpunkt) {
+				von = mitte + 1;
+			} else {
+				bis = mitte;
+			}
+		}
+
+		return von;
+	}
+
+	/**
+	 * Vorbedingung: 0 <= ende <= anzahl
+	 * 
+	 * @return der Bestand nach den ersten ende Ereignissen
+	 */
+	private Termin[] abspielen(int ende) {
+		int von = 0;
+		int bis = anzahlPunkte;
+
+		// NOTE: der erste Zwischenstand nach ende
+		while (von < bis) {
+			int mitte = (von + bis) >>> 1;
+
+			if (punkte[mitte] <= ende) {
+				von = mitte + 1;
+			} else {
+				bis = mitte;
+			}
+		}
+
+		if (von == 0) {
+			return abspielen(basis, 0, ende);
+		}
+		return abspielen(zwischenstaende[von - 1], punkte[von - 1], ende);
+	}
+
+	/**
+	 * NOTE: Die Termine des Standes erhalten negative Schluessel in ihrer
+	 * Reihenfolge, die Ereignisse ihren Index. Sortiert wird nach dem
+	 * Schluessel der letzten Aufnahme.
+	 * 
+	 * Vorbedingung: stand ist ungleich null und der Bestand nach den ersten
+	 * von Ereignissen, von <= ende <= anzahl
+	 * 
+	 * @return der Bestand nach den ersten ende Ereignissen
+	 */
+	private Termin[] abspielen(Termin[] stand, int von, int ende) {
+		// NOTE: pro Termin die Anzahl und die letzte Aufnahme
+		Map<Termin, long[]> bestand = new IdentityHashMap<Termin, long[]>();
+
+		for (int i = 0; i < stand.length; i++) {
+			zaehle(bestand, stand[i], i - stand.length, false);
+		}
+		for (int i = von; i < ende; i++) {
+			zaehle(bestand, elemente[i], i, entfernt.get(i));
+		}
+
+		Termin[] termine = new Termin[bestand.size()];
+		long[] schluessel = new long[termine.length];
+		int[] reihenfolge = new int[termine.length];
+		int n = 0;
+		int groesse = 0;
+
+		for (Map.Entry<Termin, long[]> eintrag : bestand.entrySet()) {
+			long[] vorkommen = eintrag.getValue();
+
+			if (vorkommen[0] > 0) {
+				termine[n] = eintrag.getKey();
+				schluessel[n] = vorkommen[1];
+				reihenfolge[n] = n;
+				groesse += (int) vorkommen[0];
+				n++;
+			}
+		}
+		Sortierung.sortiere(schluessel, reihenfolge, n);
+
+		Termin[] ergebnis = new Termin[groesse];
+		int k = 0;
+
+		for (int i = 0; i < n; i++) {
+			Termin termin = termine[reihenfolge[i]];
+
+			for (long j = bestand.get(termin)[0]; j > 0; j--) {
+				ergebnis[k++] = termin;
+			}
+		}
+
+		return ergebnis;
+	}
+
+	private static void zaehle(Map<Termin, long[]> bestand, Termin termin,
+			long schluessel, boolean weg) {
+		long[] vorkommen = bestand.get(termin);
+
+		if (vorkommen == null) {
+			vorkommen = new long[2];
+			bestand.put(termin, vorkommen);
+		}
+		if (weg) {
+			vorkommen[0]--;
+		} else {
+			vorkommen[0]++;
+			vorkommen[1] = schluessel;
+		}
+	}
+
+	@Override
+	public void eingefuegt(int von, int bis) {
+		long jetzt = jetzt();
+
+		for (int i = von; i < bis; i++) {
+			Termin termin = list.get(i);
+
+			termin.beginneVersionen();
+			protokolliere(termin, jetzt, false);
+		}
+	}
+
+	@Override
+	public void geloescht(int position) {
+		protokolliere(list.get(position), jetzt(), true);
+	}
+
+	@Override
+	public void vorKompaktierung() {
+	}
+
+	@Override
+	public void elementGeaendert(Termin element, IntListe positionen) {
+	}
+
+	/**
+	 * NOTE: Geht die Uhr zurueck, wird der letzte Zeitpunkt verwendet, damit
+	 * die Zeitpunkte sortiert bleiben.
+	 */
+	private long jetzt() {
+		long jetzt = System.currentTimeMillis();
+
+		if (anzahl > 0) {
+			jetzt = Math.max(jetzt, zeitpunkte[anzahl - 1]);
+		}
+		if (!serienEreignisse.isEmpty()) {
+			jetzt = Math.max(jetzt,
+					serienEreignisse.get(serienEreignisse.size() - 1).zeitpunkt);
+		}
+		return jetzt;
+	}
+
+	/**
+	 * Vorbedingung: basis ist ungleich null
+	 * 
+	 * Nachbedingung: basis ist die Basis, es gibt keine Ereignisse und keine
+	 * Zwischenstaende.
+	 */
+	private void leere(Termin[] basis) {
+		this.basis = basis;
+		this.elemente = new Termin[10];
+		this.zeitpunkte = new long[elemente.length];
+		this.entfernt = new BitSet();
+		this.anzahl = 0;
+		this.punkte = new int[4];
+		this.zwischenstaende = new Termin[punkte.length][];
+		this.anzahlPunkte = 0;
+		this.serienBasis = new ArrayList<Terminserie>();
+		this.serienEreignisse = new ArrayList<Ereignis>();
+	}
+
+	/**
+	 * NOTE: Haelt bei Bedarf einen Zwischenstand fest und fasst die aeltere
+	 * Haelfte der Ereignisse zusammen, wenn mehr als grenze gespeichert sind.
+	 * 
+	 * Vorbedingung: termin ist ungleich null, zeitpunkt ist nicht vor dem
+	 * letzten Ereignis.
+	 */
+	private void protokolliere(Termin termin, long zeitpunkt, boolean weg) {
+		if (anzahl == elemente.length) {
+			int laenge = anzahl + (anzahl >> 1) + 1;
+			elemente = Arrays.copyOf(elemente, laenge);
+			zeitpunkte = Arrays.copyOf(zeitpunkte, laenge);
+		}
+
+		elemente[anzahl] = termin;
+		zeitpunkte[anzahl] = zeitpunkt;
+		entfernt.set(anzahl, weg);
+		anzahl++;
+
+		int letzter = anzahlPunkte == 0 ? 0 : punkte[anzahlPunkte - 1];
+		int groesse = anzahlPunkte == 0 ? basis.length
+				: zwischenstaende[anzahlPunkte - 1].length;
+
+		if (anzahl - letzter >= Math.max(MIN_ABSTAND, groesse)) {
+			if (anzahlPunkte == punkte.length) {
+				punkte = Arrays.copyOf(punkte, anzahlPunkte * 2);
+				zwischenstaende = Arrays.copyOf(zwischenstaende,
+						anzahlPunkte * 2);
+			}
+			zwischenstaende[anzahlPunkte] = abspielen(anzahl);
+			punkte[anzahlPunkte] = anzahl;
+			anzahlPunkte++;
+		}
+
+		if (anzahl > grenze) {
+			kompaktiere();
+		}
+	}
+
+	/**
+	 * NOTE: Fasst die Ereignisse bis auf die juengsten grenze / 2 zur Basis
+	 * zusammen. Termine, die danach nicht mehr vorkommen, fuehren keine
+	 * Versionen mehr, die uebrigen nur noch ab dem letzten zusammengefassten
+	 * Ereignis. Die Ereignisse der Serien bis zu diesem Zeitpunkt werden
+	 * ebenfalls zusammengefasst.
+	 * 
+	 * Vorbedingung: anzahl > grenze / 2
+	 */
+	private void kompaktiere() {
+		int schnitt = anzahl - grenze / 2;
+		long zeitpunkt = zeitpunkte[schnitt - 1];
+		Termin[] neueBasis = abspielen(schnitt);
+		Map<Termin, Boolean> bleiben = new IdentityHashMap<Termin, Boolean>();
+
+		for (Termin termin : neueBasis) {
+			bleiben.put(termin, Boolean.TRUE);
+		}
+		for (int i = schnitt; i < anzahl; i++) {
+			bleiben.put(elemente[i], Boolean.TRUE);
+		}
+		for (Termin termin : basis) {
+			if (!bleiben.containsKey(termin)) {
+				termin.beendeVersionen();
+			}
+		}
+		for (int i = 0; i < schnitt; i++) {
+			if (!bleiben.containsKey(elemente[i])) {
+				elemente[i].beendeVersionen();
+			}
+		}
+		for (Termin termin : bleiben.keySet()) {
+			termin.kuerzeVersionen(zeitpunkt);
+		}
+
+		anzahl -= schnitt;
+		System.arraycopy(elemente, schnitt, elemente, 0, anzahl);
+		System.arraycopy(zeitpunkte, schnitt, zeitpunkte, 0, anzahl);
+		Arrays.fill(elemente, anzahl, anzahl + schnitt, null);
+		entfernt = entfernt.get(schnitt, schnitt + anzahl);
+		basis = neueBasis;
+
+		int k = 0;
+		for (int i = 0; i < anzahlPunkte; i++) {
+			if (punkte[i] > schnitt) {
+				punkte[k] = punkte[i] - schnitt;
+				zwischenstaende[k] = zwischenstaende[i];
+				k++;
+			}
+		}
+		Arrays.fill(zwischenstaende, k, anzahlPunkte, null);
+		anzahlPunkte = k;
+
+		while (!serienEreignisse.isEmpty()
+				&& serienEreignisse.get(0).zeitpunkt <= zeitpunkt) {
+			serienEreignisse.remove(0).abspielen(serienBasis);
+		}
+	}
+
+	/**
+	 * NOTE: Die Zwischenstaende werden nicht gespeichert, sondern beim Laden
+	 * neu festgehalten.
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(basis.length);
+
+		for (Termin termin : basis) {
+			out.writeObject(termin);
+		}
+
+		out.writeInt(anzahl);
+
+		for (int i = 0; i < anzahl; i++) {
+			out.writeObject(elemente[i]);
+			out.writeLong(zeitpunkte[i]);
+			out.writeBoolean(entfernt.get(i));
+		}
+
+		out.writeObject(serienBasis);
+		out.writeObject(serienEreignisse);
+	}
+
+	/**
+	 * @param in
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException,
+			ClassNotFoundException {
+		in.defaultReadObject();
+		leere(new Termin[in.readInt()]);
+
+		for (int i = 0; i < basis.length; i++) {
+			basis[i] = (Termin) in.readObject();
+		}
+
+		int gespeichert = in.readInt();
+
+		for (int i = 0; i < gespeichert; i++) {
+			Termin termin = (Termin) in.readObject();
+			long zeitpunkt = in.readLong();
+
+			protokolliere(termin, zeitpunkt, in.readBoolean());
+		}
+
+		serienBasis.addAll((List<Terminserie>) in.readObject());
+		serienEreignisse.addAll((List<Ereignis>) in.readObject());
+		list.anmelden(this);
+	}
+
+	/**
+	 * NOTE: Das Aufnehmen bzw. Entfernen einer Terminserie
+	 * 
+	 * Invariante: serie ist ungleich null
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private static class Ereignis implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private final Terminserie serie;
+		private final long zeitpunkt;
+		private final boolean weg;
+
+		/**
+		 * Vorbedingung: serie ist ungleich null
+		 */
+		public Ereignis(Terminserie serie, long zeitpunkt, boolean weg) {
+			this.serie = serie;
+			this.zeitpunkt = zeitpunkt;
+			this.weg = weg;
+		}
+
+		/**
+		 * NOTE: Eine wieder aufgenommene Serie steht (wie in Termine) am Ende.
+		 * 
+		 * Vorbedingung: bestand ist ungleich null
+		 */
+		public void abspielen(List<Terminserie> bestand) {
+			bestand.remove(serie);
+			if (!weg) {
+				bestand.add(serie);
+			}
+		}
+	}
+}
@@ -0,0 +1,106 @@
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * NOTE: Merkt sich die Ergebnisse (Positionen der selektierten Elemente) von
+ * Selektionen. Alle Sichten auf die selben Daten teilen sich ein
+ * Ergebnisse-Objekt. Selektionen mit gleichwertigen Selektoren (unabhaengig
+ * von der Reihenfolge) verwenden das selbe Ergebnis, bis sich die Slotliste
+ * (oder eines ihrer Elemente) veraendert.
+ * 
+ * NOTE: Der belegte Speicher wird geschaetzt und ist durch MAX_BYTES
+ * beschraenkt. Wird die Grenze ueberschritten, werden die am laengsten nicht
+ * verwendeten Ergebnisse verworfen.
+ * 
+ * Invariante: list und ergebnisse sind ungleich null. Alle Ergebnisse in
+ * ergebnisse gehoeren zur Version version der list. bytes ist die Summe der
+ * geschaetzten Groessen aller Ergebnisse und <= MAX_BYTES.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+class Ergebnisse<T> {
+	private static final long MAX_BYTES = 4L << 20;
+
+	// NOTE: geschaetzter Speicherbedarf eines Eintrages ohne Positionen
+	private static final long EINTRAG_BYTES = 96;
+
+	private Slotliste<T> list;
+	private LinkedHashMap<Set<Selector<T>>, int[]> ergebnisse;
+	private long version;
+	private long bytes;
+
+	/**
+	 * Vorbedingung: list ist ungleich null
+	 */
+	public Ergebnisse(Slotliste<T> list) {
+		this.list = list;
+		this.ergebnisse = new LinkedHashMap<Set<Selector<T>>, int[]>(16,
+				0.75f, true);
+		this.version = list.getVersion();
+		this.bytes = 0;
+	}
+
+	/**
+	 * Vorbedingung: selectors ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert sind aufsteigend die Positionen der von
+	 * selectors selektierten Elemente, oder null wenn kein aktuelles Ergebnis
+	 * bekannt ist. Das Array darf nicht veraendert werden.
+	 */
+	public int[] get(List<Selector<T>> selectors) {
+		pruefeVersion();
+		return ergebnisse.get(new HashSet<Selector<T>>(selectors));
+	}
+
+	/**
+	 * Vorbedingung: selectors und positionen sind ungleich null. positionen
+	 * enthaelt aufsteigend die Positionen der von selectors selektierten
+	 * Elemente in der aktuellen Version von list und wird nicht mehr
+	 * veraendert.
+	 */
+	public void put(List<Selector<T>> selectors, int[] positionen) {
+		long groesse = groesse(positionen);
+
+		pruefeVersion();
+
+		if (groesse > MAX_BYTES) {
+			return;
+		}
+
+		int[] alt = ergebnisse.put(new HashSet<Selector<T>>(selectors),
+				positionen);
+		if (alt != null) {
+			bytes -= groesse(alt);
+		}
+		bytes += groesse;
+
+		// NOTE: die am laengsten nicht verwendeten Ergebnisse verwerfen
+		Iterator<int[]> iter = ergebnisse.values().iterator();
+		while (bytes > MAX_BYTES) {
+			bytes -= groesse(iter.next());
+			iter.remove();
+		}
+	}
+
+	/**
+	 * Nachbedingung: ergebnisse enthaelt nur Ergebnisse zur aktuellen Version
+	 * von list.
+	 */
+	private void pruefeVersion() {
+		if (version != list.getVersion()) {
+			ergebnisse.clear();
+			bytes = 0;
+			version = list.getVersion();
+		}
+	}
+
+	/**
+	 * @return der geschaetzte Speicherbedarf eines Eintrages in Bytes
+	 */
+	private static long groesse(int[] positionen) {
+		return EINTRAG_BYTES + 4L * positionen.length;
+	}
+}
@@ -1,4 +1,8 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Invariante: band ist ungleich null
@@ -11,6 +15,9 @@ public class GuV extends Selection<Posten> {
 
 	private Band band;
 
+	// NOTE: wird von allen Sichten gemeinsam verwendet
+	private transient PostenSpalten spalten;
+
 	/**
 	 * NOTE: Erstellt ein neues Objekt GuV fuer die Klasse Band.
 	 * 
@@ -45,6 +52,20 @@ public class GuV extends Selection<Posten> {
 	private GuV(Band band, GuV base, List<Selector<Posten>> selectors) {
 		super(base, selectors);
 		this.band = band;
+		this.spalten = base.getSpalten();
+	}
+
+	/**
+	 * NOTE: Die Spalten werden beim ersten Summieren erstellt (auch nach dem
+	 * Laden).
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	private PostenSpalten getSpalten() {
+		if (spalten == null) {
+			spalten = new PostenSpalten(getList());
+		}
+		return spalten;
 	}
 
 	/**
@@ -68,6 +89,21 @@ public class GuV extends Selection<Posten> {
 		return new GuV(band, this, selectors);
 	}
 
+	/**
+	 * NOTE: Oeffnet eine mit speichereSicht gespeicherte Sicht. Das Ergebnis
+	 * der Sicht ist bereits bekannt und wird nicht neu berechnet.
+	 * 
+	 * @return die Sicht, oder null wenn es keine Sicht mit diesem Namen gibt.
+	 */
+	public GuV getSicht(String name) {
+		List<Selector<Posten>> selectors = getSichtSelektoren(name);
+
+		if (selectors == null) {
+			return null;
+		}
+		return select(selectors);
+	}
+
 	/**
 	 * NOTE: Berechnet die Summe der Einnahmen aller selektierter Posten. Daber
 	 * werden auch Posten der Termine beruecksichtigt.
@@ -77,31 +113,7 @@ public class GuV extends Selection<Posten> {
 	 * @return Summe der Einnahmen der selektierten Posten
 	 */
 	public double getEinnahmen() {
-		double einnahmen = 0;
-
-		/*
-		 * NOTE: Durchiterieren der gespeicherten Posten. Falls keine Posten
-		 * vorhanden sind, wird dieser Block uebersprungen.
-		 */
-		for (Posten posten : this) {
-			einnahmen += posten.getEinnahmen();
-		}
-
-		// Zusicherung: einnahmen enthaelt die Summe der Einnahmen aller
-		// selektierten Posten (ohne Termine)
-
-		/*
-		 * NOTE: Durchiterieren aller Termine der Band. Falls keine Termine
-		 * vorhanden sind, wird dieser Block uebersprungen.
-		 */
-		for (Termin termin : band.getTermine()) {
-			Posten posten = termin.getPosten();
-			if (selected(posten)) {
-				einnahmen += posten.getEinnahmen();
-			}
-		}
-
-		return einnahmen;
+		return summe(PostenSpalten.Spalte.EINNAHMEN, Posten::getEinnahmen);
 	}
 
 	/**
@@ -113,31 +125,7 @@ public class GuV extends Selection<Posten> {
 	 * @return Summe der Ausgaben der selektierten Posten
 	 */
 	public double getAusgaben() {
-		double ausgaben = 0;
-
-		/*
-		 * NOTE: Durchiterieren der gespeicherten Posten Falls keine Posten
-		 * vorhanden sind, wird dieser Block uebersprungen.
-		 */
-		for (Posten posten : this) {
-			ausgaben += posten.getAusgaben();
-		}
-
-		// Zusicherung: ausgaben enthaelt die Summe der Ausgaben aller
-		// selektierten Posten (ohne Termine)
-
-		/*
-		 * NOTE: Durchiterieren aller Termine der Band Falls keien Termine
-		 * vorhanden sind, wird dieser Block uebersprungen.
-		 */
-		for (Termin termin : band.getTermine()) {
-			Posten posten = termin.getPosten();
-			if (selected(posten)) {
-				ausgaben += posten.getAusgaben();
-			}
-		}
-
-		return ausgaben;
+		return summe(PostenSpalten.Spalte.AUSGABEN, Posten::getAusgaben);
 	}
 
 	/**
@@ -147,30 +135,111 @@ public class GuV extends Selection<Posten> {
 	 * @return Gesamtgewinn der selektierten Posten
 	 */
 	public double getGewinn() {
-		double ausgaben = 0;
-
-		/*
-		 * NOTE: Durchiterieren der gespeicherten Posten Falls keien Posten
-		 * vorhanden sind, wird dieser Block uebersprungen.
-		 */
-		for (Posten posten : this) {
-			ausgaben += posten.getEinnahmen() - posten.getAusgaben();
+		return summe(PostenSpalten.Spalte.GEWINN,
+				posten -> posten.getEinnahmen() - posten.getAusgaben());
+	}
+
+	/**
+	 * NOTE: Summiert einen Wert ueber alle selektierten Posten, inklusive der
+	 * Posten der Termine und der Vorkommen der Terminserien. Werden die
+	 * Posten nur nach Zeitraeumen selektiert, wird ueber die Spalten summiert,
+	 * und es werden nur die Posten bzw. Termine aus den Bereichsindizes
+	 * betrachtet. Sonst wird ueber die Elemente summiert (bei vielen Elementen
+	 * parallel).
+	 * 
+	 * Vorbedingung: spalte und wert sind ungleich null und beschreiben den
+	 * selben Wert.
+	 * 
+	 * @param spalte
+	 *            die Spalte des zu summierenden Wertes
+	 * @param wert
+	 *            liefert den zu summierenden Wert eines Postens
+	 * @return die Summe ueber alle selektierten Posten
+	 */
+	private double summe(PostenSpalten.Spalte spalte,
+			ToDoubleFunction<Posten> wert) {
+		Zeitraum[] zeitraeume = getZeitraeume();
+		Termine termine = band.getTermine();
+		double summe;
+
+		if (zeitraeume != null) {
+			summe = getSpalten().summe(spalte, zeitraeume, kandidaten());
+
+			List<Selector<Termin>> selectors = new ArrayList<Selector<Termin>>();
+			for (Zeitraum zeitraum : zeitraeume) {
+				selectors.add(new Termin.PostenSelektor(zeitraum));
+			}
+			termine = termine.select(selectors);
+		} else {
+			summe = aggregationsStream().mapToDouble(wert).sum();
 		}
 
-		// Zusicherung: ausgaben enthaelt den Gesamtgewinn aller
-		// selektierter Posten (ohne Termine)
-
-		/*
-		 * NOTE: Durchiterieren aller Termine der Band Falls keine Termine
-		 * vorhanden sind, wird dieser Block uebersprungen.
-		 */
-		for (Termin termin : band.getTermine()) {
-			Posten posten = termin.getPosten();
-			if (selected(posten)) {
-				ausgaben += posten.getEinnahmen() - posten.getAusgaben();
+		// Zusicherung: summe enthaelt die Summe aller selektierten Posten (ohne
+		// Termine)
+
+		summe += termine.aggregationsStream().map(Termin::getPosten)
+				.filter(this::selected).mapToDouble(wert).sum();
+
+		return summe + serien(zeitraeume, wert);
+	}
+
+	/**
+	 * NOTE: Alle Vorkommen einer Terminserie haben den selben Betrag. Werden
+	 * die Posten nur nach Zeitraeumen selektiert, wird daher die Anzahl der
+	 * Vorkommen im Schnitt der Zeitraeume berechnet (siehe
+	 * Terminserie.anzahlPosten). Sonst werden alle Vorkommen erzeugt und ihre
+	 * Posten geprueft.
+	 * 
+	 * Vorbedingung: wert ist ungleich null, zeitraeume wie bei
+	 * getZeitraeume()
+	 * 
+	 * @return die Summe ueber die selektierten Posten der Vorkommen
+	 */
+	private double serien(Zeitraum[] zeitraeume, ToDoubleFunction<Posten> wert) {
+		long[] grenzen = zeitraeume == null ? null : Zeitraum.schnitt(
+				Arrays.asList(zeitraeume)).getGrenzen();
+		double summe = 0;
+
+		for (Terminserie serie : band.getTermine().getSerien()) {
+			if (zeitraeume != null) {
+				int anzahl = serie.anzahlPosten(grenzen);
+
+				if (anzahl > 0) {
+					summe += anzahl
+							* wert.applyAsDouble(serie.getVorlage().getPosten());
+				}
+				continue;
+			}
+
+			for (Iterator<Termin> iter = serie.iterator(null); iter.hasNext();) {
+				Posten posten = iter.next().getPosten();
+
+				if (selected(posten)) {
+					summe += wert.applyAsDouble(posten);
+				}
+			}
+		}
+
+		return summe;
+	}
+
+	/**
+	 * @return die Zeitraeume aller Selektoren, oder null wenn nicht alle
+	 *         Selektoren Posten.ZeitraumSelektoren sind.
+	 */
+	private Zeitraum[] getZeitraeume() {
+		List<Selector<Posten>> selectors = getSelectors();
+		Zeitraum[] zeitraeume = new Zeitraum[selectors.size()];
+
+		for (int i = 0; i < zeitraeume.length; i++) {
+			Selector<Posten> selector = selectors.get(i);
+
+			if (!(selector instanceof Posten.ZeitraumSelektor)) {
+				return null;
 			}
+			zeitraeume[i] = ((Posten.ZeitraumSelektor) selector).getZeitraum();
 		}
 
-		return ausgaben;
+		return zeitraeume;
 	}
 }
@@ -0,0 +1,445 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * NOTE: Undo-Historie eines Termins. Statt einer vollstaendigen Kopie des
+ * Termins wird pro Aenderung nur das geaenderte Feld und sein alter Wert
+ * gespeichert (die alten Werte sind unveraenderlich und werden nicht
+ * kopiert). Die Eintraege liegen in einem Ringpuffer, der erst bei der ersten
+ * Aenderung angelegt wird und hoechstens getTiefe() Eintraege haelt.
+ * 
+ * NOTE: Ein Eintrag mit dem Feld MEHRERE steht fuer eine Sammelaenderung
+ * (Termine.aendere), sein Wert ist ein Object[] mit den alten Werten an den
+ * Indizes ORT - 1, ZEITRAUM - 1 und POSTEN - 1 (null fuer unveraenderte
+ * Felder).
+ * 
+ * NOTE: Ist ein Eintrag aelter als getTiefe(), wird er verworfen, oder - wenn
+ * eine Ablage gesetzt ist - in die Ablage-Datei geschrieben. Die ausgelagerten
+ * Eintraege eines Termins sind auf der Platte rueckwaerts verkettet, im
+ * Speicher bleibt nur die Position des juengsten. Orte werden nicht
+ * ausgelagert, sondern als Index in die Orte dieser Historie, damit ein
+ * zurueckgesetzter Termin wieder auf das selbe Ort-Objekt verweist.
+ * 
+ * NOTE: Kann ein Eintrag nicht geschrieben werden, bleibt er (mit allen
+ * juengeren) im Speicher. Kann ein ausgelagerter Eintrag nicht gelesen
+ * werden, wird der Fehler weitergegeben (UncheckedIOException).
+ * 
+ * NOTE: Gespeichert (serialisiert) werden nur die Eintraege im Speicher. Die
+ * Ablage-Datei gilt nur fuer die laufende Sitzung.
+ * 
+ * Invariante: felder und werte sind gleich lang, ihre Eintraege anfang bis
+ * anfang + anzahl - 1 (modulo Laenge) sind die Eintraege im Speicher, vom
+ * aeltesten zum juengsten. anzahl ist <= getTiefe(), ausser die Tiefe wurde
+ * seit der letzten Aenderung verringert oder ein Eintrag konnte nicht
+ * ausgelagert werden. ausgelagert ist -1 oder die Position des juengsten
+ * ausgelagerten Eintrags in ablage.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+class Historie implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	static final byte ORT = 1;
+	static final byte ZEITRAUM = 2;
+	static final byte POSTEN = 3;
+	static final byte MEHRERE = 0;
+
+	private static volatile int tiefe = 100;
+	private static volatile Ablage aktuelleAblage;
+
+	private transient byte[] felder;
+	private transient Object[] werte;
+	private transient int anfang;
+	private transient int anzahl;
+	private transient Ablage ablage;
+	private transient long ausgelagert;
+	private transient List<Ort> orte;
+
+	/**
+	 * Nachbedingung: die Historie ist leer
+	 */
+	public Historie() {
+		this.felder = new byte[2];
+		this.werte = new Object[2];
+		this.ausgelagert = -1;
+	}
+
+	/**
+	 * @return die Anzahl der Aenderungen, die im Speicher rueckgaengig gemacht
+	 *         werden koennen
+	 */
+	static int getTiefe() {
+		return tiefe;
+	}
+
+	/**
+	 * Vorbedingung: tiefe ist >= 0
+	 * 
+	 * Nachbedingung: ab der naechsten Aenderung haelt jede Historie hoechstens
+	 * tiefe Eintraege im Speicher.
+	 */
+	static void setTiefe(int tiefe) {
+		Historie.tiefe = tiefe;
+	}
+
+	/**
+	 * NOTE: Die bisherige Ablage wird geschlossen und ihre Datei geloescht.
+	 * Die darin ausgelagerten Eintraege sind damit verworfen (wie ohne
+	 * Ablage), die Eintraege im Speicher bleiben erhalten.
+	 * 
+	 * Nachbedingung: Wenn verzeichnis ungleich null ist, werden aeltere
+	 * Eintraege in eine neue temporaere Datei in verzeichnis ausgelagert,
+	 * sonst verworfen.
+	 * 
+	 * @throws IOException
+	 *             wenn die Datei nicht angelegt werden kann (die bisherige
+	 *             Ablage bleibt dann gesetzt)
+	 */
+	static synchronized void setAblage(File verzeichnis) throws IOException {
+		Ablage alte = aktuelleAblage;
+
+		aktuelleAblage = verzeichnis == null ? null : new Ablage(
+				File.createTempFile("historie", ".dat", verzeichnis));
+		if (alte != null) {
+			alte.schliesse();
+		}
+	}
+
+	/**
+	 * Vorbedingung: feld ist ORT, ZEITRAUM oder POSTEN, wert ist der alte
+	 * (unveraenderliche) Wert des Feldes und ungleich null. Oder feld ist
+	 * MEHRERE und wert ein Object[] wie oben beschrieben, das danach nicht
+	 * mehr veraendert wird.
+	 * 
+	 * Nachbedingung: die Aenderung ist der juengste Eintrag
+	 */
+	public void merke(byte feld, Object wert) {
+		int max = tiefe;
+
+		while (anzahl > 0 && anzahl >= max) {
+			if (!lagereAus(felder[anfang], werte[anfang])) {
+				break; // NOTE: bleibt im Speicher, siehe lagereAus
+			}
+			werte[anfang] = null;
+			anfang = (anfang + 1) % felder.length;
+			anzahl--;
+		}
+
+		if (max == 0 && anzahl == 0 && lagereAus(feld, wert)) {
+			return;
+		}
+
+		if (anzahl == felder.length) {
+			wachse(anzahl < max ? Math.min(max, felder.length * 2)
+					: felder.length * 2);
+		}
+
+		int index = (anfang + anzahl) % felder.length;
+		felder[index] = feld;
+		werte[index] = wert;
+		anzahl++;
+	}
+
+	/**
+	 * NOTE: Holt bei Bedarf den juengsten ausgelagerten Eintrag
+	 * 
+	 * @return true, wenn es keinen Eintrag (auch keinen ausgelagerten) gibt
+	 */
+	public boolean istLeer() {
+		lade();
+		return anzahl == 0;
+	}
+
+	/**
+	 * Vorbedingung: istLeer() liefert false
+	 * 
+	 * @return das Feld des juengsten Eintrags
+	 */
+	public byte getFeld() {
+		return felder[juengster()];
+	}
+
+	/**
+	 * Vorbedingung: istLeer() liefert false
+	 * 
+	 * @return der alte Wert des juengsten Eintrags
+	 */
+	public Object getWert() {
+		return werte[juengster()];
+	}
+
+	/**
+	 * Vorbedingung: istLeer() liefert false
+	 * 
+	 * Nachbedingung: der juengste Eintrag ist entfernt
+	 */
+	public void entferneJuengsten() {
+		werte[juengster()] = null;
+		anzahl--;
+	}
+
+	private int juengster() {
+		return (anfang + anzahl - 1) % felder.length;
+	}
+
+	/**
+	 * Nachbedingung: felder und werte haben die Laenge laenge, der aelteste
+	 * Eintrag steht an Index 0.
+	 */
+	private void wachse(int laenge) {
+		byte[] neueFelder = new byte[laenge];
+		Object[] neueWerte = new Object[laenge];
+
+		for (int i = 0; i < anzahl; i++) {
+			neueFelder[i] = felder[(anfang + i) % felder.length];
+			neueWerte[i] = werte[(anfang + i) % felder.length];
+		}
+
+		felder = neueFelder;
+		werte = neueWerte;
+		anfang = 0;
+	}
+
+	/**
+	 * NOTE: Schreibt einen Eintrag in die Ablage, wenn eine gesetzt ist. Ohne
+	 * Ablage geht der Eintrag verloren - und mit ihm alle aelteren, da sie
+	 * ohne ihn nicht mehr richtig zurueckgesetzt werden koennen. Kann nicht
+	 * geschrieben werden, muss der Eintrag im Speicher bleiben; beim naechsten
+	 * Auslagern wird es erneut versucht.
+	 * 
+	 * @return false, wenn der Eintrag nicht geschrieben werden konnte
+	 */
+	private boolean lagereAus(byte feld, Object wert) {
+		// NOTE: die Kette eines Termins liegt immer in einer Datei
+		if (ablage != aktuelleAblage) {
+			ablage = aktuelleAblage;
+			ausgelagert = -1;
+			orte = null;
+		}
+		if (ablage == null) {
+			ausgelagert = -1;
+			return true;
+		}
+
+		if (wert instanceof Ort) {
+			wert = Integer.valueOf(ortIndex((Ort) wert));
+		} else if (feld == MEHRERE && ((Object[]) wert)[ORT - 1] != null) {
+			Object[] werte = ((Object[]) wert).clone();
+			werte[ORT - 1] = Integer.valueOf(ortIndex((Ort) werte[ORT - 1]));
+			wert = werte;
+		}
+
+		try {
+			ausgelagert = ablage.schreibe(feld, wert, ausgelagert);
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * NOTE: Orte werden nach Identitaet (nicht equals) gesucht
+	 * 
+	 * @return der Index von ort in orte (ort wird bei Bedarf angefuegt)
+	 */
+	private int ortIndex(Ort ort) {
+		if (orte == null) {
+			orte = new ArrayList<Ort>(2);
+		}
+		for (int i = 0; i < orte.size(); i++) {
+			if (orte.get(i) == ort) {
+				return i;
+			}
+		}
+		orte.add(ort);
+		return orte.size() - 1;
+	}
+
+	/**
+	 * NOTE: Holt den juengsten ausgelagerten Eintrag in den Speicher, wenn
+	 * dort keiner mehr ist. Wurde die Ablage inzwischen ersetzt, gilt die
+	 * Historie ab dort als leer (siehe setAblage).
+	 * 
+	 * Nachbedingung: anzahl ist > 0, oder ausgelagert ist -1
+	 * 
+	 * @throws UncheckedIOException
+	 *             wenn der Eintrag nicht gelesen werden kann (die Historie
+	 *             ist dann unveraendert)
+	 */
+	private void lade() {
+		if (anzahl > 0 || ausgelagert < 0) {
+			return;
+		}
+
+		Object[] eintrag;
+
+		try {
+			eintrag = ablage.lese(ausgelagert);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (ClassNotFoundException e) {
+			throw new UncheckedIOException(new IOException(e));
+		}
+
+		if (eintrag == null) {
+			ausgelagert = -1;
+			return;
+		}
+
+		Object wert = eintrag[1];
+		if (wert instanceof Integer) {
+			wert = orte.get((Integer) wert);
+		} else if (wert instanceof Object[]
+				&& ((Object[]) wert)[ORT - 1] != null) {
+			Object[] werte = (Object[]) wert;
+			werte[ORT - 1] = orte.get((Integer) werte[ORT - 1]);
+		}
+
+		anfang = 0;
+		felder[0] = (Byte) eintrag[0];
+		werte[0] = wert;
+		anzahl = 1;
+		ausgelagert = (Long) eintrag[2];
+	}
+
+	/**
+	 * NOTE: Es werden nur die Eintraege im Speicher gespeichert
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(anzahl);
+
+		for (int i = 0; i < anzahl; i++) {
+			int index = (anfang + i) % felder.length;
+			out.writeByte(felder[index]);
+			out.writeObject(werte[index]);
+		}
+	}
+
+	/**
+	 * @param in
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private void readObject(ObjectInputStream in) throws IOException,
+			ClassNotFoundException {
+		in.defaultReadObject();
+		anzahl = in.readInt();
+		felder = new byte[Math.max(anzahl, 2)];
+		werte = new Object[felder.length];
+		anfang = 0;
+		ausgelagert = -1;
+
+		for (int i = 0; i < anzahl; i++) {
+			felder[i] = in.readByte();
+			werte[i] = in.readObject();
+		}
+	}
+
+	/**
+	 * NOTE: Datei, an die ausgelagerte Eintraege angehaengt werden. Ein
+	 * Datensatz besteht aus seiner Laenge, dem Feld, der Position des
+	 * vorigen Datensatzes des selben Termins und dem serialisierten Wert.
+	 * Gelesene Datensaetze werden nicht freigegeben, die Datei wird beim
+	 * Schliessen oder spaetestens beim Beenden geloescht.
+	 * 
+	 * Invariante: datei und pfad sind ungleich null
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private static class Ablage {
+		private RandomAccessFile datei;
+		private File pfad;
+		private boolean geschlossen;
+		private ByteArrayOutputStream puffer = new ByteArrayOutputStream();
+
+		/**
+		 * Vorbedingung: datei ist ungleich null
+		 */
+		public Ablage(File datei) throws IOException {
+			datei.deleteOnExit();
+			this.datei = new RandomAccessFile(datei, "rw");
+			this.pfad = datei;
+		}
+
+		/**
+		 * NOTE: Ein Fehler beim Schliessen wird ignoriert, die Datei wird
+		 * dann beim Beenden geloescht.
+		 * 
+		 * Nachbedingung: die Datei ist geschlossen, schreibe wirft eine
+		 * IOException und lese liefert null.
+		 */
+		public synchronized void schliesse() {
+			geschlossen = true;
+			try {
+				datei.close();
+			} catch (IOException e) {
+				return;
+			}
+			pfad.delete();
+		}
+
+		/**
+		 * Vorbedingung: wert ist serialisierbar und ungleich null
+		 * 
+		 * @return die Position des neuen Datensatzes
+		 */
+		public synchronized long schreibe(byte feld, Object wert,
+				long vorgaenger) throws IOException {
+			if (geschlossen) {
+				throw new IOException("Ablage geschlossen");
+			}
+			puffer.reset();
+			ObjectOutputStream out = new ObjectOutputStream(puffer);
+			out.writeObject(wert);
+			out.close();
+
+			long position = datei.length();
+			datei.seek(position);
+			datei.writeInt(puffer.size());
+			datei.writeByte(feld);
+			datei.writeLong(vorgaenger);
+			datei.write(puffer.toByteArray());
+
+			return position;
+		}
+
+		/**
+		 * Vorbedingung: position ist die Position eines Datensatzes
+		 * 
+		 * @return Feld (Byte), Wert und Position des vorigen Datensatzes
+		 *         (Long), oder null wenn die Ablage geschlossen ist
+		 */
+		public synchronized Object[] lese(long position) throws IOException,
+				ClassNotFoundException {
+			if (geschlossen) {
+				return null;
+			}
+			datei.seek(position);
+			byte[] daten = new byte[datei.readInt()];
+			byte feld = datei.readByte();
+			long vorgaenger = datei.readLong();
+			datei.readFully(daten);
+
+			ObjectInputStream in = new ObjectInputStream(
+					new ByteArrayInputStream(daten));
+			try {
+				return new Object[] { feld, in.readObject(), vorgaenger };
+			} finally {
+				in.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,196 @@
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * NOTE: Ordnet jedem Schluessel die Positionen jener Elemente einer Slotliste
+ * zu, die diesen Schluessel haben. Die Positionen sind aufsteigend sortiert.
+ * 
+ * NOTE: Geloeschte Slots bleiben im Index, sie werden beim Durchlaufen
+ * uebersprungen. Neue Slots werden bei <code>aktualisiere()</code>
+ * nachgetragen. Nach einer Kompaktierung der Slotliste ist der Index
+ * ungueltig und muss neu erstellt werden.
+ * 
+ * NOTE: Aendert sich ein Element der Slotliste, kann sich auch sein Schluessel
+ * geaendert haben. Dann werden nur die Positionen dieses Elementes vom alten
+ * zum neuen Schluessel verschoben. Dafuer wird fuer jedes beobachtbare
+ * Element der zuletzt eingetragene Schluessel gemerkt.
+ * 
+ * Invariante: indexer, list, eintraege und schluessel sind ungleich null. Die
+ * Slots 0 bis bis - 1 der list sind im Index enthalten. schluessel enthaelt
+ * genau die beobachtbaren Elemente dieser Slots.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+class Index<T> {
+	private static final IntListe LEER = new IntListe();
+
+	private Indexer<T> indexer;
+	private Slotliste<T> list;
+	private Map<Object, IntListe> eintraege;
+	private IdentityHashMap<T, Object> schluessel;
+	private int bis;
+	private int epoche;
+
+	/**
+	 * Vorbedingung: indexer und list sind ungleich null
+	 * 
+	 * Nachbedingung: alle Slots von list sind im Index enthalten.
+	 */
+	public Index(Indexer<T> indexer, Slotliste<T> list) {
+		this.indexer = indexer;
+		this.list = list;
+		this.eintraege = new HashMap<Object, IntListe>();
+		this.schluessel = new IdentityHashMap<T, Object>();
+		this.bis = 0;
+		this.epoche = list.getEpoche();
+
+		aktualisiere();
+	}
+
+	/**
+	 * @return true, wenn der Index nach einer Kompaktierung der Slotliste neu
+	 *         erstellt werden muss.
+	 */
+	public boolean istVeraltet() {
+		return epoche != list.getEpoche();
+	}
+
+	/**
+	 * NOTE: Traegt alle seit dem letzten Aufruf angefuegten Slots ein.
+	 * 
+	 * Vorbedingung: istVeraltet() liefert false
+	 * 
+	 * Nachbedingung: alle Slots von list sind im Index enthalten.
+	 */
+	public void aktualisiere() {
+		for (int i = list.naechste(bis); i < list.getSlots(); i = list
+				.naechste(i + 1)) {
+			T element = list.get(i);
+			Object schluessel = indexer.getSchluessel(element);
+			IntListe positionen = eintraege.get(schluessel);
+
+			if (positionen == null) {
+				positionen = new IntListe();
+				eintraege.put(schluessel, positionen);
+			}
+
+			positionen.add(i);
+
+			if (element instanceof Beobachtbar) {
+				this.schluessel.put(element, schluessel);
+			}
+		}
+
+		bis = list.getSlots();
+	}
+
+	/**
+	 * NOTE: Hat sich der Schluessel von element geaendert, werden seine
+	 * Positionen vom alten zum neuen Schluessel verschoben. Die beiden
+	 * betroffenen Positionslisten werden dabei ersetzt, bereits gelieferte
+	 * Positionen bleiben also unveraendert.
+	 * 
+	 * Vorbedingung: element ist ungleich null
+	 * 
+	 * Nachbedingung: alle Positionen von element bis bis - 1 sind unter seinem
+	 * aktuellen Schluessel eingetragen.
+	 */
+	public void elementGeaendert(T element) {
+		if (istVeraltet() || !schluessel.containsKey(element)) {
+			// NOTE: wird neu erstellt bzw. spaeter eingetragen
+			return;
+		}
+
+		Object alt = schluessel.get(element);
+		Object neu = indexer.getSchluessel(element);
+
+		if (Objects.equals(alt, neu)) {
+			return;
+		}
+
+		IntListe alte = eintraege.get(alt);
+		IntListe rest = new IntListe();
+		IntListe verschoben = new IntListe();
+
+		for (int i = 0; i < alte.size(); i++) {
+			int position = alte.get(i);
+
+			if (list.get(position) == element) {
+				verschoben.add(position);
+			} else {
+				rest.add(position);
+			}
+		}
+
+		if (rest.size() == 0) {
+			eintraege.remove(alt);
+		} else {
+			eintraege.put(alt, rest);
+		}
+		eintraege.put(neu, vereinige(eintraege.get(neu), verschoben));
+		schluessel.put(element, neu);
+	}
+
+	/**
+	 * Vorbedingung: b ist ungleich null. a und b sind aufsteigend sortiert.
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist eine neue, aufsteigend sortierte
+	 * Liste mit den Werten von a und b.
+	 * 
+	 * @param a
+	 *            die bisherigen Positionen, oder null
+	 */
+	private static IntListe vereinige(IntListe a, IntListe b) {
+		IntListe ergebnis = new IntListe();
+		int i = 0;
+		int j = 0;
+		int anzahlA = a == null ? 0 : a.size();
+
+		while (i < anzahlA || j < b.size()) {
+			if (j == b.size() || (i < anzahlA && a.get(i) < b.get(j))) {
+				ergebnis.add(a.get(i++));
+			} else {
+				ergebnis.add(b.get(j++));
+			}
+		}
+
+		return ergebnis;
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und darf nicht
+	 * veraendert werden. Er kann Positionen geloeschter Slots enthalten.
+	 * 
+	 * @return die Positionen aller Elemente mit dem angegebenen Schluessel
+	 */
+	public IntListe getPositionen(Object schluessel) {
+		IntListe positionen = eintraege.get(schluessel);
+
+		if (positionen == null) {
+			return LEER;
+		}
+		return positionen;
+	}
+
+	/**
+	 * NOTE: Liefert einen Schluessel, der fuer alle Strings gleich ist, die
+	 * sich nur in Gross-/Kleinschreibung unterscheiden (entsprechend
+	 * <code>String.equalsIgnoreCase</code>).
+	 * 
+	 * Vorbedingung: text ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	public static String ohneGrossschreibung(String text) {
+		char[] zeichen = text.toCharArray();
+
+		for (int i = 0; i < zeichen.length; i++) {
+			zeichen[i] = Character.toLowerCase(Character
+					.toUpperCase(zeichen[i]));
+		}
+
+		return new String(zeichen);
+	}
+}
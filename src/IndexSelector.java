@@ -0,0 +1,26 @@
+/**
+ * NOTE: Ein Selektor, dessen Ergebnis ueber einen Index bestimmt werden kann.
+ * Eine Selection durchlaeuft dann nicht mehr alle Elemente, sondern nur jene,
+ * deren Schluessel gleich <code>getSchluessel()</code> ist.
+ * 
+ * Invariante: Wenn <code>select(item)</code> true liefert, ist
+ * <code>getIndexer().getSchluessel(item)</code> gleich
+ * <code>getSchluessel()</code>.
+ * 
+ * @author Peter Pilgerstorfer
+ * @param <T>
+ */
+public interface IndexSelector<T> extends Selector<T> {
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null. Fuer alle Instanzen
+	 * einer Selektor-Klasse wird das selbe Objekt geliefert.
+	 */
+	public Indexer<T> getIndexer();
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 * 
+	 * @return der Schluessel, den alle selektierten Elemente haben
+	 */
+	public Object getSchluessel();
+}
@@ -0,0 +1,17 @@
+/**
+ * NOTE: Berechnet den Indexschluessel eines Elements. Alle Selektoren, die den
+ * selben Indexer verwenden, teilen sich in einer Selection einen Index.
+ * 
+ * @author Peter Pilgerstorfer
+ * @param <T>
+ */
+public interface Indexer<T> {
+	/**
+	 * Vorbedingung: item ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null. Wenn sich der
+	 * Schluessel eines Elementes aendern kann, muss das Element die Aenderung
+	 * als Beobachtbar melden.
+	 */
+	public Object getSchluessel(T item);
+}
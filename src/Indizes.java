@@ -0,0 +1,131 @@
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * NOTE: Verwaltet die Indizes und Bereichsindizes einer Selection. Alle
+ * Sichten auf die selben Daten teilen sich ein Indizes-Objekt. Ein Index wird
+ * erst erstellt, wenn er das erste Mal benoetigt wird, und danach bei jeder
+ * Verwendung nachgefuehrt bzw. neu erstellt, wenn er veraltet ist.
+ * 
+ * NOTE: Indizes ist bei der Slotliste angemeldet und gibt die Aenderung eines
+ * Elementes an alle Indizes und Bereichsindizes weiter, die dann nur dieses
+ * Element neu eintragen.
+ * 
+ * Invariante: list, indizes und bereichsindizes sind ungleich null.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+class Indizes<T> implements Slotbeobachter<T> {
+	private Slotliste<T> list;
+	private Map<Indexer<T>, Index<T>> indizes;
+	private Map<Zeitindexer<T>, Bereichsindex<T>> bereichsindizes;
+
+	/**
+	 * NOTE: Meldet die Indizes bei list an.
+	 * 
+	 * Vorbedingung: list ist ungleich null
+	 */
+	public Indizes(Slotliste<T> list) {
+		this.list = list;
+		this.indizes = new HashMap<Indexer<T>, Index<T>>();
+		this.bereichsindizes = new HashMap<Zeitindexer<T>, Bereichsindex<T>>();
+		list.anmelden(this);
+	}
+
+	/**
+	 * NOTE: Ermittelt die Kandidaten eines IndexSelectors bzw. eines
+	 * BereichSelectors ueber den zugehoerigen Index.
+	 * 
+	 * Vorbedingung: selector ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert enthaelt aufsteigend alle Positionen
+	 * von Elementen, die von selector selektiert sein koennen, und darf nicht
+	 * veraendert werden. Er kann Positionen geloeschter Slots enthalten.
+	 * 
+	 * @return die Kandidaten, oder null wenn sie nicht ueber einen Index
+	 *         ermittelt werden koennen.
+	 */
+	public IntListe kandidaten(Selector<T> selector) {
+		if (selector instanceof IndexSelector) {
+			IndexSelector<T> indexSelector = (IndexSelector<T>) selector;
+			return get(indexSelector.getIndexer()).getPositionen(
+					indexSelector.getSchluessel());
+		}
+
+		if (selector instanceof BereichSelector) {
+			BereichSelector<T> bereichSelector = (BereichSelector<T>) selector;
+			long[] bereiche = bereichSelector.getBereiche();
+
+			if (bereiche != null) {
+				return getBereichsindex(bereichSelector.getZeitindexer())
+						.getPositionen(bereiche);
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Vorbedingung: indexer ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und enthaelt alle
+	 * Slots von list.
+	 */
+	public Index<T> get(Indexer<T> indexer) {
+		Index<T> index = indizes.get(indexer);
+
+		if (index == null || index.istVeraltet()) {
+			index = new Index<T>(indexer, list);
+			indizes.put(indexer, index);
+		} else {
+			index.aktualisiere();
+		}
+
+		return index;
+	}
+
+	/**
+	 * Vorbedingung: indexer ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und enthaelt alle
+	 * Slots von list.
+	 */
+	public Bereichsindex<T> getBereichsindex(Zeitindexer<T> indexer) {
+		Bereichsindex<T> index = bereichsindizes.get(indexer);
+
+		if (index == null || index.istVeraltet()) {
+			index = new Bereichsindex<T>(indexer, list);
+			bereichsindizes.put(indexer, index);
+		} else {
+			index.aktualisiere();
+		}
+
+		return index;
+	}
+
+	@Override
+	public void eingefuegt(int von, int bis) {
+		// NOTE: neue Slots werden bei der naechsten Verwendung nachgetragen
+	}
+
+	@Override
+	public void geloescht(int position) {
+		// NOTE: geloeschte Slots bleiben in den Indizes
+	}
+
+	@Override
+	public void vorKompaktierung() {
+		// NOTE: veraltete Indizes werden bei der naechsten Verwendung neu
+		// erstellt
+	}
+
+	@Override
+	public void elementGeaendert(T element, IntListe positionen) {
+		for (Index<T> index : indizes.values()) {
+			index.elementGeaendert(element);
+		}
+		for (Bereichsindex<T> index : bereichsindizes.values()) {
+			index.elementGeaendert(element, positionen);
+		}
+	}
+}
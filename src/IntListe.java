@@ -0,0 +1,97 @@
+import java.util.Arrays;
+
+/**
+ * NOTE: Eine wachsende Liste von int-Werten ohne Boxing.
+ * 
+ * Invariante: werte ist ungleich null. 0 <= anzahl <= werte.length
+ * 
+ * @author Peter Pilgerstorfer
+ */
+class IntListe {
+	private int[] werte;
+	private int anzahl;
+
+	/**
+	 * Nachbedingung: die Liste ist leer
+	 */
+	public IntListe() {
+		this.werte = new int[4];
+		this.anzahl = 0;
+	}
+
+	/**
+	 * NOTE: Uebernimmt das Array, ohne es zu kopieren.
+	 * 
+	 * Vorbedingung: werte ist ungleich null, 0 <= anzahl <= werte.length
+	 * 
+	 * Nachbedingung: die Liste enthaelt die ersten anzahl Werte von werte
+	 */
+	IntListe(int[] werte, int anzahl) {
+		this.werte = werte;
+		this.anzahl = anzahl;
+	}
+
+	/**
+	 * Nachbedingung: wert ist am Ende der Liste angefuegt
+	 */
+	public void add(int wert) {
+		if (anzahl == werte.length) {
+			werte = Arrays.copyOf(werte, anzahl * 2);
+		}
+		werte[anzahl++] = wert;
+	}
+
+	/**
+	 * Vorbedingung: andere ist ungleich null
+	 * 
+	 * Nachbedingung: die Werte von andere sind am Ende der Liste angefuegt
+	 */
+	public void addAll(IntListe andere) {
+		if (anzahl + andere.anzahl > werte.length) {
+			werte = Arrays.copyOf(werte,
+					Math.max(anzahl + andere.anzahl, anzahl * 2));
+		}
+		System.arraycopy(andere.werte, 0, werte, anzahl, andere.anzahl);
+		anzahl += andere.anzahl;
+	}
+
+	/**
+	 * Nachbedingung: die Werte sind aufsteigend sortiert und ohne Duplikate
+	 */
+	public void sortiere() {
+		Arrays.sort(werte, 0, anzahl);
+
+		int neu = 0;
+		for (int i = 0; i < anzahl; i++) {
+			if (neu == 0 || werte[neu - 1] != werte[i]) {
+				werte[neu++] = werte[i];
+			}
+		}
+		anzahl = neu;
+	}
+
+	/**
+	 * Vorbedingung: 0 <= i < size()
+	 */
+	public int get(int i) {
+		return werte[i];
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist >= 0
+	 */
+	public int size() {
+		return anzahl;
+	}
+
+	/**
+	 * NOTE: Liefert das interne Array. Die ersten <code>size()</code> Werte
+	 * bleiben gueltig, auch wenn spaeter Werte angefuegt werden.
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und darf nicht
+	 * veraendert werden.
+	 */
+	public int[] getWerte() {
+		return werte;
+	}
+}
@@ -0,0 +1,51 @@
+/**
+ * NOTE: Zwei Termine, die sich zeitlich ueberschneiden und die selbe
+ * Ressource (einen Ort oder ein Mitglied) belegen.
+ * 
+ * Invariante: erster, zweiter und ressource sind ungleich null
+ * 
+ * @author Peter Pilgerstorfer
+ */
+public class Konflikt {
+	private Termin erster;
+	private Termin zweiter;
+	private Object ressource;
+
+	/**
+	 * Vorbedingung: erster, zweiter und ressource sind ungleich null
+	 */
+	Konflikt(Termin erster, Termin zweiter, Object ressource) {
+		this.erster = erster;
+		this.zweiter = zweiter;
+		this.ressource = ressource;
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	public Termin getErster() {
+		return erster;
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	public Termin getZweiter() {
+		return zweiter;
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ein Ort oder ein Mitglied
+	 */
+	public Object getRessource() {
+		return ressource;
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	@Override
+	public String toString() {
+		return ressource + ": " + erster + " <-> " + zweiter;
+	}
+}
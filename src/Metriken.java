@@ -0,0 +1,228 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * NOTE: Laufzeitmetriken der Selektionen: pro Selektor-Klasse die Anzahl der
+ * Auswertungen, der durchgelassenen Elemente und die benoetigte Zeit, sowie
+ * pro Durchlauf einer Selektion die Anzahl der geprueften Elemente. Durchlaeufe,
+ * die laenger als die Schwelle dauern, werden im Protokoll der langsamen
+ * Abfragen vermerkt.
+ * 
+ * NOTE: Die Metriken sind standardmaessig ausgeschaltet (ausser die
+ * System-Property "selection.metriken" ist true). Ausgeschaltet kostet jede
+ * Auswertung nur das Lesen eines Flags. Eingeschaltet wird jede Auswertung
+ * gezaehlt, ohne Selektionen untereinander zu synchronisieren. Die Dauer
+ * einer Auswertung stammt aus den Stichproben der SelektorStatistik.
+ * 
+ * NOTE: Ein Durchlauf wird erfasst, wenn ein Iterator das Ende der Selektion
+ * erreicht. Vorzeitig abgebrochene Durchlaeufe werden nicht erfasst.
+ * 
+ * Invariante: schwelle ist >= 0. protokoll enthaelt hoechstens MAX_PROTOKOLL
+ * Eintraege.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+public final class Metriken {
+	private static final int MAX_PROTOKOLL = 100;
+
+	private static volatile boolean aktiv = Boolean
+			.getBoolean("selection.metriken");
+	private static volatile long schwelle = 10000000; // 10 ms
+
+	private static final ConcurrentHashMap<Class<?>, Zaehler> zaehler = new ConcurrentHashMap<Class<?>, Zaehler>();
+	private static final LongAdder durchlaeufe = new LongAdder();
+	private static final LongAdder geprueft = new LongAdder();
+	private static final LongAdder selektiert = new LongAdder();
+	private static final Deque<String> protokoll = new ArrayDeque<String>();
+
+	private Metriken() {
+	}
+
+	/**
+	 * @return true, wenn Metriken erfasst werden
+	 */
+	public static boolean istAktiv() {
+		return aktiv;
+	}
+
+	/**
+	 * Nachbedingung: Metriken werden genau dann erfasst, wenn aktiv true ist.
+	 */
+	public static void setAktiv(boolean aktiv) {
+		Metriken.aktiv = aktiv;
+	}
+
+	/**
+	 * Vorbedingung: nanos ist >= 0
+	 * 
+	 * Nachbedingung: Durchlaeufe, die laenger als nanos Nanosekunden dauern,
+	 * werden im Protokoll der langsamen Abfragen vermerkt.
+	 */
+	public static void setSchwelle(long nanos) {
+		schwelle = nanos;
+	}
+
+	/**
+	 * Nachbedingung: alle Zaehler und das Protokoll sind leer.
+	 */
+	public static void zuruecksetzen() {
+		zaehler.clear();
+		durchlaeufe.reset();
+		geprueft.reset();
+		selektiert.reset();
+
+		synchronized (protokoll) {
+			protokoll.clear();
+		}
+	}
+
+	/**
+	 * NOTE: Erfasst eine Auswertung eines Selektors.
+	 * 
+	 * Vorbedingung: selector ist ungleich null
+	 */
+	static void erfasse(Selector<?> selector, boolean durchgelassen) {
+		Zaehler z = getZaehler(selector);
+
+		z.auswertungen.increment();
+		if (durchgelassen) {
+			z.durchgelassen.increment();
+		}
+	}
+
+	/**
+	 * NOTE: Erfasst die gemessene Dauer einer Auswertung eines Selektors.
+	 * 
+	 * Vorbedingung: selector ist ungleich null. dauer ist >= 0
+	 */
+	static void erfasseDauer(Selector<?> selector, long dauer) {
+		Zaehler z = getZaehler(selector);
+
+		z.messungen.increment();
+		z.nanos.add(dauer);
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	private static Zaehler getZaehler(Selector<?> selector) {
+		Zaehler z = zaehler.get(selector.getClass());
+
+		if (z == null) {
+			z = new Zaehler();
+			Zaehler vorhanden = zaehler.putIfAbsent(selector.getClass(), z);
+			if (vorhanden != null) {
+				z = vorhanden;
+			}
+		}
+
+		return z;
+	}
+
+	/**
+	 * NOTE: Erfasst einen vollstaendigen Durchlauf einer Selektion.
+	 * 
+	 * Vorbedingung: plan ist ungleich null und enthaelt keine Elemente gleich
+	 * null. anzahlGeprueft, anzahlSelektiert und dauer sind >= 0
+	 * 
+	 * @param plan
+	 *            die Selektoren der Selektion
+	 * @param anzahlGeprueft
+	 *            die Anzahl der geprueften Elemente
+	 * @param anzahlSelektiert
+	 *            die Anzahl der selektierten Elemente
+	 * @param dauer
+	 *            die Dauer des Durchlaufes in Nanosekunden
+	 */
+	static void erfasseDurchlauf(Selector<?>[] plan, int anzahlGeprueft,
+			int anzahlSelektiert, long dauer) {
+		durchlaeufe.increment();
+		geprueft.add(anzahlGeprueft);
+		selektiert.add(anzahlSelektiert);
+
+		if (dauer > schwelle) {
+			String eintrag = String.format(
+					"%.3f ms, %d geprueft, %d selektiert: %s", dauer / 1e6,
+					anzahlGeprueft, anzahlSelektiert, beschreibe(plan));
+
+			synchronized (protokoll) {
+				if (protokoll.size() == MAX_PROTOKOLL) {
+					protokoll.removeFirst();
+				}
+				protokoll.addLast(eintrag);
+			}
+		}
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und enthaelt die
+	 * letzten langsamen Durchlaeufe, den aeltesten zuerst.
+	 */
+	public static List<String> getLangsameAbfragen() {
+		synchronized (protokoll) {
+			return new ArrayList<String>(protokoll);
+		}
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	public static String bericht() {
+		StringBuilder builder = new StringBuilder();
+
+		builder.append(String.format(
+				"%d Durchlaeufe, %d Elemente geprueft, %d selektiert",
+				durchlaeufe.sum(), geprueft.sum(), selektiert.sum()));
+
+		for (Map.Entry<Class<?>, Zaehler> eintrag : zaehler.entrySet()) {
+			Zaehler z = eintrag.getValue();
+			long messungen = z.messungen.sum();
+
+			builder.append('\n');
+			builder.append(String.format(
+					"%s: %d Auswertungen, %d durchgelassen, %.0f ns/Auswertung",
+					name(eintrag.getKey()), z.auswertungen.sum(),
+					z.durchgelassen.sum(), messungen == 0 ? 0.0
+							: (double) z.nanos.sum() / messungen));
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	private static String beschreibe(Selector<?>[] plan) {
+		if (plan.length == 0) {
+			return "(alle)";
+		}
+
+		StringBuilder builder = new StringBuilder(name(plan[0].getClass()));
+		for (int i = 1; i < plan.length; i++) {
+			builder.append(" & ");
+			builder.append(name(plan[i].getClass()));
+		}
+		return builder.toString();
+	}
+
+	private static String name(Class<?> klasse) {
+		return klasse.getName().replace('$', '.');
+	}
+
+	/**
+	 * NOTE: Die Zaehler einer Selektor-Klasse
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private static class Zaehler {
+		private final LongAdder auswertungen = new LongAdder();
+		private final LongAdder durchgelassen = new LongAdder();
+		private final LongAdder messungen = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+	}
+}
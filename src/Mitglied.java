@@ -1,5 +1,9 @@
-import java.io.Serializable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.AbstractQueue;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Queue;
 
@@ -12,7 +16,7 @@ import java.util.Queue;
  * 
  * @author Christian Kletzander
  */
-public class Mitglied implements Serializable {
+public class Mitglied extends Beobachtbar {
 	private static final long serialVersionUID = 1L;
 
 	// NOTE: Variablendefinition
@@ -20,7 +24,9 @@ public class Mitglied implements Serializable {
 	private String telNr;
 	private String instrument;
 	private Zeitraum zeitraum;
-	private Queue<String> nachrichten;
+	// NOTE: die Nachrichten werden zwischen den Empfaengern geteilt und erst
+	// beim Lesen (getNachrichten) in Text umgewandelt
+	private Queue<Nachricht> nachrichten;
 	private Queue<Terminvorschlag> terminvorschlaege;
 	private boolean ersatzmitglied;
 
@@ -41,7 +47,7 @@ public class Mitglied implements Serializable {
 		this.telNr = telNr;
 		this.instrument = instrument;
 		this.zeitraum = zeitraum;
-		this.nachrichten = new LinkedList<String>();
+		this.nachrichten = new LinkedList<Nachricht>();
 		this.terminvorschlaege = new LinkedList<Terminvorschlag>();
 		this.ersatzmitglied = ersatzmitglied;
 	}
@@ -58,6 +64,18 @@ public class Mitglied implements Serializable {
 	 * @param nachricht
 	 */
 	public void sende(String nachricht) {
+		this.nachrichten.offer(Nachricht.text(nachricht));
+	}
+
+	/**
+	 * NOTE: nachricht wird nicht kopiert, alle Empfaenger teilen sich das
+	 * (unveraenderliche) Objekt.
+	 * 
+	 * Vorbedingung: nachricht ist ungleich null
+	 * 
+	 * Nachbedingung: die Queue nachrichten enthaelt nachricht
+	 */
+	void sende(Nachricht nachricht) {
 		this.nachrichten.offer(nachricht);
 	}
 
@@ -81,11 +99,15 @@ public class Mitglied implements Serializable {
 	}
 
 	/**
+	 * NOTE: Liefert eine Sicht auf die Nachrichten. Eine Nachricht wird erst
+	 * beim Lesen (peek, poll, Iterator) in Text umgewandelt. Aenderungen an der
+	 * Sicht wirken sich auf die Nachrichten aus.
+	 * 
 	 * Nachbedingung: der Rueckgabewert ist ungleich null und er enthaelt keine
 	 * Elemente gleich null
 	 */
 	public Queue<String> getNachrichten() {
-		return nachrichten;
+		return new Nachrichten();
 	}
 
 	/**
@@ -96,8 +118,12 @@ public class Mitglied implements Serializable {
 		return terminvorschlaege;
 	}
 
+	/**
+	 * Nachbedingung: alle Beobachter wurden ueber die Aenderung informiert
+	 */
 	public void setErsatzmitglied(boolean ersatzmitglied) {
 		this.ersatzmitglied = ersatzmitglied;
+		meldeAenderung();
 	}
 
 	/**
@@ -111,9 +137,103 @@ public class Mitglied implements Serializable {
 	 * Nachbedingung: der Rueckgabewert ist ungleich null
 	 */
 	public String toDetailString() {
-		return toString() + " (" + this.instrument + ") " + this.zeitraum
-				+ "\n" + "TelefonNr: " + this.telNr
-				+ (ersatzmitglied ? ", Ersatzmitglied" : "");
+		return Bericht.alsText(this, true);
+	}
+
+	/**
+	 * NOTE: Format von toDetailString: "Name (Instrument) [Zeitraum]" und in
+	 * der naechsten Zeile die Telefonnummer
+	 * 
+	 * Vorbedingung: bericht ist ungleich null
+	 */
+	void schreibeDetails(Bericht bericht) throws IOException {
+		bericht.text(name).text(" (").text(instrument).text(") ")
+				.element(zeitraum).text("\nTelefonNr: ").text(telNr);
+
+		if (ersatzmitglied) {
+			bericht.text(", Ersatzmitglied");
+		}
+	}
+
+	/**
+	 * NOTE: Frueher gespeicherte Mitglieder enthalten die Nachrichten als
+	 * Text, sie werden in Nachrichten umgewandelt.
+	 * 
+	 * @param in
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private void readObject(ObjectInputStream in) throws IOException,
+			ClassNotFoundException {
+		in.defaultReadObject();
+		Queue<Nachricht> gelesen = new LinkedList<Nachricht>();
+
+		for (Object nachricht : (Queue<?>) nachrichten) {
+			gelesen.offer(nachricht instanceof String ? Nachricht
+					.text((String) nachricht) : (Nachricht) nachricht);
+		}
+		nachrichten = gelesen;
+	}
+
+	/**
+	 * NOTE: Text-Sicht auf die Queue nachrichten
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private class Nachrichten extends AbstractQueue<String> {
+		@Override
+		public boolean offer(String nachricht) {
+			return nachrichten.offer(Nachricht.text(nachricht));
+		}
+
+		@Override
+		public String poll() {
+			Nachricht nachricht = nachrichten.poll();
+			return nachricht == null ? null : nachricht.toString();
+		}
+
+		@Override
+		public String peek() {
+			Nachricht nachricht = nachrichten.peek();
+			return nachricht == null ? null : nachricht.toString();
+		}
+
+		@Override
+		public int size() {
+			return nachrichten.size();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return nachrichten.isEmpty();
+		}
+
+		@Override
+		public void clear() {
+			nachrichten.clear();
+		}
+
+		@Override
+		public Iterator<String> iterator() {
+			final Iterator<Nachricht> iter = nachrichten.iterator();
+
+			return new Iterator<String>() {
+				@Override
+				public boolean hasNext() {
+					return iter.hasNext();
+				}
+
+				@Override
+				public String next() {
+					return iter.next().toString();
+				}
+
+				@Override
+				public void remove() {
+					iter.remove();
+				}
+			};
+		}
 	}
 
 	/**
@@ -122,7 +242,16 @@ public class Mitglied implements Serializable {
 	 * 
 	 * @author VHD
 	 */
-	public static class TypSelector implements Selector<Mitglied> {
+	public static class TypSelector implements IndexSelector<Mitglied> {
+		private static final long serialVersionUID = 1L;
+
+		private static final Indexer<Mitglied> INDEXER = new Indexer<Mitglied>() {
+			@Override
+			public Object getSchluessel(Mitglied item) {
+				return item.ersatzmitglied;
+			}
+		};
+
 		private boolean isE;
 
 		/**
@@ -144,16 +273,44 @@ public class Mitglied implements Serializable {
 		public boolean select(Mitglied item) {
 			return item.ersatzmitglied == isE;
 		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof TypSelector)) {
+				return false;
+			}
+			TypSelector other = (TypSelector) obj;
+			return isE == other.isE;
+		}
+
+		@Override
+		public int hashCode() {
+			return isE ? 1231 : 1237;
+		}
+
+		@Override
+		public Indexer<Mitglied> getIndexer() {
+			return INDEXER;
+		}
+
+		@Override
+		public Object getSchluessel() {
+			return isE;
+		}
 	}
 
 	public static class ZeitraumSelektor implements Selector<Mitglied> {
-		private Date zeitpunkt;
+		private static final long serialVersionUID = 1L;
+
+		// NOTE: in Millisekunden, damit spaetere Aenderungen am uebergebenen
+		// Date den Selektor (Schluessel gemerkter Ergebnisse) nicht veraendern
+		private long zeitpunkt;
 
 		/**
 		 * Vorbedingung: zeitpunkt != null
 		 */
 		public ZeitraumSelektor(Date zeitpunkt) {
-			this.zeitpunkt = zeitpunkt;
+			this.zeitpunkt = zeitpunkt.getTime();
 		}
 
 		@Override
@@ -163,9 +320,32 @@ public class Mitglied implements Serializable {
 		public boolean select(Mitglied item) {
 			return item.getZeitraum().inZeitraum(zeitpunkt);
 		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ZeitraumSelektor)) {
+				return false;
+			}
+			ZeitraumSelektor other = (ZeitraumSelektor) obj;
+			return zeitpunkt == other.zeitpunkt;
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) (zeitpunkt ^ (zeitpunkt >>> 32));
+		}
 	}
 
-	public static class InstrumentSelektor implements Selector<Mitglied> {
+	public static class InstrumentSelektor implements IndexSelector<Mitglied> {
+		private static final long serialVersionUID = 1L;
+
+		private static final Indexer<Mitglied> INDEXER = new Indexer<Mitglied>() {
+			@Override
+			public Object getSchluessel(Mitglied item) {
+				return Index.ohneGrossschreibung(item.instrument);
+			}
+		};
+
 		private String instrument;
 
 		public InstrumentSelektor(String instrument) {
@@ -179,9 +359,35 @@ public class Mitglied implements Serializable {
 		public boolean select(Mitglied item) {
 			return item.instrument.compareToIgnoreCase(instrument) == 0;
 		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof InstrumentSelektor)) {
+				return false;
+			}
+			InstrumentSelektor other = (InstrumentSelektor) obj;
+			return getSchluessel().equals(other.getSchluessel());
+		}
+
+		@Override
+		public int hashCode() {
+			return getSchluessel().hashCode();
+		}
+
+		@Override
+		public Indexer<Mitglied> getIndexer() {
+			return INDEXER;
+		}
+
+		@Override
+		public Object getSchluessel() {
+			return Index.ohneGrossschreibung(instrument);
+		}
 	}
 
 	public static class NameSelektor implements Selector<Mitglied> {
+		private static final long serialVersionUID = 1L;
+
 		private String[] namen;
 
 		/**
@@ -204,5 +410,19 @@ public class Mitglied implements Serializable {
 
 			return false;
 		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof NameSelektor)) {
+				return false;
+			}
+			NameSelektor other = (NameSelektor) obj;
+			return Arrays.equals(namen, other.namen);
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(namen);
+		}
 	}
 }
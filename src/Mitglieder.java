@@ -1,3 +1,4 @@
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -14,6 +15,16 @@ public class Mitglieder extends Selection<Mitglied> {
 	public Mitglieder() {
 	}
 
+	/**
+	 * NOTE: Eine nebenlaeufige Sammlung darf von mehreren Threads
+	 * gleichzeitig gelesen und veraendert werden (siehe Selection).
+	 * 
+	 * Nachbedingung: das neue Mitglieder Objekt enthaelt keine Mitglieder
+	 */
+	public Mitglieder(boolean nebenlaeufig) {
+		super(nebenlaeufig);
+	}
+
 	/**
 	 * NOTE: Erstelle eine neue Mitglieder Sammlung die auf den selben Daten wie
 	 * <code>base</code> arbeitet. Es sind jedoch nur Elemente sichtbar, die von
@@ -46,4 +57,36 @@ public class Mitglieder extends Selection<Mitglied> {
 	public Mitglieder select(List<Selector<Mitglied>> selectors) {
 		return new Mitglieder(this, selectors);
 	}
+
+	/**
+	 * NOTE: Oeffnet eine mit speichereSicht gespeicherte Sicht. Das Ergebnis
+	 * der Sicht ist bereits bekannt und wird nicht neu berechnet.
+	 * 
+	 * @return die Sicht, oder null wenn es keine Sicht mit diesem Namen gibt.
+	 */
+	public Mitglieder getSicht(String name) {
+		List<Selector<Mitglied>> selectors = getSichtSelektoren(name);
+
+		if (selectors == null) {
+			return null;
+		}
+		return select(selectors);
+	}
+
+	/**
+	 * NOTE: Der Schnitt der Zeitraeume aller selektierten Mitglieder, also die
+	 * Zeit, in der alle verfuegbar sind.
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null. Er ist nicht
+	 * beschraenkt, wenn kein Mitglied selektiert ist.
+	 */
+	public Zeitraum getGemeinsamerZeitraum() {
+		List<Zeitraum> zeitraeume = new ArrayList<Zeitraum>();
+
+		for (Mitglied mitglied : this) {
+			zeitraeume.add(mitglied.getZeitraum());
+		}
+
+		return Zeitraum.schnitt(zeitraeume);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,211 @@
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * NOTE: Die Speicherstrategie einer nebenlaeufigen Selection (copy-on-write).
+ * Die nicht geloeschten Elemente der Slotliste werden als unveraenderlicher
+ * Stand veroeffentlicht. Lesende Zugriffe verwenden den jeweils aktuellen
+ * Stand ohne zu sperren und ohne die Slotliste (oder davon abgeleitete Daten
+ * wie Indizes und Ergebnisse) zu beruehren, sie werden von Schreibzugriffen
+ * daher nicht blockiert.
+ * 
+ * NOTE: Schreibzugriffe sperren die Momentaufnahme, veraendern die Slotliste
+ * wie bisher und veroeffentlichen beim Entsperren einen neuen Stand. Die
+ * Sperre ist wiedereintrittsfaehig, verschachtelte Schreibzugriffe (z.B. die
+ * einzelnen Loeschungen in Selection.remove) werden erst beim aeussersten
+ * Entsperren gemeinsam mit einer einzigen Kopie veroeffentlicht.
+ * 
+ * NOTE: Die Momentaufnahme ist bei der Slotliste angemeldet und merkt sich
+ * jede Veraenderung, auch solche, die nicht ueber die Selection erfolgen.
+ * Die Slotliste meldet Aenderungen von Elementen unter der selben Sperre.
+ * 
+ * Invariante: list, sperre und stand sind ungleich null. Ist veraendert
+ * false, enthaelt stand die nicht geloeschten Elemente von list.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+class Momentaufnahme<T> implements Slotbeobachter<T> {
+	private Slotliste<T> list;
+	private ReentrantLock sperre;
+	private volatile Stand stand;
+
+	// NOTE: true, wenn list seit dem letzten Veroeffentlichen veraendert
+	// wurde, wird nur mit gesperrter Momentaufnahme gesetzt
+	private volatile boolean veraendert;
+
+	/**
+	 * NOTE: Veroeffentlicht den ersten Stand und meldet die Momentaufnahme an.
+	 * 
+	 * Vorbedingung: list ist ungleich null
+	 */
+	public Momentaufnahme(Slotliste<T> list) {
+		this.list = list;
+		this.sperre = new ReentrantLock();
+		veroeffentliche();
+		list.anmelden(this);
+		list.setSperre(sperre);
+	}
+
+	/**
+	 * NOTE: Ohne zu warten, der Stand wird nach dem Veroeffentlichen nicht
+	 * mehr veraendert. Gibt es aufgeschobene Veraenderungen und schreibt
+	 * gerade kein anderer Thread, werden sie zuvor veroeffentlicht.
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist der zuletzt veroeffentlichte Stand
+	 * und ungleich null
+	 */
+	public Stand getStand() {
+		if (veraendert && sperre.tryLock()) {
+			try {
+				if (veraendert) {
+					veroeffentliche();
+				}
+			} finally {
+				sperre.unlock();
+			}
+		}
+		return stand;
+	}
+
+	/**
+	 * NOTE: Vor jedem Schreibzugriff. Wartet, bis kein anderer Thread
+	 * schreibt.
+	 */
+	public void sperre() {
+		sperre.lock();
+	}
+
+	/**
+	 * NOTE: Nach jedem Schreibzugriff (in einem finally-Block).
+	 * 
+	 * Vorbedingung: die Momentaufnahme wurde von diesem Thread gesperrt
+	 * 
+	 * @param veroeffentlichen
+	 *            false, wenn die Veraenderungen erst mit dem naechsten
+	 *            Entsperren veroeffentlicht werden sollen (siehe
+	 *            Selection.NebenlaeufigerIterator)
+	 */
+	public void entsperre(boolean veroeffentlichen) {
+		try {
+			if (veroeffentlichen && veraendert && sperre.getHoldCount() == 1) {
+				veroeffentliche();
+			}
+		} finally {
+			sperre.unlock();
+		}
+	}
+
+	/**
+	 * NOTE: Veroeffentlicht aufgeschobene Veraenderungen.
+	 */
+	public void aktualisiere() {
+		sperre();
+		entsperre(true);
+	}
+
+	/**
+	 * NOTE: Kopiert die nicht geloeschten Elemente mit ihren Positionen.
+	 * 
+	 * Nachbedingung: stand enthaelt die nicht geloeschten Elemente von list
+	 */
+	private void veroeffentliche() {
+		int anzahl = list.size();
+		Object[] elemente = new Object[anzahl];
+		int[] positionen = new int[anzahl];
+		int slots = list.getSlots();
+		int j = 0;
+
+		for (int i = list.naechste(0); i < slots; i = list.naechste(i + 1)) {
+			elemente[j] = list.get(i);
+			positionen[j++] = i;
+		}
+
+		stand = new Stand(elemente, positionen, list.getEpoche());
+		veraendert = false;
+	}
+
+	@Override
+	public void eingefuegt(int von, int bis) {
+		veraendert = true;
+	}
+
+	@Override
+	public void geloescht(int position) {
+		veraendert = true;
+	}
+
+	@Override
+	public void vorKompaktierung() {
+		veraendert = true;
+	}
+
+	@Override
+	public void elementGeaendert(T element, IntListe positionen) {
+		// NOTE: der Stand enthaelt die Elemente selbst, nicht ihren Zustand
+	}
+
+	/**
+	 * NOTE: Ein veroeffentlichter, unveraenderlicher Stand: die Elemente mit
+	 * ihren Positionen in der Slotliste zur Epoche beim Veroeffentlichen.
+	 * 
+	 * Invariante: elemente und positionen sind ungleich null und gleich lang,
+	 * elemente enthaelt keine Elemente gleich null. positionen ist
+	 * aufsteigend sortiert.
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	static final class Stand {
+		private final Object[] elemente;
+		private final int[] positionen;
+		private final int epoche;
+
+		private Stand(Object[] elemente, int[] positionen, int epoche) {
+			this.elemente = elemente;
+			this.positionen = positionen;
+			this.epoche = epoche;
+		}
+
+		/**
+		 * Nachbedingung: der Rueckgabewert ist >= 0
+		 */
+		public int size() {
+			return elemente.length;
+		}
+
+		/**
+		 * Vorbedingung: 0 <= index < size()
+		 * 
+		 * Nachbedingung: der Rueckgabewert ist ungleich null
+		 */
+		public Object get(int index) {
+			return elemente[index];
+		}
+
+		/**
+		 * Vorbedingung: 0 <= index < size()
+		 * 
+		 * @return die Position des Elementes in der Slotliste, gueltig solange
+		 *         sich die Epoche nicht geaendert hat
+		 */
+		public int getPosition(int index) {
+			return positionen[index];
+		}
+
+		/**
+		 * @return die Epoche der Slotliste beim Veroeffentlichen
+		 */
+		public int getEpoche() {
+			return epoche;
+		}
+
+		/**
+		 * NOTE: Fuer die Streams der Selection. Die Teilbereiche koennen ohne
+		 * Synchronisation in mehreren Threads durchlaufen werden.
+		 * 
+		 * Nachbedingung: der Rueckgabewert ist ungleich null und darf nicht
+		 * veraendert werden.
+		 */
+		Object[] getElemente() {
+			return elemente;
+		}
+	}
+}
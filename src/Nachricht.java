@@ -0,0 +1,172 @@
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * NOTE: Unveraenderliche Nachricht an Mitglieder. Statt des fertigen Textes
+ * werden nur die (unveraenderlichen) Bestandteile gespeichert: ein Vorspann,
+ * der Stand eines Termins (Typus, Ort, Zeitraum), ein Text, die Verweise auf
+ * andere Termine (z.B. Konflikte, jeweils als Nachricht mit deren Stand), die
+ * Aenderungen (jeweils Bezeichnung, alter und neuer Wert) und die Teile einer
+ * Sammelnachricht. Eine Nachricht wird einmal erstellt und allen Empfaengern
+ * als die selbe Referenz zugestellt, der Text erst beim ersten Lesen
+ * (toString) erzeugt und dann fuer alle Empfaenger wiederverwendet.
+ * 
+ * Format: vorspann + Termin + text + Verweise (wie eine Liste, "[a, b]", ohne
+ * Verweise nichts) + Aenderungen ("bezeichnung alt -> neu", durch ", "
+ * getrennt) + Teile (jeder in einer eigenen Zeile)
+ * 
+ * Invariante: vorspann, text, verweise, aenderungen und teile sind ungleich
+ * null, verweise enthaelt keine Elemente gleich null. typus,
+ * ort und zeitraum sind entweder alle null (kein Termin) oder alle ungleich
+ * null. Die Laenge von aenderungen ist ein Vielfaches von 3, die Eintraege
+ * sind ungleich null.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+class Nachricht implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private final String vorspann;
+	private final Termin.Typ typus;
+	private final Ort ort;
+	private final Zeitraum zeitraum;
+	private final String text;
+	private final Nachricht[] verweise;
+	private final Object[] aenderungen;
+	private final Nachricht[] teile;
+
+	// NOTE: der erzeugte Text, NULL solange die Nachricht nicht gelesen wurde
+	private transient volatile String gelesen;
+
+	/**
+	 * NOTE: aenderungen und teile werden nicht kopiert und duerfen danach
+	 * nicht mehr veraendert werden.
+	 * 
+	 * Vorbedingung: die Parameter erfuellen die Invariante
+	 */
+	Nachricht(String vorspann, Termin.Typ typus, Ort ort, Zeitraum zeitraum,
+			String text, Object[] aenderungen, Nachricht[] teile) {
+		this(vorspann, typus, ort, zeitraum, text, new Nachricht[0],
+				aenderungen, teile);
+	}
+
+	/**
+	 * NOTE: verweise, aenderungen und teile werden nicht kopiert und duerfen
+	 * danach nicht mehr veraendert werden.
+	 * 
+	 * Vorbedingung: die Parameter erfuellen die Invariante
+	 */
+	private Nachricht(String vorspann, Termin.Typ typus, Ort ort,
+			Zeitraum zeitraum, String text, Nachricht[] verweise,
+			Object[] aenderungen, Nachricht[] teile) {
+		this.vorspann = vorspann;
+		this.typus = typus;
+		this.ort = ort;
+		this.zeitraum = zeitraum;
+		this.text = text;
+		this.verweise = verweise;
+		this.aenderungen = aenderungen;
+		this.teile = teile;
+	}
+
+	/**
+	 * Vorbedingung: text ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist eine Nachricht mit genau text
+	 */
+	public static Nachricht text(String text) {
+		return new Nachricht("", null, null, null, text, new Object[0],
+				new Nachricht[0]);
+	}
+
+	/**
+	 * NOTE: Fasst mehrere Nachrichten an den selben Empfaenger zusammen, die
+	 * Teile werden nicht kopiert.
+	 * 
+	 * Vorbedingung: teile ist ungleich null und enthaelt keine Elemente gleich
+	 * null
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist die Nachricht "text" gefolgt von
+	 * jedem Teil in einer eigenen Zeile
+	 */
+	public static Nachricht sammlung(String text, List<Nachricht> teile) {
+		return new Nachricht("", null, null, null, text, new Object[0],
+				teile.toArray(new Nachricht[teile.size()]));
+	}
+
+	/**
+	 * NOTE: Von jedem Termin wird nur der aktuelle Stand (Typus, Ort,
+	 * Zeitraum) gemerkt, geschrieben wird er erst beim Lesen.
+	 * 
+	 * Vorbedingung: termine ist ungleich null und enthaelt keine Elemente
+	 * gleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist diese Nachricht mit den termine
+	 * als Verweisen (eine bestehende Liste von Verweisen wird ersetzt)
+	 */
+	public Nachricht mitVerweisen(List<Termin> termine) {
+		Nachricht[] stand = new Nachricht[termine.size()];
+
+		for (int i = 0; i < stand.length; i++) {
+			stand[i] = termine.get(i).nachricht("", "", null, null);
+		}
+
+		return new Nachricht(vorspann, typus, ort, zeitraum, text, stand,
+				aenderungen, teile);
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	@Override
+	public String toString() {
+		String ergebnis = gelesen;
+
+		if (ergebnis == null) {
+			ergebnis = Bericht.alsText(this, false);
+			gelesen = ergebnis;
+		}
+
+		return ergebnis;
+	}
+
+	/**
+	 * NOTE: Der Termin wird im Format von Termin.toString geschrieben, die
+	 * alten und neuen Werte ueber ihr toString.
+	 * 
+	 * Vorbedingung: bericht ist ungleich null
+	 */
+	void schreibe(Bericht bericht) throws IOException {
+		bericht.text(vorspann);
+
+		if (typus != null) {
+			Termin.schreibe(bericht, typus, ort, zeitraum);
+		}
+		bericht.text(text);
+
+		if (verweise.length > 0) {
+			bericht.zeichen('[');
+			for (int i = 0; i < verweise.length; i++) {
+				if (i > 0) {
+					bericht.text(", ");
+				}
+				verweise[i].schreibe(bericht);
+			}
+			bericht.zeichen(']');
+		}
+
+		for (int i = 0; i < aenderungen.length; i += 3) {
+			if (i > 0) {
+				bericht.text(", ");
+			}
+			bericht.text(String.valueOf(aenderungen[i]))
+					.text(String.valueOf(aenderungen[i + 1])).text(" -> ")
+					.text(String.valueOf(aenderungen[i + 2]));
+		}
+		for (Nachricht teil : teile) {
+			// NOTE: ein Teil kann in mehreren Sammelnachrichten vorkommen
+			bericht.zeichen('\n').text(teil.toString());
+		}
+	}
+}
@@ -49,6 +49,8 @@ public class Ort implements Serializable {
 	}
 
 	public static class BezeichnungSelektor implements Selector<Ort> {
+		private static final long serialVersionUID = 1L;
+
 
 		private String name;
 		private boolean enthaelt;
@@ -94,8 +96,24 @@ public class Ort implements Serializable {
 				return item.bezeichnung.equalsIgnoreCase(name);
 			}
 		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof BezeichnungSelektor)) {
+				return false;
+			}
+			BezeichnungSelektor other = (BezeichnungSelektor) obj;
+			return enthaelt == other.enthaelt && name.equals(other.name);
+		}
+
+		@Override
+		public int hashCode() {
+			return name.hashCode() * 31 + (enthaelt ? 1 : 0);
+		}
 	}
 	public static class InfrastrukturSelektor implements Selector<Ort> {
+		private static final long serialVersionUID = 1L;
+
 		private String name;
 
 		public InfrastrukturSelektor(String einrichtung) {
@@ -117,5 +135,19 @@ public class Ort implements Serializable {
 			return false;
 		}
 
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof InfrastrukturSelektor)) {
+				return false;
+			}
+			InfrastrukturSelektor other = (InfrastrukturSelektor) obj;
+			return name.equalsIgnoreCase(other.name);
+		}
+
+		@Override
+		public int hashCode() {
+			return Index.ohneGrossschreibung(name).hashCode();
+		}
+
 	}
 }
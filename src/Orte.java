@@ -37,4 +37,19 @@ public class Orte extends Selection<Ort> {
 	public Orte select(List<Selector<Ort>> selectors) {
 		return new Orte(this, selectors);
 	}
+
+	/**
+	 * NOTE: Oeffnet eine mit speichereSicht gespeicherte Sicht. Das Ergebnis
+	 * der Sicht ist bereits bekannt und wird nicht neu berechnet.
+	 * 
+	 * @return die Sicht, oder null wenn es keine Sicht mit diesem Namen gibt.
+	 */
+	public Orte getSicht(String name) {
+		List<Selector<Ort>> selectors = getSichtSelektoren(name);
+
+		if (selectors == null) {
+			return null;
+		}
+		return select(selectors);
+	}
 }
@@ -1,5 +1,5 @@
+import java.io.IOException;
 import java.io.Serializable;
-import java.text.DateFormat;
 import java.util.Date;
 
 /**
@@ -42,8 +42,19 @@ public class Posten implements Serializable {
 
 	/**
 	 * NOTE: Selektiert Posten die sich mit angegebenen Zeitraum ueberschneiden
+	 * 
+	 * NOTE: Die Kandidaten koennen ueber einen Bereichsindex nach Datum
+	 * ermittelt werden.
 	 */
-	public static class ZeitraumSelektor implements Selector<Posten> {
+	public static class ZeitraumSelektor implements BereichSelector<Posten> {
+		private static final long serialVersionUID = 1L;
+
+		private static final Zeitindexer<Posten> INDEXER = new Zeitindexer<Posten>() {
+			@Override
+			public long getZeitpunkt(Posten item) {
+				return item.datum.getTime();
+			}
+		};
 
 		private Zeitraum zeitraum;
 
@@ -56,6 +67,13 @@ public class Posten implements Serializable {
 			this.zeitraum = zeitraum;
 		}
 
+		/**
+		 * Nachbedingung: der Rueckgabewert ist ungleich null
+		 */
+		Zeitraum getZeitraum() {
+			return zeitraum;
+		}
+
 		/**
 		 * Vorbedingung: item ist ungleich null
 		 */
@@ -64,6 +82,30 @@ public class Posten implements Serializable {
 			return this.zeitraum.inZeitraum(item.datum);
 		}
 
+		@Override
+		public Zeitindexer<Posten> getZeitindexer() {
+			return INDEXER;
+		}
+
+		@Override
+		public long[] getBereiche() {
+			return zeitraum.getGrenzen();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ZeitraumSelektor)) {
+				return false;
+			}
+			ZeitraumSelektor other = (ZeitraumSelektor) obj;
+			return zeitraum.equals(other.zeitraum);
+		}
+
+		@Override
+		public int hashCode() {
+			return zeitraum.hashCode();
+		}
+
 	}
 
 	/**
@@ -80,20 +122,45 @@ public class Posten implements Serializable {
 		return this.ausgaben;
 	}
 
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	Date getDatum() {
+		return this.datum;
+	}
+
 	/**
 	 * Nachbedingung: der Rueckgabewert ist ungleich null
 	 */
 	public String toString() {
-		String gewinn = String.format("%+,.2f", (einnahmen - ausgaben));
-		return this.bezeichnung + ": " + gewinn;
+		return Bericht.alsText(this, false);
 	}
 
 	/**
 	 * Nachbedingung: der Rueckgabewert ist ungleich null
 	 */
 	public String toDetailString() {
-		String datum = DateFormat.getDateInstance().format(this.datum);
-		String einAus = String.format("+%,.2f/-%,.2f", einnahmen, ausgaben);
-		return datum + ": " + this.bezeichnung + " (" + einAus + ")";
+		return Bericht.alsText(this, true);
+	}
+
+	/**
+	 * NOTE: Format von toString: "Bezeichnung: +Gewinn"
+	 * 
+	 * Vorbedingung: bericht ist ungleich null
+	 */
+	void schreibe(Bericht bericht) throws IOException {
+		bericht.text(bezeichnung).text(": ")
+				.betrag(einnahmen - ausgaben, true);
+	}
+
+	/**
+	 * NOTE: Format von toDetailString: "Datum: Bezeichnung (+Ein/-Aus)"
+	 * 
+	 * Vorbedingung: bericht ist ungleich null
+	 */
+	void schreibeDetails(Bericht bericht) throws IOException {
+		bericht.datum(datum.getTime()).text(": ").text(bezeichnung)
+				.text(" (+").betrag(einnahmen, false).text("/-")
+				.betrag(ausgaben, false).zeichen(')');
 	}
 }
@@ -0,0 +1,291 @@
+import java.util.Arrays;
+
+/**
+ * NOTE: Spaltenweise Kopie der Posten einer GuV. Fuer jede Eigenschaft gibt es
+ * ein Array, dessen Index der Position in der Slotliste entspricht. Summen
+ * koennen so in engen Schleifen ueber primitive Arrays berechnet werden, ohne
+ * jeden Posten (und sein Datum) einzeln zu lesen.
+ * 
+ * NOTE: Summiert wird blockweise: innerhalb eines Blocks in vier
+ * unabhaengigen Teilsummen (die der JIT vektorisieren kann), die Summe der
+ * Bloecke kompensiert (siehe Summe).
+ * 
+ * NOTE: Posten sind unveraenderlich. Die Spalten werden daher nur um neu
+ * hinzugekommene Slots erweitert und erst nach einer Kompaktierung der
+ * Slotliste neu erstellt. Geloeschte Slots werden beim Summieren
+ * uebersprungen.
+ * 
+ * Invariante: list, einnahmen, ausgaben und datum sind ungleich null. Die
+ * Slots 0 bis bis - 1 der list sind in den Spalten enthalten.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+class PostenSpalten {
+	// NOTE: so viele Werte werden ohne Kompensation summiert, danach wird die
+	// Teilsumme kompensiert zur Gesamtsumme addiert
+	private static final int BLOCK = 1024;
+
+	private Slotliste<Posten> list;
+	private double[] einnahmen;
+	private double[] ausgaben;
+	private long[] datum; // in Millisekunden seit 1.1.1970
+	private int bis;
+	private int epoche;
+
+	/**
+	 * Vorbedingung: list ist ungleich null
+	 */
+	public PostenSpalten(Slotliste<Posten> list) {
+		this.list = list;
+		erstelle();
+	}
+
+	/**
+	 * NOTE: Berechnet die Summe einer Spalte ueber alle nicht geloeschten
+	 * Posten, deren Datum in allen Zeitraeumen liegt. Sind Kandidaten
+	 * angegeben, werden nur diese Positionen betrachtet.
+	 * 
+	 * Vorbedingung: spalte und zeitraeume sind ungleich null. zeitraeume
+	 * enthaelt keine Elemente gleich null. kandidaten ist null oder enthaelt
+	 * aufsteigend die Positionen aller Posten, die in den Zeitraeumen liegen
+	 * koennen.
+	 */
+	public double summe(Spalte spalte, Zeitraum[] zeitraeume,
+			IntListe kandidaten) {
+		aktualisiere();
+
+		Summe summe = new Summe();
+
+		if (kandidaten != null) {
+			int[] positionen = kandidaten.getWerte();
+			double teilsumme = 0;
+
+			for (int i = 0; i < kandidaten.size(); i++) {
+				int position = positionen[i];
+
+				if (!list.istGeloescht(position)
+						&& inZeitraeumen(datum[position], zeitraeume)) {
+					teilsumme += wert(spalte, position);
+				}
+				if ((i + 1) % BLOCK == 0) {
+					summe.add(teilsumme);
+					teilsumme = 0;
+				}
+			}
+			summe.add(teilsumme);
+			return summe.getWert();
+		}
+
+		boolean[] treffer = zeitraeume.length == 0 ? null
+				: new boolean[BLOCK];
+
+		// NOTE: durchlaufe die zusammenhaengenden Bereiche nicht geloeschter
+		// Slots blockweise
+		int von = list.naechste(0);
+		while (von < bis) {
+			int ende = Math.min(list.naechsteGeloeschte(von), bis);
+
+			for (int block = von; block < ende; block += BLOCK) {
+				int blockEnde = Math.min(block + BLOCK, ende);
+
+				if (treffer != null) {
+					markiere(block, blockEnde, zeitraeume, treffer);
+				}
+				summe.add(blocksumme(spalte, block, blockEnde, treffer));
+			}
+			von = list.naechste(ende);
+		}
+
+		return summe.getWert();
+	}
+
+	/**
+	 * Vorbedingung: 0 <= position < bis
+	 */
+	private double wert(Spalte spalte, int position) {
+		switch (spalte) {
+		case EINNAHMEN:
+			return einnahmen[position];
+		case AUSGABEN:
+			return ausgaben[position];
+		default:
+			return einnahmen[position] - ausgaben[position];
+		}
+	}
+
+	/**
+	 * NOTE: Die Datumspruefung wird fuer einen Block vorab ausgewertet, damit
+	 * die Summenschleifen keine Aufrufe enthalten.
+	 * 
+	 * Vorbedingung: 0 <= von <= ende <= bis, ende - von <= BLOCK
+	 * 
+	 * Nachbedingung: treffer[i - von] ist true, wenn das Datum von Slot i in
+	 * allen zeitraeumen liegt
+	 */
+	private void markiere(int von, int ende, Zeitraum[] zeitraeume,
+			boolean[] treffer) {
+		for (int i = von; i < ende; i++) {
+			treffer[i - von] = inZeitraeumen(datum[i], zeitraeume);
+		}
+	}
+
+	/**
+	 * Vorbedingung: 0 <= von <= ende <= bis, ende - von <= BLOCK. treffer ist
+	 * null (alle Slots) oder von markiere fuer diesen Block gefuellt.
+	 * 
+	 * @return die Summe der Spalte ueber den Block (ohne Kompensation)
+	 */
+	private double blocksumme(Spalte spalte, int von, int ende,
+			boolean[] treffer) {
+		switch (spalte) {
+		case EINNAHMEN:
+			return blocksumme(einnahmen, von, ende, treffer);
+		case AUSGABEN:
+			return blocksumme(ausgaben, von, ende, treffer);
+		default:
+			return blocksumme(einnahmen, von, ende, treffer)
+					- blocksumme(ausgaben, von, ende, treffer);
+		}
+	}
+
+	/**
+	 * NOTE: Vier unabhaengige Teilsummen, damit die Additionen nicht
+	 * aufeinander warten muessen und der JIT die Schleife vektorisieren
+	 * kann. Innerhalb eines Blocks wird nicht kompensiert, der Fehler ist
+	 * daher durch die Blockgroesse beschraenkt.
+	 * 
+	 * Vorbedingung: werte ist ungleich null, 0 <= von <= ende <=
+	 * werte.length, ende - von <= BLOCK. treffer ist null (alle Werte) oder
+	 * enthaelt fuer jeden Wert i an Index i - von, ob er summiert wird.
+	 */
+	private static double blocksumme(double[] werte, int von, int ende,
+			boolean[] treffer) {
+		double s0 = 0;
+		double s1 = 0;
+		double s2 = 0;
+		double s3 = 0;
+		int i = von;
+
+		if (treffer == null) {
+			for (; i + 3 < ende; i += 4) {
+				s0 += werte[i];
+				s1 += werte[i + 1];
+				s2 += werte[i + 2];
+				s3 += werte[i + 3];
+			}
+			for (; i < ende; i++) {
+				s0 += werte[i];
+			}
+		} else {
+			for (; i + 3 < ende; i += 4) {
+				int j = i - von;
+				s0 += treffer[j] ? werte[i] : 0.0;
+				s1 += treffer[j + 1] ? werte[i + 1] : 0.0;
+				s2 += treffer[j + 2] ? werte[i + 2] : 0.0;
+				s3 += treffer[j + 3] ? werte[i + 3] : 0.0;
+			}
+			for (; i < ende; i++) {
+				s0 += treffer[i - von] ? werte[i] : 0.0;
+			}
+		}
+
+		return (s0 + s1) + (s2 + s3);
+	}
+
+	/**
+	 * @return true, wenn zeitpunkt in allen zeitraeumen liegt
+	 */
+	private static boolean inZeitraeumen(long zeitpunkt, Zeitraum[] zeitraeume) {
+		for (Zeitraum zeitraum : zeitraeume) {
+			if (!zeitraum.inZeitraum(zeitpunkt)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * NOTE: Erstellt die Spalten neu, wenn die Slotliste kompaktiert wurde,
+	 * und fuegt sonst die neuen Slots hinzu.
+	 * 
+	 * Nachbedingung: alle Slots der list sind in den Spalten enthalten.
+	 */
+	private void aktualisiere() {
+		if (epoche != list.getEpoche()) {
+			erstelle();
+		}
+
+		int slots = list.getSlots();
+
+		if (slots > einnahmen.length) {
+			int laenge = Math.max(slots,
+					einnahmen.length + (einnahmen.length >> 1));
+			einnahmen = Arrays.copyOf(einnahmen, laenge);
+			ausgaben = Arrays.copyOf(ausgaben, laenge);
+			datum = Arrays.copyOf(datum, laenge);
+		}
+
+		for (; bis < slots; bis++) {
+			Posten posten = list.get(bis);
+
+			einnahmen[bis] = posten.getEinnahmen();
+			ausgaben[bis] = posten.getAusgaben();
+			datum[bis] = posten.getDatum().getTime();
+		}
+	}
+
+	/**
+	 * Nachbedingung: die Spalten sind leer und gehoeren zur aktuellen Epoche
+	 * der list.
+	 */
+	private void erstelle() {
+		this.einnahmen = new double[0];
+		this.ausgaben = new double[0];
+		this.datum = new long[0];
+		this.bis = 0;
+		this.epoche = list.getEpoche();
+	}
+
+	/**
+	 * NOTE: Die summierbaren Werte eines Postens
+	 */
+	public static enum Spalte {
+		EINNAHMEN, AUSGABEN, GEWINN;
+	}
+
+	/**
+	 * NOTE: Kompensierte Summe (wie DoubleStream.sum), damit auch bei sehr
+	 * vielen Posten keine Rundungsfehler anwachsen. Wird auch von Aggregat
+	 * verwendet.
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	static class Summe {
+		private double summe;
+		private double kompensation;
+		private double einfacheSumme;
+
+		/**
+		 * Nachbedingung: wert ist zur Summe addiert
+		 */
+		public void add(double wert) {
+			double y = wert - kompensation;
+			double t = summe + y;
+
+			kompensation = (t - summe) - y;
+			summe = t;
+			einfacheSumme += wert;
+		}
+
+		/**
+		 * NOTE: Ist die kompensierte Summe NaN, aber die einfache unendlich,
+		 * ist die einfache Summe das richtige Ergebnis.
+		 */
+		public double getWert() {
+			if (Double.isNaN(summe) && Double.isInfinite(einfacheSumme)) {
+				return einfacheSumme;
+			}
+			return summe;
+		}
+	}
+}
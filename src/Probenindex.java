@@ -0,0 +1,284 @@
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * NOTE: Ein Index ueber die Proben jedes Mitglieds. Fuer jeden Teilnehmer
+ * gibt es ein sortiertes Array der Beginne und eines der Enden seiner Proben.
+ * Die Anzahl der Proben, die in einem Zeitraum [von, bis] liegen, ist dann
+ * die Anzahl der Enden <= bis minus die Anzahl der Beginne < von - zwei
+ * binaere Suchen statt eines Durchlaufs aller Termine. Das gilt, solange
+ * keine Probe laenger als der Zeitraum dauert (sonst koennte sie vor von
+ * beginnen und nach bis enden).
+ * 
+ * NOTE: Der Index ist bei der Slotliste angemeldet und wird bei jedem
+ * Einfuegen, Loeschen und jeder Aenderung eines Termins nachgefuehrt. Wie
+ * beim Aggregat wird fuer jede Probe ihr letzter bekannter Zeitraum gemerkt,
+ * damit er bei einer Aenderung oder beim Loeschen ausgetragen werden kann.
+ * Typus und Teilnehmer eines Termins aendern sich nie.
+ * 
+ * Invariante: list, eintraege und nachTeilnehmer sind ungleich null. Die
+ * Proben aller nicht geloeschten Slots sind mit ihrem Zeitraum aus
+ * eintraege bei jedem ihrer Teilnehmer eingetragen.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+class Probenindex implements Slotbeobachter<Termin> {
+	private static final Selector<Termin> PROBEN = new Termin.TypSelektor(
+			Termin.Typ.Probe);
+
+	private Slotliste<Termin> list;
+	private IdentityHashMap<Termin, Eintrag> eintraege;
+	private Map<Mitglied, Proben> nachTeilnehmer;
+
+	/**
+	 * NOTE: Durchlaeuft list einmal und meldet den Index an.
+	 * 
+	 * Vorbedingung: list ist ungleich null
+	 */
+	public Probenindex(Slotliste<Termin> list) {
+		this.list = list;
+		this.eintraege = new IdentityHashMap<Termin, Eintrag>();
+		this.nachTeilnehmer = new IdentityHashMap<Mitglied, Proben>();
+
+		int slots = list.getSlots();
+		for (int i = list.naechste(0); i < slots; i = list.naechste(i + 1)) {
+			einfuegen(list.get(i));
+		}
+		list.anmelden(this);
+	}
+
+	/**
+	 * NOTE: Zaehlt wie ein Termin.ZeitraumSelektor([von, bis]) zusammen mit
+	 * einem TeilnehmerSelektor(mitglied) auf die Proben.
+	 * 
+	 * Vorbedingung: mitglied ist ungleich null, von <= bis
+	 * 
+	 * @return die Anzahl der Proben von mitglied, die in [von, bis] beginnen
+	 *         und enden, oder -1 wenn eine Probe von mitglied laenger als
+	 *         [von, bis] dauert (die Anzahl ist dann nicht bekannt).
+	 */
+	public int anzahl(Mitglied mitglied, long von, long bis) {
+		Proben proben = nachTeilnehmer.get(mitglied);
+
+		if (proben == null) {
+			return 0;
+		}
+		if (proben.maxDauer > bis - von) {
+			return -1;
+		}
+		return proben.anzahlEndenBis(bis) - proben.anzahlBeginneVor(von);
+	}
+
+	@Override
+	public void eingefuegt(int von, int bis) {
+		for (int i = von; i < bis; i++) {
+			einfuegen(list.get(i));
+		}
+	}
+
+	/**
+	 * Vorbedingung: termin ist ungleich null und wurde in einen Slot
+	 * eingefuegt.
+	 */
+	private void einfuegen(Termin termin) {
+		if (!PROBEN.select(termin)) {
+			return;
+		}
+
+		Eintrag eintrag = eintraege.get(termin);
+
+		if (eintrag == null) {
+			eintrag = new Eintrag(termin.getZeitraum());
+			eintraege.put(termin, eintrag);
+		}
+
+		eintrag.vorkommen++;
+		trageEin(termin, eintrag);
+	}
+
+	@Override
+	public void geloescht(int position) {
+		Termin termin = list.get(position);
+		Eintrag eintrag = eintraege.get(termin);
+
+		if (eintrag == null) {
+			return;
+		}
+
+		trageAus(termin, eintrag);
+		if (--eintrag.vorkommen == 0) {
+			eintraege.remove(termin);
+		}
+	}
+
+	@Override
+	public void vorKompaktierung() {
+		// NOTE: der Index haengt nicht von den Positionen ab
+	}
+
+	@Override
+	public void elementGeaendert(Termin termin, IntListe positionen) {
+		Eintrag eintrag = eintraege.get(termin);
+
+		if (eintrag == null) {
+			return;
+		}
+
+		long beginn = termin.getZeitraum().getErsterZeitpunkt();
+		long ende = termin.getZeitraum().getLetzterZeitpunkt();
+
+		if (beginn == eintrag.beginn && ende == eintrag.ende) {
+			return; // NOTE: z.B. nur die Kosten geaendert
+		}
+
+		for (int i = 0; i < eintrag.vorkommen; i++) {
+			trageAus(termin, eintrag);
+		}
+		eintrag.beginn = beginn;
+		eintrag.ende = ende;
+		for (int i = 0; i < eintrag.vorkommen; i++) {
+			trageEin(termin, eintrag);
+		}
+	}
+
+	private void trageEin(Termin termin, Eintrag eintrag) {
+		for (Mitglied teilnehmer : termin.getTeilnehmer()) {
+			Proben proben = nachTeilnehmer.get(teilnehmer);
+
+			if (proben == null) {
+				proben = new Proben();
+				nachTeilnehmer.put(teilnehmer, proben);
+			}
+			proben.add(eintrag.beginn, eintrag.ende);
+		}
+	}
+
+	private void trageAus(Termin termin, Eintrag eintrag) {
+		for (Mitglied teilnehmer : termin.getTeilnehmer()) {
+			nachTeilnehmer.get(teilnehmer).remove(eintrag.beginn,
+					eintrag.ende);
+		}
+	}
+
+	/**
+	 * NOTE: Der eingetragene Zeitraum einer Probe und wie oft sie in der
+	 * Slotliste vorkommt.
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private static class Eintrag {
+		private long beginn;
+		private long ende;
+		private int vorkommen;
+
+		/**
+		 * Vorbedingung: zeitraum ist beschraenkt
+		 */
+		public Eintrag(Zeitraum zeitraum) {
+			this.beginn = zeitraum.getErsterZeitpunkt();
+			this.ende = zeitraum.getLetzterZeitpunkt();
+		}
+	}
+
+	/**
+	 * NOTE: Die Proben eines Mitglieds als drei unabhaengig sortierte Arrays.
+	 * Die Dauern werden mitgefuehrt, damit maxDauer nach dem Austragen der
+	 * laengsten Probe wieder sinkt.
+	 * 
+	 * Invariante: beginne, enden und dauern sind gleich lang, die ersten
+	 * anzahl Eintraege sind aufsteigend sortiert. maxDauer ist die laengste
+	 * Dauer (0 ohne Proben).
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private static class Proben {
+		private long[] beginne = new long[4];
+		private long[] enden = new long[4];
+		private long[] dauern = new long[4];
+		private int anzahl;
+		private long maxDauer;
+
+		public void add(long beginn, long ende) {
+			if (anzahl == beginne.length) {
+				beginne = Arrays.copyOf(beginne, anzahl * 2);
+				enden = Arrays.copyOf(enden, anzahl * 2);
+				dauern = Arrays.copyOf(dauern, anzahl * 2);
+			}
+			fuegeEin(beginne, beginn);
+			fuegeEin(enden, ende);
+			fuegeEin(dauern, ende - beginn);
+			anzahl++;
+			maxDauer = dauern[anzahl - 1];
+		}
+
+		/**
+		 * Vorbedingung: die Probe [beginn, ende] ist eingetragen
+		 */
+		public void remove(long beginn, long ende) {
+			entferne(beginne, beginn);
+			entferne(enden, ende);
+			entferne(dauern, ende - beginn);
+			anzahl--;
+			maxDauer = anzahl == 0 ? 0 : dauern[anzahl - 1];
+		}
+
+		/**
+		 * @return die Anzahl der Proben, die vor zeitpunkt beginnen
+		 */
+		public int anzahlBeginneVor(long zeitpunkt) {
+			return untereGrenze(beginne, zeitpunkt);
+		}
+
+		/**
+		 * @return die Anzahl der Proben, die spaetestens zu zeitpunkt enden
+		 */
+		public int anzahlEndenBis(long zeitpunkt) {
+			return zeitpunkt == Long.MAX_VALUE ? anzahl : untereGrenze(enden,
+					zeitpunkt + 1);
+		}
+
+		/**
+		 * Vorbedingung: werte hat Platz fuer einen weiteren Eintrag
+		 */
+		private void fuegeEin(long[] werte, long wert) {
+			int position = untereGrenze(werte, wert);
+
+			System.arraycopy(werte, position, werte, position + 1, anzahl
+					- position);
+			werte[position] = wert;
+		}
+
+		/**
+		 * Vorbedingung: wert ist in werte enthalten
+		 */
+		private void entferne(long[] werte, long wert) {
+			int position = untereGrenze(werte, wert);
+
+			System.arraycopy(werte, position + 1, werte, position, anzahl
+					- position - 1);
+		}
+
+		/**
+		 * NOTE: Binaere Suche
+		 * 
+		 * @return die Anzahl der Eintraege < wert
+		 */
+		private int untereGrenze(long[] werte, long wert) {
+			int von = 0;
+			int bis = anzahl;
+
+			while (von < bis) {
+				int mitte = (von + bis) >>> 1;
+
+				if (werte[mitte] < wert) {
+					von = mitte + 1;
+				} else {
+					bis = mitte;
+				}
+			}
+
+			return von;
+		}
+	}
+}
@@ -1,10 +1,23 @@
 import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * NOTE: Eine Selektion von Elementen. Welche Elemente sichtbar sind, wird mit
@@ -16,8 +29,25 @@ import java.util.ListIterator;
  * Selection selbst betreffen. Durch die Vererbung koennen alle Unterklassen
  * trotzdem auf die Funktionalitaet (remove/restore/add/...) zurueckgreifen.
  * 
- * Invariante: list, removed und selectors sind ungleich null und enthalten
- * keine Elemente gleich null.
+ * NOTE: Mit speichereSicht kann eine Selektion unter einem Namen gespeichert
+ * werden. Ihr Ergebnis wird bei jeder Veraenderung nachgefuehrt und mit der
+ * Selection serialisiert.
+ * 
+ * NOTE: Eine nebenlaeufige Selektion (siehe Selection(boolean)) darf von
+ * mehreren Threads gleichzeitig verwendet werden. Die Elemente werden dann
+ * zusaetzlich als Momentaufnahme (copy-on-write) veroeffentlicht: iterator,
+ * count, getFirst, asList, toString und die Streams lesen den zuletzt
+ * veroeffentlichten Stand ohne zu sperren und werten dabei nur die Selektoren
+ * aus (ohne Indizes, gemerkte Ergebnisse, Bitmaps, Aggregate, Statistiken und
+ * Metriken, die nicht fuer mehrere Threads gedacht sind). add, addAll, remove
+ * und restore sperren nur untereinander, ebenso die Nachfuehrung der
+ * abgeleiteten Daten, wenn sich ein Element aendert. Unterklassen sperren
+ * zusaetzlich fuer ihre Pruefungen und Abfragen abgeleiteter Daten (siehe
+ * sperre). Die uebrigen Methoden (z.B. explain, speichereSicht) sind nicht
+ * synchronisiert, ebensowenig die Eigenschaften der Elemente selbst.
+ * 
+ * Invariante: list, removed, selectors und sichten sind ungleich null und
+ * enthalten keine Elemente gleich null.
  * 
  * @author Peter Pilgerstorfer
  * 
@@ -25,17 +55,91 @@ import java.util.ListIterator;
 public class Selection<T> implements Iterable<T>, Serializable {
 	private static final long serialVersionUID = 1L;
 
-	private List<T> list;
-	private List<T> removed;
+	// NOTE: Frueher gespeicherte Selektionen enthalten list und removed als
+	// java.util.List und weder sichten noch nebenlaeufig. Sie werden in
+	// readObject umgewandelt.
+	private static final ObjectStreamField[] serialPersistentFields = {
+			new ObjectStreamField("list", Slotliste.class),
+			new ObjectStreamField("removed", Slotliste.class),
+			new ObjectStreamField("sichten", Sichten.class),
+			new ObjectStreamField("nebenlaeufig", boolean.class) };
+
+	// NOTE: Ab dieser Anzahl an Elementen werden Aggregationen parallel
+	// berechnet.
+	private static final int PARALLEL_AB = 10000;
+
+	// NOTE: Kleinere Teilbereiche werden vom Spliterator nicht mehr geteilt
+	private static final int MIN_TEILBEREICH = 1024;
+
+	// NOTE: So viele Elemente werden beim Einlesen aus einem Iterator auf
+	// einmal hinzugefuegt
+	private static final int STAPEL = 1 << 16;
+
+	// NOTE: Entfernte Elemente werden in list nur als geloescht markiert und
+	// gesammelt freigegeben. Dadurch ist das Entfernen vieler Elemente linear.
+	private Slotliste<T> list;
+	private Slotliste<T> removed;
 	private transient List<Selector<T>> selectors;
 
+	// NOTE: die benannten Sichten, werden von allen Sichten auf list gemeinsam
+	// verwendet und mitgespeichert
+	private Sichten<T> sichten;
+
+	// NOTE: die Selektoren in der geplanten Auswertungsreihenfolge, bzw. als
+	// Kette verbunden
+	private transient Selector<T>[] plan;
+	private transient Selector<T> kette;
+	private transient int auswertungen;
+
+	// NOTE: der Index des zuletzt gemessenen Selektors in plan
+	private transient int gemessen;
+
+	// NOTE: werden von allen Sichten auf list gemeinsam verwendet
+	private transient Indizes<T> indizes;
+	private transient Bitmaps<T> bitmaps;
+	private transient Ergebnisse<T> ergebnisse;
+
+	// NOTE: true, wenn die Selektion ueber die Bitmaps der Selektoren
+	// ausgewertet wird
+	private transient boolean bitmapModus;
+
+	// NOTE: das abonnierte Aggregat dieser Sicht, oder null
+	private transient Aggregat<T> aggregat;
+
+	// NOTE: true, wenn die Selektion nebenlaeufig verwendet werden darf. Die
+	// Momentaufnahme wird dann von allen Sichten auf list gemeinsam verwendet,
+	// sonst ist sie null.
+	private boolean nebenlaeufig;
+	private transient Momentaufnahme<T> momentaufnahme;
+
 	/**
 	 * Nachbedinung: Die Selektion enthaelt keine Elemente.
 	 */
 	public Selection() {
-		this.list = new ArrayList<T>();
-		this.removed = new ArrayList<T>();
+		this(false);
+	}
+
+	/**
+	 * NOTE: Waehlt die Speicherstrategie: eine nebenlaeufige Selektion (und
+	 * alle ihre Sichten) veroeffentlicht ihre Elemente zusaetzlich als
+	 * Momentaufnahme, siehe oben.
+	 * 
+	 * Nachbedinung: Die Selektion enthaelt keine Elemente.
+	 */
+	protected Selection(boolean nebenlaeufig) {
+		this.list = new Slotliste<T>();
+		this.removed = new Slotliste<T>();
 		this.selectors = new ArrayList<Selector<T>>();
+		this.sichten = new Sichten<T>(list);
+		this.indizes = new Indizes<T>(list);
+		this.bitmaps = new Bitmaps<T>(list, indizes);
+		this.ergebnisse = new Ergebnisse<T>(list);
+		this.nebenlaeufig = nebenlaeufig;
+
+		if (nebenlaeufig) {
+			this.momentaufnahme = new Momentaufnahme<T>(list);
+			planen();
+		}
 	}
 
 	/**
@@ -58,6 +162,133 @@ public class Selection<T> implements Iterable<T>, Serializable {
 		this.removed = base.removed;
 		this.selectors = selectors;
 		this.selectors.addAll(base.selectors);
+		this.sichten = base.sichten;
+		this.indizes = base.indizes;
+		this.bitmaps = base.bitmaps;
+		this.ergebnisse = base.ergebnisse;
+		this.bitmapModus = base.bitmapModus;
+		this.nebenlaeufig = base.nebenlaeufig;
+		this.momentaufnahme = base.momentaufnahme;
+
+		if (momentaufnahme != null) {
+			// NOTE: einmal, die lesenden Threads werten nur noch kette aus
+			planen();
+		}
+	}
+
+	/**
+	 * NOTE: Im Bitmap-Modus wird fuer jeden Selektor einmal die Bitmap der
+	 * selektierten Positionen berechnet. Die Selektion ist dann das UND dieser
+	 * Bitmaps, count() zaehlt nur noch die gesetzten Bits. Das lohnt sich,
+	 * wenn die selben Selektor-Objekte in mehreren Selektionen verwendet
+	 * werden, waehrend sich die Daten nicht aendern. Die Bitmaps werden bei
+	 * jeder Aenderung verworfen.
+	 * 
+	 * Nachbedingung: die Selektion wird genau dann ueber Bitmaps ausgewertet,
+	 * wenn bitmapModus true ist. Davon abgeleitete Sichten uebernehmen den
+	 * Modus.
+	 */
+	public void setBitmapModus(boolean bitmapModus) {
+		this.bitmapModus = bitmapModus;
+	}
+
+	/**
+	 * NOTE: Abonniert ein materialisiertes Aggregat fuer diese Sicht. Es wird
+	 * bei jeder Veraenderung der Elemente nachgefuehrt, count() liefert danach
+	 * die Anzahl ohne Durchlauf. Ein bestehendes Aggregat wird ersetzt.
+	 * 
+	 * NOTE: Aggregate werden nicht gespeichert.
+	 * 
+	 * Vorbedingung: summanden ist ungleich null und enthaelt keine Elemente
+	 * gleich null.
+	 * 
+	 * @param summanden
+	 *            liefern die zu summierenden Werte eines Elementes
+	 * @param zeitindexer
+	 *            liefert den Zeitpunkt eines Elementes fuer Minimum und
+	 *            Maximum, oder null
+	 */
+	protected void abonniereAggregat(List<ToDoubleFunction<T>> summanden,
+			Zeitindexer<T> zeitindexer) {
+		kuendigeAggregat();
+		getPlan();
+		aggregat = new Aggregat<T>(list, kette, summanden, zeitindexer);
+	}
+
+	/**
+	 * Nachbedingung: diese Sicht hat kein Aggregat
+	 */
+	public void kuendigeAggregat() {
+		if (aggregat != null) {
+			aggregat.abmelden();
+			aggregat = null;
+		}
+	}
+
+	/**
+	 * @return das abonnierte Aggregat, oder null
+	 */
+	protected Aggregat<T> getAggregat() {
+		return aggregat;
+	}
+
+	/**
+	 * NOTE: Speichert diese Selektion als benannte Sicht. Das Ergebnis der
+	 * Sicht wird bei jedem add, remove und restore nachgefuehrt, eine
+	 * Selektion mit gleichwertigen Selektoren muss die Elemente daher nicht
+	 * mehr durchsuchen. Die Sicht wird mit den Daten gespeichert.
+	 * 
+	 * Vorbedingung: name ist ungleich null
+	 * 
+	 * Nachbedingung: die Sicht ist unter name gespeichert, eine bestehende
+	 * Sicht mit diesem Namen wurde ersetzt.
+	 */
+	public void speichereSicht(String name) {
+		sichten.put(name, selectors);
+	}
+
+	/**
+	 * @return true, wenn die Sicht mit diesem Namen entfernt wurde
+	 */
+	public boolean entferneSicht(String name) {
+		return sichten.remove(name);
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und enthaelt die
+	 * Namen aller gespeicherten Sichten.
+	 */
+	public List<String> getSichten() {
+		return sichten.getNamen();
+	}
+
+	/**
+	 * NOTE: Damit Unterklassen eine gespeicherte Sicht mit ihrem select
+	 * oeffnen koennen.
+	 * 
+	 * @return eine neue Liste mit den Selektoren der Sicht, oder null wenn es
+	 *         keine Sicht mit diesem Namen gibt.
+	 */
+	protected List<Selector<T>> getSichtSelektoren(String name) {
+		return sichten.getSelectors(name);
+	}
+
+	/**
+	 * NOTE: Fuer spezialisierte Auswertungen in Unterklassen.
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und darf nicht
+	 * veraendert werden.
+	 */
+	Slotliste<T> getList() {
+		return list;
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und darf nicht
+	 * veraendert werden.
+	 */
+	List<Selector<T>> getSelectors() {
+		return selectors;
 	}
 
 	/**
@@ -98,7 +329,125 @@ public class Selection<T> implements Iterable<T>, Serializable {
 	 * @param element
 	 */
 	public boolean add(T element) {
-		return list.add(element);
+		sperre();
+		try {
+			list.add(element);
+		} finally {
+			entsperre();
+		}
+		return true;
+	}
+
+	/**
+	 * NOTE: Fuegt alle zulaessigen Elemente auf einmal hinzu. Der Speicher
+	 * wird nur einmal vergroessert, Indizes, Sichten und Aggregate werden nur
+	 * einmal nachgefuehrt.
+	 * 
+	 * Vorbedingung: elemente ist ungleich null und enthaelt keine Elemente
+	 * gleich null.
+	 * 
+	 * Nachbedingung: alle Elemente, fuer die zulaessig true liefert, wurden
+	 * in der Reihenfolge von elemente hinzugefuegt.
+	 * 
+	 * @return die Anzahl der hinzugefuegten Elemente
+	 */
+	public int addAll(Collection<? extends T> elemente) {
+		Object[] neue = elemente.toArray();
+		return addAll(neue, neue.length);
+	}
+
+	/**
+	 * NOTE: Liest die Elemente stapelweise aus quelle ein (siehe
+	 * addAll(Collection)). Damit koennen auch Elemente aus einem Stream
+	 * eingelesen werden, ohne sie vorher alle zu sammeln.
+	 * 
+	 * Vorbedingung: quelle ist ungleich null und liefert keine Elemente gleich
+	 * null.
+	 * 
+	 * Nachbedingung: alle Elemente, fuer die zulaessig true liefert, wurden
+	 * in der Reihenfolge von quelle hinzugefuegt.
+	 * 
+	 * @return die Anzahl der hinzugefuegten Elemente
+	 */
+	public int addAll(Iterator<? extends T> quelle) {
+		Object[] stapel = new Object[STAPEL];
+		int hinzugefuegt = 0;
+		int anzahl = 0;
+
+		while (quelle.hasNext()) {
+			stapel[anzahl++] = quelle.next();
+
+			if (anzahl == STAPEL) {
+				hinzugefuegt += addAll(stapel, anzahl);
+				anzahl = 0;
+			}
+		}
+
+		return hinzugefuegt + addAll(stapel, anzahl);
+	}
+
+	/**
+	 * NOTE: Prueft alle Elemente in einem Durchlauf und fuegt die zulaessigen
+	 * mit einem Aufruf zur Slotliste hinzu.
+	 * 
+	 * Vorbedingung: neue ist ungleich null, die ersten anzahl Elemente sind
+	 * vom Typ T und ungleich null. neue darf veraendert werden.
+	 */
+	@SuppressWarnings("unchecked")
+	private int addAll(Object[] neue, int anzahl) {
+		int zulaessige = 0;
+
+		// NOTE: pruefen und hinzufuegen unter der selben Sperre, sonst koennte
+		// ein anderer Thread dazwischen ein unzulaessig machendes Element
+		// hinzufuegen
+		sperre();
+		try {
+			for (int i = 0; i < anzahl; i++) {
+				if (zulaessig((T) neue[i])) {
+					neue[zulaessige++] = neue[i];
+				}
+			}
+
+			list.addAll(neue, zulaessige);
+		} finally {
+			entsperre();
+		}
+		return zulaessige;
+	}
+
+	/**
+	 * NOTE: Bei einer nebenlaeufigen Selektion vor jedem Schreibzugriff.
+	 * Unterklassen sperren auch vor Pruefungen, deren Ergebnis bis zum
+	 * Schreibzugriff gelten muss, und vor Abfragen abgeleiteter Daten, die
+	 * von Schreibzugriffen veraendert werden. Die Sperre ist
+	 * wiedereintrittsfaehig.
+	 */
+	protected void sperre() {
+		if (momentaufnahme != null) {
+			momentaufnahme.sperre();
+		}
+	}
+
+	/**
+	 * NOTE: Bei einer nebenlaeufigen Selektion nach jedem Schreibzugriff
+	 * (in einem finally-Block), veroeffentlicht die Veraenderungen.
+	 */
+	protected void entsperre() {
+		if (momentaufnahme != null) {
+			momentaufnahme.entsperre(true);
+		}
+	}
+
+	/**
+	 * NOTE: Unterklassen, die in add nur bestimmte Elemente aufnehmen, muessen
+	 * diese Methode ueberschreiben, damit addAll die selben Elemente aufnimmt.
+	 * 
+	 * Vorbedingung: element ist ungleich null
+	 * 
+	 * @return true, wenn element mit addAll hinzugefuegt werden darf
+	 */
+	protected boolean zulaessig(T element) {
+		return true;
 	}
 
 	/**
@@ -112,11 +461,17 @@ public class Selection<T> implements Iterable<T>, Serializable {
 	public int remove() {
 		int removed = 0;
 
-		Iterator<T> iter = iterator();
-		while (iter.hasNext()) {
-			iter.next();
-			iter.remove();
-			removed++;
+		sperre();
+		try {
+			Iterator<T> iter = iterator();
+			while (iter.hasNext()) {
+				iter.next();
+				iter.remove();
+				removed++;
+			}
+			list.kompaktiereBeiBedarf();
+		} finally {
+			entsperre();
 		}
 
 		return removed;
@@ -129,12 +484,18 @@ public class Selection<T> implements Iterable<T>, Serializable {
 	 * wiederhergestellt.
 	 */
 	public void restore() {
-		Iterator<T> removedIter = removedIterator();
+		sperre();
+		try {
+			Iterator<T> removedIter = new SelectionIterator(removed, null);
 
-		while (removedIter.hasNext()) {
-			T element = removedIter.next();
-			removedIter.remove();
-			list.add(element);
+			while (removedIter.hasNext()) {
+				T element = removedIter.next();
+				removedIter.remove();
+				list.add(element);
+			}
+			removed.kompaktiereBeiBedarf();
+		} finally {
+			entsperre();
 		}
 	}
 
@@ -144,15 +505,90 @@ public class Selection<T> implements Iterable<T>, Serializable {
 	 * @return Anzahl der selektierten Elemente
 	 */
 	public int count() {
-		int count = 0;
-		Iterator<T> iter = iterator();
+		if (momentaufnahme != null) {
+			return zaehle(momentaufnahme.getStand());
+		}
+		if (aggregat != null) {
+			return aggregat.getAnzahl();
+		}
+		if (bitmapModus) {
+			return bitmaps.konjunktion(selectors).cardinality();
+		}
+		if (!selectors.isEmpty()) {
+			return ergebnis().length;
+		}
+		return list.size();
+	}
+
+	/**
+	 * NOTE: Ohne Sperre, fuer nebenlaeufige Selektionen.
+	 * 
+	 * Vorbedingung: stand ist ungleich null
+	 * 
+	 * @return die Anzahl der selektierten Elemente in stand
+	 */
+	@SuppressWarnings("unchecked")
+	private int zaehle(Momentaufnahme.Stand stand) {
+		if (selectors.isEmpty()) {
+			return stand.size();
+		}
 
-		while (iter.hasNext()) {
-			iter.next();
-			count++;
+		int anzahl = 0;
+		for (int i = 0; i < stand.size(); i++) {
+			if (kette.select((T) stand.get(i))) {
+				anzahl++;
+			}
 		}
+		return anzahl;
+	}
+
+	/**
+	 * NOTE: Liefert das gemerkte Ergebnis einer gleichwertigen Selektion. Ist
+	 * keines bekannt, werden die Selektoren ausgewertet und das Ergebnis fuer
+	 * weitere Aufrufe gemerkt, bis sich die Daten aendern.
+	 * 
+	 * Nachbedingung: der Rueckgabewert enthaelt aufsteigend die Positionen
+	 * aller selektierten Elemente und darf nicht veraendert werden.
+	 */
+	private int[] ergebnis() {
+		int[] positionen = gemerkt();
+
+		if (positionen == null) {
+			IntListe liste = new IntListe();
+			SelectionIterator iter = auswerten();
 
-		return count;
+			while (iter.hasNext()) {
+				iter.next();
+				liste.add(iter.current);
+			}
+
+			positionen = Arrays.copyOf(liste.getWerte(), liste.size());
+			ergebnisse.put(selectors, positionen);
+		}
+
+		return positionen;
+	}
+
+	/**
+	 * NOTE: Sucht zuerst unter den gemerkten Ergebnissen, dann unter den
+	 * gespeicherten Sichten.
+	 * 
+	 * @return aufsteigend die Positionen aller selektierten Elemente, oder
+	 *         null wenn kein Ergebnis bekannt ist. Das Array darf nicht
+	 *         veraendert werden.
+	 */
+	private int[] gemerkt() {
+		int[] positionen = ergebnisse.get(selectors);
+
+		if (positionen == null && !selectors.isEmpty()) {
+			positionen = sichten.get(selectors);
+
+			if (positionen != null) {
+				ergebnisse.put(selectors, positionen);
+			}
+		}
+
+		return positionen;
 	}
 
 	/**
@@ -163,8 +599,38 @@ public class Selection<T> implements Iterable<T>, Serializable {
 	 *         anderenfalls.
 	 */
 	public boolean selected(T element) {
-		for (Selector<T> selector : selectors) {
-			if (!selector.select(element)) {
+		Selector<T>[] plan = getPlan();
+
+		if ((++auswertungen & (SelektorStatistik.STICHPROBE - 1)) == 0
+				&& plan.length > 0) {
+			gemessen = (gemessen + 1) % plan.length;
+			long dauer = SelektorStatistik.messe(plan[gemessen], element);
+
+			if (Metriken.istAktiv()) {
+				Metriken.erfasseDauer(plan[gemessen], dauer);
+			}
+		}
+
+		if (Metriken.istAktiv()) {
+			return selectedZaehlen(element, plan);
+		}
+
+		return kette.select(element);
+	}
+
+	/**
+	 * NOTE: Wie <code>selected</code>, jedoch wird jede Auswertung in den
+	 * Metriken gezaehlt.
+	 * 
+	 * Vorbedingung: element und plan sind ungleich null
+	 */
+	private boolean selectedZaehlen(T element, Selector<T>[] plan) {
+		for (Selector<T> selector : plan) {
+			boolean selektiert = selector.select(element);
+
+			Metriken.erfasse(selector, selektiert);
+
+			if (!selektiert) {
 				return false;
 			}
 		}
@@ -172,47 +638,195 @@ public class Selection<T> implements Iterable<T>, Serializable {
 	}
 
 	/**
-	 * NOTE: Gibt die Selection im Format einer gewoehnlichen
-	 * java.util.Collection zurueck. Nachbedingung: liefert gueltiges
-	 * String-Objekt zurueck
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und enthaelt alle
+	 * Selektoren.
+	 */
+	private Selector<T>[] getPlan() {
+		if (plan == null || plan.length != selectors.size()) {
+			planen();
+		}
+		return plan;
+	}
+
+	/**
+	 * NOTE: Ordnet die Selektoren anhand der gemessenen Statistiken, sodass
+	 * guenstige und stark aussortierende Selektoren zuerst ausgewertet werden.
+	 * Da alle Selektoren erfuellt sein muessen, aendert die Reihenfolge das
+	 * Ergebnis nicht.
 	 * 
-	 * Nachbedingung: Der Rueckgabewert ist ungleich null.
+	 * Nachbedingung: plan enthaelt alle Selektoren, kette wertet sie in dieser
+	 * Reihenfolge aus.
 	 */
-	@Override
-	public String toString() {
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void planen() {
+		Selector<T>[] plan = selectors.toArray(new Selector[selectors.size()]);
+		SelektorStatistik.plane(plan);
+		this.kette = Selektorkette.get(plan);
+		this.plan = plan;
+	}
+
+	/**
+	 * NOTE: Beschreibt, wie die Selektion ausgewertet wird: welcher Index
+	 * verwendet wird und in welcher Reihenfolge die Selektoren geprueft werden,
+	 * jeweils mit der beobachteten Durchlassrate.
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	public String explain() {
 		StringBuilder builder = new StringBuilder();
-		Iterator<T> iter = iterator();
+		Selector<T> indexSelector = indexSelector();
+		int[] gemerkt = gemerkt();
 
-		builder.append('[');
+		planen();
 
-		if (iter.hasNext()) {
-			builder.append(iter.next());
+		if (gemerkt != null) {
+			builder.append("Gemerktes Ergebnis: ");
+			builder.append(gemerkt.length);
+			builder.append(" Elemente\n");
 		}
-		while (iter.hasNext()) {
-			builder.append(", ");
-			builder.append(iter.next());
+
+		if (indexSelector == null) {
+			builder.append("Durchsuche alle ");
+			builder.append(list.size());
+			builder.append(" Elemente");
+		} else {
+			builder.append("Index ");
+			builder.append(indexSelector.getClass().getName().replace('$', '.'));
+			builder.append(": ");
+			builder.append(indizes.kandidaten(indexSelector).size());
+			builder.append(" Kandidaten");
 		}
 
-		builder.append(']');
+		for (int i = 0; i < plan.length; i++) {
+			builder.append('\n');
+			builder.append(i + 1);
+			builder.append(". ");
+			builder.append(SelektorStatistik.get(plan[i]));
+		}
 
 		return builder.toString();
 	}
 
 	/**
-	 * NOTE: Initialisiert die Selektoren, da Selektoren nicht serialisierbar
-	 * sind.
+	 * NOTE: Gibt die Selection im Format einer gewoehnlichen
+	 * java.util.Collection zurueck. Nachbedingung: liefert gueltiges
+	 * String-Objekt zurueck
+	 * 
+	 * NOTE: Fuer grosse Selektionen schreibt Bericht.liste dasselbe
+	 * fortlaufend in einen Writer, ohne den ganzen String aufzubauen.
+	 * 
+	 * Nachbedingung: Der Rueckgabewert ist ungleich null.
+	 */
+	@Override
+	public String toString() {
+		return Bericht.alsText(this, false);
+	}
+
+	/**
+	 * NOTE: Initialisiert die Selektoren, da nur die Selektoren benannter
+	 * Sichten gespeichert werden. Frueher gespeicherte Listen werden in
+	 * Slotlisten umgewandelt.
 	 * 
-	 * Nachbedingung: Alle Objekte sind geladen, es sind jedoch keine Selektoren
-	 * vorhanden.
+	 * Nachbedingung: Alle Objekte und Sichten sind geladen, es sind jedoch
+	 * keine Selektoren vorhanden.
 	 * 
 	 * @param in
 	 * @throws IOException
 	 * @throws ClassNotFoundException
 	 */
-	private void readObject(java.io.ObjectInputStream in) throws IOException,
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException,
 			ClassNotFoundException {
-		in.defaultReadObject();
+		ObjectInputStream.GetField felder = in.readFields();
+
+		list = alsSlotliste(felder.get("list", null));
+		removed = alsSlotliste(felder.get("removed", null));
+		sichten = (Sichten<T>) felder.get("sichten", null);
+		nebenlaeufig = felder.get("nebenlaeufig", false);
 		selectors = new ArrayList<Selector<T>>();
+		if (sichten == null) {
+			sichten = new Sichten<T>(list);
+		}
+		indizes = new Indizes<T>(list);
+		bitmaps = new Bitmaps<T>(list, indizes);
+		ergebnisse = new Ergebnisse<T>(list);
+
+		if (nebenlaeufig) {
+			momentaufnahme = new Momentaufnahme<T>(list);
+			planen();
+		}
+	}
+
+	/**
+	 * Vorbedingung: gespeichert ist eine Slotliste oder eine Liste (frueheres
+	 * Format) ohne Elemente gleich null.
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> Slotliste<T> alsSlotliste(Object gespeichert)
+			throws InvalidObjectException {
+		if (gespeichert instanceof Slotliste) {
+			return (Slotliste<T>) gespeichert;
+		}
+		if (!(gespeichert instanceof List)) {
+			throw new InvalidObjectException("Ungueltige Elementliste");
+		}
+
+		Object[] elemente = ((List<?>) gespeichert).toArray();
+		Slotliste<T> slotliste = new Slotliste<T>();
+		slotliste.addAll(elemente, elemente.length);
+		return slotliste;
+	}
+
+	/**
+	 * NOTE: Sucht unter den Selektoren jenen, dessen Index (IndexSelector bzw.
+	 * BereichSelector) die wenigsten Kandidaten liefert.
+	 * 
+	 * @return der Selektor, oder null wenn kein Selektor ueber einen Index
+	 *         ausgewertet werden kann.
+	 */
+	private Selector<T> indexSelector() {
+		Selector<T> bester = null;
+		int anzahl = 0;
+
+		for (Selector<T> selector : selectors) {
+			IntListe kandidaten = indizes.kandidaten(selector);
+
+			if (kandidaten != null
+					&& (bester == null || kandidaten.size() < anzahl)) {
+				bester = selector;
+				anzahl = kandidaten.size();
+			}
+		}
+
+		return bester;
+	}
+
+	/**
+	 * NOTE: Liefert die Kandidaten jenes Index, der die wenigsten Kandidaten
+	 * liefert.
+	 * 
+	 * Nachbedingung: der Rueckgabewert enthaelt aufsteigend alle Positionen
+	 * von Elementen, die selektiert sein koennen, und darf nicht veraendert
+	 * werden.
+	 * 
+	 * @return die Kandidaten, oder null wenn kein Selektor ueber einen Index
+	 *         ausgewertet werden kann.
+	 */
+	IntListe kandidaten() {
+		IntListe beste = null;
+
+		for (Selector<T> selector : selectors) {
+			IntListe kandidaten = indizes.kandidaten(selector);
+
+			if (kandidaten != null
+					&& (beste == null || kandidaten.size() < beste.size())) {
+				beste = kandidaten;
+			}
+		}
+
+		return beste;
 	}
 
 	/**
@@ -223,12 +837,176 @@ public class Selection<T> implements Iterable<T>, Serializable {
 	 * 
 	 * Elemente die von diesem Iterator entfernt werden, koennen mit
 	 * <code>restore</code> wiederhergestellt werden.
+	 * 
+	 * NOTE: Es werden die Positionen des gemerkten Ergebnisses durchlaufen.
+	 * Im Bitmap-Modus werden die Positionen der Konjunktion durchlaufen. In
+	 * beiden Faellen werden die Selektoren nicht erneut ausgewertet.
+	 * 
+	 * NOTE: Eine nebenlaeufige Selektion durchlaeuft den aktuellen Stand der
+	 * Momentaufnahme, siehe NebenlaeufigerIterator.
 	 */
 	@Override
 	public Iterator<T> iterator() {
+		if (momentaufnahme != null) {
+			return new NebenlaeufigerIterator(momentaufnahme.getStand());
+		}
+		if (bitmapModus) {
+			BitSet bitmap = bitmaps.konjunktion(selectors);
+			IntListe positionen = new IntListe();
+
+			for (int i = bitmap.nextSetBit(0); i >= 0; i = bitmap
+					.nextSetBit(i + 1)) {
+				positionen.add(i);
+			}
+			return new SelectionIterator(list, removed, positionen.getWerte(),
+					positionen.size(), true);
+		}
+		if (!selectors.isEmpty()) {
+			int[] positionen = ergebnis();
+			return new SelectionIterator(list, removed, positionen,
+					positionen.length, true);
+		}
 		return new SelectionIterator(list, removed);
 	}
 
+	/**
+	 * NOTE: Erstellt einen Iterator, der die Selektoren auswertet. Wenn ein
+	 * Selektor ueber einen Index ausgewertet werden kann, werden nur die
+	 * Kandidaten aus dem Index durchlaufen. Die Reihenfolge der Selektoren
+	 * wird vor jedem Durchlauf neu geplant.
+	 * 
+	 * Nachbedingung: Der Rueckgabewert ist ungleich null.
+	 */
+	private SelectionIterator auswerten() {
+		IntListe kandidaten = kandidaten();
+
+		planen();
+
+		if (kandidaten != null) {
+			return new SelectionIterator(list, removed, kandidaten.getWerte(),
+					kandidaten.size(), false);
+		}
+		return new SelectionIterator(list, removed);
+	}
+
+	/**
+	 * NOTE: Erstellt einen teilbaren Spliterator ueber alle selektierten
+	 * Elemente. Die Selektoren werden erst beim Durchlaufen der Teilbereiche
+	 * ausgewertet, bei parallelen Streams also in mehreren Threads. Dabei
+	 * wird direkt die beim Erstellen geplante Kette ausgewertet, ohne
+	 * Stichproben und Metriken (deren Zaehler und Sperren sind nicht fuer
+	 * mehrere Threads gedacht).
+	 * 
+	 * NOTE: Ist ein gemerktes Ergebnis vorhanden, wird es verwendet.
+	 * 
+	 * Vorbedingung: waehrend des Durchlaufens wird die Selektion nicht
+	 * veraendert.
+	 * 
+	 * Nachbedingung: Der Rueckgabewert ist ungleich null.
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		return elementSpliterator();
+	}
+
+	/**
+	 * NOTE: Wie spliterator, aber nur ueber die Elemente der Liste (auch wenn
+	 * eine Unterklasse spliterator erweitert).
+	 * 
+	 * Nachbedingung: Der Rueckgabewert ist ungleich null.
+	 */
+	private Spliterator<T> elementSpliterator() {
+		if (momentaufnahme != null) {
+			return nebenlaeufigerStream(false).spliterator();
+		}
+
+		int[] gemerkt = gemerkt();
+
+		if (gemerkt != null) {
+			return new SelectionSpliterator(list, gemerkt, null, 0,
+					gemerkt.length);
+		}
+
+		IntListe kandidaten = kandidaten();
+
+		planen();
+
+		if (kandidaten != null) {
+			return new SelectionSpliterator(list, kandidaten.getWerte(), kette,
+					0, kandidaten.size());
+		}
+		return new SelectionSpliterator(list, null, kette, 0, list.getSlots());
+	}
+
+	/**
+	 * Nachbedingung: Der Rueckgabewert ist ein sequentieller Stream ueber alle
+	 * selektierten Elemente.
+	 */
+	public Stream<T> stream() {
+		return elementStream(false);
+	}
+
+	/**
+	 * NOTE: Die Selektoren werden in Teilbereichen im ForkJoin-Pool
+	 * ausgewertet.
+	 * 
+	 * Nachbedingung: Der Rueckgabewert ist ein paralleler Stream ueber alle
+	 * selektierten Elemente.
+	 */
+	public Stream<T> parallelStream() {
+		return elementStream(true);
+	}
+
+	/**
+	 * NOTE: Nur ueber die Elemente der Liste, auch wenn eine Unterklasse
+	 * stream und parallelStream erweitert (siehe Termine).
+	 * 
+	 * Nachbedingung: Der Rueckgabewert ist ein Stream ueber alle selektierten
+	 * Elemente der Liste.
+	 */
+	private Stream<T> elementStream(boolean parallel) {
+		if (momentaufnahme != null) {
+			return nebenlaeufigerStream(parallel);
+		}
+		return StreamSupport.stream(elementSpliterator(), parallel);
+	}
+
+	/**
+	 * NOTE: Ohne Sperre, der Stand der Momentaufnahme wird nicht veraendert
+	 * und kann in Teilbereichen durchlaufen werden.
+	 * 
+	 * Vorbedingung: die Selektion ist nebenlaeufig
+	 * 
+	 * Nachbedingung: Der Rueckgabewert ist ein Stream ueber alle selektierten
+	 * Elemente des aktuellen Standes.
+	 */
+	@SuppressWarnings("unchecked")
+	private Stream<T> nebenlaeufigerStream(boolean parallel) {
+		Spliterator<T> elemente = (Spliterator<T>) Spliterators.spliterator(
+				momentaufnahme.getStand().getElemente(), Spliterator.ORDERED
+						| Spliterator.NONNULL | Spliterator.IMMUTABLE);
+		Stream<T> stream = StreamSupport.stream(elemente, parallel);
+
+		if (selectors.isEmpty()) {
+			return stream;
+		}
+		return stream.filter(kette::select);
+	}
+
+	/**
+	 * NOTE: Stream fuer Aggregationen (Summen, ...). Bei grossen Selektionen
+	 * wird parallel gerechnet.
+	 * 
+	 * Nachbedingung: Der Rueckgabewert ist ein Stream ueber alle selektierten
+	 * Elemente der Liste.
+	 */
+	protected Stream<T> aggregationsStream() {
+		int anzahl = momentaufnahme != null ? momentaufnahme.getStand()
+				.size() : list.size();
+
+		return elementStream(anzahl >= PARALLEL_AB);
+	}
+
 	/**
 	 * NOTE: Erstellt einen neuen Iterator, der alle selektierten, geloeschten
 	 * Elemente durchlaeuft.
@@ -237,70 +1015,169 @@ public class Selection<T> implements Iterable<T>, Serializable {
 	 * 
 	 * Elemente die von diesem Iterator entfernt werden, sind nicht
 	 * wiederherstellbar!
+	 * 
+	 * NOTE: Bei einer nebenlaeufigen Selektion werden die Elemente unter der
+	 * Sperre kopiert, sie koennen dann nicht entfernt werden.
 	 */
 	public Iterator<T> removedIterator() {
-		return new SelectionIterator(removed);
+		if (momentaufnahme == null) {
+			return new SelectionIterator(removed, null);
+		}
+
+		List<T> kopie = new ArrayList<T>();
+
+		sperre();
+		try {
+			Iterator<T> iter = new SelectionIterator(removed, null);
+			while (iter.hasNext()) {
+				kopie.add(iter.next());
+			}
+		} finally {
+			entsperre();
+		}
+
+		return Collections.unmodifiableList(kopie).iterator();
 	}
 
 	/**
 	 * NOTE: Repraesentiert einen Iterator, der durch alle selektierten Elemente
-	 * iteriert.
+	 * iteriert. Es werden entweder alle Slots der source durchlaufen, oder nur
+	 * die Positionen der Kandidaten.
 	 * 
-	 * Invariante: sourceIter ist ungleich null Invariante: next zeigt auf das
-	 * naechste selektierte Element Invariante: current zeigt auf das aktuelle
-	 * Element
+	 * Invariante: source ist ungleich null Invariante: next ist die Position
+	 * des naechsten selektierten Elementes, bzw. -1 am Ende Invariante: current
+	 * ist die Position des aktuellen Elementes, bzw. -1
 	 * 
 	 * @author Peter Pilgerstorfer
 	 */
 	private class SelectionIterator implements Iterator<T> {
-		private Collection<T> removed; // Collection aller entfernten Elemente
-		private ListIterator<T> sourceIter; // der Iterator ueber alle Elemente
-		private T current; // das aktuelle Element
-		private T next; // das naechste selektierte Element, bzw. null am Ende
+		private Slotliste<T> source; // die Elemente
+		private Slotliste<T> removed; // wo entfernte Elemente gespeichert werden
+		private int[] kandidaten; // die zu durchlaufenden Positionen, oder null
+		private boolean geprueft; // true, wenn alle Kandidaten selektiert sind
+		private int ende; // Anzahl der zu durchlaufenden Slots bzw. Kandidaten
+		private int cursor; // der naechste zu pruefende Slot bzw. Kandidat
+		private int epoche; // die Epoche von source beim Erstellen
+		private int current; // die Position des aktuellen Elementes
+		private int next; // die Position des naechsten selektierten Elementes
+
+		// NOTE: fuer die Metriken, messen ist false wenn sie nicht aktiv sind
+		// oder keine Selektoren ausgewertet werden
+		private boolean messen;
+		private long dauer; // die bisherige Dauer der Suche in Nanosekunden
+		private int geprueftAnzahl; // die Anzahl der geprueften Elemente
+		private int selektiertAnzahl; // die Anzahl der gefundenen Elemente
 
 		/**
-		 * Vorbedingung: source ist ungleich null. source enthaelt keine
-		 * Elemente gleich null.
+		 * Vorbedingung: source ist ungleich null.
 		 * 
 		 * @param source
+		 * @param removed
+		 *            die Slotliste wo entfernte Elemente gespeichert werden,
+		 *            oder null
 		 */
-		public SelectionIterator(List<T> source) {
-			this(source, null);
+		public SelectionIterator(Slotliste<T> source, Slotliste<T> removed) {
+			this.source = source;
+			this.removed = removed;
+			this.kandidaten = null;
+			this.ende = source.getSlots();
+			this.cursor = 0;
+			this.epoche = source.getEpoche();
+			this.current = -1;
+			this.messen = Metriken.istAktiv();
+			this.next = nextSelected();
 		}
 
 		/**
-		 * Vorbedingung: source ist ungleich null. source und removed enthalten
-		 * keine Elemente gleich null.
+		 * NOTE: Durchlaeuft nur die Positionen der Kandidaten.
+		 * 
+		 * Vorbedingung: source und kandidaten sind ungleich null. kandidaten
+		 * enthaelt aufsteigend sortierte Positionen von source.
 		 * 
 		 * @param source
 		 * @param removed
-		 *            die Collection wo entfernte Elemente gespeichert werden
+		 *            die Slotliste wo entfernte Elemente gespeichert werden,
+		 *            oder null
+		 * @param kandidaten
+		 *            die Positionen der Elemente, die selektiert sein koennen
+		 * @param anzahl
+		 *            die Anzahl der Kandidaten
+		 * @param geprueft
+		 *            true, wenn alle Kandidaten bereits selektiert sind
 		 */
-		public SelectionIterator(List<T> source, Collection<T> removed) {
-			this.sourceIter = source.listIterator();
-			this.current = null;
-			this.next = nextSelected();
+		public SelectionIterator(Slotliste<T> source, Slotliste<T> removed,
+				int[] kandidaten, int anzahl, boolean geprueft) {
+			this.source = source;
 			this.removed = removed;
+			this.kandidaten = kandidaten;
+			this.geprueft = geprueft;
+			this.ende = anzahl;
+			this.cursor = 0;
+			this.epoche = source.getEpoche();
+			this.current = -1;
+			this.messen = !geprueft && Metriken.istAktiv();
+			this.next = nextSelected();
+		}
+
+		/**
+		 * NOTE: Misst die Suche, wenn die Metriken aktiv sind, und erfasst
+		 * den Durchlauf am Ende der Selektion.
+		 * 
+		 * @return die Position des naechsten selektierten Elementes, bzw. -1
+		 */
+		private int nextSelected() {
+			if (!messen) {
+				return suche();
+			}
+
+			long start = System.nanoTime();
+			int position = suche();
+			dauer += System.nanoTime() - start;
+
+			if (position == -1) {
+				Metriken.erfasseDurchlauf(getPlan(), geprueftAnzahl,
+						selektiertAnzahl, dauer);
+				messen = false;
+			} else {
+				selektiertAnzahl++;
+			}
+
+			return position;
 		}
 
 		/**
-		 * @return das naechste selektierte Elemene
+		 * @return die Position des naechsten selektierten Elementes, bzw. -1
 		 */
-		private T nextSelected() {
-			while (sourceIter.hasNext()) {
-				T next = sourceIter.next();
+		private int suche() {
+			if (kandidaten == null) {
+				for (int i = source.naechste(cursor); i < ende; i = source
+						.naechste(i + 1)) {
+					geprueftAnzahl++;
 
-				if (selected(next)) {
-					return next;
+					if (selected(source.get(i))) {
+						cursor = i + 1;
+						return i;
+					}
+				}
+				cursor = ende;
+			} else {
+				while (cursor < ende) {
+					int position = kandidaten[cursor++];
+					geprueftAnzahl++;
+
+					if (!source.istGeloescht(position)
+							&& (geprueft || selected(source.get(position)))) {
+						return position;
+					}
 				}
 			}
 
-			return null;
+			return -1;
 		}
 
 		@Override
 		public boolean hasNext() {
-			return next != null;
+			return next != -1;
 		}
 
 		@Override
@@ -310,15 +1187,23 @@ public class Selection<T> implements Iterable<T>, Serializable {
 		 * Nachbedingung: der Iterator steht am naechsten selektierten Element.
 		 */
 		public T next() {
+			if (next == -1) {
+				throw new NoSuchElementException();
+			}
+			if (epoche != source.getEpoche()) {
+				throw new ConcurrentModificationException();
+			}
+
 			current = next;
 			next = nextSelected();
 
-			return current;
+			return source.get(current);
 		}
 
 		@Override
 		/**
-		 * NOTE: Loescht Element
+		 * NOTE: Loescht Element. Der Slot wird nur als geloescht markiert,
+		 * daher ist das Entfernen in konstanter Zeit moeglich.
 		 * 
 		 * Vorbedingung: next() muss mindestens einmal ausgefuert worden sein.
 		 * Vorbedingung: die Methode remove darf fuer das aktuelle Element noch nicht ausgefuert worden sein.
@@ -326,27 +1211,227 @@ public class Selection<T> implements Iterable<T>, Serializable {
 		 * Nachbedingung: das Element ist entfernt.
 		 */
 		public void remove() {
-			T previous = null;
+			if (current == -1 || source.istGeloescht(current)) {
+				throw new IllegalStateException();
+			}
+			if (epoche != source.getEpoche()) {
+				throw new ConcurrentModificationException();
+			}
+
+			source.loesche(current);
 
-			// NOTE: Der Iterator steht schon auf der Position des naechsten
-			// Elementes. Daher muss zuerst wieder zur aktuellen Position
-			// zurueckgekehrt werden.
-			while (sourceIter.hasPrevious() && previous != current) {
-				previous = sourceIter.previous();
+			if (removed != null) {
+				removed.add(source.get(current));
 			}
+		}
+	}
 
-			// Zusicherung: sourceIter steht auf dem aktuellen Element (current)
+	/**
+	 * NOTE: Durchlaeuft die selektierten Elemente eines veroeffentlichten
+	 * Standes ohne zu sperren. Aenderungen waehrend des Durchlaufens sind
+	 * erlaubt, werden aber nicht gesehen.
+	 * 
+	 * NOTE: remove loescht den Slot des Elementes sofort (unter der Sperre),
+	 * veroeffentlicht wird aber erst am Ende des Durchlaufs (bzw. mit dem
+	 * naechsten Schreibzugriff). Das Entfernen vieler Elemente kostet so nur
+	 * eine Kopie, nicht eine pro Element.
+	 * 
+	 * Invariante: stand ist ungleich null. naechstes ist der Index des
+	 * naechsten selektierten Elementes in stand, bzw. stand.size() am Ende.
+	 * aktuell ist der Index des aktuellen Elementes, bzw. -1
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private class NebenlaeufigerIterator implements Iterator<T> {
+		private Momentaufnahme.Stand stand; // der Stand beim Erstellen
+		private int naechstes;
+		private int aktuell;
+		private boolean aufgeschoben; // true, wenn remove nicht veroeffentlicht
 
-			sourceIter.remove();
+		/**
+		 * Vorbedingung: stand ist ungleich null
+		 */
+		public NebenlaeufigerIterator(Momentaufnahme.Stand stand) {
+			this.stand = stand;
+			this.naechstes = suche(0);
+			this.aktuell = -1;
+		}
 
-			// NOTE: Der Iterator wird wieder aufs naechste Element gesetzt
-			nextSelected();
+		/**
+		 * @return der Index des ersten selektierten Elementes ab index, bzw.
+		 *         stand.size()
+		 */
+		@SuppressWarnings("unchecked")
+		private int suche(int index) {
+			if (selectors.isEmpty()) {
+				return index;
+			}
+			while (index < stand.size() && !kette.select((T) stand.get(index))) {
+				index++;
+			}
+			return index;
+		}
 
-			// Zusicherung: sourceIter steht auf dem naechsten Element (next)
+		@Override
+		public boolean hasNext() {
+			if (naechstes < stand.size()) {
+				return true;
+			}
+			if (aufgeschoben) {
+				aufgeschoben = false;
+				momentaufnahme.aktualisiere();
+			}
+			return false;
+		}
 
-			if (removed != null) {
-				removed.add(current);
+		@Override
+		@SuppressWarnings("unchecked")
+		public T next() {
+			if (naechstes >= stand.size()) {
+				throw new NoSuchElementException();
 			}
+
+			aktuell = naechstes;
+			naechstes = suche(naechstes + 1);
+
+			return (T) stand.get(aktuell);
+		}
+
+		@Override
+		/**
+		 * NOTE: Nach einer Kompaktierung seit dem Veroeffentlichen des Standes
+		 * wird die Position des Elementes gesucht.
+		 * 
+		 * Vorbedingung: next() muss mindestens einmal ausgefuert worden sein.
+		 * Vorbedingung: die Methode remove darf fuer das aktuelle Element noch nicht ausgefuert worden sein.
+		 * Nachbedingung: das Element ist entfernt.
+		 * 
+		 * @throws ConcurrentModificationException
+		 *             wenn das Element bereits (von einem anderen Thread)
+		 *             entfernt wurde
+		 */
+		public void remove() {
+			if (aktuell == -1) {
+				throw new IllegalStateException();
+			}
+
+			Object element = stand.get(aktuell);
+			int position = stand.getPosition(aktuell);
+			aktuell = -1;
+
+			momentaufnahme.sperre();
+			try {
+				if (stand.getEpoche() != list.getEpoche()) {
+					position = position(element);
+				}
+				if (position < 0 || list.istGeloescht(position)
+						|| list.get(position) != element) {
+					throw new ConcurrentModificationException();
+				}
+
+				list.loesche(position);
+				removed.add(list.get(position));
+				aufgeschoben = true;
+			} finally {
+				momentaufnahme.entsperre(false);
+			}
+		}
+
+		/**
+		 * @return die Position eines nicht geloeschten Slots mit element,
+		 *         oder -1
+		 */
+		private int position(Object element) {
+			int slots = list.getSlots();
+
+			for (int i = list.naechste(0); i < slots; i = list.naechste(i + 1)) {
+				if (list.get(i) == element) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+
+	/**
+	 * NOTE: Durchlaeuft die selektierten Elemente eines Bereiches von Slots
+	 * bzw. Kandidaten. Der Bereich kann fuer die parallele Verarbeitung
+	 * halbiert werden.
+	 * 
+	 * Invariante: source ist ungleich null. 0 <= von <= bis
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private class SelectionSpliterator implements Spliterator<T> {
+		private Slotliste<T> source; // die Elemente
+		private int[] kandidaten; // die zu durchlaufenden Positionen, oder null
+		// NOTE: die Kette der Selektoren, oder null wenn alle Kandidaten
+		// selektiert sind
+		private Selector<T> kette;
+		private int von; // der naechste zu pruefende Slot bzw. Kandidat
+		private int bis; // das Ende des Bereichs (exklusive)
+
+		/**
+		 * Vorbedingung: source ist ungleich null. kandidaten ist null oder
+		 * enthaelt aufsteigend sortierte Positionen von source. kette ist
+		 * null nur wenn kandidaten ungleich null ist. 0 <= von <= bis
+		 */
+		public SelectionSpliterator(Slotliste<T> source, int[] kandidaten,
+				Selector<T> kette, int von, int bis) {
+			this.source = source;
+			this.kandidaten = kandidaten;
+			this.kette = kette;
+			this.von = von;
+			this.bis = bis;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			while (von < bis) {
+				int position = kandidaten == null ? von : kandidaten[von];
+				von++;
+
+				if (!source.istGeloescht(position)) {
+					T element = source.get(position);
+
+					if (kette == null || kette.select(element)) {
+						action.accept(element);
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			while (tryAdvance(action)) {
+				// NOTE: tryAdvance verarbeitet das naechste Element
+			}
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			if (bis - von < MIN_TEILBEREICH) {
+				return null;
+			}
+
+			int mitte = (von + bis) >>> 1;
+			Spliterator<T> vorne = new SelectionSpliterator(source,
+					kandidaten, kette, von, mitte);
+			von = mitte;
+
+			return vorne;
+		}
+
+		@Override
+		public long estimateSize() {
+			return bis - von;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | NONNULL;
 		}
 	}
 }
@@ -1,13 +1,18 @@
+import java.io.Serializable;
+
 /**
  * NOTE: wird benoetigt um Objekte vom Typ T nach kriterien zu filtern
  * 
+ * NOTE: Selektoren sind serialisierbar, damit benannte Sichten (siehe
+ * Selection.speichereSicht) mit ihren Selektoren gespeichert werden koennen.
+ * 
  * GOOD: Dynamisches Binden. Der Selector ermoeglicht es das Arbeiten mit den
  * Selectoren von der Selector-Logik zu trennen.
  * 
  * @author VHD
  * @param <T>
  */
-public interface Selector<T> {
+public interface Selector<T> extends Serializable {
 	/**
 	 * Vorbedingung: item ist ungleich NULL
 	 */
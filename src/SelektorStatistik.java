@@ -0,0 +1,209 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * NOTE: Sammelt Laufzeitstatistiken (Durchlassrate und Kosten) pro
+ * Selektor-Klasse. Die Statistiken werden von allen Selektionen gemeinsam
+ * verwendet, um die Reihenfolge der Selektoren zu planen: guenstige Selektoren,
+ * die viele Elemente aussortieren, werden zuerst ausgewertet.
+ * 
+ * NOTE: Es wird nur jede STICHPROBE-te Auswertung gemessen, und dabei nur ein
+ * Selektor (reihum). Er wird WIEDERHOLUNGEN mal hintereinander ausgewertet
+ * und die Dauer der Zeitmessung selbst (LEERLAUF) abgezogen, sonst wuerden
+ * bei guenstigen Selektoren die Kosten von System.nanoTime gemessen. Die
+ * Werte werden ohne Synchronisation aktualisiert und sind daher nur
+ * Naeherungswerte.
+ * 
+ * Invariante: 0 <= treffer <= auswertungen. nanos >= 0
+ * 
+ * @author Peter Pilgerstorfer
+ */
+class SelektorStatistik {
+	// NOTE: muss eine Zweierpotenz sein
+	public static final int STICHPROBE = 32;
+
+	// NOTE: Unter dieser Anzahl an Messungen gilt ein Selektor als unbekannt
+	private static final int MIN_MESSUNGEN = 8;
+
+	private static final int WIEDERHOLUNGEN = 8;
+
+	// NOTE: die Dauer zweier aufeinanderfolgender Aufrufe von System.nanoTime
+	private static final long LEERLAUF = leerlauf();
+
+	private static final Map<Class<?>, SelektorStatistik> statistiken = new HashMap<Class<?>, SelektorStatistik>();
+
+	private final Class<?> klasse;
+	private long auswertungen;
+	private long treffer;
+	private long nanos;
+
+	private SelektorStatistik(Class<?> klasse) {
+		this.klasse = klasse;
+	}
+
+	/**
+	 * Vorbedingung: selector ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 * 
+	 * @return die Statistik der Klasse von selector
+	 */
+	public static SelektorStatistik get(Selector<?> selector) {
+		Class<?> klasse = selector.getClass();
+
+		synchronized (statistiken) {
+			SelektorStatistik statistik = statistiken.get(klasse);
+
+			if (statistik == null) {
+				statistik = new SelektorStatistik(klasse);
+				statistiken.put(klasse, statistik);
+			}
+
+			return statistik;
+		}
+	}
+
+	/**
+	 * NOTE: Misst die Dauer einer Auswertung von selector und erfasst sie in
+	 * der Statistik seiner Klasse. Selektoren duerfen keine Seiteneffekte
+	 * haben, die wiederholte Auswertung aendert das Ergebnis daher nicht.
+	 * 
+	 * Vorbedingung: selector und element sind ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist >= 0
+	 * 
+	 * @return die gemessene Dauer einer Auswertung in Nanosekunden
+	 */
+	public static <T> long messe(Selector<T> selector, T element) {
+		long start = System.nanoTime();
+		boolean selektiert = selector.select(element);
+
+		for (int i = 1; i < WIEDERHOLUNGEN; i++) {
+			selector.select(element);
+		}
+
+		long dauer = Math.max(System.nanoTime() - start - LEERLAUF, 0)
+				/ WIEDERHOLUNGEN;
+
+		get(selector).erfasse(dauer, selektiert);
+		return dauer;
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist >= 0
+	 * 
+	 * @return die kuerzeste Dauer zweier aufeinanderfolgender Aufrufe von
+	 *         System.nanoTime in Nanosekunden
+	 */
+	private static long leerlauf() {
+		long kuerzeste = Long.MAX_VALUE;
+
+		for (int i = 0; i < 1000; i++) {
+			long start = System.nanoTime();
+			kuerzeste = Math.min(kuerzeste, System.nanoTime() - start);
+		}
+
+		return kuerzeste;
+	}
+
+	/**
+	 * Vorbedingung: dauer ist >= 0
+	 * 
+	 * @param dauer
+	 *            die gemessene Dauer einer Auswertung in Nanosekunden
+	 * @param selektiert
+	 *            das Ergebnis der Auswertung
+	 */
+	private void erfasse(long dauer, boolean selektiert) {
+		auswertungen++;
+		nanos += dauer;
+		if (selektiert) {
+			treffer++;
+		}
+	}
+
+	/**
+	 * @return true, wenn genug Messungen fuer die Planung vorhanden sind.
+	 */
+	public boolean istBekannt() {
+		return auswertungen >= MIN_MESSUNGEN;
+	}
+
+	/**
+	 * Nachbedingung: 0 <= Rueckgabewert <= 1
+	 */
+	public double getDurchlassrate() {
+		if (auswertungen == 0) {
+			return 1;
+		}
+		return (double) treffer / auswertungen;
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist >= 0
+	 * 
+	 * @return die mittleren Kosten einer Auswertung in Nanosekunden
+	 */
+	public double getKosten() {
+		if (auswertungen == 0) {
+			return 0;
+		}
+		return (double) nanos / auswertungen;
+	}
+
+	/**
+	 * NOTE: Ein Selektor ist umso frueher auszuwerten, je geringer seine
+	 * Kosten pro aussortiertem Element sind. Unbekannte Selektoren werden
+	 * zuerst ausgewertet, damit Messwerte fuer sie entstehen.
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist >= 0
+	 */
+	public double getRang() {
+		if (!istBekannt()) {
+			return 0;
+		}
+		return getKosten() / Math.max(1 - getDurchlassrate(), 0.001);
+	}
+
+	/**
+	 * NOTE: Sortiert die Selektoren nach aufsteigendem Rang. Selektoren mit
+	 * gleichem Rang behalten ihre Reihenfolge.
+	 * 
+	 * Vorbedingung: selektoren ist ungleich null und enthaelt keine Elemente
+	 * gleich null.
+	 * 
+	 * Nachbedingung: selektoren ist nach Rang sortiert.
+	 */
+	public static <T> void plane(Selector<T>[] selektoren) {
+		if (selektoren.length < 2) {
+			return;
+		}
+
+		final Map<Selector<T>, Double> raenge = new HashMap<Selector<T>, Double>();
+		for (Selector<T> selector : selektoren) {
+			raenge.put(selector, get(selector).getRang());
+		}
+
+		Arrays.sort(selektoren, new Comparator<Selector<T>>() {
+			@Override
+			public int compare(Selector<T> a, Selector<T> b) {
+				return Double.compare(raenge.get(a), raenge.get(b));
+			}
+		});
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	@Override
+	public String toString() {
+		if (!istBekannt()) {
+			return klasse.getName().replace('$', '.') + ": keine Messwerte";
+		}
+		return String.format("%s: Durchlassrate %.1f%%, Kosten %.0f ns (%d Messungen)",
+				klasse.getName().replace('$', '.'),
+				getDurchlassrate() * 100, getKosten(), auswertungen);
+	}
+}
@@ -0,0 +1,183 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NOTE: Verbindet die Selektoren einer Selektion zu einem einzigen Selektor
+ * (Kette). Fuer kurze Ketten gibt es eigene Klassen mit festen Feldern statt
+ * einer Schleife ueber ein Array. Das spart nur die Schleife und den
+ * Arrayzugriff pro Selektor: Und2, Und3 und Und4 werden von allen Ketten
+ * gleicher Laenge geteilt, die Aufrufe a.select, b.select, ... sehen daher
+ * (ueber alle Selektionen) viele verschiedene Selektorklassen und koennen vom
+ * JIT-Compiler meist nicht inlined werden. Eigene Klassen pro Kette muessten
+ * zur Laufzeit erzeugt werden, das ist den Aufwand nicht wert.
+ * 
+ * NOTE: Ketten werden anhand der (gleichwertigen) Selektoren in geplanter
+ * Reihenfolge geteilt, damit wiederholt erstellte Sichten die selbe Kette
+ * verwenden. Es werden hoechstens MAX_KETTEN Ketten gehalten.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+final class Selektorkette {
+	private static final int MAX_KETTEN = 256;
+
+	private static final Map<List<Selector<?>>, Selector<?>> ketten = new LinkedHashMap<List<Selector<?>>, Selector<?>>(
+			16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(
+				Map.Entry<List<Selector<?>>, Selector<?>> eldest) {
+			return size() > MAX_KETTEN;
+		}
+	};
+
+	private Selektorkette() {
+	}
+
+	/**
+	 * Vorbedingung: plan ist ungleich null und enthaelt keine Elemente gleich
+	 * null.
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und selektiert ein
+	 * Element genau dann, wenn alle Selektoren von plan es selektieren. Die
+	 * Selektoren werden in der Reihenfolge von plan ausgewertet.
+	 */
+	@SuppressWarnings("unchecked")
+	public static synchronized <T> Selector<T> get(Selector<T>[] plan) {
+		List<Selector<?>> schluessel = Arrays.<Selector<?>> asList(plan.clone());
+		Selector<T> kette = (Selector<T>) ketten.get(schluessel);
+
+		if (kette == null) {
+			kette = erstelle(plan);
+			ketten.put(schluessel, kette);
+		}
+
+		return kette;
+	}
+
+	/**
+	 * Vorbedingung: plan ist ungleich null und enthaelt keine Elemente gleich
+	 * null.
+	 */
+	private static <T> Selector<T> erstelle(Selector<T>[] plan) {
+		switch (plan.length) {
+		case 0:
+			return new Alle<T>();
+		case 1:
+			return plan[0];
+		case 2:
+			return new Und2<T>(plan[0], plan[1]);
+		case 3:
+			return new Und3<T>(plan[0], plan[1], plan[2]);
+		case 4:
+			return new Und4<T>(plan[0], plan[1], plan[2], plan[3]);
+		default:
+			return new UndN<T>(plan.clone());
+		}
+	}
+
+	/**
+	 * NOTE: Kette ohne Selektoren, selektiert alle Elemente.
+	 */
+	private static final class Alle<T> implements Selector<T> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public boolean select(T item) {
+			return true;
+		}
+	}
+
+	/**
+	 * Invariante: a und b sind ungleich null
+	 */
+	private static final class Und2<T> implements Selector<T> {
+		private static final long serialVersionUID = 1L;
+
+		private final Selector<T> a;
+		private final Selector<T> b;
+
+		public Und2(Selector<T> a, Selector<T> b) {
+			this.a = a;
+			this.b = b;
+		}
+
+		@Override
+		public boolean select(T item) {
+			return a.select(item) && b.select(item);
+		}
+	}
+
+	/**
+	 * Invariante: a, b und c sind ungleich null
+	 */
+	private static final class Und3<T> implements Selector<T> {
+		private static final long serialVersionUID = 1L;
+
+		private final Selector<T> a;
+		private final Selector<T> b;
+		private final Selector<T> c;
+
+		public Und3(Selector<T> a, Selector<T> b, Selector<T> c) {
+			this.a = a;
+			this.b = b;
+			this.c = c;
+		}
+
+		@Override
+		public boolean select(T item) {
+			return a.select(item) && b.select(item) && c.select(item);
+		}
+	}
+
+	/**
+	 * Invariante: a, b, c und d sind ungleich null
+	 */
+	private static final class Und4<T> implements Selector<T> {
+		private static final long serialVersionUID = 1L;
+
+		private final Selector<T> a;
+		private final Selector<T> b;
+		private final Selector<T> c;
+		private final Selector<T> d;
+
+		public Und4(Selector<T> a, Selector<T> b, Selector<T> c, Selector<T> d) {
+			this.a = a;
+			this.b = b;
+			this.c = c;
+			this.d = d;
+		}
+
+		@Override
+		public boolean select(T item) {
+			return a.select(item) && b.select(item) && c.select(item)
+					&& d.select(item);
+		}
+	}
+
+	/**
+	 * Invariante: selektoren ist ungleich null und enthaelt keine Elemente
+	 * gleich null
+	 */
+	private static final class UndN<T> implements Selector<T> {
+		private static final long serialVersionUID = 1L;
+
+		private final Selector<T>[] selektoren;
+
+		public UndN(Selector<T>[] selektoren) {
+			this.selektoren = selektoren;
+		}
+
+		@Override
+		public boolean select(T item) {
+			for (Selector<T> selektor : selektoren) {
+				if (!selektor.select(item)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,307 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * NOTE: Verwaltet die benannten Sichten einer Selection. Eine Sicht merkt sich
+ * ihre Selektoren und die Positionen der selektierten Elemente als Bitmap.
+ * Die Bitmap wird bei jedem Einfuegen, Loeschen und Aendern schrittweise
+ * nachgefuehrt: nur das eingefuegte bzw. geaenderte Element wird geprueft.
+ * 
+ * NOTE: Selektoren und Bitmaps werden mitgespeichert. Nach dem Laden steht
+ * das Ergebnis einer Sicht daher sofort zur Verfuegung, ohne die Elemente
+ * erneut zu durchsuchen.
+ * 
+ * NOTE: Alle Sichten auf die selben Daten teilen sich ein Sichten-Objekt.
+ * 
+ * Invariante: list und sichten sind ungleich null. Jede nicht veraltete
+ * Bitmap enthaelt genau die Positionen der nicht geloeschten Slots, deren
+ * Elemente von allen Selektoren der Sicht selektiert werden.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+class Sichten<T> implements Slotbeobachter<T>, Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Slotliste<T> list;
+	private LinkedHashMap<String, Sicht<T>> sichten;
+
+	// NOTE: die Sichten nach ihren Selektoren (unabhaengig von der
+	// Reihenfolge), wird bei Bedarf erstellt
+	private transient Map<Set<Selector<T>>, Sicht<T>> nachSelektoren;
+
+	/**
+	 * Vorbedingung: list ist ungleich null
+	 * 
+	 * Nachbedingung: es gibt keine Sichten
+	 */
+	public Sichten(Slotliste<T> list) {
+		this.list = list;
+		this.sichten = new LinkedHashMap<String, Sicht<T>>();
+		list.anmelden(this);
+	}
+
+	/**
+	 * NOTE: Eine bestehende Sicht mit dem selben Namen wird ersetzt.
+	 * 
+	 * Vorbedingung: name und selectors sind ungleich null. selectors enthaelt
+	 * keine Elemente gleich null.
+	 * 
+	 * Nachbedingung: die Sicht ist unter name gespeichert
+	 */
+	public void put(String name, List<Selector<T>> selectors) {
+		Sicht<T> sicht = new Sicht<T>(selectors);
+		sicht.berechne(list);
+		sichten.put(name, sicht);
+		nachSelektoren = null;
+	}
+
+	/**
+	 * @return true, wenn eine Sicht mit diesem Namen entfernt wurde
+	 */
+	public boolean remove(String name) {
+		nachSelektoren = null;
+		return sichten.remove(name) != null;
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und enthaelt die
+	 * Namen aller Sichten in der Reihenfolge ihrer Erstellung.
+	 */
+	public List<String> getNamen() {
+		return new ArrayList<String>(sichten.keySet());
+	}
+
+	/**
+	 * @return eine Kopie der Selektoren der Sicht, oder null wenn es keine
+	 *         Sicht mit diesem Namen gibt.
+	 */
+	public List<Selector<T>> getSelectors(String name) {
+		Sicht<T> sicht = sichten.get(name);
+
+		if (sicht == null) {
+			return null;
+		}
+		return new ArrayList<Selector<T>>(sicht.selectors);
+	}
+
+	/**
+	 * Vorbedingung: selectors ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert sind aufsteigend die Positionen der von
+	 * selectors selektierten Elemente, oder null wenn es keine Sicht mit
+	 * gleichwertigen Selektoren gibt.
+	 */
+	public int[] get(List<Selector<T>> selectors) {
+		if (sichten.isEmpty()) {
+			return null;
+		}
+
+		if (nachSelektoren == null) {
+			nachSelektoren = new HashMap<Set<Selector<T>>, Sicht<T>>();
+
+			for (Sicht<T> sicht : sichten.values()) {
+				nachSelektoren.put(new HashSet<Selector<T>>(sicht.selectors),
+						sicht);
+			}
+		}
+
+		Sicht<T> sicht = nachSelektoren.get(new HashSet<Selector<T>>(
+				selectors));
+
+		if (sicht == null) {
+			return null;
+		}
+		if (sicht.ergebnis == null) {
+			sicht.berechne(list);
+		}
+
+		BitSet ergebnis = sicht.ergebnis;
+		int[] positionen = new int[ergebnis.cardinality()];
+		int anzahl = 0;
+
+		for (int i = ergebnis.nextSetBit(0); i >= 0; i = ergebnis
+				.nextSetBit(i + 1)) {
+			positionen[anzahl++] = i;
+		}
+
+		return positionen;
+	}
+
+	@Override
+	public void eingefuegt(int von, int bis) {
+		for (Sicht<T> sicht : sichten.values()) {
+			if (sicht.ergebnis != null) {
+				Selector<T> kette = sicht.getKette();
+
+				for (int i = von; i < bis; i++) {
+					if (kette.select(list.get(i))) {
+						sicht.ergebnis.set(i);
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public void geloescht(int position) {
+		for (Sicht<T> sicht : sichten.values()) {
+			if (sicht.ergebnis != null) {
+				sicht.ergebnis.clear(position);
+			}
+		}
+	}
+
+	@Override
+	public void vorKompaktierung() {
+		for (Sicht<T> sicht : sichten.values()) {
+			if (sicht.ergebnis != null) {
+				sicht.ergebnis = kompaktiert(sicht.ergebnis);
+			}
+		}
+	}
+
+	/**
+	 * NOTE: Nur die Bits der Positionen des geaenderten Elementes werden neu
+	 * berechnet.
+	 */
+	@Override
+	public void elementGeaendert(T element, IntListe positionen) {
+		if (positionen.size() == 0) {
+			return;
+		}
+
+		for (Sicht<T> sicht : sichten.values()) {
+			if (sicht.ergebnis != null) {
+				boolean selektiert = sicht.getKette().select(element);
+
+				for (int i = 0; i < positionen.size(); i++) {
+					sicht.ergebnis.set(positionen.get(i), selektiert);
+				}
+			}
+		}
+	}
+
+	/**
+	 * NOTE: Rechnet die Positionen von bitmap auf die Positionen nach einer
+	 * Kompaktierung von list um.
+	 * 
+	 * Vorbedingung: bitmap ist ungleich null und enthaelt nur Positionen nicht
+	 * geloeschter Slots.
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist eine neue Bitmap
+	 */
+	private BitSet kompaktiert(BitSet bitmap) {
+		BitSet neu = new BitSet(list.size());
+		int slots = list.getSlots();
+		int ziel = 0;
+
+		for (int i = list.naechste(0); i < slots; i = list.naechste(i + 1)) {
+			if (bitmap.get(i)) {
+				neu.set(ziel);
+			}
+			ziel++;
+		}
+
+		return neu;
+	}
+
+	/**
+	 * NOTE: Die Bitmaps werden mit den Positionen gespeichert, die die
+	 * Elemente nach dem Laden der (dabei kompaktierten) Slotliste haben.
+	 * Veraltete Bitmaps werden nicht gespeichert.
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+
+		for (Sicht<T> sicht : sichten.values()) {
+			out.writeObject(sicht.ergebnis == null ? null
+					: kompaktiert(sicht.ergebnis));
+		}
+	}
+
+	/**
+	 * Nachbedingung: die Bitmaps sind geladen, die Sichten sind bei list
+	 * angemeldet.
+	 * 
+	 * @param in
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private void readObject(ObjectInputStream in) throws IOException,
+			ClassNotFoundException {
+		in.defaultReadObject();
+
+		for (Sicht<T> sicht : sichten.values()) {
+			sicht.ergebnis = (BitSet) in.readObject();
+		}
+		list.anmelden(this);
+	}
+
+	/**
+	 * NOTE: Eine benannte Sicht. Die Bitmap wird von Sichten gespeichert.
+	 * 
+	 * Invariante: selectors ist ungleich null und enthaelt keine Elemente
+	 * gleich null. ergebnis ist null, wenn die Bitmap veraltet ist.
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private static class Sicht<T> implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private List<Selector<T>> selectors;
+		private transient BitSet ergebnis;
+		private transient Selector<T> kette;
+
+		/**
+		 * Vorbedingung: selectors ist ungleich null und enthaelt keine
+		 * Elemente gleich null.
+		 */
+		public Sicht(List<Selector<T>> selectors) {
+			this.selectors = new ArrayList<Selector<T>>(selectors);
+		}
+
+		/**
+		 * Nachbedingung: der Rueckgabewert ist ungleich null und selektiert
+		 * genau die von allen Selektoren selektierten Elemente.
+		 */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		public Selector<T> getKette() {
+			if (kette == null) {
+				kette = Selektorkette.get(selectors
+						.toArray(new Selector[selectors.size()]));
+			}
+			return kette;
+		}
+
+		/**
+		 * Vorbedingung: list ist ungleich null
+		 * 
+		 * Nachbedingung: ergebnis ist aktuell
+		 */
+		public void berechne(Slotliste<T> list) {
+			Selector<T> kette = getKette();
+			int slots = list.getSlots();
+
+			ergebnis = new BitSet(slots);
+
+			for (int i = list.naechste(0); i < slots; i = list.naechste(i + 1)) {
+				if (kette.select(list.get(i))) {
+					ergebnis.set(i);
+				}
+			}
+		}
+	}
+}
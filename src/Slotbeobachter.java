@@ -0,0 +1,43 @@
+/**
+ * NOTE: Wird ueber Veraenderungen der Slots einer Slotliste informiert. Damit
+ * koennen abgeleitete Daten schrittweise nachgefuehrt werden, anstatt sie bei
+ * jeder Veraenderung neu zu berechnen.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+interface Slotbeobachter<T> {
+	/**
+	 * NOTE: Elemente wurden in die neuen Slots von (inklusive) bis bis
+	 * (exklusive) eingefuegt. Beim Einfuegen mehrerer Elemente auf einmal
+	 * wird nur einmal informiert.
+	 * 
+	 * Vorbedingung: 0 <= von < bis <= list.getSlots()
+	 */
+	public void eingefuegt(int von, int bis);
+
+	/**
+	 * NOTE: Ein Slot wurde als geloescht markiert.
+	 * 
+	 * Vorbedingung: 0 <= position < list.getSlots()
+	 */
+	public void geloescht(int position);
+
+	/**
+	 * NOTE: Wird unmittelbar vor einer Kompaktierung aufgerufen, die
+	 * geloeschten Slots sind also noch abfragbar. Danach hat jedes nicht
+	 * geloeschte Element die Anzahl der davor liegenden, nicht geloeschten
+	 * Elemente als Position.
+	 */
+	public void vorKompaktierung();
+
+	/**
+	 * NOTE: Ein gespeichertes Element hat sich veraendert. Es wird einmal pro
+	 * Aenderung informiert, auch wenn das Element in mehreren (oder keinem
+	 * nicht geloeschten) Slot gespeichert ist.
+	 * 
+	 * Vorbedingung: element und positionen sind ungleich null. positionen
+	 * enthaelt aufsteigend die nicht geloeschten Slots von element und darf
+	 * nicht veraendert werden.
+	 */
+	public void elementGeaendert(T element, IntListe positionen);
+}
@@ -0,0 +1,506 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * NOTE: Speichert die Elemente einer Selection in Slots. Ein entferntes
+ * Element wird nur als geloescht markiert (Grabstein), wodurch das Entfernen
+ * in konstanter Zeit moeglich ist. Geloeschte Slots werden gesammelt
+ * freigegeben (kompaktiert), sobald mehr als die Haelfte der Slots geloescht
+ * ist.
+ * 
+ * NOTE: Positionen bleiben bis zur naechsten Kompaktierung gueltig. Jede
+ * Kompaktierung erhoeht die Epoche. Jede Veraenderung (auch die Aenderung
+ * eines beobachtbaren Elementes) erhoeht die Version, wodurch abgeleitete
+ * Daten (Indizes, Bitmaps, ...) ihre Gueltigkeit pruefen koennen.
+ * Angemeldete Slotbeobachter werden zusaetzlich ueber jede Veraenderung
+ * informiert. Sie werden nicht gespeichert und muessen sich nach dem Laden
+ * erneut anmelden.
+ * 
+ * NOTE: Fuer beobachtbare Elemente merkt sich die Slotliste ihre Positionen
+ * (eine Position als Integer, mehrere als IntListe), damit die
+ * Slotbeobachter bei einer Aenderung nur die betroffenen Slots neu pruefen
+ * muessen.
+ * 
+ * GOOD: Starker Klassenzusammenhalt. Die Klasse kuemmert sich ausschliesslich
+ * um die Speicherung, die Auswahl bleibt Aufgabe der Selection.
+ * 
+ * Invariante: elemente und geloescht sind ungleich null. Die Slots 0 bis
+ * slots - 1 enthalten keine Elemente gleich null. anzahlGeloescht ist die
+ * Anzahl der in geloescht gesetzten Bits. positionen enthaelt fuer jedes
+ * beobachtbare Element die Positionen seiner nicht geloeschten Slots.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+class Slotliste<T> implements Iterable<T>, Beobachter, Serializable {
+	private static final long serialVersionUID = 1L;
+
+	// NOTE: Kleine Listen werden nicht kompaktiert
+	private static final int MIN_KOMPAKTIERUNG = 16;
+
+	private transient Object[] elemente;
+	private transient int slots;
+	private transient BitSet geloescht;
+	private transient int anzahlGeloescht;
+	private transient int epoche;
+	private transient int aenderungen;
+	private transient long version;
+	private transient List<Slotbeobachter<T>> slotbeobachter;
+	private transient IdentityHashMap<Object, Object> positionen;
+
+	// NOTE: die Sperre der Schreibzugriffe einer nebenlaeufigen Selection,
+	// sonst null
+	private transient Lock sperre;
+
+	/**
+	 * Nachbedingung: die Liste ist leer
+	 */
+	public Slotliste() {
+		this.elemente = new Object[10];
+		this.slots = 0;
+		this.geloescht = new BitSet();
+		this.anzahlGeloescht = 0;
+		this.epoche = 0;
+		this.aenderungen = 0;
+		this.version = 0;
+		this.slotbeobachter = new ArrayList<Slotbeobachter<T>>();
+		this.positionen = new IdentityHashMap<Object, Object>();
+	}
+
+	/**
+	 * Vorbedingung: beobachter ist ungleich null
+	 * 
+	 * Nachbedingung: beobachter wird ueber alle weiteren Veraenderungen
+	 * informiert.
+	 */
+	public void anmelden(Slotbeobachter<T> beobachter) {
+		if (!slotbeobachter.contains(beobachter)) {
+			slotbeobachter.add(beobachter);
+		}
+	}
+
+	/**
+	 * Nachbedingung: beobachter wird nicht mehr informiert
+	 */
+	public void abmelden(Slotbeobachter<T> beobachter) {
+		slotbeobachter.remove(beobachter);
+	}
+
+	/**
+	 * NOTE: Aenderungen von Elementen werden den Slotbeobachtern unter dieser
+	 * Sperre gemeldet, da sie (anders als die uebrigen Veraenderungen) nicht
+	 * ueber die Selection erfolgen.
+	 * 
+	 * @param sperre
+	 *            die Sperre der Schreibzugriffe, oder null
+	 */
+	public void setSperre(Lock sperre) {
+		this.sperre = sperre;
+	}
+
+	/**
+	 * NOTE: Fuegt element in einen neuen Slot am Ende an. Davor werden die
+	 * geloeschten Slots bei Bedarf freigegeben. Ist element beobachtbar, wird
+	 * es von der Slotliste beobachtet.
+	 * 
+	 * Vorbedingung: element ist ungleich null
+	 * 
+	 * @return die Position des neuen Slots
+	 */
+	public int add(T element) {
+		kompaktiereBeiBedarf();
+
+		if (slots == elemente.length) {
+			elemente = Arrays.copyOf(elemente, slots + (slots >> 1) + 1);
+		}
+		elemente[slots] = element;
+		beobachte(element, slots);
+		version++;
+		slots++;
+
+		for (Slotbeobachter<T> beobachter : slotbeobachter) {
+			beobachter.eingefuegt(slots - 1, slots);
+		}
+
+		return slots - 1;
+	}
+
+	/**
+	 * NOTE: Fuegt die ersten anzahl Elemente von neue am Ende an. Der Speicher
+	 * wird nur einmal vergroessert, die Version nur einmal erhoeht und die
+	 * Slotbeobachter werden nur einmal informiert.
+	 * 
+	 * Vorbedingung: neue ist ungleich null, 0 <= anzahl <= neue.length. Die
+	 * ersten anzahl Elemente von neue sind vom Typ T und ungleich null.
+	 * 
+	 * @return die Position des ersten neuen Slots
+	 */
+	public int addAll(Object[] neue, int anzahl) {
+		kompaktiereBeiBedarf();
+
+		int von = slots;
+
+		if (anzahl == 0) {
+			return von;
+		}
+		if (slots + anzahl > elemente.length) {
+			elemente = Arrays.copyOf(elemente,
+					Math.max(slots + anzahl, slots + (slots >> 1) + 1));
+		}
+
+		System.arraycopy(neue, 0, elemente, slots, anzahl);
+		for (int i = 0; i < anzahl; i++) {
+			beobachte(neue[i], slots + i);
+		}
+		slots += anzahl;
+		version++;
+
+		for (Slotbeobachter<T> beobachter : slotbeobachter) {
+			beobachter.eingefuegt(von, slots);
+		}
+
+		return von;
+	}
+
+	/**
+	 * NOTE: Beobachtet element und merkt sich position.
+	 * 
+	 * Vorbedingung: element ist ungleich null und in Slot position
+	 * gespeichert.
+	 */
+	private void beobachte(Object element, int position) {
+		if (element instanceof Beobachtbar) {
+			((Beobachtbar) element).anmelden(this);
+			merke(element, position);
+		}
+	}
+
+	/**
+	 * NOTE: Die Positionen eines Elementes werden aufsteigend eingetragen.
+	 * 
+	 * Vorbedingung: element ist beobachtbar, position ist groesser als alle
+	 * gemerkten Positionen von element.
+	 */
+	private void merke(Object element, int position) {
+		Object bisher = positionen.get(element);
+
+		if (bisher == null) {
+			positionen.put(element, position);
+		} else if (bisher instanceof Integer) {
+			IntListe liste = new IntListe();
+			liste.add((Integer) bisher);
+			liste.add(position);
+			positionen.put(element, liste);
+		} else {
+			((IntListe) bisher).add(position);
+		}
+	}
+
+	/**
+	 * Vorbedingung: element ist ungleich null
+	 * 
+	 * Nachbedingung: position ist nicht mehr fuer element gemerkt
+	 */
+	private void vergiss(Object element, int position) {
+		Object bisher = positionen.get(element);
+
+		if (bisher instanceof Integer) {
+			positionen.remove(element);
+		} else if (bisher != null) {
+			IntListe rest = new IntListe();
+			IntListe liste = (IntListe) bisher;
+
+			for (int i = 0; i < liste.size(); i++) {
+				if (liste.get(i) != position) {
+					rest.add(liste.get(i));
+				}
+			}
+			positionen.put(element, rest.size() == 1 ? (Object) rest.get(0)
+					: rest);
+		}
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist eine neue, aufsteigend sortierte
+	 * Liste der nicht geloeschten Positionen von element.
+	 */
+	private IntListe getPositionen(Object element) {
+		Object bisher = positionen.get(element);
+		IntListe liste = new IntListe();
+
+		if (bisher instanceof Integer) {
+			liste.add((Integer) bisher);
+		} else if (bisher != null) {
+			liste.addAll((IntListe) bisher);
+		}
+
+		return liste;
+	}
+
+	/**
+	 * NOTE: Ein gespeichertes Element hat sich veraendert. Abgeleitete Daten,
+	 * die vom Zustand der Elemente abhaengen, sind damit ungueltig. Die
+	 * Slotbeobachter erhalten die Positionen des Elementes.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void geaendert(Beobachtbar element) {
+		if (sperre != null) {
+			sperre.lock();
+		}
+		try {
+			IntListe betroffen = getPositionen(element);
+
+			aenderungen++;
+			version++;
+
+			for (Slotbeobachter<T> beobachter : slotbeobachter) {
+				beobachter.elementGeaendert((T) element, betroffen);
+			}
+		} finally {
+			if (sperre != null) {
+				sperre.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Vorbedingung: 0 <= position < getSlots()
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(int position) {
+		return (T) elemente[position];
+	}
+
+	/**
+	 * Vorbedingung: 0 <= position < getSlots()
+	 */
+	public boolean istGeloescht(int position) {
+		return geloescht.get(position);
+	}
+
+	/**
+	 * NOTE: Liefert die erste nicht geloeschte Position ab position.
+	 * 
+	 * Vorbedingung: position >= 0
+	 * 
+	 * @return die Position, oder getSlots() wenn es keine mehr gibt
+	 */
+	public int naechste(int position) {
+		if (anzahlGeloescht == 0) {
+			return Math.min(position, slots);
+		}
+		return Math.min(geloescht.nextClearBit(position), slots);
+	}
+
+	/**
+	 * NOTE: Liefert die erste geloeschte Position ab position. Zusammen mit
+	 * naechste koennen so zusammenhaengende Bereiche nicht geloeschter Slots
+	 * durchlaufen werden.
+	 * 
+	 * Vorbedingung: position >= 0
+	 * 
+	 * @return die Position, oder getSlots() wenn es keine mehr gibt
+	 */
+	public int naechsteGeloeschte(int position) {
+		if (anzahlGeloescht == 0) {
+			return slots;
+		}
+
+		int geloeschte = geloescht.nextSetBit(position);
+		return geloeschte < 0 ? slots : Math.min(geloeschte, slots);
+	}
+
+	/**
+	 * Vorbedingung: 0 <= position < getSlots(). Der Slot ist nicht geloescht.
+	 * 
+	 * Nachbedingung: der Slot ist als geloescht markiert
+	 */
+	public void loesche(int position) {
+		if (elemente[position] instanceof Beobachtbar) {
+			vergiss(elemente[position], position);
+		}
+		geloescht.set(position);
+		anzahlGeloescht++;
+		version++;
+
+		for (Slotbeobachter<T> beobachter : slotbeobachter) {
+			beobachter.geloescht(position);
+		}
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist >= 0
+	 * 
+	 * @return die Anzahl der Slots (inklusive geloeschter Slots)
+	 */
+	public int getSlots() {
+		return slots;
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist >= 0
+	 * 
+	 * @return die Anzahl der nicht geloeschten Elemente
+	 */
+	public int size() {
+		return slots - anzahlGeloescht;
+	}
+
+	/**
+	 * @return die Anzahl der bisherigen Kompaktierungen
+	 */
+	public int getEpoche() {
+		return epoche;
+	}
+
+	/**
+	 * @return die Anzahl der bisher gemeldeten Aenderungen von Elementen
+	 */
+	public int getAenderungen() {
+		return aenderungen;
+	}
+
+	/**
+	 * NOTE: Die Version aendert sich bei jeder Veraenderung der Slotliste oder
+	 * ihrer Elemente.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist eine neue Bitmap, in der genau die
+	 * Positionen der nicht geloeschten Slots gesetzt sind.
+	 */
+	public BitSet getBelegt() {
+		BitSet belegt = new BitSet(slots);
+		belegt.set(0, slots);
+		belegt.andNot(geloescht);
+		return belegt;
+	}
+
+	/**
+	 * NOTE: Gibt die geloeschten Slots frei, wenn mehr als die Haelfte aller
+	 * Slots geloescht ist. Dadurch sind die Kosten pro Loeschung im Mittel
+	 * konstant.
+	 * 
+	 * Nachbedingung: Wenn kompaktiert wurde, sind alle Positionen ungueltig
+	 * und die Epoche ist erhoeht.
+	 */
+	public void kompaktiereBeiBedarf() {
+		if (slots >= MIN_KOMPAKTIERUNG && anzahlGeloescht * 2 > slots) {
+			kompaktiere();
+		}
+	}
+
+	/**
+	 * Nachbedingung: es gibt keine geloeschten Slots. Die Reihenfolge der
+	 * Elemente ist unveraendert.
+	 */
+	private void kompaktiere() {
+		int ziel = 0;
+
+		for (Slotbeobachter<T> beobachter : slotbeobachter) {
+			beobachter.vorKompaktierung();
+		}
+
+		positionen.clear();
+
+		for (int i = naechste(0); i < slots; i = naechste(i + 1)) {
+			elemente[ziel] = elemente[i];
+			if (elemente[ziel] instanceof Beobachtbar) {
+				merke(elemente[ziel], ziel);
+			}
+			ziel++;
+		}
+		Arrays.fill(elemente, ziel, slots, null);
+
+		slots = ziel;
+		geloescht.clear();
+		anzahlGeloescht = 0;
+		epoche++;
+		version++;
+	}
+
+	/**
+	 * NOTE: Durchlaeuft alle nicht geloeschten Elemente.
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private int position = naechste(0);
+
+			@Override
+			public boolean hasNext() {
+				return position < slots;
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				T element = get(position);
+				position = naechste(position + 1);
+				return element;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * NOTE: Es werden nur die nicht geloeschten Elemente gespeichert.
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(size());
+
+		for (T element : this) {
+			out.writeObject(element);
+		}
+	}
+
+	/**
+	 * Nachbedingung: die Liste enthaelt die gespeicherten Elemente in der
+	 * selben Reihenfolge, es gibt keine geloeschten Slots.
+	 * 
+	 * @param in
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private void readObject(ObjectInputStream in) throws IOException,
+			ClassNotFoundException {
+		in.defaultReadObject();
+		slots = in.readInt();
+		elemente = new Object[Math.max(slots, 10)];
+		geloescht = new BitSet();
+		slotbeobachter = new ArrayList<Slotbeobachter<T>>();
+		positionen = new IdentityHashMap<Object, Object>();
+
+		for (int i = 0; i < slots; i++) {
+			elemente[i] = in.readObject();
+			beobachte(elemente[i], i);
+		}
+	}
+}
@@ -71,13 +71,17 @@ public class Song implements Serializable {
 	 * @author Koegler Alexander
 	 */
 	public static class ZeitpunktSelektor implements Selector<Song> {
-		private Date zeitpunkt;
+		private static final long serialVersionUID = 1L;
+
+		// NOTE: in Millisekunden, damit spaetere Aenderungen am uebergebenen
+		// Date den Selektor (Schluessel gemerkter Ergebnisse) nicht veraendern
+		private long zeitpunkt;
 
 		/**
 		 * Vorbedingung: zeitpunkt ist ungleich null
 		 */
 		public ZeitpunktSelektor(Date zeitpunkt) {
-			this.zeitpunkt = zeitpunkt;
+			this.zeitpunkt = zeitpunkt.getTime();
 		}
 
 		@Override
@@ -88,6 +92,20 @@ public class Song implements Serializable {
 			return item.zeitraum.inZeitraum(zeitpunkt);
 		}
 
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ZeitpunktSelektor)) {
+				return false;
+			}
+			ZeitpunktSelektor other = (ZeitpunktSelektor) obj;
+			return zeitpunkt == other.zeitpunkt;
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) (zeitpunkt ^ (zeitpunkt >>> 32));
+		}
+
 	}
 
 	/**
@@ -95,7 +113,15 @@ public class Song implements Serializable {
 	 * 
 	 * @author Koegler Alexander
 	 */
-	public static class NameSelektor implements Selector<Song> {
+	public static class NameSelektor implements IndexSelector<Song> {
+		private static final long serialVersionUID = 1L;
+
+		private static final Indexer<Song> INDEXER = new Indexer<Song>() {
+			@Override
+			public Object getSchluessel(Song item) {
+				return Index.ohneGrossschreibung(item.name);
+			}
+		};
 
 		private String name;
 
@@ -110,5 +136,29 @@ public class Song implements Serializable {
 		public boolean select(Song item) {
 			return item.name.compareToIgnoreCase(name) == 0;
 		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof NameSelektor)) {
+				return false;
+			}
+			NameSelektor other = (NameSelektor) obj;
+			return getSchluessel().equals(other.getSchluessel());
+		}
+
+		@Override
+		public int hashCode() {
+			return getSchluessel().hashCode();
+		}
+
+		@Override
+		public Indexer<Song> getIndexer() {
+			return INDEXER;
+		}
+
+		@Override
+		public Object getSchluessel() {
+			return Index.ohneGrossschreibung(name);
+		}
 	}
 }
@@ -48,6 +48,21 @@ public class Songs extends Selection<Song> {
 		return new Songs(this, selectors);
 	}
 
+	/**
+	 * NOTE: Oeffnet eine mit speichereSicht gespeicherte Sicht. Das Ergebnis
+	 * der Sicht ist bereits bekannt und wird nicht neu berechnet.
+	 * 
+	 * @return die Sicht, oder null wenn es keine Sicht mit diesem Namen gibt.
+	 */
+	public Songs getSicht(String name) {
+		List<Selector<Song>> selectors = getSichtSelektoren(name);
+
+		if (selectors == null) {
+			return null;
+		}
+		return select(selectors);
+	}
+
 	/**
 	 * Nachbedingung: der Rueckgabewert ist eine neu initialisierte Liste aus
 	 * Songvarianten, bestehend aus allen Varianten der selektierten Songs.
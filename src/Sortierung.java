@@ -0,0 +1,56 @@
+/**
+ * NOTE: Sortiert Paare aus einem long-Schluessel und einem int-Wert, die in
+ * zwei parallelen Arrays liegen. Anders als beim Sortieren eines Integer[]
+ * mit einem Comparator wird dabei kein Objekt pro Eintrag erzeugt.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+final class Sortierung {
+	private Sortierung() {
+	}
+
+	/**
+	 * NOTE: Stabiler Mergesort (von unten nach oben). Bereits sortierte
+	 * Teilbereiche werden nicht zusammengefuehrt, sortierte Eingaben kosten
+	 * daher nur O(n).
+	 * 
+	 * Vorbedingung: schluessel und werte sind ungleich null, 0 <= n <=
+	 * schluessel.length, werte.length
+	 * 
+	 * Nachbedingung: die ersten n Paare sind aufsteigend nach schluessel
+	 * sortiert, Paare mit gleichem Schluessel in ihrer bisherigen Reihenfolge.
+	 */
+	public static void sortiere(long[] schluessel, int[] werte, int n) {
+		long[] s = null;
+		int[] w = null;
+
+		for (int breite = 1; breite < n; breite *= 2) {
+			for (int von = 0; von < n - breite; von += 2 * breite) {
+				int mitte = von + breite;
+				int ende = Math.min(von + 2 * breite, n);
+
+				if (schluessel[mitte - 1] <= schluessel[mitte]) {
+					continue;
+				}
+				if (s == null) {
+					s = new long[n];
+					w = new int[n];
+				}
+
+				int a = von;
+				int b = mitte;
+				for (int i = von; i < ende; i++) {
+					if (b == ende || a < mitte && schluessel[a] <= schluessel[b]) {
+						s[i] = schluessel[a];
+						w[i] = werte[a++];
+					} else {
+						s[i] = schluessel[b];
+						w[i] = werte[b++];
+					}
+				}
+				System.arraycopy(s, von, schluessel, von, ende - von);
+				System.arraycopy(w, von, werte, von, ende - von);
+			}
+		}
+	}
+}
@@ -1,5 +1,7 @@
-import java.io.Serializable;
-import java.text.SimpleDateFormat;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -16,13 +18,18 @@ import java.util.List;
  * ausgelagert werden. Diese kann sich einzig der Aufgabe des Update und Undo
  * widmen und ebenso von anderen Objekten benutzt werden.
  * 
+ * NOTE: Jede Aenderung (auch undo) wird den Beobachtern gemeldet.
+ * 
+ * NOTE: Wird ein Vorkommen einer Terminserie geaendert, loest Termine es aus
+ * der Serie und nimmt es als einzelnen Termin auf (siehe istVorkommen).
+ * 
  * Invariante: typus, ort, zeitraum, posten und teilnehmer sind ungleich null.
  * teilnehmer enthaelt keine Elemente gleich null. teilnehmer enthaelt keine
  * doppelten Eintraege.
  * 
  * @author Koegler Alexander
  */
-public class Termin implements Serializable {
+public class Termin extends Beobachtbar {
 	private static final long serialVersionUID = 1L;
 
 	private Typ typus;
@@ -35,12 +42,22 @@ public class Termin implements Serializable {
 	// doppelte eintraege
 	private List<Mitglied> teilnehmer;
 
-	// NOTE: speichert vorhergehenden zustand des Objekts (UNDO), ist NULL wenn
-	// instanziert, oder nichts mehr rueckgaengig gemacht werden kann
-	private Termin orig;
+	// NOTE: speichert die vorhergehenden Werte der geaenderten Felder (UNDO),
+	// ist NULL solange der Termin nicht geaendert wurde
+	private Historie historie;
 
-	private Termin() {
-	}
+	// NOTE: alle Versionen mit Zeitpunkt, ist NULL solange der Termin in
+	// keiner aktiven Chronik ist (siehe Chronik)
+	private Versionen versionen;
+
+	// NOTE: die alten Werte der Felder waehrend einer Sammelaenderung
+	// (Termine.aendere), Index wie bei Historie.MEHRERE. Ist NULL ausserhalb
+	// einer Sammelaenderung.
+	private transient Object[] stapel;
+
+	// NOTE: die Serie, solange der Termin ein Vorkommen ist, sonst NULL. Die
+	// Vorkommen werden nur beim Durchlaufen erzeugt.
+	private transient Terminserie serie;
 
 	/**
 	 * NOTE: Legt neuen Termin an
@@ -61,7 +78,51 @@ public class Termin implements Serializable {
 		this.zeitraum = new Zeitraum(von, bis);
 		this.posten = new Posten(einnahmen, ausgaben, typus.toString(), bis);
 		this.teilnehmer = teilnehmer;
-		this.orig = null;
+		this.historie = null;
+		this.versionen = null;
+	}
+
+	/**
+	 * NOTE: Erstellt eine unabhaengige Kopie von aktuell mit den angegebenen
+	 * Werten, ohne Historie.
+	 * 
+	 * Vorbedingung: aktuell, ort, zeitraum und posten sind ungleich null
+	 */
+	private Termin(Termin aktuell, Ort ort, Zeitraum zeitraum, Posten posten) {
+		this.typus = aktuell.typus;
+		this.ort = ort;
+		this.zeitraum = zeitraum;
+		this.posten = posten;
+		this.teilnehmer = aktuell.teilnehmer;
+		this.historie = null;
+		this.versionen = null;
+	}
+
+	/**
+	 * NOTE: Aeltere Aenderungen koennen nur rueckgaengig gemacht werden, wenn
+	 * eine Ablage gesetzt ist (siehe setUndoAblage).
+	 * 
+	 * Vorbedingung: tiefe ist >= 0
+	 * 
+	 * Nachbedingung: jeder Termin haelt ab seiner naechsten Aenderung
+	 * hoechstens die letzten tiefe Aenderungen im Speicher.
+	 */
+	public static void setUndoTiefe(int tiefe) {
+		Historie.setTiefe(tiefe);
+	}
+
+	/**
+	 * NOTE: Aenderungen, die nicht mehr im Speicher gehalten werden, werden in
+	 * eine temporaere Datei in verzeichnis ausgelagert (verzeichnis null:
+	 * verworfen). Ausgelagerte Aenderungen werden nicht mit dem Programm
+	 * gespeichert. Die in eine bisherige Ablage ausgelagerten Aenderungen
+	 * werden verworfen.
+	 * 
+	 * @throws IOException
+	 *             wenn in verzeichnis keine Datei angelegt werden kann
+	 */
+	public static void setUndoAblage(File verzeichnis) throws IOException {
+		Historie.setAblage(verzeichnis);
 	}
 
 	/**
@@ -71,6 +132,13 @@ public class Termin implements Serializable {
 		return zeitraum;
 	}
 
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	public Ort getOrt() {
+		return ort;
+	}
+
 	/**
 	 * Nachbedingung: der Rueckgabewert ist ungleich null
 	 */
@@ -103,71 +171,362 @@ public class Termin implements Serializable {
 	}
 
 	/**
-	 * NOTE: Legt eine Kopie des Termins auf den Undo-Stack.
+	 * @return true, wenn der Termin ein Vorkommen einer Terminserie ist. Es
+	 *         wird nur beim Durchlaufen erzeugt; bei seiner ersten Aenderung
+	 *         wird es aus der Serie entfernt und als einzelner Termin
+	 *         aufgenommen (siehe Termine).
+	 */
+	public boolean istVorkommen() {
+		return serie != null;
+	}
+
+	/**
+	 * @return die Serie, solange der Termin ein Vorkommen ist, sonst null
+	 */
+	Terminserie getSerie() {
+		return serie;
+	}
+
+	/**
+	 * NOTE: Fuer Terminserie
 	 * 
-	 * Nachbedingung: eine Kopie des this-Objektes steht in der verketteten
-	 * (undo)-Liste nach dem this-Objekt.
+	 * Vorbedingung: serie ist ungleich null
+	 * 
+	 * Nachbedingung: der Termin ist ein Vorkommen von serie
 	 */
-	private void prepareUpdate() {
-		Termin other = new Termin();
-		other.typus = typus;
+	Termin alsVorkommen(Terminserie serie) {
+		this.serie = serie;
+		return this;
+	}
 
-		// NOTE: flache kopie (kann nicht geaendert werden, da privat)
-		other.zeitraum = zeitraum;
+	/**
+	 * NOTE: Fuer Termine
+	 * 
+	 * Nachbedingung: der Termin ist kein Vorkommen mehr
+	 */
+	void loeseVonSerie() {
+		serie = null;
+	}
 
-		// NOTE: flache kopie (eine aenderung in ort aendert nichts an der
-		// bedeutung)
-		other.ort = ort;
+	/**
+	 * NOTE: Legt den alten Wert eines Feldes auf den Undo-Stack. Typus und
+	 * Teilnehmer werden nie geaendert und daher nicht gespeichert.
+	 * 
+	 * Vorbedingung: feld ist ein Feld der Historie, wert ist sein aktueller
+	 * Wert.
+	 * 
+	 * Nachbedingung: wert ist der juengste Eintrag der Historie, oder - in
+	 * einer Sammelaenderung - der alte Wert des Feldes ist im Stapel gemerkt.
+	 */
+	private void prepareUpdate(byte feld, Object wert) {
+		if (stapel != null) {
+			if (stapel[feld - 1] == null) {
+				stapel[feld - 1] = wert;
+			}
+			return;
+		}
+		merke(feld, wert);
+	}
 
-		// NOTE: flache kopie (unveraenderbar)
-		other.posten = posten;
+	private void merke(byte feld, Object wert) {
+		if (historie == null) {
+			historie = new Historie();
+		}
+		historie.merke(feld, wert);
+	}
 
-		// NOTE: flache kopie (aenderungen sind nicht zugelassen)
-		other.teilnehmer = teilnehmer;
+	/**
+	 * NOTE: Haengt den neuen Wert eines Feldes an die Versionen an, wenn der
+	 * Termin Versionen fuehrt.
+	 * 
+	 * Vorbedingung: feld ist ein Feld der Historie, alt ist sein bisheriger,
+	 * neu sein neuer Wert.
+	 */
+	private void versioniere(byte feld, Object alt, Object neu) {
+		if (stapel != null || versionen == null) {
+			// NOTE: eine Version pro Feld bei beendeStapel
+			return;
+		}
+		versionen.merke(feld, alt, neu);
+	}
 
-		// NOTE: haenge other hinter this in die historie ein
-		other.orig = orig;
-		this.orig = other;
+	/**
+	 * NOTE: Fuer Chronik
+	 * 
+	 * Nachbedingung: der Termin fuehrt Versionen (die bisherigen bleiben
+	 * erhalten)
+	 */
+	void beginneVersionen() {
+		if (versionen == null) {
+			versionen = new Versionen();
+		}
+	}
+
+	/**
+	 * NOTE: Fuer Chronik
+	 * 
+	 * Nachbedingung: der Termin fuehrt keine Versionen
+	 */
+	void beendeVersionen() {
+		versionen = null;
+	}
+
+	/**
+	 * NOTE: Fuer Chronik
+	 * 
+	 * Nachbedingung: die Werte, die vor zeitpunkt bereits ersetzt waren, sind
+	 * verworfen.
+	 */
+	void kuerzeVersionen(long zeitpunkt) {
+		if (versionen != null) {
+			versionen.kuerze(zeitpunkt);
+		}
+	}
+
+	/**
+	 * NOTE: Der Termin, wie er zu zeitpunkt war. Die Werte der Felder werden
+	 * mit binaerer Suche in den Versionen gefunden. Typus und Teilnehmer
+	 * aendern sich nie.
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist eine neue, unabhaengige Kopie
+	 * (Aenderungen wirken sich nicht auf this aus)
+	 */
+	Termin getStand(long zeitpunkt) {
+		if (versionen == null) {
+			return new Termin(this, ort, zeitraum, posten);
+		}
+
+		Object ort = versionen.get(Historie.ORT, zeitpunkt);
+		Object zeitraum = versionen.get(Historie.ZEITRAUM, zeitpunkt);
+		Object posten = versionen.get(Historie.POSTEN, zeitpunkt);
+
+		return new Termin(this, ort == null ? this.ort : (Ort) ort,
+				zeitraum == null ? this.zeitraum : (Zeitraum) zeitraum,
+				posten == null ? this.posten : (Posten) posten);
 	}
 
 	/**
+	 * NOTE: Setzt das Feld des juengsten Eintrags der Historie auf den alten
+	 * Wert zurueck (bei einer Sammelaenderung alle geaenderten Felder). Da
+	 * jede Aenderung ueber einen Setter erfolgt, entspricht das dem vorigen
+	 * Objektzustand.
+	 * 
 	 * Nachbedingung: Wenn der Rueckgabewert true ist, ist der letzte
-	 * Objektzustand, der in der verketten undo-Liste gespeichert wurde, wieder
+	 * Objektzustand, der in der Historie gespeichert wurde, wieder
 	 * hergestellt. Anderenfalls ist der Termin unveraendert.
 	 * 
 	 * Nachbedingung: Wenn der Rueckgabewert true ist, befindet sich in den
 	 * Nachrichten-Queues der Teilnehmer eine Nachricht ueber die Aenderung des
 	 * Termins.
+	 * 
+	 * @throws java.io.UncheckedIOException
+	 *             wenn eine ausgelagerte Aenderung nicht gelesen werden kann
+	 *             (der Termin ist dann unveraendert)
 	 */
 	public boolean undo() {
-		if (orig == null) {
+		if (historie == null || historie.istLeer()) {
 			return false;
 		}
 
-		meldeUpdate("zurueckgesetzt auf vorige Version");
+		byte feld = historie.getFeld();
+		Object wert = historie.getWert();
+		historie.entferneJuengsten();
 
-		this.typus = orig.typus;
-		this.ort = orig.ort;
-		this.zeitraum = orig.zeitraum;
-		this.posten = orig.posten;
-		this.teilnehmer = orig.teilnehmer;
-		this.orig = orig.orig;
+		if (feld == Historie.MEHRERE) {
+			Object[] werte = (Object[]) wert;
+
+			for (byte f = Historie.ORT; f <= Historie.POSTEN; f++) {
+				if (werte[f - 1] != null) {
+					versioniere(f, setze(f, werte[f - 1]), werte[f - 1]);
+				}
+			}
+		} else {
+			versioniere(feld, setze(feld, wert), wert);
+		}
+
+		// NOTE: die Nachricht zeigt (wie bisher) den zurueckgesetzten Stand
+		meldeUpdate(aenderung("zurueckgesetzt auf vorige Version", null, null));
+		meldeAenderung();
 
 		return true;
 	}
 
 	/**
-	 * NOTE: Benachrichtigt alle Teilnehmer ueber die gemachte Aenderung.
+	 * Vorbedingung: feld ist ORT, ZEITRAUM oder POSTEN der Historie, wert ist
+	 * ein Wert dieses Feldes.
+	 * 
+	 * @return der bisherige Wert des Feldes
+	 */
+	private Object setze(byte feld, Object wert) {
+		Object alt;
+
+		switch (feld) {
+		case Historie.ORT:
+			alt = this.ort;
+			this.ort = (Ort) wert;
+			break;
+		case Historie.ZEITRAUM:
+			alt = this.zeitraum;
+			this.zeitraum = (Zeitraum) wert;
+			break;
+		default:
+			alt = this.posten;
+			this.posten = (Posten) wert;
+			break;
+		}
+
+		return alt;
+	}
+
+	/**
+	 * NOTE: Beginnt eine Sammelaenderung. Bis beendeStapel oder
+	 * verwerfeStapel merken sich die Setter nur den alten Wert jedes Feldes,
+	 * sie legen keinen Undo-Eintrag und keine Version an und benachrichtigen
+	 * die Teilnehmer nicht (die Beobachter schon).
+	 * 
+	 * Vorbedingung: es laeuft keine Sammelaenderung
+	 */
+	void beginneStapel() {
+		stapel = new Object[3];
+	}
+
+	/**
+	 * NOTE: Beendet eine Sammelaenderung: alle geaenderten Felder zusammen
+	 * ergeben einen Undo-Eintrag und je eine Version.
+	 * 
+	 * Vorbedingung: beginneStapel wurde aufgerufen
+	 * 
+	 * @return eine Nachricht ueber alle Aenderungen (Stand vor der
+	 *         Sammelaenderung), oder null wenn der Termin nicht geaendert
+	 *         wurde
+	 */
+	Nachricht beendeStapel() {
+		Object[] werte = stapel;
+		int anzahl = 0;
+		byte feld = Historie.MEHRERE;
+
+		stapel = null;
+		for (byte f = Historie.ORT; f <= Historie.POSTEN; f++) {
+			if (werte[f - 1] != null) {
+				anzahl++;
+				feld = f;
+			}
+		}
+		if (anzahl == 0) {
+			return null;
+		}
+
+		if (anzahl == 1) {
+			merke(feld, werte[feld - 1]);
+		} else {
+			merke(Historie.MEHRERE, werte);
+		}
+
+		List<Object> aenderungen = new ArrayList<Object>();
+		Ort ort = this.ort;
+		Zeitraum zeitraum = this.zeitraum;
+
+		if (werte[Historie.ORT - 1] != null) {
+			ort = (Ort) werte[Historie.ORT - 1];
+			versioniere(Historie.ORT, ort, this.ort);
+			Collections.addAll(aenderungen, "", ort, this.ort);
+		}
+		if (werte[Historie.ZEITRAUM - 1] != null) {
+			zeitraum = (Zeitraum) werte[Historie.ZEITRAUM - 1];
+			versioniere(Historie.ZEITRAUM, zeitraum, this.zeitraum);
+			Collections.addAll(aenderungen, "", zeitraum, this.zeitraum);
+		}
+		if (werte[Historie.POSTEN - 1] != null) {
+			Posten alt = (Posten) werte[Historie.POSTEN - 1];
+			versioniere(Historie.POSTEN, alt, this.posten);
+
+			if (alt.getAusgaben() != getAusgaben()) {
+				Collections.addAll(aenderungen, "Kosten: ",
+						alt.getAusgaben(), getAusgaben());
+			}
+			if (alt.getEinnahmen() != getEinnahmen()) {
+				Collections.addAll(aenderungen, "Umsatz: ",
+						alt.getEinnahmen(), getEinnahmen());
+			}
+		}
+
+		return new Nachricht("", typus, ort, zeitraum, " wurde geaendert: ",
+				aenderungen.toArray(), new Nachricht[0]);
+	}
+
+	/**
+	 * NOTE: Bricht eine Sammelaenderung ab, die geaenderten Felder erhalten
+	 * wieder ihre alten Werte.
+	 * 
+	 * Vorbedingung: beginneStapel wurde aufgerufen
+	 * 
+	 * Nachbedingung: der Termin ist wie vor beginneStapel
+	 */
+	void verwerfeStapel() {
+		Object[] werte = stapel;
+		boolean geaendert = false;
+
+		stapel = null;
+		for (byte f = Historie.ORT; f <= Historie.POSTEN; f++) {
+			if (werte[f - 1] != null) {
+				setze(f, werte[f - 1]);
+				geaendert = true;
+			}
+		}
+		if (geaendert) {
+			meldeAenderung();
+		}
+	}
+
+	/**
+	 * NOTE: Die Nachricht haelt den jetzigen Stand des Termins fest, die
+	 * Setter erstellen sie daher vor der Aenderung. Sie wird nur fuer die
+	 * Teilnehmer benoetigt.
+	 * 
+	 * @return die Nachricht "Termin wurde geaendert: text [alt -> neu]", oder
+	 *         null wenn es keine Teilnehmer gibt oder eine Sammelaenderung
+	 *         laeuft
+	 */
+	private Nachricht aenderung(String text, Object alt, Object neu) {
+		if (teilnehmer.isEmpty() || stapel != null) {
+			return null;
+		}
+
+		return nachricht("", " wurde geaendert: " + text, alt, neu);
+	}
+
+	/**
+	 * NOTE: Erstellt eine Nachricht ueber den jetzigen Stand des Termins im
+	 * Format vorspann + toString() + text [+ alt + " -> " + neu]. Der Text
+	 * wird erst beim Lesen erzeugt.
+	 * 
+	 * Vorbedingung: vorspann und text sind ungleich null. alt und neu sind
+	 * beide null oder beide ungleich null.
+	 */
+	Nachricht nachricht(String vorspann, String text, Object alt, Object neu) {
+		return new Nachricht(vorspann, typus, ort, zeitraum, text,
+				alt == null ? new Object[0] : new Object[] { "", alt, neu },
+				new Nachricht[0]);
+	}
+
+	/**
+	 * NOTE: Benachrichtigt alle Teilnehmer ueber die gemachte Aenderung. Alle
+	 * erhalten die selbe Nachricht.
 	 * 
 	 * Nachbedingung: In den Nachrichten-Queues der Teilnehmer befindet sich
 	 * eine Nachricht ueber die Aenderung des Termins.
 	 * 
-	 * @param aenderung
+	 * @param nachricht
+	 *            die Nachricht (aenderung), null wenn es keine Teilnehmer gibt
 	 */
-	private void meldeUpdate(String aenderung) {
+	private void meldeUpdate(Nachricht nachricht) {
+		if (nachricht == null) {
+			return;
+		}
+
 		for (Mitglied t : teilnehmer) {
 			// NOTE: t darf nicht doppelt in teilnehmer vorhanden sein
-			t.sende(orig + " wurde geaendert: " + aenderung);
+			t.sende(nachricht);
 		}
 	}
 
@@ -176,8 +535,8 @@ public class Termin implements Serializable {
 	 * 
 	 * Nachbedingung: der Ort des Termins ist nun ort.
 	 * 
-	 * Nachbedingung: der alte Zustand des Termins ist in der verketteten
-	 * undo-Liste gespeichert.
+	 * Nachbedingung: der alte Zustand des Termins ist in der Historie
+	 * gespeichert.
 	 * 
 	 * Nachbedingung: alle Teilnehmer des Termins haben eine Nachricht ueber die
 	 * Aenderung erhalten.
@@ -185,9 +544,14 @@ public class Termin implements Serializable {
 	 * @author Christian Kletzander
 	 */
 	public void setOrt(Ort ort) {
-		this.prepareUpdate();
+		Ort alt = this.ort;
+		Nachricht nachricht = aenderung("", alt, ort);
+
+		this.prepareUpdate(Historie.ORT, alt);
 		this.ort = ort;
-		this.meldeUpdate(orig.ort + " -> " + ort);
+		this.versioniere(Historie.ORT, alt, ort);
+		this.meldeUpdate(nachricht);
+		meldeAenderung();
 	}
 
 	/**
@@ -197,8 +561,8 @@ public class Termin implements Serializable {
 	 * 
 	 * Nachbedingung: der Zeitraum des Termins ist nun das Intervall [von, bis].
 	 * 
-	 * Nachbedingung: der alte Zustand des Termins ist in der verketteten
-	 * undo-Liste gespeichert.
+	 * Nachbedingung: der alte Zustand des Termins ist in der Historie
+	 * gespeichert.
 	 * 
 	 * Nachbedingung: alle Teilnehmer des Termins haben eine Nachricht ueber die
 	 * Aenderung erhalten.
@@ -207,9 +571,15 @@ public class Termin implements Serializable {
 	 * @param zeitraum
 	 */
 	public void setZeitraum(Date von, Date bis) {
-		this.prepareUpdate();
-		this.zeitraum = new Zeitraum(von, bis);
-		this.meldeUpdate(orig.zeitraum + " -> " + zeitraum);
+		Zeitraum alt = this.zeitraum;
+		Zeitraum neu = new Zeitraum(von, bis);
+		Nachricht nachricht = aenderung("", alt, neu);
+
+		this.prepareUpdate(Historie.ZEITRAUM, alt);
+		this.zeitraum = neu;
+		this.versioniere(Historie.ZEITRAUM, alt, zeitraum);
+		this.meldeUpdate(nachricht);
+		meldeAenderung();
 	}
 
 	/**
@@ -217,8 +587,8 @@ public class Termin implements Serializable {
 	 * 
 	 * Nachbedingung: die Ausgaben des Termins sind nun kosten
 	 * 
-	 * Nachbedingung: der alte Zustand des Termins ist in der verketteten
-	 * undo-Liste gespeichert.
+	 * Nachbedingung: der alte Zustand des Termins ist in der Historie
+	 * gespeichert.
 	 * 
 	 * Nachbedingung: alle Teilnehmer des Termins haben eine Nachricht ueber die
 	 * Aenderung erhalten.
@@ -226,11 +596,15 @@ public class Termin implements Serializable {
 	 * @param kosten
 	 */
 	public void setAusgaben(double kosten) {
-		this.prepareUpdate();
+		Posten alt = this.posten;
+		Nachricht nachricht = aenderung("Kosten: ", alt.getAusgaben(), kosten);
+
+		this.prepareUpdate(Historie.POSTEN, alt);
 		this.posten = new Posten(posten.getEinnahmen(), kosten,
 				typus.toString(), zeitraum.getLast());
-		this.meldeUpdate("Kosten: " + orig.getAusgaben() + " -> "
-				+ getAusgaben());
+		this.versioniere(Historie.POSTEN, alt, posten);
+		this.meldeUpdate(nachricht);
+		meldeAenderung();
 	}
 
 	/**
@@ -238,8 +612,8 @@ public class Termin implements Serializable {
 	 * 
 	 * Nachbedingung: die Einnahmen des Termins sind nun umsatz
 	 * 
-	 * Nachbedingung: der alte Zustand des Termins ist in der verketteten
-	 * undo-Liste gespeichert.
+	 * Nachbedingung: der alte Zustand des Termins ist in der Historie
+	 * gespeichert.
 	 * 
 	 * Nachbedingung: alle Teilnehmer des Termins haben eine Nachricht ueber die
 	 * Aenderung erhalten.
@@ -247,11 +621,15 @@ public class Termin implements Serializable {
 	 * @param umsatz
 	 */
 	public void setEinnahmen(double umsatz) {
-		this.prepareUpdate();
+		Posten alt = this.posten;
+		Nachricht nachricht = aenderung("Umsatz: ", alt.getEinnahmen(), umsatz);
+
+		this.prepareUpdate(Historie.POSTEN, alt);
 		this.posten = new Posten(umsatz, posten.getAusgaben(),
 				typus.toString(), zeitraum.getLast());
-		this.meldeUpdate("Umsatz: " + orig.getEinnahmen() + " -> "
-				+ getEinnahmen());
+		this.versioniere(Historie.POSTEN, alt, posten);
+		this.meldeUpdate(nachricht);
+		meldeAenderung();
 	}
 
 	@Override
@@ -259,16 +637,46 @@ public class Termin implements Serializable {
 	 * Nachbedingung: der Rueckgabewert ist ungleich null
 	 */
 	public String toString() {
-		return typus + ": " + ort + " "
-				+ zeitraum.toString(new SimpleDateFormat("dd.MM.yyyy hh:mm"));
+		return Bericht.alsText(this, false);
 	}
 
 	/**
 	 * Nachbedingung: der Rueckgabewert ist ungleich null
 	 */
 	public String toDetailString() {
-		return String.format("%s, Kosten: %,.2f, Umsatz: %,.2f", toString(),
-				posten.getAusgaben(), posten.getEinnahmen());
+		return Bericht.alsText(this, true);
+	}
+
+	/**
+	 * NOTE: Format von toString: "Typ: Ort [dd.MM.yyyy hh:mm - ...]"
+	 * 
+	 * Vorbedingung: bericht ist ungleich null
+	 */
+	void schreibe(Bericht bericht) throws IOException {
+		schreibe(bericht, typus, ort, zeitraum);
+	}
+
+	/**
+	 * NOTE: Schreibt einen (auch frueheren) Stand eines Termins im Format von
+	 * toString
+	 * 
+	 * Vorbedingung: die Parameter sind ungleich null
+	 */
+	static void schreibe(Bericht bericht, Typ typus, Ort ort, Zeitraum zeitraum)
+			throws IOException {
+		bericht.text(typus.toString()).text(": ").text(String.valueOf(ort))
+				.zeichen(' ').zeitraum(zeitraum, true);
+	}
+
+	/**
+	 * NOTE: Format von toDetailString: toString, Kosten und Umsatz
+	 * 
+	 * Vorbedingung: bericht ist ungleich null
+	 */
+	void schreibeDetails(Bericht bericht) throws IOException {
+		schreibe(bericht);
+		bericht.text(", Kosten: ").betrag(posten.getAusgaben(), false)
+				.text(", Umsatz: ").betrag(posten.getEinnahmen(), false);
 	}
 
 	public static enum Typ {
@@ -282,6 +690,8 @@ public class Termin implements Serializable {
 	 * @author Koegler Alexander
 	 */
 	public static class TeilnehmerSelektor implements Selector<Termin> {
+		private static final long serialVersionUID = 1L;
+
 		private Mitglied m;
 
 		public TeilnehmerSelektor(Mitglied m) {
@@ -295,16 +705,42 @@ public class Termin implements Serializable {
 		public boolean select(Termin item) {
 			return item.teilnehmer.contains(m);
 		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof TeilnehmerSelektor)) {
+				return false;
+			}
+			TeilnehmerSelektor other = (TeilnehmerSelektor) obj;
+			return m == other.m;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(m);
+		}
 	}
 
 	/**
 	 * NOTE: Selektiert Termine dessen Zeitraum den angegebenen ueberschneidet
 	 * 
+	 * NOTE: Ein selektierter Termin beginnt im angegebenen Zeitraum, daher
+	 * koennen die Kandidaten ueber einen Bereichsindex nach Beginn ermittelt
+	 * werden.
+	 * 
 	 * Invariante: zeitraum ist ungleich null
 	 * 
 	 * @author Koegler Alexander
 	 */
-	public static class ZeitraumSelektor implements Selector<Termin> {
+	public static class ZeitraumSelektor implements BereichSelector<Termin> {
+		private static final long serialVersionUID = 1L;
+
+		private static final Zeitindexer<Termin> INDEXER = new Zeitindexer<Termin>() {
+			@Override
+			public long getZeitpunkt(Termin item) {
+				return item.zeitraum.getErsterZeitpunkt();
+			}
+		};
 
 		private Zeitraum zeitraum;
 
@@ -323,6 +759,91 @@ public class Termin implements Serializable {
 			return this.zeitraum.enthaelt(item.zeitraum);
 		}
 
+		@Override
+		public Zeitindexer<Termin> getZeitindexer() {
+			return INDEXER;
+		}
+
+		@Override
+		public long[] getBereiche() {
+			return zeitraum.getGrenzen();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ZeitraumSelektor)) {
+				return false;
+			}
+			ZeitraumSelektor other = (ZeitraumSelektor) obj;
+			return zeitraum.equals(other.zeitraum);
+		}
+
+		@Override
+		public int hashCode() {
+			return zeitraum.hashCode();
+		}
+
+	}
+
+	/**
+	 * NOTE: Selektiert Termine, deren Posten im angegebenen Zeitraum liegt
+	 * (siehe Posten.ZeitraumSelektor). Die Kandidaten werden ueber einen
+	 * Bereichsindex nach dem Datum des Postens ermittelt.
+	 * 
+	 * Invariante: zeitraum ist ungleich null
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	public static class PostenSelektor implements BereichSelector<Termin> {
+		private static final long serialVersionUID = 1L;
+
+		private static final Zeitindexer<Termin> INDEXER = new Zeitindexer<Termin>() {
+			@Override
+			public long getZeitpunkt(Termin item) {
+				return item.posten.getDatum().getTime();
+			}
+		};
+
+		private Zeitraum zeitraum;
+
+		/**
+		 * Vorbedingung: zeitraum ist ungleich null
+		 */
+		public PostenSelektor(Zeitraum zeitraum) {
+			this.zeitraum = zeitraum;
+		}
+
+		@Override
+		/**
+		 * Vorbedingung: item ist ungleich null
+		 */
+		public boolean select(Termin item) {
+			return zeitraum.inZeitraum(item.posten.getDatum());
+		}
+
+		@Override
+		public Zeitindexer<Termin> getZeitindexer() {
+			return INDEXER;
+		}
+
+		@Override
+		public long[] getBereiche() {
+			return zeitraum.getGrenzen();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof PostenSelektor)) {
+				return false;
+			}
+			PostenSelektor other = (PostenSelektor) obj;
+			return zeitraum.equals(other.zeitraum);
+		}
+
+		@Override
+		public int hashCode() {
+			return zeitraum.hashCode();
+		}
 	}
 
 	/**
@@ -333,7 +854,16 @@ public class Termin implements Serializable {
 	 * 
 	 * @author Koegler Alexander
 	 */
-	public static class TypSelektor implements Selector<Termin> {
+	public static class TypSelektor implements IndexSelector<Termin> {
+		private static final long serialVersionUID = 1L;
+
+		private static final Indexer<Termin> INDEXER = new Indexer<Termin>() {
+			@Override
+			public Object getSchluessel(Termin item) {
+				return item.typus;
+			}
+		};
+
 		private Typ typus;
 
 		/**
@@ -351,5 +881,29 @@ public class Termin implements Serializable {
 			return this.typus == item.typus;
 		}
 
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof TypSelektor)) {
+				return false;
+			}
+			TypSelektor other = (TypSelektor) obj;
+			return typus == other.typus;
+		}
+
+		@Override
+		public int hashCode() {
+			return typus.hashCode();
+		}
+
+		@Override
+		public Indexer<Termin> getIndexer() {
+			return INDEXER;
+		}
+
+		@Override
+		public Object getSchluessel() {
+			return typus;
+		}
+
 	}
 }
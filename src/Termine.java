@@ -1,19 +1,94 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Date;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Eine Sammlung von Terminen.
  * 
+ * NOTE: Neben einzelnen Terminen kann die Sammlung Terminserien enthalten
+ * (siehe Terminserie). Ihre Vorkommen werden erst beim Durchlaufen (iterator,
+ * Streams, und damit z.B. getFirst, asList, remove, toString) erzeugt, nach
+ * den einzelnen Terminen, und nur innerhalb des Zeitraums eines
+ * Termin.ZeitraumSelektor der Sicht. count, die Summen (Einnahmen, Kosten,
+ * Gewinn, und die Summen der GuV) und der letzte Beginn werden meist ohne
+ * Erzeugen der Vorkommen berechnet. Das Kennzahlen-Abonnement fuehrt nur die
+ * einzelnen Termine, die Vorkommen werden bei jeder Abfrage dazugerechnet.
+ * Serien werden wie einzelne Termine auf Konflikte geprueft, getKonflikte
+ * und getAlleKonflikte liefern auch Vorkommen, getStand stellt auch die
+ * Serien wieder her.
+ * 
+ * NOTE: Wird ein Vorkommen geaendert (ueber seine Setter oder aendere), wird
+ * es aus seiner Serie entfernt (Ausnahme) und als einzelner Termin
+ * aufgenommen (siehe Abloesung).
+ * 
  * @author Peter Pilgerstorfer
  * 
  */
 public class Termine extends Selection<Termin> {
 	private static final long serialVersionUID = 1L;
 
+	// NOTE: die Summanden der Kennzahlen
+	private static final int EINNAHMEN = 0;
+	private static final int AUSGABEN = 1;
+
+	// NOTE: wird von allen Sichten gemeinsam verwendet, die Intervallbaeume
+	// werden erst bei der ersten Abfrage erstellt
+	private transient Belegungen belegungen;
+
+	// NOTE: NULL bis zur ersten Abfrage
+	private transient Probenindex probenindex;
+
+	// NOTE: wann welche Termine aufgenommen und entfernt wurden, wird von
+	// allen Sichten gemeinsam verwendet und nur mitgespeichert, wenn sie aktiv
+	// ist
+	private Chronik chronik;
+
+	// NOTE: die Terminserien, wird von allen Sichten gemeinsam verwendet
+	private List<Terminserie> serien;
+
+	private static final Zeitindexer<Termin> BEGINN = new Zeitindexer<Termin>() {
+		@Override
+		public long getZeitpunkt(Termin item) {
+			return item.getZeitraum().getErsterZeitpunkt();
+		}
+	};
+
 	/**
 	 * Nachbedingung: das neue Termine Objekt enthaelt keine Termine
 	 */
 	public Termine() {
+		this(false);
+	}
+
+	/**
+	 * NOTE: Eine nebenlaeufige Sammlung darf von mehreren Threads
+	 * gleichzeitig gelesen und veraendert werden (siehe Selection). Das gilt
+	 * nur fuer die einzelnen Termine, nicht fuer die Serien.
+	 * 
+	 * Nachbedingung: das neue Termine Objekt enthaelt keine Termine
+	 */
+	public Termine(boolean nebenlaeufig) {
+		super(nebenlaeufig);
+		this.belegungen = new Belegungen(getList());
+		this.serien = new ArrayList<Terminserie>();
+		this.chronik = new Chronik(getList(), serien);
 	}
 
 	/**
@@ -30,6 +105,422 @@ public class Termine extends Selection<Termin> {
 	 */
 	private Termine(Termine base, List<Selector<Termin>> selectors) {
 		super(base, selectors);
+		this.belegungen = base.belegungen;
+		this.probenindex = base.probenindex;
+		this.chronik = base.chronik;
+		this.serien = base.serien;
+	}
+
+	/**
+	 * NOTE: Ohne gespeicherte Chronik ist die Chronik nicht aktiv. Aeltere
+	 * Dateien enthalten keine Serien.
+	 * 
+	 * @param in
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private void readObject(ObjectInputStream in) throws IOException,
+			ClassNotFoundException {
+		in.defaultReadObject();
+		belegungen = new Belegungen(getList());
+
+		if (serien == null) {
+			serien = new ArrayList<Terminserie>();
+		}
+		if (chronik == null) {
+			chronik = new Chronik(getList(), serien);
+		}
+	}
+
+	/**
+	 * NOTE: Eine nicht aktive Chronik wird nicht gespeichert.
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		ObjectOutputStream.PutField felder = out.putFields();
+
+		felder.put("chronik", chronik.istAktiv() ? chronik : null);
+		felder.put("serien", serien);
+		out.writeFields();
+	}
+
+	/**
+	 * NOTE: Ab jetzt wird protokolliert, wann Termine aufgenommen und
+	 * entfernt werden, und die Termine fuehren ihre Versionen (siehe
+	 * getStand). Die jetzt enthaltenen Termine und Serien gelten als seit
+	 * jeher enthalten. Es werden hoechstens grenze Ereignisse gespeichert, aeltere
+	 * werden zusammengefasst (siehe Chronik). Ist die Chronik bereits aktiv,
+	 * wird nur die Grenze geaendert. Die Chronik gilt fuer alle Sichten.
+	 * 
+	 * Vorbedingung: grenze >= 2
+	 */
+	public void aktiviereChronik(int grenze) {
+		sperre();
+		try {
+			chronik.aktiviere(grenze);
+		} finally {
+			entsperre();
+		}
+	}
+
+	/**
+	 * NOTE: Verwirft die Chronik und die Versionen der Termine.
+	 * 
+	 * Nachbedingung: die Chronik ist nicht aktiv
+	 */
+	public void beendeChronik() {
+		sperre();
+		try {
+			chronik.beende();
+		} finally {
+			entsperre();
+		}
+	}
+
+	/**
+	 * NOTE: Zaehlt die Proben von mitglied, die in zeitraum beginnen und enden
+	 * (wie eine Sicht mit TypSelektor(Probe), ZeitraumSelektor(zeitraum) und
+	 * TeilnehmerSelektor(mitglied), inklusive der Vorkommen der Serien). Die
+	 * einzelnen Proben werden mit zwei binaeren Suchen im Probenindex
+	 * gezaehlt, die Vorkommen arithmetisch. Der Probenindex wird bei der
+	 * ersten Abfrage erstellt und danach nachgefuehrt. Wie Schreibzugriffe
+	 * wird dabei gesperrt (siehe Selection.sperre).
+	 * 
+	 * NOTE: Hat mitglied eine Probe, die laenger als zeitraum dauert, kann der
+	 * Probenindex nicht zaehlen. Dann wird mit dieser Sicht (im Bitmap-Modus)
+	 * gezaehlt.
+	 * 
+	 * Vorbedingung: mitglied und zeitraum sind ungleich null. zeitraum ist ein
+	 * geschlossenes Intervall. Die Sammlung ist keine Sicht (hat keine
+	 * Selektoren).
+	 * 
+	 * @return die Anzahl der Proben
+	 */
+	int zaehleProben(Mitglied mitglied, Zeitraum zeitraum) {
+		long von = zeitraum.getErsterZeitpunkt();
+		long bis = zeitraum.getLetzterZeitpunkt();
+		int anzahl;
+
+		sperre();
+		try {
+			if (probenindex == null) {
+				probenindex = new Probenindex(getList());
+			}
+
+			anzahl = probenindex.anzahl(mitglied, von, bis);
+		} finally {
+			entsperre();
+		}
+
+		if (anzahl < 0) {
+			List<Selector<Termin>> selectors = new ArrayList<Selector<Termin>>();
+			selectors.add(new Termin.TypSelektor(Termin.Typ.Probe));
+			selectors.add(new Termin.ZeitraumSelektor(zeitraum));
+			selectors.add(new Termin.TeilnehmerSelektor(mitglied));
+
+			Termine sicht = select(selectors);
+			sicht.setBitmapModus(true);
+			return sicht.count();
+		}
+
+		Selector<Termin> proben = new Termin.TypSelektor(Termin.Typ.Probe);
+		long[] grenzen = { von, bis };
+
+		for (Terminserie serie : serien) {
+			Termin vorlage = serie.getVorlage();
+
+			if (proben.select(vorlage)
+					&& vorlage.getTeilnehmer().contains(mitglied)) {
+				anzahl += serie.anzahl(grenzen);
+			}
+		}
+
+		return anzahl;
+	}
+
+	/**
+	 * NOTE: Liefert alle selektierten Termine, die sich zeitlich mit termin
+	 * ueberschneiden und am selben Ort stattfinden oder einen gemeinsamen
+	 * Teilnehmer haben. Die Termine werden ueber Intervallbaeume je Ort und
+	 * Teilnehmer gefunden, nicht durch Durchsuchen aller Termine. Danach
+	 * folgen die Vorkommen der Serien (siehe vorkommenKonflikte).
+	 * 
+	 * Vorbedingung: termin ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und enthaelt termin
+	 * nicht.
+	 */
+	public List<Termin> getKonflikte(Termin termin) {
+		List<Termin> konflikte = new ArrayList<Termin>();
+		boolean pruefen = !getSelectors().isEmpty();
+
+		sperre();
+		try {
+			BitSet positionen = belegungen.konflikte(termin);
+
+			for (int i = positionen.nextSetBit(0); i >= 0; i = positionen
+					.nextSetBit(i + 1)) {
+				Termin konflikt = getList().get(i);
+
+				if (!pruefen || selected(konflikt)) {
+					konflikte.add(konflikt);
+				}
+			}
+
+			for (Termin konflikt : vorkommenKonflikte(termin)) {
+				if (!pruefen || selected(konflikt)) {
+					konflikte.add(abloesbar(konflikt));
+				}
+			}
+		} finally {
+			entsperre();
+		}
+
+		return konflikte;
+	}
+
+	/**
+	 * NOTE: Die Konflikte aller Vorkommen von serie (siehe
+	 * getKonflikte(Termin)), jeder einzelne Termin ist nur einmal enthalten.
+	 * 
+	 * Vorbedingung: serie ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und enthaelt keine
+	 * Vorkommen von serie.
+	 */
+	public List<Termin> getKonflikte(Terminserie serie) {
+		Set<Termin> konflikte = new LinkedHashSet<Termin>();
+
+		sperre();
+		try {
+			Iterator<Termin> iter = serie.iterator(null);
+
+			while (iter.hasNext()) {
+				konflikte.addAll(getKonflikte(iter.next()));
+			}
+		} finally {
+			entsperre();
+		}
+
+		return new ArrayList<Termin>(konflikte);
+	}
+
+	/**
+	 * NOTE: Je Serie, die den Ort oder einen Teilnehmer von termin belegt,
+	 * werden die Vorkommen mit zwei binaeren Suchen eingegrenzt (siehe
+	 * Terminserie.ueberschneidungen). Die Serie von termin selbst wird
+	 * uebersprungen.
+	 * 
+	 * Vorbedingung: termin ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und enthaelt die
+	 * (nicht selektierten) Vorkommen, die sich mit termin ueberschneiden und
+	 * den Ort oder einen Teilnehmer von termin belegen.
+	 */
+	private List<Termin> vorkommenKonflikte(Termin termin) {
+		List<Termin> konflikte = new ArrayList<Termin>();
+		long von = termin.getZeitraum().getErsterZeitpunkt();
+		long bis = termin.getZeitraum().getLetzterZeitpunkt();
+
+		for (Terminserie serie : serien) {
+			if (serie == termin.getSerie() || !belegtGleich(serie, termin)) {
+				continue;
+			}
+
+			Iterator<Termin> iter = serie.ueberschneidungen(von, bis);
+			while (iter.hasNext()) {
+				konflikte.add(iter.next());
+			}
+		}
+
+		return konflikte;
+	}
+
+	/**
+	 * @return true, wenn serie den Ort oder einen Teilnehmer von termin
+	 *         belegt
+	 */
+	private static boolean belegtGleich(Terminserie serie, Termin termin) {
+		if (serie.getOrt() == termin.getOrt()) {
+			return true;
+		}
+		for (Mitglied teilnehmer : termin.getTeilnehmer()) {
+			if (serie.getTeilnehmer().contains(teilnehmer)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * NOTE: Bericht ueber alle Doppelbelegungen von Orten und Mitgliedern
+	 * unter den selektierten Terminen. Nach den Konflikten der einzelnen
+	 * Termine folgen die der selektierten Vorkommen (siehe
+	 * vorkommenKonflikte).
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	public List<Konflikt> getAlleKonflikte() {
+		List<Konflikt> konflikte;
+
+		sperre();
+		try {
+			konflikte = belegungen.alleKonflikte();
+			vorkommenKonflikte(konflikte);
+		} finally {
+			entsperre();
+		}
+
+		if (!getSelectors().isEmpty()) {
+			Iterator<Konflikt> iter = konflikte.iterator();
+
+			while (iter.hasNext()) {
+				Konflikt konflikt = iter.next();
+
+				if (!selected(konflikt.getErster())
+						|| !selected(konflikt.getZweiter())) {
+					iter.remove();
+				}
+			}
+		}
+
+		return konflikte;
+	}
+
+	/**
+	 * NOTE: Die Konflikte der selektierten Vorkommen mit einzelnen Terminen
+	 * und mit den Vorkommen spaeterer Serien, jedes Paar von Serien wird also
+	 * nur einmal geprueft. Wie bei Belegungen wird fuer jede gemeinsame
+	 * Ressource ein Konflikt gemeldet.
+	 * 
+	 * Vorbedingung: konflikte ist ungleich null
+	 */
+	private void vorkommenKonflikte(List<Konflikt> konflikte) {
+		for (int i = 0; i < serien.size(); i++) {
+			Iterator<Termin> iter = vorkommen(serien.get(i));
+
+			while (iter.hasNext()) {
+				Termin termin = abloesbar(iter.next());
+				BitSet positionen = belegungen.konflikte(termin);
+				long von = termin.getZeitraum().getErsterZeitpunkt();
+				long bis = termin.getZeitraum().getLetzterZeitpunkt();
+
+				for (int p = positionen.nextSetBit(0); p >= 0; p = positionen
+						.nextSetBit(p + 1)) {
+					konflikte(getList().get(p), termin, konflikte);
+				}
+
+				for (int j = i + 1; j < serien.size(); j++) {
+					Terminserie andere = serien.get(j);
+
+					if (belegtGleich(andere, termin)) {
+						Iterator<Termin> ueberschneidungen = andere
+								.ueberschneidungen(von, bis);
+
+						while (ueberschneidungen.hasNext()) {
+							konflikte(termin,
+									abloesbar(ueberschneidungen.next()),
+									konflikte);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Vorbedingung: erster, zweiter und konflikte sind ungleich null, erster
+	 * und zweiter ueberschneiden sich.
+	 * 
+	 * Nachbedingung: fuer den Ort und jeden Teilnehmer, den erster und
+	 * zweiter gemeinsam haben, ist ein Konflikt angehaengt.
+	 */
+	private static void konflikte(Termin erster, Termin zweiter,
+			List<Konflikt> konflikte) {
+		if (erster.getOrt() == zweiter.getOrt()) {
+			konflikte.add(new Konflikt(erster, zweiter, erster.getOrt()));
+		}
+		for (Mitglied teilnehmer : erster.getTeilnehmer()) {
+			if (zweiter.getTeilnehmer().contains(teilnehmer)) {
+				konflikte.add(new Konflikt(erster, zweiter, teilnehmer));
+			}
+		}
+	}
+
+	/**
+	 * NOTE: Stellt die Termine so wieder her, wie sie zu zeitpunkt waren:
+	 * enthalten sind die Termine, die damals aufgenommen und nicht entfernt
+	 * waren, jeweils mit Ort, Zeitraum, Kosten und Umsatz von damals, soweit
+	 * sie von den Selektoren dieser Sicht selektiert werden. Der Bestand wird
+	 * ab dem letzten Zwischenstand der Chronik abgespielt, der Stand jedes
+	 * Termins mit binaerer Suche in seinen Versionen gefunden. Vor dem
+	 * Aktivieren bzw. vor den zusammengefassten Ereignissen der Chronik ist
+	 * das der aelteste bekannte Stand.
+	 * 
+	 * NOTE: Die damals enthaltenen Serien werden mit den damaligen Ausnahmen
+	 * wiederhergestellt (siehe Terminserie.getStand). Schraenkt die Sicht nur
+	 * Typus und Teilnehmer ein, bleiben sie Serien, sonst werden ihre
+	 * selektierten Vorkommen als einzelne Termine aufgenommen.
+	 * 
+	 * Vorbedingung: zeitpunkt ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist eine neue Termine-Sammlung mit
+	 * unabhaengigen Kopien der Termine (Aenderungen wirken sich nicht auf
+	 * this aus).
+	 * 
+	 * @throws IllegalStateException
+	 *             wenn die Chronik nicht aktiv ist (siehe aktiviereChronik)
+	 */
+	public Termine getStand(Date zeitpunkt) {
+		long stand = zeitpunkt.getTime();
+		Termine ergebnis = new Termine();
+		List<Termin> damals = new ArrayList<Termin>();
+		List<Termin> bestand;
+		List<Terminserie> serienBestand;
+
+		sperre();
+		try {
+			if (!chronik.istAktiv()) {
+				throw new IllegalStateException("Chronik ist nicht aktiv");
+			}
+			bestand = chronik.getBestand(stand);
+			serienBestand = chronik.getSerien(stand);
+		} finally {
+			entsperre();
+		}
+
+		for (Termin termin : bestand) {
+			Termin frueher = termin.getStand(stand);
+
+			if (selected(frueher)) {
+				damals.add(frueher);
+			}
+		}
+
+		boolean ganz = getGrenzen() == null && arithmetisch();
+
+		for (Terminserie serie : serienBestand) {
+			Terminserie frueher = serie.getStand(stand);
+
+			if (ganz) {
+				if (zeitunabhaengigSelektiert(frueher)) {
+					ergebnis.serien.add(frueher);
+				}
+				continue;
+			}
+
+			Iterator<Termin> iter = vorkommen(frueher);
+			while (iter.hasNext()) {
+				// NOTE: eine Kopie, die kein Vorkommen ist
+				damals.add(iter.next().getStand(stand));
+			}
+		}
+
+		// NOTE: auch Termine mit Teilnehmern (kein zulaessig)
+		ergebnis.getList().addAll(damals.toArray(), damals.size());
+		return ergebnis;
 	}
 
 	/**
@@ -49,40 +540,481 @@ public class Termine extends Selection<Termin> {
 		return new Termine(this, selectors);
 	}
 
+	/**
+	 * NOTE: Oeffnet eine mit speichereSicht gespeicherte Sicht. Das Ergebnis
+	 * der Sicht ist bereits bekannt und wird nicht neu berechnet.
+	 * 
+	 * @return die Sicht, oder null wenn es keine Sicht mit diesem Namen gibt.
+	 */
+	public Termine getSicht(String name) {
+		List<Selector<Termin>> selectors = getSichtSelektoren(name);
+
+		if (selectors == null) {
+			return null;
+		}
+		return select(selectors);
+	}
+
 	/**
 	 * NOTE: Parameter darf nicht NULL sein Fuegt einen neuen Termin hinzu,
 	 * sofern dieser keine Teilnehmer besitzt. Um einen Termin mit Teilnehmern
 	 * anzulegen sollte <code>Band.sendeTerminvorschlag()</code> verwendet
 	 * werden.
 	 * 
+	 * NOTE: Ein Termin, der sich mit einem enthaltenen Termin am selben Ort
+	 * ueberschneidet, wird abgelehnt (siehe getKonflikte). Pruefung und
+	 * Hinzufuegen erfolgen unter der selben Sperre.
+	 * 
 	 * Vorbedingung: termin ist ungleich null
 	 * 
 	 * Nachbedingung: Wenn der Rueckgabewert true ist, wurde termin zur Liste
 	 * hinzugefuegt.
 	 * 
 	 * @return true, wenn der Termin hinzugefuegt wurde, false wenn er
-	 *         Teilnehmer hat.
+	 *         Teilnehmer hat oder den Ort doppelt belegt.
 	 */
 	@Override
 	public boolean add(Termin termin) {
-		if (termin.getTeilnehmer().isEmpty()) {
-			return super.add(termin);
+		sperre();
+		try {
+			return zulaessig(termin) && super.add(termin);
+		} finally {
+			entsperre();
 		}
+	}
 
-		return false;
+	/**
+	 * NOTE: Fuegt eine Terminserie hinzu, sofern diese (wie bei add(Termin))
+	 * keine Teilnehmer besitzt. Um eine Serie mit Teilnehmern anzulegen (z.B.
+	 * die woechentliche Probe) sollte
+	 * <code>Band.sendeTerminvorschlag(Terminserie)</code> verwendet werden.
+	 * 
+	 * NOTE: Jedes Vorkommen wird wie ein einzelner Termin geprueft, eine Serie
+	 * mit einem Konflikt wird abgelehnt (siehe getKonflikte(Terminserie)).
+	 * Pruefung und Hinzufuegen erfolgen unter der selben Sperre.
+	 * 
+	 * Vorbedingung: serie ist ungleich null und noch nicht enthalten
+	 * 
+	 * Nachbedingung: Wenn der Rueckgabewert true ist, sind die Vorkommen von
+	 * serie in allen Sichten enthalten, die sie selektieren.
+	 * 
+	 * @return true, wenn die Serie hinzugefuegt wurde, false wenn sie
+	 *         Teilnehmer hat oder einen Ort doppelt belegt.
+	 */
+	public boolean add(Terminserie serie) {
+		sperre();
+		try {
+			if (!serie.getTeilnehmer().isEmpty() || !frei(serie)) {
+				return false;
+			}
+			nimmAuf(serie);
+			return true;
+		} finally {
+			entsperre();
+		}
+	}
+
+	/**
+	 * Vorbedingung: serie ist ungleich null, geprueft und noch nicht
+	 * enthalten
+	 */
+	private void nimmAuf(Terminserie serie) {
+		serien.add(serie);
+		chronik.serieGeaendert(serie, false);
+	}
+
+	/**
+	 * NOTE: Entfernt eine ganze Terminserie. Einzelne Vorkommen werden ueber
+	 * remove() (oder Terminserie.entferne) entfernt und koennen nicht mit
+	 * restore wiederhergestellt werden.
+	 * 
+	 * @return true, wenn serie enthalten war
+	 */
+	public boolean remove(Terminserie serie) {
+		sperre();
+		try {
+			if (!serien.remove(serie)) {
+				return false;
+			}
+			chronik.serieGeaendert(serie, true);
+			return true;
+		} finally {
+			entsperre();
+		}
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null und darf nicht
+	 * veraendert werden.
+	 */
+	public List<Terminserie> getSerien() {
+		return serien;
+	}
+
+	/**
+	 * NOTE: Durchlaeuft zuerst die einzelnen Termine und dann die selektierten
+	 * Vorkommen der Serien (siehe vorkommen). Entfernen (remove) eines
+	 * Vorkommens fuegt der Serie eine Ausnahme hinzu.
+	 */
+	@Override
+	public Iterator<Termin> iterator() {
+		Iterator<Termin> einzelne = super.iterator();
+
+		if (serien.isEmpty()) {
+			return einzelne;
+		}
+		return mitVorkommen(einzelne);
+	}
+
+	/**
+	 * NOTE: Wie iterator, die Vorkommen werden dabei sequentiell erzeugt.
+	 */
+	@Override
+	public Stream<Termin> stream() {
+		return mitVorkommen(super.stream(), false);
+	}
+
+	/**
+	 * NOTE: Die einzelnen Termine werden parallel durchlaufen, die Vorkommen
+	 * werden sequentiell erzeugt und dann parallel verarbeitet.
+	 */
+	@Override
+	public Stream<Termin> parallelStream() {
+		return mitVorkommen(super.parallelStream(), true);
+	}
+
+	@Override
+	public Spliterator<Termin> spliterator() {
+		if (serien.isEmpty()) {
+			return super.spliterator();
+		}
+		return stream().spliterator();
+	}
+
+	/**
+	 * Vorbedingung: einzelne ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert liefert die Elemente von einzelne und
+	 * danach die selektierten Vorkommen der Serien
+	 */
+	private Stream<Termin> mitVorkommen(Stream<Termin> einzelne,
+			boolean parallel) {
+		if (serien.isEmpty()) {
+			return einzelne;
+		}
+
+		Iterator<Termin> vorkommen = mitVorkommen(Collections
+				.<Termin> emptyIterator());
+
+		return Stream.concat(einzelne, StreamSupport.stream(Spliterators
+				.spliteratorUnknownSize(vorkommen, Spliterator.ORDERED
+						| Spliterator.NONNULL), parallel));
+	}
+
+	/**
+	 * NOTE: Die gelieferten Vorkommen loesen sich bei ihrer ersten Aenderung
+	 * aus der Serie (siehe Abloesung).
+	 * 
+	 * Vorbedingung: einzelne ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert liefert die Elemente von einzelne und
+	 * danach die selektierten Vorkommen der Serien
+	 */
+	private Iterator<Termin> mitVorkommen(final Iterator<Termin> einzelne) {
+		return new Iterator<Termin>() {
+			private int serie = 0;
+			private Iterator<Termin> aktuell = einzelne;
+			private Iterator<Termin> letzter = null;
+
+			@Override
+			public boolean hasNext() {
+				while (!aktuell.hasNext()) {
+					if (serie >= serien.size()) {
+						return false;
+					}
+					aktuell = vorkommen(serien.get(serie++));
+				}
+				return true;
+			}
+
+			@Override
+			public Termin next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				letzter = aktuell;
+				if (aktuell == einzelne) {
+					return aktuell.next();
+				}
+				return abloesbar(aktuell.next());
+			}
+
+			@Override
+			public void remove() {
+				if (letzter == null) {
+					throw new IllegalStateException();
+				}
+				letzter.remove();
+				letzter = null;
+			}
+		};
 	}
 
 	/**
-	 * NOTE: Fuegt einen Termin zur Liste hinzu, wenn alle Teilnehmer dem
-	 * entsprechenden Terminvorschlag zugestimmt haben.
+	 * NOTE: Es werden nur die Vorkommen im Zeitraum des ersten
+	 * Termin.ZeitraumSelektor der Sicht erzeugt (ohne einen solchen alle) und
+	 * dann mit allen Selektoren geprueft. Schliessen zeitunabhaengige
+	 * Selektoren die Serie aus, wird gar nichts erzeugt.
+	 * 
+	 * Vorbedingung: serie ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert liefert die selektierten Vorkommen
+	 */
+	private Iterator<Termin> vorkommen(Terminserie serie) {
+		List<Selector<Termin>> selectors = getSelectors();
+
+		if (!zeitunabhaengigSelektiert(serie)) {
+			return serie.iterator(new long[0]);
+		}
+		if (selectors.isEmpty()) {
+			return serie.iterator(null);
+		}
+
+		final Iterator<Termin> kandidaten = serie.iterator(getGrenzen());
+
+		return new Iterator<Termin>() {
+			private Termin naechster = null;
+
+			@Override
+			public boolean hasNext() {
+				while (naechster == null && kandidaten.hasNext()) {
+					Termin termin = kandidaten.next();
+
+					if (selected(termin)) {
+						naechster = termin;
+					}
+				}
+				return naechster != null;
+			}
+
+			@Override
+			public Termin next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				Termin termin = naechster;
+				naechster = null;
+				return termin;
+			}
+
+			@Override
+			public void remove() {
+				// NOTE: nur direkt nach next, hasNext ruft kandidaten.next
+				if (naechster != null) {
+					throw new IllegalStateException();
+				}
+				kandidaten.remove();
+			}
+		};
+	}
+
+	/**
+	 * Vorbedingung: vorkommen ist ein Vorkommen einer Serie
+	 * 
+	 * Nachbedingung: vorkommen wird bei seiner ersten Aenderung aus der Serie
+	 * geloest
+	 */
+	private Termin abloesbar(Termin vorkommen) {
+		vorkommen.anmelden(new Abloesung(vorkommen));
+		return vorkommen;
+	}
+
+	/**
+	 * @return die Grenzen des ersten Termin.ZeitraumSelektor der Sicht, oder
+	 *         null wenn es keinen gibt (oder er nicht beschraenkt ist)
+	 */
+	private long[] getGrenzen() {
+		for (Selector<Termin> selector : getSelectors()) {
+			if (selector instanceof Termin.ZeitraumSelektor) {
+				return ((Termin.ZeitraumSelektor) selector).getBereiche();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * NOTE: Typus und Teilnehmer sind bei allen Vorkommen gleich, diese
+	 * Selektoren werden daher nur an der Vorlage geprueft.
+	 * 
+	 * @return false, wenn ein TypSelektor oder TeilnehmerSelektor der Sicht
+	 *         die Serie ausschliesst
+	 */
+	private boolean zeitunabhaengigSelektiert(Terminserie serie) {
+		for (Selector<Termin> selector : getSelectors()) {
+			if (zeitunabhaengig(selector)
+					&& !selector.select(serie.getVorlage())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return true, wenn selector fuer alle Vorkommen einer Serie das selbe
+	 *         Ergebnis liefert
+	 */
+	private static boolean zeitunabhaengig(Selector<Termin> selector) {
+		return selector instanceof Termin.TypSelektor
+				|| selector instanceof Termin.TeilnehmerSelektor;
+	}
+
+	/**
+	 * @return true, wenn die Sicht nur aus TypSelektor, TeilnehmerSelektor
+	 *         und hoechstens einem ZeitraumSelektor besteht (die Vorkommen
+	 *         muessen dann nicht einzeln geprueft werden)
+	 */
+	private boolean arithmetisch() {
+		int zeitraeume = 0;
+
+		for (Selector<Termin> selector : getSelectors()) {
+			if (selector instanceof Termin.ZeitraumSelektor) {
+				zeitraeume++;
+			} else if (!zeitunabhaengig(selector)) {
+				return false;
+			}
+		}
+		return zeitraeume <= 1;
+	}
+
+	/**
+	 * NOTE: Besteht die Sicht nur aus TypSelektor, TeilnehmerSelektor und
+	 * hoechstens einem ZeitraumSelektor, wird die Anzahl arithmetisch
+	 * berechnet (siehe Terminserie.anzahl), sonst werden die Vorkommen im
+	 * Zeitraum durchlaufen.
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist >= 0
+	 * 
+	 * @return die Anzahl der selektierten Vorkommen von serie
+	 */
+	private int anzahl(Terminserie serie) {
+		if (!zeitunabhaengigSelektiert(serie)) {
+			return 0;
+		}
+		if (arithmetisch()) {
+			return serie.anzahl(getGrenzen());
+		}
+
+		int anzahl = 0;
+		for (Iterator<Termin> iter = vorkommen(serie); iter.hasNext(); iter
+				.next()) {
+			anzahl++;
+		}
+		return anzahl;
+	}
+
+	/**
+	 * NOTE: Beruecksichtigt auch die Vorkommen der Serien, ohne sie zu
+	 * erzeugen (siehe anzahl(Terminserie)).
+	 */
+	@Override
+	public int count() {
+		int anzahl = super.count();
+
+		for (Terminserie serie : serien) {
+			anzahl += anzahl(serie);
+		}
+
+		return anzahl;
+	}
+
+	/**
+	 * @return die Summe von betrag ueber alle selektierten Vorkommen der
+	 *         Serien
+	 */
+	private double serien(ToDoubleFunction<Terminserie> betrag) {
+		double summe = 0;
+
+		for (Terminserie serie : serien) {
+			int anzahl = anzahl(serie);
+
+			if (anzahl > 0) {
+				summe += anzahl * betrag.applyAsDouble(serie);
+			}
+		}
+
+		return summe;
+	}
+
+	/**
+	 * NOTE: Wie bei add werden nur Termine ohne Teilnehmer aufgenommen, die
+	 * sich mit keinem enthaltenen Termin (oder Vorkommen) am selben Ort
+	 * ueberschneiden. Bei
+	 * addAll wird gegen die bereits enthaltenen Termine geprueft, nicht gegen
+	 * die anderen Termine des selben Aufrufs.
+	 * 
+	 * Vorbedingung: termin ist ungleich null
+	 */
+	@Override
+	protected boolean zulaessig(Termin termin) {
+		return termin.getTeilnehmer().isEmpty() && frei(termin);
+	}
+
+	/**
+	 * NOTE: Prueft gegen alle enthaltenen Termine und Vorkommen, nicht nur
+	 * gegen die selektierten.
+	 * 
+	 * Vorbedingung: termin ist ungleich null
+	 * 
+	 * @return true, wenn kein enthaltener Termin und kein Vorkommen den Ort
+	 *         oder einen Teilnehmer von termin zur selben Zeit belegt
+	 */
+	private boolean frei(Termin termin) {
+		return belegungen.konflikte(termin).isEmpty()
+				&& vorkommenKonflikte(termin).isEmpty();
+	}
+
+	/**
+	 * NOTE: Prueft jedes Vorkommen von serie wie einen einzelnen Termin.
+	 * 
+	 * Vorbedingung: serie ist ungleich null und nicht enthalten
+	 * 
+	 * @return true, wenn kein Vorkommen von serie mit einem enthaltenen
+	 *         Termin oder Vorkommen in Konflikt steht
+	 */
+	private boolean frei(Terminserie serie) {
+		for (Iterator<Termin> iter = serie.iterator(null); iter.hasNext();) {
+			if (!frei(iter.next())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * NOTE: Fuegt einen Termin (bzw. eine Terminserie) zur Liste hinzu, wenn
+	 * alle Teilnehmer dem entsprechenden Terminvorschlag zugestimmt haben und
+	 * er weder den Ort noch einen Teilnehmer doppelt belegt. Pruefung und
+	 * Hinzufuegen erfolgen unter der selben Sperre.
 	 * 
 	 * Vorbedingung: vorschlag ist ungleich null
 	 * 
 	 * @param vorschlag
 	 */
 	public void add(Terminvorschlag vorschlag) {
-		if (vorschlag.accepted()) {
-			super.add(vorschlag.getTermin());
+		Terminserie serie = vorschlag.getSerie();
+
+		sperre();
+		try {
+			if (!vorschlag.accepted()) {
+				return;
+			}
+			if (serie == null && frei(vorschlag.getTermin())) {
+				super.add(vorschlag.getTermin());
+			} else if (serie != null && frei(serie)) {
+				nimmAuf(serie);
+			}
+		} finally {
+			entsperre();
 		}
 	}
 
@@ -98,32 +1030,160 @@ public class Termine extends Selection<Termin> {
 	public int remove() {
 		int removed = 0;
 
-		Iterator<Termin> iter = iterator();
-		while (iter.hasNext()) {
-			Termin termin = iter.next();
+		sperre();
+		try {
+			Iterator<Termin> iter = iterator();
+			while (iter.hasNext()) {
+				Termin termin = iter.next();
+				List<Mitglied> teilnehmer = termin.getTeilnehmer();
 
-			for (Mitglied teilnehmer : termin.getTeilnehmer()) {
-				teilnehmer.sende(termin + " wurde entfernt!");
-			}
+				if (!teilnehmer.isEmpty()) {
+					// NOTE: eine Nachricht fuer alle Teilnehmer
+					Nachricht nachricht = termin.nachricht("",
+							" wurde entfernt!", null, null);
+
+					for (Mitglied m : teilnehmer) {
+						m.sende(nachricht);
+					}
+				}
 
-			iter.remove();
-			removed++;
+				iter.remove();
+				removed++;
+			}
+		} finally {
+			entsperre();
 		}
 
 		return removed;
 	}
 
 	/**
-	 * NOTE: Berechnet den Gewinn aller selektierten Termine.
+	 * NOTE: Wendet aenderung als eine Sammelaenderung auf alle selektierten
+	 * Termine an (z.B. eine Tournee verschieben). Pro geaendertem Termin
+	 * entsteht nur ein Undo-Eintrag (undo setzt alle Felder zurueck) und pro
+	 * Feld eine Version. Jedes betroffene Mitglied erhaelt eine einzige
+	 * Nachricht ueber alle seine geaenderten Termine.
+	 * 
+	 * NOTE: Wirft aenderung eine Exception, werden alle Termine auf ihren
+	 * vorigen Stand zurueckgesetzt und die Exception weitergegeben.
+	 * 
+	 * NOTE: Geaenderte Vorkommen werden aus ihren Serien geloest und als
+	 * einzelne Termine aufgenommen (siehe Abloesung), auch wenn die
+	 * Sammelaenderung danach zurueckgesetzt wird.
+	 * 
+	 * Vorbedingung: aenderung ist ungleich null und veraendert die Termine
+	 * nur ueber ihre Setter (setOrt, setZeitraum, setAusgaben, setEinnahmen).
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist >= 0
+	 * 
+	 * @return die Anzahl der geaenderten Termine
 	 */
-	public double getGewinn() {
-		double gewinn = 0;
-
+	public int aendere(Consumer<? super Termin> aenderung) {
+		// NOTE: vorher festhalten, die Aenderungen koennen die Selektion
+		// beeinflussen
+		List<Termin> termine = new ArrayList<Termin>();
 		for (Termin termin : this) {
-			gewinn += termin.getEinnahmen() - termin.getAusgaben();
+			termine.add(termin);
+		}
+
+		for (Termin termin : termine) {
+			termin.beginneStapel();
+		}
+		try {
+			for (Termin termin : termine) {
+				aenderung.accept(termin);
+			}
+		} catch (RuntimeException | Error e) {
+			for (Termin termin : termine) {
+				termin.verwerfeStapel();
+			}
+			throw e;
+		}
+
+		Map<Mitglied, List<Nachricht>> nachrichten = new LinkedHashMap<Mitglied, List<Nachricht>>();
+		int geaendert = 0;
+
+		for (Termin termin : termine) {
+			Nachricht nachricht = termin.beendeStapel();
+
+			if (nachricht != null) {
+				geaendert++;
+
+				for (Mitglied m : termin.getTeilnehmer()) {
+					List<Nachricht> liste = nachrichten.get(m);
+					if (liste == null) {
+						liste = new ArrayList<Nachricht>();
+						nachrichten.put(m, liste);
+					}
+					liste.add(nachricht);
+				}
+			}
 		}
 
-		return gewinn;
+		for (Map.Entry<Mitglied, List<Nachricht>> eintrag : nachrichten
+				.entrySet()) {
+			List<Nachricht> liste = eintrag.getValue();
+
+			eintrag.getKey().sende(
+					liste.size() == 1 ? liste.get(0) : Nachricht.sammlung(
+							liste.size() + " Termine wurden geaendert:", liste));
+		}
+
+		return geaendert;
+	}
+
+	/**
+	 * NOTE: Abonniert die Kennzahlen (Anzahl, Einnahmen, Kosten, erster und
+	 * letzter Beginn) dieser Sicht. Sie werden danach bei jedem add, remove,
+	 * restore und jeder Aenderung eines Termins (z.B. setEinnahmen,
+	 * setAusgaben, undo) nachgefuehrt, die Abfragen brauchen keinen Durchlauf.
+	 * 
+	 * NOTE: Lohnt sich fuer Sichten, deren Kennzahlen oft abgefragt werden
+	 * (Uebersichten). Mit kuendigeAggregat wird das Abonnement beendet.
+	 * 
+	 * Nachbedingung: die Kennzahlen dieser Sicht werden nachgefuehrt
+	 */
+	public void abonniereKennzahlen() {
+		List<ToDoubleFunction<Termin>> summanden = new ArrayList<ToDoubleFunction<Termin>>();
+		summanden.add(Termin::getEinnahmen);
+		summanden.add(Termin::getAusgaben);
+
+		abonniereAggregat(summanden, BEGINN);
+	}
+
+	/**
+	 * NOTE: Berechnet die Einnahmen aller selektierten Termine.
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist >= 0
+	 */
+	public double getEinnahmen() {
+		Aggregat<Termin> kennzahlen = getAggregat();
+
+		if (kennzahlen != null) {
+			return kennzahlen.getSumme(EINNAHMEN)
+					+ serien(Terminserie::getEinnahmen);
+		}
+		return aggregationsStream().mapToDouble(Termin::getEinnahmen).sum()
+				+ serien(Terminserie::getEinnahmen);
+	}
+
+	/**
+	 * NOTE: Berechnet den Gewinn aller selektierten Termine. Bei vielen
+	 * Terminen wird parallel gerechnet.
+	 */
+	public double getGewinn() {
+		Aggregat<Termin> kennzahlen = getAggregat();
+
+		double serien = serien(serie -> serie.getEinnahmen()
+				- serie.getAusgaben());
+
+		if (kennzahlen != null) {
+			return kennzahlen.getSumme(EINNAHMEN)
+					- kennzahlen.getSumme(AUSGABEN) + serien;
+		}
+		return aggregationsStream().mapToDouble(
+				termin -> termin.getEinnahmen() - termin.getAusgaben()).sum()
+				+ serien;
 	}
 
 	/**
@@ -132,12 +1192,140 @@ public class Termine extends Selection<Termin> {
 	 * Nachbedingung: der Rueckgabewert ist >= 0
 	 */
 	public double getKosten() {
-		double kosten = 0;
+		Aggregat<Termin> kennzahlen = getAggregat();
 
-		for (Termin termin : this) {
-			kosten += termin.getAusgaben();
+		if (kennzahlen != null) {
+			return kennzahlen.getSumme(AUSGABEN)
+					+ serien(Terminserie::getAusgaben);
+		}
+		return aggregationsStream().mapToDouble(Termin::getAusgaben).sum()
+				+ serien(Terminserie::getAusgaben);
+	}
+
+	/**
+	 * NOTE: Von jeder Serie wird nur das erste selektierte Vorkommen erzeugt.
+	 * 
+	 * @return der frueheste Beginn aller selektierten Termine, oder null wenn
+	 *         kein Termin selektiert ist.
+	 */
+	public Date getErsterBeginn() {
+		Aggregat<Termin> kennzahlen = getAggregat();
+		Long beginn;
+
+		if (kennzahlen != null) {
+			beginn = kennzahlen.getMinimum();
+		} else {
+			beginn = aggregationsStream().map(BEGINN::getZeitpunkt)
+					.min(Long::compare).orElse(null);
+		}
+
+		for (Terminserie serie : serien) {
+			Iterator<Termin> iter = vorkommen(serie);
+
+			if (iter.hasNext()) {
+				long erster = BEGINN.getZeitpunkt(iter.next());
+
+				if (beginn == null || erster < beginn) {
+					beginn = erster;
+				}
+			}
+		}
+
+		return beginn == null ? null : new Date(beginn);
+	}
+
+	/**
+	 * @return der spaeteste Beginn aller selektierten Termine, oder null wenn
+	 *         kein Termin selektiert ist.
+	 */
+	public Date getLetzterBeginn() {
+		Aggregat<Termin> kennzahlen = getAggregat();
+		Long beginn;
+
+		if (kennzahlen != null) {
+			beginn = kennzahlen.getMaximum();
+		} else {
+			beginn = aggregationsStream().map(BEGINN::getZeitpunkt)
+					.max(Long::compare).orElse(null);
+		}
+
+		for (Terminserie serie : serien) {
+			long letzter = letzterBeginn(serie);
+
+			if (letzter != Long.MIN_VALUE
+					&& (beginn == null || letzter > beginn)) {
+				beginn = letzter;
+			}
+		}
+
+		return beginn == null ? null : new Date(beginn);
+	}
+
+	/**
+	 * NOTE: Wie bei anzahl(Terminserie) wird das letzte Vorkommen meist
+	 * berechnet (siehe Terminserie.letzterBeginn), sonst werden die Vorkommen
+	 * im Zeitraum durchlaufen.
+	 * 
+	 * @return der Beginn des letzten selektierten Vorkommens von serie, oder
+	 *         Long.MIN_VALUE wenn keines selektiert ist
+	 */
+	private long letzterBeginn(Terminserie serie) {
+		long beginn = Long.MIN_VALUE;
+
+		if (!zeitunabhaengigSelektiert(serie)) {
+			return beginn;
+		}
+		if (arithmetisch()) {
+			return serie.letzterBeginn(getGrenzen());
 		}
 
-		return kosten;
+		for (Iterator<Termin> iter = vorkommen(serie); iter.hasNext();) {
+			beginn = BEGINN.getZeitpunkt(iter.next());
+		}
+		return beginn;
+	}
+
+	/**
+	 * NOTE: Beobachtet ein geliefertes Vorkommen. Bei seiner ersten Aenderung
+	 * wird es aus der Serie entfernt (Ausnahme) und ohne weitere Pruefung als
+	 * einzelner Termin aufgenommen, es war ja bereits Teil der Sammlung (wie
+	 * bei der Aenderung eines einzelnen Termins wird nicht auf Konflikte
+	 * geprueft). Ist das Vorkommen bereits entfernt oder die Serie nicht mehr
+	 * enthalten, wird es nur von der Serie geloest.
+	 * 
+	 * Invariante: serie ist ungleich null
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private class Abloesung implements Beobachter {
+		private final Terminserie serie;
+		private final long beginn;
+
+		/**
+		 * Vorbedingung: vorkommen ist ein Vorkommen einer Serie
+		 */
+		public Abloesung(Termin vorkommen) {
+			this.serie = vorkommen.getSerie();
+			this.beginn = vorkommen.getZeitraum().getErsterZeitpunkt();
+		}
+
+		@Override
+		public void geaendert(Beobachtbar element) {
+			Termin termin = (Termin) element;
+
+			if (termin.getSerie() != serie) {
+				return; // NOTE: bereits geloest
+			}
+			termin.loeseVonSerie();
+
+			sperre();
+			try {
+				if (serien.contains(serie) && serie.entferne(new Date(beginn))) {
+					Termine.super.add(termin);
+				}
+			} finally {
+				entsperre();
+			}
+		}
 	}
 }
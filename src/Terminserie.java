@@ -0,0 +1,594 @@
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * NOTE: Eine regelmaessig wiederkehrende Serie von Terminen (z.B. die
+ * woechentliche Probe), die nur einmal gespeichert wird: der erste Termin, die
+ * Regel (alle schritt Einheiten von feld, bis zu einem Ende) und die
+ * Ausnahmen (entfernte Vorkommen). Die einzelnen Termine (Vorkommen) werden
+ * erst beim Durchlaufen erzeugt, und nur innerhalb der abgefragten Grenzen.
+ * 
+ * NOTE: Das k-te Vorkommen beginnt k * schritt Einheiten von feld nach dem
+ * ersten (im Kalender, eine Probe um 19:00 bleibt also auch nach der
+ * Zeitumstellung um 19:00) und dauert gleich lang wie das erste. Der Index
+ * des letzten Vorkommens vor einem Zeitpunkt wird aus der mittleren Laenge
+ * eines Schrittes geschaetzt und mit wenigen Kalender-Berechnungen
+ * korrigiert. Anzahlen werden daher ohne Durchlaufen berechnet, unabhaengig
+ * von der Laenge der Serie.
+ * 
+ * NOTE: Die Vorkommen sind unabhaengige Termine (siehe Termin.istVorkommen).
+ * Wird ein Vorkommen geaendert, wird es aus der Serie entfernt (Ausnahme) und
+ * als einzelner Termin aufgenommen (siehe Termine).
+ * 
+ * NOTE: Zu jeder Ausnahme wird festgehalten, wann sie entstanden ist, damit
+ * der fruehere Stand der Serie wiederhergestellt werden kann (siehe
+ * getStand).
+ * 
+ * Invariante: typus, ort und teilnehmer sind ungleich null. dauer ist >= 0,
+ * schritt > 0. ausnahmen und entferntAm sind ungleich null und gleich lang,
+ * die ersten anzahlAusnahmen Eintraege von ausnahmen sind aufsteigend
+ * sortiert, ohne Duplikate und < anzahl.
+ * 
+ * @author Peter Pilgerstorfer
+ */
+public class Terminserie implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Termin.Typ typus;
+	private Ort ort;
+	private List<Mitglied> teilnehmer;
+	private double ausgaben;
+	private double einnahmen;
+
+	private long beginn;
+	private long dauer;
+	private int feld;
+	private int schritt;
+	private int anzahl;
+
+	private int[] ausnahmen;
+	private long[] entferntAm;
+	private int anzahlAusnahmen;
+
+	// NOTE: das erste Vorkommen, zum Pruefen der zeitunabhaengigen Selektoren
+	private transient Termin vorlage;
+
+	/**
+	 * NOTE: Legt eine Serie an, deren erstes Vorkommen der Termin [von, bis]
+	 * ist. Die weiteren Vorkommen beginnen alle schritt Einheiten von feld
+	 * (z.B. Calendar.WEEK_OF_YEAR und 1 fuer woechentlich), das letzte
+	 * Vorkommen beginnt spaetestens an ende.
+	 * 
+	 * Vorbedingung: typus, ort, von, bis, ende und teilnehmer sind ungleich
+	 * null. von ist nicht nach bis und nicht nach ende. ausgaben und
+	 * einnahmen (je Vorkommen) sind >= 0. feld ist Calendar.DAY_OF_MONTH,
+	 * WEEK_OF_YEAR, MONTH oder YEAR, schritt ist > 0. teilnehmer enthaelt
+	 * keine Elemente gleich null und keine doppelten Eintraege und wird danach
+	 * nicht mehr veraendert.
+	 */
+	public Terminserie(Termin.Typ typus, Ort ort, Date von, Date bis,
+			double ausgaben, double einnahmen, List<Mitglied> teilnehmer,
+			int feld, int schritt, Date ende) {
+		this.typus = typus;
+		this.ort = ort;
+		this.teilnehmer = teilnehmer;
+		this.ausgaben = ausgaben;
+		this.einnahmen = einnahmen;
+		this.beginn = von.getTime();
+		this.dauer = bis.getTime() - beginn;
+		this.feld = feld;
+		this.schritt = schritt;
+		this.anzahl = Integer.MAX_VALUE;
+		this.anzahl = anzahlBis(ende.getTime());
+		this.ausnahmen = new int[4];
+		this.entferntAm = new long[ausnahmen.length];
+		this.anzahlAusnahmen = 0;
+	}
+
+	/**
+	 * NOTE: Kopiert die Regel von serie und die Ausnahmen, die spaetestens zu
+	 * zeitpunkt entstanden sind.
+	 * 
+	 * Vorbedingung: serie ist ungleich null
+	 */
+	private Terminserie(Terminserie serie, long zeitpunkt) {
+		this.typus = serie.typus;
+		this.ort = serie.ort;
+		this.teilnehmer = serie.teilnehmer;
+		this.ausgaben = serie.ausgaben;
+		this.einnahmen = serie.einnahmen;
+		this.beginn = serie.beginn;
+		this.dauer = serie.dauer;
+		this.feld = serie.feld;
+		this.schritt = serie.schritt;
+		this.anzahl = serie.anzahl;
+		this.ausnahmen = new int[Math.max(4, serie.anzahlAusnahmen)];
+		this.entferntAm = new long[ausnahmen.length];
+		this.anzahlAusnahmen = 0;
+
+		for (int i = 0; i < serie.anzahlAusnahmen; i++) {
+			if (serie.entferntAm[i] <= zeitpunkt) {
+				ausnahmen[anzahlAusnahmen] = serie.ausnahmen[i];
+				entferntAm[anzahlAusnahmen] = serie.entferntAm[i];
+				anzahlAusnahmen++;
+			}
+		}
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist >= 0
+	 * 
+	 * @return die Anzahl der Vorkommen (ohne die entfernten)
+	 */
+	public int getAnzahl() {
+		return anzahl - anzahlAusnahmen;
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 */
+	public Ort getOrt() {
+		return ort;
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ungleich null
+	 * 
+	 * @return Teilnehmerliste. Diese darf nicht geaendert werden!
+	 */
+	public List<Mitglied> getTeilnehmer() {
+		return teilnehmer;
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist >= 0
+	 */
+	public double getAusgaben() {
+		return ausgaben;
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist >= 0
+	 */
+	public double getEinnahmen() {
+		return einnahmen;
+	}
+
+	/**
+	 * NOTE: Typus, Ort und Teilnehmer sind bei allen Vorkommen gleich. Ein
+	 * Selektor, der nur diese prueft, kann daher an der Vorlage ausgewertet
+	 * werden.
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist das erste Vorkommen (auch wenn es
+	 * entfernt wurde)
+	 */
+	Termin getVorlage() {
+		if (vorlage == null) {
+			vorlage = getTermin(0);
+		}
+		return vorlage;
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist eine neue Serie mit der selben
+	 * Regel und den Ausnahmen, die zu zeitpunkt bereits bestanden.
+	 */
+	Terminserie getStand(long zeitpunkt) {
+		return new Terminserie(this, zeitpunkt);
+	}
+
+	/**
+	 * NOTE: Entfernt das Vorkommen, das zu beginn beginnt.
+	 * 
+	 * Vorbedingung: beginn ist ungleich null
+	 * 
+	 * @return true, wenn es ein solches (noch nicht entferntes) Vorkommen gab
+	 */
+	public boolean entferne(Date beginn) {
+		int index = anzahlBis(beginn.getTime()) - 1;
+
+		if (index < 0 || beginn(index) != beginn.getTime()) {
+			return false;
+		}
+		return entferne(index);
+	}
+
+	/**
+	 * Vorbedingung: 0 <= index < anzahl
+	 * 
+	 * Nachbedingung: das Vorkommen index ist eine Ausnahme
+	 * 
+	 * @return false, wenn es bereits eine Ausnahme war
+	 */
+	boolean entferne(int index) {
+		int position = Arrays.binarySearch(ausnahmen, 0, anzahlAusnahmen,
+				index);
+
+		if (position >= 0) {
+			return false;
+		}
+		position = -position - 1;
+
+		if (anzahlAusnahmen == ausnahmen.length) {
+			ausnahmen = Arrays.copyOf(ausnahmen, anzahlAusnahmen * 2);
+			entferntAm = Arrays.copyOf(entferntAm, ausnahmen.length);
+		}
+		System.arraycopy(ausnahmen, position, ausnahmen, position + 1,
+				anzahlAusnahmen - position);
+		System.arraycopy(entferntAm, position, entferntAm, position + 1,
+				anzahlAusnahmen - position);
+		ausnahmen[position] = index;
+		entferntAm[position] = System.currentTimeMillis();
+		anzahlAusnahmen++;
+
+		return true;
+	}
+
+	/**
+	 * NOTE: Ein Vorkommen liegt in einem Intervall [von, bis] der grenzen,
+	 * wenn es darin beginnt und endet (wie bei Termin.ZeitraumSelektor).
+	 * 
+	 * Vorbedingung: grenzen ist null (alle Vorkommen) oder enthaelt
+	 * aufsteigend sortierte, disjunkte Paare [von, bis] (siehe
+	 * Zeitraum.getGrenzen)
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist >= 0
+	 * 
+	 * @return die Anzahl der (nicht entfernten) Vorkommen in den grenzen
+	 */
+	int anzahl(long[] grenzen) {
+		if (grenzen == null) {
+			return getAnzahl();
+		}
+
+		int[] bereiche = bereiche(grenzen);
+		int summe = 0;
+
+		for (int i = 0; i < bereiche.length; i += 2) {
+			summe += anzahlZwischen(bereiche[i], bereiche[i + 1]);
+		}
+
+		return summe;
+	}
+
+	/**
+	 * NOTE: Der Posten eines Vorkommens ist (wie bei Termin) mit seinem Ende
+	 * datiert. Zaehlt daher wie ein Termin.PostenSelektor bzw.
+	 * Posten.ZeitraumSelektor.
+	 * 
+	 * Vorbedingung: wie bei anzahl(grenzen)
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist >= 0
+	 * 
+	 * @return die Anzahl der (nicht entfernten) Vorkommen, die in den grenzen
+	 *         enden
+	 */
+	int anzahlPosten(long[] grenzen) {
+		if (grenzen == null) {
+			return getAnzahl();
+		}
+
+		int summe = 0;
+
+		for (int i = 0; i < grenzen.length; i += 2) {
+			int von = grenzen[i] == Long.MIN_VALUE ? 0
+					: anzahlBisEnde(grenzen[i] - 1);
+
+			summe += anzahlZwischen(von, anzahlBisEnde(grenzen[i + 1]));
+		}
+
+		return summe;
+	}
+
+	/**
+	 * @return die Anzahl der (nicht entfernten) Vorkommen mit einem Index in
+	 *         [von, bis)
+	 */
+	private int anzahlZwischen(int von, int bis) {
+		if (von >= bis) {
+			return 0;
+		}
+		return bis - von - ausnahmenVor(bis) + ausnahmenVor(von);
+	}
+
+	/**
+	 * NOTE: Die Grenzen werden in die Indizes der Vorkommen umgerechnet, die
+	 * darin beginnen und enden.
+	 * 
+	 * Vorbedingung: wie bei anzahl(grenzen)
+	 * 
+	 * Nachbedingung: der Rueckgabewert enthaelt aufsteigend sortierte Paare
+	 * [von, bis) von Indizes
+	 */
+	private int[] bereiche(long[] grenzen) {
+		if (grenzen == null) {
+			return new int[] { 0, anzahl };
+		}
+
+		int[] bereiche = new int[grenzen.length & ~0x1];
+
+		for (int i = 0; i < bereiche.length; i += 2) {
+			bereiche[i] = anzahlVor(grenzen[i]);
+			bereiche[i + 1] = anzahlBisEnde(grenzen[i + 1]);
+		}
+
+		return bereiche;
+	}
+
+	/**
+	 * NOTE: Erzeugt die Vorkommen erst beim Durchlaufen. Mit remove wird das
+	 * zuletzt gelieferte Vorkommen entfernt (Ausnahme).
+	 * 
+	 * Vorbedingung: wie bei anzahl(grenzen)
+	 * 
+	 * Nachbedingung: der Rueckgabewert liefert die (nicht entfernten)
+	 * Vorkommen in den grenzen, aufsteigend nach Beginn
+	 */
+	Iterator<Termin> iterator(long[] grenzen) {
+		return iterator(bereiche(grenzen));
+	}
+
+	/**
+	 * NOTE: Wie bei Belegungen ueberschneiden sich zwei Termine, wenn einer
+	 * beginnt, bevor der andere endet. Die Vorkommen werden mit zwei
+	 * binaeren Suchen eingegrenzt.
+	 * 
+	 * Nachbedingung: der Rueckgabewert liefert die (nicht entfernten)
+	 * Vorkommen, die sich mit [von, bis] ueberschneiden, aufsteigend nach
+	 * Beginn
+	 */
+	Iterator<Termin> ueberschneidungen(long von, long bis) {
+		int erster = anzahlBisEnde(von);
+		int ende = bis == Long.MIN_VALUE ? 0 : anzahlBis(bis - 1);
+
+		return iterator(new int[] { erster, ende });
+	}
+
+	/**
+	 * NOTE: Sucht vom Ende des letzten Intervalls aus rueckwaerts, es werden
+	 * nur die Ausnahmen uebersprungen.
+	 * 
+	 * Vorbedingung: wie bei anzahl(grenzen)
+	 * 
+	 * @return der Beginn des letzten (nicht entfernten) Vorkommens in den
+	 *         grenzen, oder Long.MIN_VALUE wenn es keines gibt
+	 */
+	long letzterBeginn(long[] grenzen) {
+		int[] bereiche = bereiche(grenzen);
+
+		for (int i = bereiche.length - 2; i >= 0; i -= 2) {
+			int index = Math.min(bereiche[i + 1], anzahl) - 1;
+
+			while (index >= bereiche[i]
+					&& Arrays.binarySearch(ausnahmen, 0, anzahlAusnahmen,
+							index) >= 0) {
+				index--;
+			}
+			if (index >= bereiche[i]) {
+				return beginn(index);
+			}
+		}
+
+		return Long.MIN_VALUE;
+	}
+
+	/**
+	 * Vorbedingung: bereiche ist ungleich null und enthaelt aufsteigend
+	 * sortierte Paare [von, bis) von Indizes
+	 * 
+	 * Nachbedingung: der Rueckgabewert liefert die (nicht entfernten)
+	 * Vorkommen in den bereichen, aufsteigend nach Beginn
+	 */
+	private Iterator<Termin> iterator(final int[] bereiche) {
+		return new Iterator<Termin>() {
+			// NOTE: naechstes Paar der bereiche, naechster Index und das Ende
+			// der Indizes im aktuellen Paar
+			private int paar = 0;
+			private int index = 0;
+			private int ende = 0;
+			private int ausnahme = 0;
+			private int letzter = -1;
+
+			@Override
+			public boolean hasNext() {
+				while (true) {
+					while (ausnahme < anzahlAusnahmen
+							&& ausnahmen[ausnahme] < index) {
+						ausnahme++;
+					}
+					if (index < ende) {
+						if (ausnahme < anzahlAusnahmen
+								&& ausnahmen[ausnahme] == index) {
+							index++;
+							continue;
+						}
+						return true;
+					}
+					if (paar >= bereiche.length) {
+						return false;
+					}
+					index = Math.max(index, bereiche[paar]);
+					ende = Math.min(bereiche[paar + 1], anzahl);
+					paar += 2;
+				}
+			}
+
+			@Override
+			public Termin next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				letzter = index++;
+				return getTermin(letzter);
+			}
+
+			@Override
+			public void remove() {
+				if (letzter < 0) {
+					throw new IllegalStateException();
+				}
+				entferne(letzter);
+				letzter = -1;
+			}
+		};
+	}
+
+	/**
+	 * Vorbedingung: 0 <= index < anzahl
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ein neues Vorkommen (siehe
+	 * Termin.istVorkommen)
+	 */
+	private Termin getTermin(int index) {
+		long von = beginn(index);
+
+		return new Termin(typus, ort, new Date(von), new Date(von + dauer),
+				ausgaben, einnahmen, teilnehmer).alsVorkommen(this);
+	}
+
+	/**
+	 * NOTE: Calendar.add nimmt nur int. Liegt das Vorkommen ausserhalb davon
+	 * (oder ausserhalb der darstellbaren Zeitpunkte), beginnt es nie
+	 * (Long.MAX_VALUE) und gehoert damit nicht zur Serie (siehe anzahlBis).
+	 * 
+	 * @return der Beginn des Vorkommens index in Millisekunden, oder
+	 *         Long.MAX_VALUE wenn er nicht darstellbar ist
+	 */
+	private long beginn(int index) {
+		if (index == 0) {
+			return beginn;
+		}
+
+		long schritte = (long) index * schritt;
+
+		if (schritte > Integer.MAX_VALUE) {
+			return Long.MAX_VALUE;
+		}
+
+		Calendar kalender = Calendar.getInstance();
+		kalender.setTimeInMillis(beginn);
+		kalender.add(feld, (int) schritte);
+
+		long von = kalender.getTimeInMillis();
+
+		// NOTE: kein Schritt fuehrt zurueck, sonst ist der Kalender
+		// uebergelaufen
+		return von > beginn ? von : Long.MAX_VALUE;
+	}
+
+	/**
+	 * @return true, wenn das Vorkommen index darstellbar ist und spaetestens
+	 *         zu zeitpunkt beginnt
+	 */
+	private boolean beginntBis(int index, long zeitpunkt) {
+		long von = beginn(index);
+
+		return von != Long.MAX_VALUE && von <= zeitpunkt;
+	}
+
+	/**
+	 * @return die mittlere Laenge eines Schrittes in Millisekunden
+	 */
+	private double schrittlaenge() {
+		switch (feld) {
+		case Calendar.WEEK_OF_YEAR:
+			return schritt * 7 * 86400000.0;
+		case Calendar.MONTH:
+			return schritt * 30.436875 * 86400000.0;
+		case Calendar.YEAR:
+			return schritt * 365.2425 * 86400000.0;
+		default:
+			return schritt * 86400000.0;
+		}
+	}
+
+	/**
+	 * NOTE: Schaetzt den Index aus der mittleren Schrittlaenge und sucht dann
+	 * von dort aus mit wachsender Schrittweite und anschliessend binaer (meist
+	 * genuegen zwei Kalender-Berechnungen). Die Vorkommen beginnen streng
+	 * aufsteigend, nicht darstellbare Vorkommen zaehlen nie.
+	 * 
+	 * Nachbedingung: 0 <= Rueckgabewert <= anzahl
+	 * 
+	 * @return die Anzahl der Vorkommen (auch entfernte), die spaetestens zu
+	 *         zeitpunkt beginnen
+	 */
+	private int anzahlBis(long zeitpunkt) {
+		if (zeitpunkt < beginn || anzahl == 0) {
+			return 0;
+		}
+
+		double schaetzung = (zeitpunkt - (double) beginn) / schrittlaenge();
+		int index = (int) Math.min(anzahl - 1, Math.max(0, schaetzung));
+
+		// NOTE: Vorkommen unten beginnt bis zeitpunkt, oben nicht (oder oben
+		// ist anzahl)
+		int unten;
+		int oben;
+		int abstand = 1;
+
+		if (beginntBis(index, zeitpunkt)) {
+			unten = index;
+			while (abstand < anzahl - unten
+					&& beginntBis(unten + abstand, zeitpunkt)) {
+				unten += abstand;
+				abstand = Math.min(abstand * 2, Integer.MAX_VALUE / 2);
+			}
+			oben = abstand < anzahl - unten ? unten + abstand : anzahl;
+		} else {
+			oben = index;
+			while (abstand < oben && !beginntBis(oben - abstand, zeitpunkt)) {
+				oben -= abstand;
+				abstand = Math.min(abstand * 2, Integer.MAX_VALUE / 2);
+			}
+			unten = abstand < oben ? oben - abstand : 0;
+		}
+
+		while (oben - unten > 1) {
+			int mitte = (unten + oben) >>> 1;
+
+			if (beginntBis(mitte, zeitpunkt)) {
+				unten = mitte;
+			} else {
+				oben = mitte;
+			}
+		}
+
+		return unten + 1;
+	}
+
+	/**
+	 * @return die Anzahl der Vorkommen (auch entfernte), die vor zeitpunkt
+	 *         beginnen
+	 */
+	private int anzahlVor(long zeitpunkt) {
+		return zeitpunkt == Long.MIN_VALUE ? 0 : anzahlBis(zeitpunkt - 1);
+	}
+
+	/**
+	 * @return die Anzahl der Vorkommen (auch entfernte), die spaetestens zu
+	 *         zeitpunkt enden
+	 */
+	private int anzahlBisEnde(long zeitpunkt) {
+		if (zeitpunkt < Long.MIN_VALUE + dauer) {
+			return 0;
+		}
+		return anzahlBis(zeitpunkt - dauer);
+	}
+
+	/**
+	 * NOTE: Binaere Suche in den Ausnahmen
+	 * 
+	 * @return die Anzahl der Ausnahmen mit einem Index < index
+	 */
+	private int ausnahmenVor(int index) {
+		int position = Arrays.binarySearch(ausnahmen, 0, anzahlAusnahmen,
+				index);
+		return position >= 0 ? position : -position - 1;
+	}
+}
@@ -8,6 +8,9 @@ import java.util.List;
  * Termine sieht. An dieser Stelle kann man ihn als Teil des
  * Hinzufuege-Prozesses verstehen.
  * 
+ * NOTE: Eine Terminserie wird gleich vorgeschlagen, termin ist dann ihr
+ * erstes Vorkommen.
+ * 
  * Invariante: termin, target und offen sind ungleich null.
  * 
  * Invariante: offen enthaelt keine Elemente gleich null. offen enthaelt keine
@@ -19,6 +22,7 @@ public class Terminvorschlag implements Serializable {
 	private static final long serialVersionUID = 1L;
 
 	private Termin termin;
+	private Terminserie serie;
 	private Termine target;
 
 	private List<Mitglied> offen;
@@ -41,6 +45,23 @@ public class Terminvorschlag implements Serializable {
 		this.offen = new ArrayList<Mitglied>(termin.getTeilnehmer());
 	}
 
+	/**
+	 * NOTE: Legt neue Terminserie
+	 * 
+	 * Vorbedingung: serie und target sind ungleich null.
+	 * 
+	 * Nachbedingung: offen enthaelt alle Teilnehmer von serie
+	 * 
+	 * @param serie
+	 *            an, die bei Zustimmung zu
+	 * @param target
+	 *            angegebenen Terminen hinzugefuegt wird
+	 */
+	public Terminvorschlag(Terminserie serie, Termine target) {
+		this(serie.getVorlage(), target);
+		this.serie = serie;
+	}
+
 	/**
 	 * Nachbedingung: der Rueckgabewert ist ungleich null
 	 */
@@ -48,10 +69,23 @@ public class Terminvorschlag implements Serializable {
 		return termin;
 	}
 
+	/**
+	 * @return die vorgeschlagene Serie, oder null wenn ein einzelner Termin
+	 *         vorgeschlagen wird
+	 */
+	public Terminserie getSerie() {
+		return serie;
+	}
+
 	/**
 	 * NOTE: Einzelnes Mitglied akzeptiert Termin, muss niemand mehr akzeptieren
 	 * wird der Termin zu Termine hinzugefuegt.
 	 * 
+	 * NOTE: Wurde seit dem Vorschlag ein anderer Termin eingetragen, der den
+	 * Ort oder einen Teilnehmer zur selben Zeit belegt (bei einer Serie: zur
+	 * Zeit eines Vorkommens), wird der Termin nicht hinzugefuegt. Die
+	 * Teilnehmer erhalten dann eine Nachricht.
+	 * 
 	 * Vorbedingung: mitglied ist ungleich null
 	 * 
 	 * Nachbedingung: mitglied ist nicht mehr in offen enthalten
@@ -62,7 +96,21 @@ public class Terminvorschlag implements Serializable {
 	public void accept(Mitglied mitglied) {
 		offen.remove(mitglied);
 		if (accepted()) {
-			target.add(this);
+			List<Termin> konflikte = serie == null ? target
+					.getKonflikte(termin) : target.getKonflikte(serie);
+
+			if (konflikte.isEmpty()) {
+				target.add(this);
+			} else {
+				// NOTE: die Konflikte werden erst beim Lesen geschrieben
+				Nachricht nachricht = termin.nachricht("",
+						" ueberschneidet sich mit ", null, null).mitVerweisen(
+						konflikte);
+
+				for (Mitglied m : termin.getTeilnehmer()) {
+					m.sende(nachricht);
+				}
+			}
 		}
 	}
 
@@ -83,10 +131,13 @@ public class Terminvorschlag implements Serializable {
 	 */
 	public void decline(Mitglied mitglied, String nachricht) {
 		if (termin.getTeilnehmer().contains(mitglied)) {
+			Nachricht ablehnung = termin.nachricht(mitglied + ": " + nachricht
+					+ " - ", "", null, null);
+
 			for (Mitglied m : termin.getTeilnehmer()) {
 				m.revidiere(this);
 				if (m != mitglied) {
-					m.sende(mitglied + ": " + nachricht + " - " + termin);
+					m.sende(ablehnung);
 				}
 			}
 		}
@@ -1,8 +1,27 @@
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Queue;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * BAD: Warum wir keine 5 schlechten Teile in unserem Code gefunden haben:
@@ -61,6 +80,21 @@ public class Test {
 		return kalender.getTime();
 	}
 
+	/**
+	 * NOTE: Wartet, bis die Uhr weitergelaufen ist, damit nachfolgende
+	 * Aenderungen einen spaeteren Zeitpunkt erhalten.
+	 * 
+	 * @return der Zeitpunkt vor dem Warten
+	 */
+	private static Date jetzt() {
+		Date jetzt = new Date();
+
+		while (System.currentTimeMillis() <= jetzt.getTime()) {
+			Thread.yield();
+		}
+		return jetzt;
+	}
+
 	public static void main(String[] args) {
 		testeBands();
 
@@ -105,6 +139,86 @@ public class Test {
 		System.out.println("teste Sicherung:");
 		testeSicherung(band);
 
+		System.out.println();
+		System.out.println("teste Indizes (arbeitet mit eigenen Testdaten):");
+		testeIndizes();
+
+		System.out.println();
+		System.out.println("teste Entfernen (arbeitet mit eigenen Testdaten):");
+		testeEntfernen();
+
+		System.out.println();
+		System.out.println("teste gemerkte Ergebnisse (arbeitet mit eigenen Testdaten):");
+		testeGemerkteErgebnisse();
+
+		System.out.println();
+		System.out.println("teste Konflikte (arbeitet mit eigenen Testdaten):");
+		testeKonflikte();
+
+		System.out.println();
+		System.out.println("teste Zeitraeume:");
+		testeZeitraeume();
+
+		System.out.println();
+		System.out.println("teste Undo-Historie:");
+		testeUndoHistorie();
+
+		System.out.println();
+		System.out.println("teste Stand (arbeitet mit eigenen Testdaten):");
+		testeStand();
+
+		System.out.println();
+		System.out.println("teste Sammelaenderung (arbeitet mit eigenen Testdaten):");
+		testeSammelaenderung();
+
+		System.out.println();
+		System.out.println("teste Terminserien (arbeitet mit eigenen Testdaten):");
+		testeTerminserien();
+
+		System.out.println();
+		System.out.println("teste Probenindex (arbeitet mit eigenen Testdaten):");
+		testeProbenindex();
+
+		System.out.println();
+		System.out.println("teste Planung (arbeitet mit eigenen Testdaten):");
+		testePlanung();
+
+		System.out.println();
+		System.out.println("teste Streams (arbeitet mit eigenen Testdaten):");
+		testeStreams();
+
+		System.out.println();
+		System.out.println("teste Nebenlaeufigkeit (arbeitet mit eigenen Testdaten):");
+		testeNebenlaeufigkeit();
+
+		System.out.println();
+		System.out.println("teste Spaltensummen (arbeitet mit eigenen Testdaten):");
+		testeSpaltensummen();
+
+		System.out.println();
+		System.out.println("teste Metriken (arbeitet mit eigenen Testdaten):");
+		testeMetriken();
+
+		System.out.println();
+		System.out.println("teste Sichten (arbeitet mit eigenen Testdaten):");
+		testeSichten();
+
+		System.out.println();
+		System.out.println("teste Kennzahlen (arbeitet mit eigenen Testdaten):");
+		testeKennzahlen();
+
+		System.out.println();
+		System.out.println("teste addAll (arbeitet mit eigenen Testdaten):");
+		testeAddAll();
+
+		System.out.println();
+		System.out.println("teste Bericht (arbeitet mit eigenen Testdaten):");
+		testeBericht();
+
+		System.out.println();
+		System.out.println("teste Nachrichten (arbeitet mit eigenen Testdaten):");
+		testeNachrichten();
+
 	}
 
 	public static void testeBands() {
@@ -1029,4 +1143,2122 @@ public class Test {
 		System.out.println("Orte: " + band.getOrte());
 		System.out.println("GuV: " + band.getGuV());
 	}
+
+	private static void testeIndizes() {
+		Band band = new Band("Die Toten Hosen", "Punk", 2);
+		Mitglieder mitglieder = band.getMitglieder();
+		Zeitraum zeitraum = new Zeitraum(toDate(1982, 1, 1));
+		List<Selector<Mitglied>> selektoren;
+		Mitglieder auswahl;
+
+		mitglieder.add(new Mitglied("Campino", "111", "Gesang", zeitraum, false));
+		mitglieder.add(new Mitglied("Kuddel", "222", "Gitarre", zeitraum, false));
+		mitglieder.add(new Mitglied("Breiti", "333", "Gitarre", zeitraum, false));
+		mitglieder.add(new Mitglied("Andi", "444", "Bass", zeitraum, false));
+		mitglieder.add(new Mitglied("Vom", "555", "Schlagzeug", zeitraum, false));
+		mitglieder.add(new Mitglied("Wolla", "666", "Schlagzeug", zeitraum, true));
+
+		// Testfall: Selektion ueber den Index der Instrumente (nur die
+		// Kandidaten aus dem Index werden geprueft)
+		//
+		// Erwartete Ausgabe:
+		// Index Mitglied.InstrumentSelektor: 2 Kandidaten
+		// Gitarren: [Kuddel, Breiti]
+
+		auswahl = band.getMitglieder(new Mitglied.InstrumentSelektor("Gitarre"));
+
+		System.out.println(auswahl.explain().split("\n")[0]);
+		System.out.println("Gitarren: " + auswahl);
+		System.out.println();
+
+		// Testfall: Zwei indizierte Selektoren, es wird der Index mit den
+		// wenigsten Kandidaten verwendet
+		//
+		// Erwartete Ausgabe:
+		// Index Mitglied.InstrumentSelektor: 2 Kandidaten
+		// Schlagzeug (regulaer): [Vom]
+
+		selektoren = new ArrayList<Selector<Mitglied>>();
+		selektoren.add(new Mitglied.TypSelector(false));
+		selektoren.add(new Mitglied.InstrumentSelektor("Schlagzeug"));
+		auswahl = band.getMitglieder(selektoren);
+
+		System.out.println(auswahl.explain().split("\n")[0]);
+		System.out.println("Schlagzeug (regulaer): " + auswahl);
+		System.out.println();
+
+		// Testfall: Ohne indizierten Selektor werden alle Elemente durchsucht
+		//
+		// Erwartete Ausgabe:
+		// Durchsuche alle 6 Elemente
+		// Andi: [Andi]
+
+		auswahl = band.getMitglieder(new Mitglied.NameSelektor("Andi"));
+
+		System.out.println(auswahl.explain().split("\n")[0]);
+		System.out.println("Andi: " + auswahl);
+		System.out.println();
+
+		// Testfall: Die Indizes werden beim Hinzufuegen, Entfernen und Aendern
+		// eines Mitglieds nachgefuehrt
+		//
+		// Erwartete Ausgabe:
+		// Gitarren: [Kuddel, Ole]
+		// Ersatzmitglieder: [Kuddel, Wolla, Ole]
+
+		mitglieder.add(new Mitglied("Ole", "777", "Gitarre", zeitraum, true));
+		band.getMitglieder(new Mitglied.NameSelektor("Breiti")).remove();
+		band.getMitglieder(new Mitglied.NameSelektor("Kuddel")).getFirst()
+				.setErsatzmitglied(true);
+
+		System.out.println("Gitarren: "
+				+ band.getMitglieder(new Mitglied.InstrumentSelektor("Gitarre")));
+		System.out.println("Ersatzmitglieder: "
+				+ band.getMitglieder(new Mitglied.TypSelector(true)));
+	}
+
+	private static void testeEntfernen() {
+		Band band = new Band("Die Toten Hosen", "Punk", 2);
+		Orte orte = band.getOrte();
+		Orte buehnen = band.getOrte(new Ort.InfrastrukturSelektor("Buehne"));
+		Iterator<Ort> iter;
+
+		for (int i = 1; i <= 20; i++) {
+			List<String> infrastruktur = new ArrayList<String>();
+			if (i % 4 != 0) {
+				infrastruktur.add("Buehne");
+			}
+			orte.add(new Ort("Halle " + i, infrastruktur));
+		}
+
+		// Testfall: Einzelne Orte ueber den Iterator entfernen, die Slots
+		// werden nur als geloescht markiert
+		//
+		// Erwartete Ausgabe:
+		// Anzahl: 18, Slots: 20
+		// Erster Ort: Halle 3
+
+		iter = orte.iterator();
+		iter.next();
+		iter.remove();
+		iter.next();
+		iter.remove();
+
+		System.out.println("Anzahl: " + orte.count() + ", Slots: "
+				+ orte.getList().getSlots());
+		System.out.println("Erster Ort: " + orte.getFirst());
+		System.out.println();
+
+		// Testfall: Alle Orte mit Buehne entfernen, da mehr als die Haelfte
+		// der Slots geloescht ist, werden sie freigegeben
+		//
+		// Erwartete Ausgabe:
+		// Anzahl entfernter Orte: 13
+		// Anzahl: 5, Slots: 5
+		// [Halle 4, Halle 8, Halle 12, Halle 16, Halle 20]
+
+		System.out.println("Anzahl entfernter Orte: " + buehnen.remove());
+		System.out.println("Anzahl: " + orte.count() + ", Slots: "
+				+ orte.getList().getSlots());
+		System.out.println(orte);
+		System.out.println();
+
+		// Testfall: Die entfernten Orte mit Buehne wiederherstellen (auch die
+		// ueber den Iterator entfernten)
+		//
+		// Erwartete Ausgabe:
+		// Anzahl: 20, Orte mit Buehne: 15
+		// Halle 1 enthalten: true
+
+		buehnen.restore();
+
+		System.out.println("Anzahl: " + orte.count() + ", Orte mit Buehne: "
+				+ buehnen.count());
+		System.out.println("Halle 1 enthalten: "
+				+ (band.getOrte(new Ort.BezeichnungSelektor("Halle 1"))
+						.getFirst() != null));
+	}
+
+	private static void testeGemerkteErgebnisse() {
+		Band band = new Band("Die Toten Hosen", "Punk", 2);
+		Mitglieder mitglieder = band.getMitglieder();
+		Zeitraum zeitraum = new Zeitraum(toDate(1982, 1, 1));
+		List<Selector<Mitglied>> selektoren;
+		Mitglieder auswahl;
+		Mitglieder bitmaps;
+		Mitglied andi;
+
+		mitglieder.add(new Mitglied("Campino", "111", "Gesang", zeitraum, false));
+		mitglieder.add(new Mitglied("Kuddel", "222", "Gitarre", zeitraum, true));
+		mitglieder.add(new Mitglied("Breiti", "333", "Gitarre", zeitraum, false));
+		mitglieder.add(new Mitglied("Andi", "444", "Bass", zeitraum, true));
+		mitglieder.add(new Mitglied("Vom", "555", "Schlagzeug", zeitraum, true));
+
+		// Testfall: Das Ergebnis einer Selektion wird gemerkt und von einer
+		// gleichwertigen Selektion (andere Reihenfolge der Selektoren)
+		// wiederverwendet
+		//
+		// Erwartete Ausgabe:
+		// Ersatzmitglieder an der Gitarre: [Kuddel]
+		// Gemerktes Ergebnis: 1 Elemente
+
+		selektoren = new ArrayList<Selector<Mitglied>>();
+		selektoren.add(new Mitglied.TypSelector(true));
+		selektoren.add(new Mitglied.InstrumentSelektor("Gitarre"));
+		auswahl = band.getMitglieder(selektoren);
+
+		System.out.println("Ersatzmitglieder an der Gitarre: " + auswahl);
+
+		selektoren = new ArrayList<Selector<Mitglied>>();
+		selektoren.add(new Mitglied.InstrumentSelektor("Gitarre"));
+		selektoren.add(new Mitglied.TypSelector(true));
+
+		System.out.println(band.getMitglieder(selektoren).explain()
+				.split("\n")[0]);
+		System.out.println();
+
+		// Testfall: Im Bitmap-Modus wird die Selektion ueber die Bitmaps der
+		// Selektoren ausgewertet (das selbe Ergebnis wie ohne Bitmaps, das
+		// gemerkt wird)
+		//
+		// Erwartete Ausgabe:
+		// Ersatzmitglieder: [Kuddel, Andi, Vom]
+		// Ersatzmitglieder (Bitmaps): 3
+
+		auswahl = band.getMitglieder(new Mitglied.TypSelector(true));
+		bitmaps = band.getMitglieder(new Mitglied.TypSelector(true));
+		bitmaps.setBitmapModus(true);
+
+		System.out.println("Ersatzmitglieder: " + auswahl);
+		System.out.println("Ersatzmitglieder (Bitmaps): " + bitmaps.count());
+		System.out.println();
+
+		// Testfall: Wird ein Mitglied veraendert, werden gemerkte Ergebnisse
+		// verworfen, in den Bitmaps wird nur sein Bit neu berechnet
+		//
+		// Erwartete Ausgabe:
+		// Index Mitglied.TypSelector: 2 Kandidaten
+		// Ersatzmitglieder: [Kuddel, Vom]
+		// Ersatzmitglieder (Bitmaps): 2
+
+		andi = band.getMitglieder(new Mitglied.NameSelektor("Andi"))
+				.getFirst();
+		andi.setErsatzmitglied(false);
+
+		System.out.println(auswahl.explain().split("\n")[0]);
+		System.out.println("Ersatzmitglieder: " + auswahl);
+		System.out.println("Ersatzmitglieder (Bitmaps): " + bitmaps.count());
+		System.out.println();
+
+		// Testfall: Die Bitmaps werden beim Hinzufuegen und Entfernen
+		// nachgefuehrt
+		//
+		// Erwartete Ausgabe:
+		// Ersatzmitglieder (Bitmaps): [Vom, Wolla]
+
+		mitglieder.add(new Mitglied("Wolla", "666", "Schlagzeug", zeitraum, true));
+		band.getMitglieder(new Mitglied.NameSelektor("Kuddel")).remove();
+
+		System.out.println("Ersatzmitglieder (Bitmaps): " + bitmaps);
+	}
+
+	private static void testeKonflikte() {
+		Band band = new Band("Die Toten Hosen", "Punk", 2);
+		Zeitraum zeitraum = new Zeitraum(toDate(1982, 1, 1));
+		Termine termine = band.getTermine();
+		List<Mitglied> beide = new ArrayList<Mitglied>();
+		List<Mitglied> campino = new ArrayList<Mitglied>();
+		Ort halle;
+		Ort keller;
+		Termin termin;
+
+		band.getMitglieder().add(
+				new Mitglied("Campino", "111", "Gesang", zeitraum, false));
+		band.getMitglieder().add(
+				new Mitglied("Kuddel", "222", "Gitarre", zeitraum, false));
+		beide.addAll(band.getMitglieder().asList());
+		campino.add(beide.get(0));
+		halle = new Ort("Halle", new ArrayList<String>());
+		keller = new Ort("Keller", new ArrayList<String>());
+		band.getOrte().add(halle);
+		band.getOrte().add(keller);
+
+		// Testfall: Termine ohne Teilnehmer, der Ort darf nicht doppelt belegt
+		// werden
+		//
+		// Erwartete Ausgabe:
+		// Halle 10:00-12:00 hinzugefuegt: true
+		// Halle 11:00-13:00 hinzugefuegt: false
+		// Keller 11:00-13:00 hinzugefuegt: true
+
+		termin = new Termin(Termin.Typ.Probe, halle, toDate(2013, 5, 1, 10, 0),
+				toDate(2013, 5, 1, 12, 0), 0, 0, new ArrayList<Mitglied>());
+		System.out.println("Halle 10:00-12:00 hinzugefuegt: "
+				+ termine.add(termin));
+
+		termin = new Termin(Termin.Typ.Probe, halle, toDate(2013, 5, 1, 11, 0),
+				toDate(2013, 5, 1, 13, 0), 0, 0, new ArrayList<Mitglied>());
+		System.out.println("Halle 11:00-13:00 hinzugefuegt: "
+				+ termine.add(termin));
+
+		termin = new Termin(Termin.Typ.Probe, keller,
+				toDate(2013, 5, 1, 11, 0), toDate(2013, 5, 1, 13, 0), 0, 0,
+				new ArrayList<Mitglied>());
+		System.out.println("Keller 11:00-13:00 hinzugefuegt: "
+				+ termine.add(termin));
+		System.out.println();
+
+		// Testfall: Ein Mitglied darf nicht doppelt belegt werden, der
+		// Terminvorschlag wird gar nicht erst verschickt
+		//
+		// Erwartete Ausgabe:
+		// Termin erstellen erfolgreich = true
+		// Termin erstellen erfolgreich = false
+
+		termin = new Termin(Termin.Typ.Probe, halle, toDate(2013, 5, 2, 10, 0),
+				toDate(2013, 5, 2, 12, 0), 0, 0, beide);
+		System.out.println("Termin erstellen erfolgreich = "
+				+ band.sendeTerminvorschlag(termin));
+		for (Mitglied mitglied : band.getMitglieder()) {
+			mitglied.getTerminvorschlaege().poll().accept(mitglied);
+		}
+
+		termin = new Termin(Termin.Typ.Probe, keller,
+				toDate(2013, 5, 2, 11, 0), toDate(2013, 5, 2, 13, 0), 0, 0,
+				campino);
+		System.out.println("Termin erstellen erfolgreich = "
+				+ band.sendeTerminvorschlag(termin));
+		System.out.println();
+
+		// Testfall: Zwei offene Terminvorschlaege ueberschneiden sich, der
+		// zuletzt akzeptierte wird abgelehnt
+		//
+		// Erwartete Ausgabe:
+		// Termin erstellen erfolgreich = true
+		// Termin erstellen erfolgreich = true
+		// Campino: Probe: Halle [03.05.2013 11:00 - 03.05.2013 01:00]
+		// ueberschneidet sich mit [Probe: Keller [03.05.2013 10:00 -
+		// 03.05.2013 12:00]]
+		// Termine am 3.5.2013: [Probe: Keller [03.05.2013 10:00 - 03.05.2013
+		// 12:00]]
+
+		termin = new Termin(Termin.Typ.Probe, keller,
+				toDate(2013, 5, 3, 10, 0), toDate(2013, 5, 3, 12, 0), 0, 0,
+				campino);
+		System.out.println("Termin erstellen erfolgreich = "
+				+ band.sendeTerminvorschlag(termin));
+
+		termin = new Termin(Termin.Typ.Probe, halle, toDate(2013, 5, 3, 11, 0),
+				toDate(2013, 5, 3, 13, 0), 0, 0, campino);
+		System.out.println("Termin erstellen erfolgreich = "
+				+ band.sendeTerminvorschlag(termin));
+
+		for (Mitglied mitglied : band.getMitglieder()) {
+			Queue<Terminvorschlag> vorschlaege = mitglied
+					.getTerminvorschlaege();
+			Queue<String> nachrichten = mitglied.getNachrichten();
+
+			while (!vorschlaege.isEmpty()) {
+				vorschlaege.poll().accept(mitglied);
+			}
+			while (!nachrichten.isEmpty()) {
+				System.out.println(mitglied + ": " + nachrichten.poll());
+			}
+		}
+
+		zeitraum = new Zeitraum(toDate(2013, 5, 3, 0, 0), toDate(2013, 5, 4, 0,
+				0));
+		System.out.println("Termine am 3.5.2013: "
+				+ band.getTermine(new Termin.ZeitraumSelektor(zeitraum)));
+		System.out.println();
+
+		// Testfall: Bericht ueber alle Doppelbelegungen (es gibt keine)
+		//
+		// Erwartete Ausgabe:
+		// Konflikte: []
+
+		System.out.println("Konflikte: " + termine.getAlleKonflikte());
+	}
+
+	private static void testeZeitraeume() {
+		Zeitraum a = new Zeitraum(toDate(2013, 3, 1, 12, 0),
+				toDate(2013, 3, 10, 12, 0), toDate(2013, 3, 20, 12, 0),
+				toDate(2013, 3, 31, 12, 0));
+		Zeitraum b = new Zeitraum(toDate(2013, 3, 5, 12, 0),
+				toDate(2013, 3, 25, 12, 0));
+		Zeitraum zeitraum;
+		Date[] zeitpunkte;
+
+		// Testfall: Aneinandergrenzende Intervalle werden zusammengefasst, ein
+		// offenes Endintervall schliesst alle folgenden ein
+		//
+		// Erwartete Ausgabe:
+		// [01.03.2013 - 20.03.2013], gleich: true
+		// [01.03.2013 - ], gleich: true
+
+		zeitraum = new Zeitraum(toDate(2013, 3, 1, 12, 0), toDate(2013, 3, 10,
+				12, 0), toDate(2013, 3, 10, 12, 0), toDate(2013, 3, 20, 12, 0));
+		System.out.println(zeitraum
+				+ ", gleich: "
+				+ zeitraum.equals(new Zeitraum(toDate(2013, 3, 1, 12, 0),
+						toDate(2013, 3, 20, 12, 0))));
+
+		zeitraum = new Zeitraum(toDate(2013, 3, 1, 12, 0), toDate(2013, 3, 5,
+				12, 0), toDate(2013, 3, 5, 12, 0));
+		System.out.println(zeitraum + ", gleich: "
+				+ zeitraum.equals(new Zeitraum(toDate(2013, 3, 1, 12, 0))));
+		System.out.println();
+
+		// Testfall: Vereinigung, Schnitt und Differenz
+		//
+		// Erwartete Ausgabe:
+		// Vereinigung: [01.03.2013 - 31.03.2013]
+		// Schnitt: [05.03.2013 - 10.03.2013, 20.03.2013 - 25.03.2013]
+		// Differenz: [01.03.2013 - 05.03.2013, 25.03.2013 - 31.03.2013]
+		// Komplement des Komplements gleich: true
+		// Schnitt mit dem Komplement leer: true
+
+		System.out.println("Vereinigung: " + a.vereinigung(b));
+		System.out.println("Schnitt: " + a.schnitt(b));
+		System.out.println("Differenz: " + a.differenz(b));
+		System.out.println("Komplement des Komplements gleich: "
+				+ a.komplement().komplement().equals(a));
+		System.out.println("Schnitt mit dem Komplement leer: "
+				+ a.schnitt(a.komplement()).istLeer());
+		System.out.println();
+
+		// Testfall: Binaere Suche in vielen Intervallen (jeweils der 1. bis
+		// 10. eines Monats)
+		//
+		// Erwartete Ausgabe:
+		// 05.07.2013 enthalten: true
+		// 15.07.2013 enthalten: false
+		// 10.12.2013 enthalten: true
+
+		zeitpunkte = new Date[24];
+		for (int monat = 1; monat <= 12; monat++) {
+			zeitpunkte[2 * monat - 2] = toDate(2013, monat, 1, 12, 0);
+			zeitpunkte[2 * monat - 1] = toDate(2013, monat, 10, 12, 0);
+		}
+		zeitraum = new Zeitraum(zeitpunkte);
+
+		System.out.println("05.07.2013 enthalten: "
+				+ zeitraum.inZeitraum(toDate(2013, 7, 5, 12, 0)));
+		System.out.println("15.07.2013 enthalten: "
+				+ zeitraum.inZeitraum(toDate(2013, 7, 15, 12, 0)));
+		System.out.println("10.12.2013 enthalten: "
+				+ zeitraum.inZeitraum(zeitpunkte[23]));
+	}
+
+	private static void testeUndoHistorie() {
+		Ort ort = new Ort("Proberaum", new ArrayList<String>());
+		Termin termin;
+		int undos;
+
+		// Testfall: Es werden nur die letzten 2 Aenderungen gehalten, aeltere
+		// werden verworfen
+		//
+		// Erwartete Ausgabe:
+		// Rueckgaengig gemacht: 2, Kosten: 3.0
+
+		Termin.setUndoTiefe(2);
+
+		termin = new Termin(Termin.Typ.Probe, ort, toDate(2013, 6, 1, 10, 0),
+				toDate(2013, 6, 1, 12, 0), 0, 0, new ArrayList<Mitglied>());
+		for (int kosten = 1; kosten <= 5; kosten++) {
+			termin.setAusgaben(kosten);
+		}
+
+		undos = 0;
+		while (termin.undo()) {
+			undos++;
+		}
+		System.out.println("Rueckgaengig gemacht: " + undos + ", Kosten: "
+				+ termin.getAusgaben());
+
+		// Testfall: Mit einer Ablage werden aeltere Aenderungen in eine
+		// temporaere Datei ausgelagert und koennen ebenfalls rueckgaengig
+		// gemacht werden
+		//
+		// Erwartete Ausgabe:
+		// Rueckgaengig gemacht: 5, Kosten: 0.0
+
+		try {
+			Termin.setUndoAblage(new File(System.getProperty("java.io.tmpdir")));
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		termin = new Termin(Termin.Typ.Probe, ort, toDate(2013, 6, 1, 10, 0),
+				toDate(2013, 6, 1, 12, 0), 0, 0, new ArrayList<Mitglied>());
+		for (int kosten = 1; kosten <= 5; kosten++) {
+			termin.setAusgaben(kosten);
+		}
+
+		undos = 0;
+		while (termin.undo()) {
+			undos++;
+		}
+		System.out.println("Rueckgaengig gemacht: " + undos + ", Kosten: "
+				+ termin.getAusgaben());
+
+		// Setze die Historie zurueck, damit weitere Tests mit den
+		// Standardeinstellungen arbeiten!
+		Termin.setUndoTiefe(100);
+		try {
+			Termin.setUndoAblage(null);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private static void testeStand() {
+		Band band = new Band("Die Toten Hosen", "Punk", 2);
+		Termine termine = band.getTermine();
+		Ort halle = new Ort("Halle", new ArrayList<String>());
+		Ort keller = new Ort("Keller", new ArrayList<String>());
+		Termin probe;
+		Termin auftritt;
+		Date vorher;
+		Date erster;
+		Date zweiter;
+		Termine stand;
+
+		// Testfall: Ohne aktive Chronik gibt es keinen frueheren Stand
+		//
+		// Erwartete Ausgabe:
+		// Ohne Chronik: Chronik ist nicht aktiv
+
+		try {
+			termine.getStand(new Date());
+		} catch (IllegalStateException e) {
+			System.out.println("Ohne Chronik: " + e.getMessage());
+		}
+		System.out.println();
+
+		termine.aktiviereChronik(1000);
+		vorher = jetzt();
+
+		probe = new Termin(Termin.Typ.Probe, halle, toDate(2013, 7, 1, 10, 0),
+				toDate(2013, 7, 1, 12, 0), 100, 0, new ArrayList<Mitglied>());
+		termine.add(probe);
+		erster = jetzt();
+
+		probe.setAusgaben(200);
+		probe.setOrt(keller);
+		auftritt = new Termin(Termin.Typ.Auftritt, halle, toDate(2013, 7, 2,
+				20, 0), toDate(2013, 7, 2, 22, 0), 0, 5000,
+				new ArrayList<Mitglied>());
+		termine.add(auftritt);
+		zweiter = jetzt();
+
+		band.getTermine(new Termin.TypSelektor(Termin.Typ.Probe)).remove();
+
+		// Testfall: Die Termine, wie sie zu verschiedenen Zeitpunkten waren
+		//
+		// Erwartete Ausgabe:
+		// Vor dem ersten Termin: 0 Termine
+		// Nach dem ersten Termin: [Probe: Halle [01.07.2013 10:00 - 01.07.2013
+		// 12:00]], Kosten: 100.0
+		// Vor dem Entfernen: [Probe: Keller [01.07.2013 10:00 - 01.07.2013
+		// 12:00], Auftritt: Halle [02.07.2013 08:00 - 02.07.2013 10:00]],
+		// Kosten: 200.0
+		// Jetzt: [Auftritt: Halle [02.07.2013 08:00 - 02.07.2013 10:00]],
+		// Kosten: 0.0
+
+		System.out.println("Vor dem ersten Termin: "
+				+ termine.getStand(vorher).count() + " Termine");
+
+		stand = termine.getStand(erster);
+		System.out.println("Nach dem ersten Termin: " + stand + ", Kosten: "
+				+ stand.getKosten());
+
+		stand = termine.getStand(zweiter);
+		System.out.println("Vor dem Entfernen: " + stand + ", Kosten: "
+				+ stand.getKosten());
+
+		System.out.println("Jetzt: " + termine + ", Kosten: "
+				+ termine.getKosten());
+		System.out.println();
+
+		// Testfall: Auch Sichten liefern ihren Stand, die Kopien sind
+		// unabhaengig vom Original
+		//
+		// Erwartete Ausgabe:
+		// Proben vor dem Entfernen: 1
+		// Kosten des Originals: 200.0
+
+		stand = band.getTermine(new Termin.TypSelektor(Termin.Typ.Probe))
+				.getStand(zweiter);
+		System.out.println("Proben vor dem Entfernen: " + stand.count());
+
+		stand.getFirst().setAusgaben(999);
+		System.out.println("Kosten des Originals: " + probe.getAusgaben());
+		System.out.println();
+
+		// Testfall: Die Chronik wird nur gespeichert, solange sie aktiv ist
+		//
+		// Erwartete Ausgabe:
+		// Geladen: 2 Termine vor dem Entfernen
+		// Geladen nach dem Beenden: Chronik ist nicht aktiv
+
+		System.out.println("Geladen: " + kopiere(termine).getStand(zweiter).count()
+				+ " Termine vor dem Entfernen");
+
+		termine.beendeChronik();
+		try {
+			kopiere(termine).getStand(zweiter);
+		} catch (IllegalStateException e) {
+			System.out.println("Geladen nach dem Beenden: " + e.getMessage());
+		}
+		System.out.println();
+
+		// Testfall: Mit einer Grenze von 4 Ereignissen werden die aelteren
+		// zusammengefasst (nach dem 5. und dem 8. Termin), der aelteste
+		// bekannte Stand ist dann der nach dem 6. Termin
+		//
+		// Erwartete Ausgabe:
+		// Nach dem 1. Termin: 6 Termine
+		// Nach dem 7. Termin: 7 Termine
+		// Nach dem 10. Termin: 10 Termine
+
+		Band zehn = new Band("Die Aerzte", "Punk", 2);
+		Date[] zeiten = new Date[10];
+
+		zehn.getTermine().aktiviereChronik(4);
+		for (int i = 0; i < zeiten.length; i++) {
+			termin(zehn, Termin.Typ.Auftritt, "Halle " + i, 1, i + 1);
+			zeiten[i] = jetzt();
+		}
+
+		for (int i : new int[] { 0, 6, 9 }) {
+			System.out.println("Nach dem " + (i + 1) + ". Termin: "
+					+ zehn.getTermine().getStand(zeiten[i]).count() + " Termine");
+		}
+		System.out.println();
+
+		// Testfall: Ein Termin haelt hoechstens 256 Versionen pro Feld, nach
+		// 300 Aenderungen der Kosten ist die aelteste behaltene die 128.
+		//
+		// Erwartete Ausgabe:
+		// Kosten vor den Aenderungen: 128.0
+		// Kosten jetzt: 300.0
+
+		termine.aktiviereChronik(1000);
+		vorher = jetzt();
+		for (int i = 1; i <= 300; i++) {
+			auftritt.setAusgaben(i);
+		}
+
+		System.out.println("Kosten vor den Aenderungen: "
+				+ termine.getStand(vorher).getKosten());
+		System.out.println("Kosten jetzt: " + termine.getKosten());
+	}
+
+	private static void testeSammelaenderung() {
+		Band band = new Band("Die Toten Hosen", "Punk", 2);
+		Zeitraum zeitraum = new Zeitraum(toDate(1982, 1, 1));
+		Ort halle = new Ort("Halle", new ArrayList<String>());
+		Termine proben;
+		Termin termin;
+		Termin erste;
+		int geaendert;
+
+		band.getMitglieder().add(
+				new Mitglied("Campino", "111", "Gesang", zeitraum, false));
+		band.getMitglieder().add(
+				new Mitglied("Kuddel", "222", "Gitarre", zeitraum, false));
+		band.getOrte().add(halle);
+
+		for (int tag = 1; tag <= 2; tag++) {
+			termin = new Termin(Termin.Typ.Probe, halle, toDate(2013, 8, tag,
+					10, 0), toDate(2013, 8, tag, 12, 0), 100, 0, band
+					.getMitglieder().asList());
+			band.sendeTerminvorschlag(termin);
+		}
+		for (Mitglied mitglied : band.getMitglieder()) {
+			while (!mitglied.getTerminvorschlaege().isEmpty()) {
+				mitglied.getTerminvorschlaege().poll().accept(mitglied);
+			}
+		}
+		proben = band.getTermine(new Termin.TypSelektor(Termin.Typ.Probe));
+
+		// Testfall: Alle Proben in einer Sammelaenderung verteuern, jedes
+		// Mitglied erhaelt nur eine Nachricht ueber alle Aenderungen
+		//
+		// Erwartete Ausgabe:
+		// Geaenderte Termine: 2, Kosten: 300.0, Umsatz: 20.0
+		// Campino: 1 Nachricht(en)
+		// Kuddel: 1 Nachricht(en)
+
+		geaendert = proben.aendere(probe -> {
+			probe.setAusgaben(150);
+			probe.setEinnahmen(10);
+		});
+
+		System.out.println("Geaenderte Termine: " + geaendert + ", Kosten: "
+				+ proben.getKosten() + ", Umsatz: " + proben.getEinnahmen());
+		for (Mitglied mitglied : band.getMitglieder()) {
+			System.out.println(mitglied + ": "
+					+ mitglied.getNachrichten().size() + " Nachricht(en)");
+			mitglied.getNachrichten().clear();
+		}
+		System.out.println();
+
+		// Testfall: Ein Undo setzt alle in der Sammelaenderung geaenderten
+		// Felder eines Termins zurueck
+		//
+		// Erwartete Ausgabe:
+		// Kosten: 250.0, Umsatz: 10.0
+
+		proben.getFirst().undo();
+
+		System.out.println("Kosten: " + proben.getKosten() + ", Umsatz: "
+				+ proben.getEinnahmen());
+		System.out.println();
+
+		for (Mitglied mitglied : band.getMitglieder()) {
+			mitglied.getNachrichten().clear();
+		}
+
+		// Testfall: Bricht die Sammelaenderung ab, werden alle Termine
+		// zurueckgesetzt und es werden keine Nachrichten verschickt
+		//
+		// Erwartete Ausgabe:
+		// Abgebrochen: Ort nicht verfuegbar
+		// Kosten: 250.0, Nachrichten: 0
+
+		erste = proben.getFirst();
+		try {
+			proben.aendere(probe -> {
+				probe.setAusgaben(0);
+				if (probe != erste) {
+					throw new IllegalStateException("Ort nicht verfuegbar");
+				}
+			});
+		} catch (IllegalStateException e) {
+			System.out.println("Abgebrochen: " + e.getMessage());
+		}
+
+		System.out.println("Kosten: "
+				+ proben.getKosten()
+				+ ", Nachrichten: "
+				+ band.getMitglieder().getFirst().getNachrichten().size());
+	}
+
+	private static void testeTerminserien() {
+		Band band = new Band("Die Toten Hosen", "Punk", 2);
+		Zeitraum zeitraum = new Zeitraum(toDate(1982, 1, 1));
+		Ort keller = new Ort("Keller", new ArrayList<String>());
+		List<Selector<Posten>> postenSelektoren;
+		Terminserie serie;
+		Termine januar;
+		boolean entfernt;
+		Mitglied campino;
+		Termin termin;
+		Terminserie taeglich;
+		Date vorher;
+		Date vorDemEntfernen;
+
+		band.getMitglieder().add(
+				new Mitglied("Campino", "111", "Gesang", zeitraum, false));
+		band.getOrte().add(keller);
+
+		// Testfall: Woechentliche Probe am Montag, 10 Wochen lang. Eine Serie
+		// mit Teilnehmern wird (wie ein Termin) vorgeschlagen. Die Vorkommen
+		// werden gezaehlt, ohne sie zu erzeugen.
+		//
+		// Erwartete Ausgabe:
+		// Direkt hinzugefuegt: false, vorgeschlagen: true
+		// Proben: 10, Kosten: 100.0
+
+		serie = new Terminserie(Termin.Typ.Probe, keller, toDate(2014, 1, 6,
+				19, 0), toDate(2014, 1, 6, 22, 0), 10, 0, band.getMitglieder()
+				.asList(), Calendar.WEEK_OF_YEAR, 1, toDate(2014, 3, 10, 19, 0));
+		System.out.println("Direkt hinzugefuegt: "
+				+ band.getTermine().add(serie) + ", vorgeschlagen: "
+				+ band.sendeTerminvorschlag(serie));
+		campino = band.getMitglieder().getFirst();
+		campino.getTerminvorschlaege().poll().accept(campino);
+
+		System.out.println("Proben: " + band.getTermine().count()
+				+ ", Kosten: " + band.getTermine().getKosten());
+		System.out.println();
+
+		// Testfall: Die Probe am 13.1.2014 faellt aus (Ausnahme), sie kann nur
+		// einmal entfernt werden
+		//
+		// Erwartete Ausgabe:
+		// Entfernt: true, nochmals: false
+		// Proben: 9, Kosten: 90.0, GuV Ausgaben: 90.0
+
+		entfernt = serie.entferne(toDate(2014, 1, 13, 19, 0));
+		System.out.println("Entfernt: " + entfernt + ", nochmals: "
+				+ serie.entferne(toDate(2014, 1, 13, 19, 0)));
+		System.out.println("Proben: " + band.getTermine().count()
+				+ ", Kosten: " + band.getTermine().getKosten()
+				+ ", GuV Ausgaben: " + band.getGuV().getAusgaben());
+		System.out.println();
+
+		// Testfall: Nur die Vorkommen im Januar werden erzeugt und gezaehlt
+		//
+		// Erwartete Ausgabe:
+		// Proben im Januar: 3
+		// [Probe: Keller [06.01.2014 07:00 - 06.01.2014 10:00], Probe: Keller
+		// [20.01.2014 07:00 - 20.01.2014 10:00], Probe: Keller [27.01.2014
+		// 07:00 - 27.01.2014 10:00]]
+		// GuV Ausgaben im Januar: 30.0
+
+		zeitraum = new Zeitraum(toDate(2014, 1, 1, 0, 0), toDate(2014, 2, 1, 0,
+				0));
+		januar = band.getTermine(new Termin.ZeitraumSelektor(zeitraum));
+		postenSelektoren = new ArrayList<Selector<Posten>>();
+		postenSelektoren.add(new Posten.ZeitraumSelektor(zeitraum));
+
+		System.out.println("Proben im Januar: " + januar.count());
+		System.out.println(januar);
+		System.out.println("GuV Ausgaben im Januar: "
+				+ band.getGuV(postenSelektoren).getAusgaben());
+		System.out.println();
+
+		// Testfall: Ein geaendertes Vorkommen wird aus der Serie geloest und
+		// als einzelner Termin aufgenommen. Vorkommen koennen ueber eine Sicht
+		// entfernt werden.
+		//
+		// Erwartete Ausgabe:
+		// Serie: 8, Proben: 9, Kosten: 80.0, Nachrichten: 1
+		// Entfernte Proben: 3, verbleibende Proben: 6
+
+		januar.getFirst().setAusgaben(0);
+		System.out.println("Serie: " + serie.getAnzahl() + ", Proben: "
+				+ band.getTermine().count() + ", Kosten: "
+				+ band.getTermine().getKosten() + ", Nachrichten: "
+				+ campino.getNachrichten().size());
+
+		System.out.println("Entfernte Proben: " + januar.remove()
+				+ ", verbleibende Proben: " + serie.getAnzahl());
+		System.out.println();
+
+		// Testfall: Streams, erster und letzter Beginn beruecksichtigen die
+		// Vorkommen, auch mit abonnierten Kennzahlen
+		//
+		// Erwartete Ausgabe:
+		// Stream: 6, parallel: 6
+		// Erster Beginn: 03.02.2014, letzter Beginn: 10.03.2014
+		// Mit Kennzahlen: 03.02.2014 - 10.03.2014
+
+		System.out.println("Stream: " + band.getTermine().stream().count()
+				+ ", parallel: " + band.getTermine().parallelStream().count());
+		System.out.println("Erster Beginn: "
+				+ String.format("%td.%<tm.%<tY", band.getTermine()
+						.getErsterBeginn())
+				+ ", letzter Beginn: "
+				+ String.format("%td.%<tm.%<tY", band.getTermine()
+						.getLetzterBeginn()));
+		band.getTermine().abonniereKennzahlen();
+		System.out.println("Mit Kennzahlen: "
+				+ String.format("%td.%<tm.%<tY - %td.%<tm.%<tY", band
+						.getTermine().getErsterBeginn(), band.getTermine()
+						.getLetzterBeginn()));
+		band.getTermine().kuendigeAggregat();
+		System.out.println();
+
+		// Testfall: Termine und Serien, die sich mit einem Vorkommen
+		// ueberschneiden, werden abgelehnt
+		//
+		// Erwartete Ausgabe:
+		// Termin im Keller: false, Konflikte: 1
+		// Termin mit Campino: false
+		// Taegliche Serie im Keller: false, Konflikte: 2
+
+		termin = new Termin(Termin.Typ.Probe, keller, toDate(2014, 2, 3, 20,
+				0), toDate(2014, 2, 3, 23, 0), 0, 0, new ArrayList<Mitglied>());
+		System.out.println("Termin im Keller: " + band.getTermine().add(termin)
+				+ ", Konflikte: " + band.getTermine().getKonflikte(termin).size());
+		System.out.println("Termin mit Campino: "
+				+ band.sendeTerminvorschlag(new Termin(Termin.Typ.Auftritt,
+						new Ort("Halle", new ArrayList<String>()), toDate(2014,
+								2, 10, 18, 0), toDate(2014, 2, 10, 20, 0), 0,
+						0, band.getMitglieder().asList())));
+
+		taeglich = new Terminserie(Termin.Typ.Probe, keller,
+				toDate(2014, 2, 9, 21, 0), toDate(2014, 2, 9, 23, 0), 0, 0,
+				new ArrayList<Mitglied>(), Calendar.DAY_OF_MONTH, 1, toDate(
+						2014, 2, 17, 21, 0));
+		System.out.println("Taegliche Serie im Keller: "
+				+ band.getTermine().add(taeglich) + ", Konflikte: "
+				+ band.getTermine().getKonflikte(taeglich).size());
+		System.out.println();
+
+		// Testfall: Wird ein einzelner Termin in ein Vorkommen verschoben,
+		// meldet getAlleKonflikte den Konflikt
+		//
+		// Erwartete Ausgabe:
+		// Hinzugefuegt: true, Konflikte: 0
+		// Nach dem Verschieben: 1
+
+		termin = new Termin(Termin.Typ.Probe, keller, toDate(2014, 2, 4, 19, 0),
+				toDate(2014, 2, 4, 20, 0), 0, 0, new ArrayList<Mitglied>());
+		System.out.println("Hinzugefuegt: " + band.getTermine().add(termin)
+				+ ", Konflikte: " + band.getTermine().getAlleKonflikte().size());
+		termin.setZeitraum(toDate(2014, 2, 17, 20, 0), toDate(2014, 2, 17, 21,
+				0));
+		System.out.println("Nach dem Verschieben: "
+				+ band.getTermine().getAlleKonflikte().size());
+		System.out.println();
+
+		// Testfall: getStand stellt die Serie mit den damaligen Ausnahmen
+		// wieder her, auch nachdem sie entfernt wurde
+		//
+		// Erwartete Ausgabe:
+		// Jetzt: 1, damals: 7, vor dem Entfernen: 6
+
+		band.getTermine().aktiviereChronik(1000);
+		vorher = jetzt();
+		serie.entferne(toDate(2014, 2, 3, 19, 0));
+		vorDemEntfernen = jetzt();
+		band.getTermine().remove(serie);
+		System.out.println("Jetzt: " + band.getTermine().count()
+				+ ", damals: " + band.getTermine().getStand(vorher).count()
+				+ ", vor dem Entfernen: "
+				+ band.getTermine().getStand(vorDemEntfernen).count());
+	}
+
+	private static void testeProbenindex() {
+		Band band = new Band("Die Toten Hosen", "Punk", 2);
+		Zeitraum zeitraum = new Zeitraum(toDate(1982, 1, 1));
+		Zeitraum maerz = new Zeitraum(toDate(2014, 3, 1, 0, 0), toDate(2014, 4,
+				1, 0, 0));
+		Ort halle = new Ort("Halle", new ArrayList<String>());
+		List<Selector<Termin>> selektoren = new ArrayList<Selector<Termin>>();
+		Mitglied campino = new Mitglied("Campino", "111", "Gesang", zeitraum,
+				false);
+		Mitglied kuddel = new Mitglied("Kuddel", "222", "Gitarre", zeitraum,
+				false);
+		Mitglied vom = new Mitglied("Vom", "333", "Schlagzeug", zeitraum, false);
+		List<Mitglied> nurCampino = new ArrayList<Mitglied>();
+		Termin verschoben = null;
+		Termin termin;
+
+		band.getMitglieder().add(campino);
+		band.getMitglieder().add(kuddel);
+		band.getMitglieder().add(vom);
+		band.getOrte().add(halle);
+		nurCampino.add(campino);
+
+		for (int tag = 3; tag <= 5; tag++) {
+			termin = new Termin(Termin.Typ.Probe, halle, toDate(2014, 3, tag,
+					10, 0), toDate(2014, 3, tag, 12, 0), 0, 0, nurCampino);
+			band.sendeTerminvorschlag(termin);
+			verschoben = termin;
+		}
+		band.sendeTerminvorschlag(new Termin(Termin.Typ.Probe, halle, toDate(
+				2014, 3, 6, 10, 0), toDate(2014, 3, 6, 12, 0), 0, 0, band
+				.getMitglieder().asList()));
+		band.sendeTerminvorschlag(new Termin(Termin.Typ.Auftritt, halle,
+				toDate(2014, 3, 7, 10, 0), toDate(2014, 3, 7, 12, 0), 0, 0, band
+						.getMitglieder().asList()));
+		for (Mitglied mitglied : band.getMitglieder()) {
+			while (!mitglied.getTerminvorschlaege().isEmpty()) {
+				mitglied.getTerminvorschlaege().poll().accept(mitglied);
+			}
+		}
+		selektoren.add(new Termin.TypSelektor(Termin.Typ.Probe));
+		selektoren.add(new Termin.ZeitraumSelektor(maerz));
+		selektoren.add(new Termin.TeilnehmerSelektor(campino));
+
+		// Testfall: Proben im Maerz je Mitglied, Auftritte zaehlen nicht. Der
+		// Probenindex zaehlt gleich wie eine Sicht.
+		//
+		// Erwartete Ausgabe:
+		// Campino: 4, Kuddel: 1, Vom: 1, Sicht Campino: 4
+		// Campino bis 4.3.: 2
+
+		System.out.println("Campino: "
+				+ band.getTermine().zaehleProben(campino, maerz)
+				+ ", Kuddel: " + band.getTermine().zaehleProben(kuddel, maerz)
+				+ ", Vom: " + band.getTermine().zaehleProben(vom, maerz)
+				+ ", Sicht Campino: " + band.getTermine(selektoren).count());
+		System.out.println("Campino bis 4.3.: "
+				+ band.getTermine().zaehleProben(
+						campino,
+						new Zeitraum(toDate(2014, 3, 1, 0, 0), toDate(2014, 3,
+								4, 23, 0))));
+		System.out.println();
+
+		// Testfall: Der Index wird nachgefuehrt, wenn eine Probe verschoben
+		// oder entfernt wird
+		//
+		// Erwartete Ausgabe:
+		// Nach Verschieben in den April: 3, Sicht Campino: 3
+		// Nach Entfernen der Proben am 3.3.: 2, Sicht Campino: 2
+
+		verschoben.setZeitraum(toDate(2014, 4, 5, 10, 0), toDate(2014, 4, 5,
+				12, 0));
+		System.out.println("Nach Verschieben in den April: "
+				+ band.getTermine().zaehleProben(campino, maerz)
+				+ ", Sicht Campino: " + band.getTermine(selektoren).count());
+
+		band.getTermine(
+				new Termin.ZeitraumSelektor(new Zeitraum(toDate(2014, 3, 3, 0,
+						0), toDate(2014, 3, 4, 0, 0)))).remove();
+		System.out.println("Nach Entfernen der Proben am 3.3.: "
+				+ band.getTermine().zaehleProben(campino, maerz)
+				+ ", Sicht Campino: " + band.getTermine(selektoren).count());
+		System.out.println();
+
+		// Testfall: Die Vorkommen einer woechentlichen Probe (Montag, 3.3. bis
+		// 31.3., ohne 17.3.) werden mitgezaehlt. Eine Probe, die sich mit
+		// einem Vorkommen ueberschneidet, wird nicht vorgeschlagen.
+		//
+		// Erwartete Ausgabe:
+		// Mit Serie: 6, Sicht Campino: 6, Kuddel: 1
+		// Probe am 10.3. vorgeschlagen: false
+
+		Terminserie serie = new Terminserie(Termin.Typ.Probe, halle, toDate(
+				2014, 3, 3, 18, 0), toDate(2014, 3, 3, 20, 0), 0, 0,
+				nurCampino, Calendar.WEEK_OF_YEAR, 1, toDate(2014, 3, 31, 18, 0));
+		band.sendeTerminvorschlag(serie);
+		campino.getTerminvorschlaege().poll().accept(campino);
+		serie.entferne(toDate(2014, 3, 17, 18, 0));
+		System.out.println("Mit Serie: "
+				+ band.getTermine().zaehleProben(campino, maerz)
+				+ ", Sicht Campino: " + band.getTermine(selektoren).count()
+				+ ", Kuddel: " + band.getTermine().zaehleProben(kuddel, maerz));
+		System.out.println("Probe am 10.3. vorgeschlagen: "
+				+ band.sendeTerminvorschlag(new Termin(Termin.Typ.Probe,
+						new Ort("Keller", new ArrayList<String>()), toDate(2014,
+								3, 10, 19, 0), toDate(2014, 3, 10, 21, 0), 0,
+						0, nurCampino)));
+		System.out.println();
+
+		// Testfall: Ist der Zeitraum kuerzer als eine Probe, kann der Index
+		// nicht zaehlen, es wird mit einer Sicht gezaehlt
+		//
+		// Erwartete Ausgabe:
+		// Zeitraum von einer Stunde: 1, Sicht Campino: 7
+
+		band.sendeTerminvorschlag(new Termin(Termin.Typ.Probe, halle, toDate(
+				2014, 3, 4, 13, 0), toDate(2014, 3, 4, 13, 30), 0, 0,
+				nurCampino));
+		campino.getTerminvorschlaege().poll().accept(campino);
+		System.out.println("Zeitraum von einer Stunde: "
+				+ band.getTermine().zaehleProben(
+						campino,
+						new Zeitraum(toDate(2014, 3, 4, 12, 30), toDate(2014,
+								3, 4, 13, 30))) + ", Sicht Campino: "
+				+ band.getTermine(selektoren).count());
+	}
+
+	private static void testePlanung() {
+		Selection<Integer> zahlen = new Selection<Integer>();
+		List<Selector<Integer>> selektoren = new ArrayList<Selector<Integer>>();
+		Selection<Integer> auswahl;
+
+		for (int i = 0; i < 100; i++) {
+			zahlen.add(i);
+		}
+
+		selektoren.add(new TeurerSelektor());
+		selektoren.add(new ZehnerSelektor());
+		auswahl = new Selection<Integer>(zahlen, selektoren);
+
+		// Testfall: Ohne Messwerte werden die Selektoren in der angegebenen
+		// Reihenfolge ausgewertet
+		//
+		// Erwartete Ausgabe:
+		// Durchsuche alle 100 Elemente
+		// 1. Test.TeurerSelektor: keine Messwerte
+		// 2. Test.ZehnerSelektor: keine Messwerte
+
+		System.out.println(auswahl.explain());
+		System.out.println();
+
+		// Testfall: Nach den Stichproben wird der guenstige, stark
+		// aussortierende Selektor zuerst ausgewertet, das Ergebnis bleibt
+		// gleich
+		//
+		// Erwartete Ausgabe:
+		// 1. Test.ZehnerSelektor
+		// 2. Test.TeurerSelektor
+		// Zehner: 10
+
+		for (int i = 0; i < 2048; i++) {
+			auswahl.selected(i);
+		}
+
+		String[] zeilen = auswahl.explain().split("\n");
+		for (int i = 1; i < zeilen.length; i++) {
+			System.out.println(zeilen[i].substring(0, zeilen[i].indexOf(':')));
+		}
+		System.out.println("Zehner: " + auswahl.count());
+	}
+
+	private static void testeStreams() {
+		Selection<Integer> zahlen = new Selection<Integer>();
+		List<Selector<Integer>> selektoren;
+		Selection<Integer> auswahl;
+		List<Integer> sequentiell;
+		List<Integer> parallel;
+
+		for (int i = 0; i < 10000; i++) {
+			zahlen.add(i);
+		}
+
+		selektoren = new ArrayList<Selector<Integer>>();
+		selektoren.add(new DreierSelektor());
+		new Selection<Integer>(zahlen, selektoren).remove();
+
+		selektoren = new ArrayList<Selector<Integer>>();
+		selektoren.add(new ZehnerSelektor());
+		auswahl = new Selection<Integer>(zahlen, selektoren);
+
+		// Testfall: Ein paralleler Stream liefert die selben Elemente in der
+		// selben Reihenfolge wie ein sequentieller, entfernte Elemente (die
+		// Vielfachen von 3) sind in keinem enthalten
+		//
+		// Erwartete Ausgabe:
+		// Sequentiell: 666 Elemente, Summe 3326670
+		// Parallel: 666 Elemente, Summe 3326670
+		// Gleiche Reihenfolge: true
+		// Entfernte Elemente im Stream: false
+
+		sequentiell = auswahl.stream().collect(Collectors.toList());
+		parallel = auswahl.parallelStream().collect(Collectors.toList());
+
+		System.out.println("Sequentiell: " + sequentiell.size()
+				+ " Elemente, Summe "
+				+ auswahl.stream().mapToLong(Integer::longValue).sum());
+		System.out.println("Parallel: " + parallel.size() + " Elemente, Summe "
+				+ auswahl.parallelStream().mapToLong(Integer::longValue).sum());
+		System.out.println("Gleiche Reihenfolge: " + sequentiell.equals(parallel));
+		System.out.println("Entfernte Elemente im Stream: "
+				+ zahlen.parallelStream().anyMatch(zahl -> zahl % 3 == 0));
+		System.out.println();
+
+		// Testfall: Der Spliterator wird nur geteilt, wenn der Bereich gross
+		// genug ist. Auch ueber ein gemerktes Ergebnis (nach count) liefert
+		// der parallele Stream das selbe Ergebnis.
+		//
+		// Erwartete Ausgabe:
+		// Teilbar: true, kleine Selektion teilbar: false
+		// Nach count: 666, gleiche Reihenfolge: true
+
+		Selection<Integer> klein = new Selection<Integer>();
+		klein.add(1);
+		klein.add(2);
+
+		System.out.println("Teilbar: " + (zahlen.spliterator().trySplit() != null)
+				+ ", kleine Selektion teilbar: "
+				+ (klein.spliterator().trySplit() != null));
+
+		System.out.println("Nach count: "
+				+ auswahl.count()
+				+ ", gleiche Reihenfolge: "
+				+ sequentiell.equals(auswahl.parallelStream().collect(
+						Collectors.toList())));
+	}
+
+	private static void testeNebenlaeufigkeit() {
+		Band band = new Band("Die Toten Hosen", "Punk", 2, true);
+		Termine termine = band.getTermine();
+		Ort halle = new Ort("Halle", new ArrayList<String>());
+		long beginn = toDate(2014, 1, 1, 0, 0).getTime();
+		long stunde = 60 * 60 * 1000;
+		AtomicInteger angenommen = new AtomicInteger();
+		AtomicInteger schreibend = new AtomicInteger(4);
+		AtomicInteger fehler = new AtomicInteger();
+		List<Thread> threads = new ArrayList<Thread>();
+		CountDownLatch start = new CountDownLatch(1);
+
+		// Testfall: Acht Threads wollen gleichzeitig die Halle in den selben
+		// 200 Stunden belegen, jede Stunde bekommt nur einer (Pruefung und
+		// Hinzufuegen unter der selben Sperre)
+		//
+		// Erwartete Ausgabe:
+		// Angenommen: 200 von 1600
+
+		for (int t = 0; t < 8; t++) {
+			threads.add(new Thread(() -> {
+				warte(start);
+				for (int i = 0; i < 200; i++) {
+					if (termine.add(new Termin(Termin.Typ.Auftritt, halle,
+							new Date(beginn + i * stunde), new Date(beginn
+									+ (i + 1) * stunde), 0, 0,
+							new ArrayList<Mitglied>()))) {
+						angenommen.incrementAndGet();
+					}
+				}
+			}));
+		}
+		starte(threads, start);
+
+		System.out.println("Angenommen: " + angenommen + " von 1600");
+		System.out.println();
+
+		// Testfall: Vier Threads fuegen je 250 aufeinanderfolgende Termine
+		// hinzu, waehrend zwei Threads lesen und Konflikte abfragen und ein
+		// Thread die Kosten des ersten Termins aendert
+		//
+		// Erwartete Ausgabe:
+		// Termine: 1200, Konflikte: 0, Fehler: 0
+
+		Termin erster = termine.getFirst();
+		CountDownLatch los = new CountDownLatch(1);
+		threads = new ArrayList<Thread>();
+
+		for (int t = 0; t < 4; t++) {
+			int erste = 200 + t * 250;
+
+			threads.add(new Thread(() -> {
+				warte(los);
+				try {
+					for (int i = erste; i < erste + 250; i++) {
+						if (!termine.add(new Termin(Termin.Typ.Auftritt, halle,
+								new Date(beginn + i * stunde), new Date(beginn
+										+ (i + 1) * stunde), 0, 0,
+								new ArrayList<Mitglied>()))) {
+							fehler.incrementAndGet();
+						}
+					}
+				} catch (RuntimeException e) {
+					fehler.incrementAndGet();
+				} finally {
+					schreibend.decrementAndGet();
+				}
+			}));
+		}
+
+		for (int t = 0; t < 2; t++) {
+			threads.add(new Thread(() -> {
+				warte(los);
+				try {
+					int bisher = 0;
+
+					while (schreibend.get() > 0) {
+						int anzahl = termine.count();
+
+						if (anzahl < bisher
+								|| !termine.getKonflikte(erster).isEmpty()
+								|| termine.stream().count() < anzahl) {
+							fehler.incrementAndGet();
+						}
+						bisher = anzahl;
+					}
+				} catch (RuntimeException e) {
+					fehler.incrementAndGet();
+				}
+			}));
+		}
+
+		threads.add(new Thread(() -> {
+			warte(los);
+			try {
+				for (int i = 0; schreibend.get() > 0; i++) {
+					erster.setAusgaben(i);
+				}
+			} catch (RuntimeException e) {
+				fehler.incrementAndGet();
+			}
+		}));
+		starte(threads, los);
+
+		System.out.println("Termine: " + termine.count() + ", Konflikte: "
+				+ termine.getAlleKonflikte().size() + ", Fehler: " + fehler);
+	}
+
+	/**
+	 * NOTE: Startet alle Threads, gibt sie gemeinsam frei und wartet auf ihr
+	 * Ende.
+	 */
+	private static void starte(List<Thread> threads, CountDownLatch start) {
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		start.countDown();
+
+		try {
+			for (Thread thread : threads) {
+				thread.join();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * NOTE: Wartet, bis start freigegeben ist.
+	 */
+	private static void warte(CountDownLatch start) {
+		try {
+			start.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * NOTE: Selektiert die Vielfachen von 3
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private static void testeSpaltensummen() {
+		Band band = new Band("Die Aerzte", "Punk", 2);
+		GuV guv = band.getGuV();
+		long basis = toDate(2015, 1, 1, 0, 0).getTime();
+		long stunde = 60 * 60 * 1000L;
+		List<Selector<Posten>> selektoren;
+		int epoche;
+
+		// NOTE: Posten i hat i Einnahmen, i % 7 Ausgaben und liegt i Stunden
+		// nach basis (mehrere Bloecke von PostenSpalten)
+		for (int i = 0; i < 2500; i++) {
+			guv.add(new Posten(i, i % 7, "Posten " + i, new Date(basis + i
+					* stunde)));
+		}
+
+		// Testfall: Summen ueber die Spalten ohne Selektoren, danach werden
+		// die Spalten nur um die neuen Posten erweitert
+		//
+		// Erwartete Ausgabe:
+		// Einnahmen: 3123750.0, Ausgaben: 7497.0, Gewinn: 3116253.0, gleich
+		// Stream: true
+		// Einnahmen: 4498500.0, Ausgaben: 8994.0, Gewinn: 4489506.0, gleich
+		// Stream: true
+
+		druckeSummen(guv);
+		for (int i = 2500; i < 3000; i++) {
+			guv.add(new Posten(i, i % 7, "Posten " + i, new Date(basis + i
+					* stunde)));
+		}
+		druckeSummen(guv);
+		System.out.println();
+
+		// Testfall: Summen nach Zeitraeumen (Kandidaten aus dem
+		// Bereichsindex), auch ueber den Schnitt zweier Zeitraeume
+		//
+		// Erwartete Ausgabe:
+		// Einnahmen: 1499500.0, Ausgaben: 2998.0, Gewinn: 1496502.0, gleich
+		// Stream: true
+		// Einnahmen: 624750.0, Ausgaben: 1498.0, Gewinn: 623252.0, gleich
+		// Stream: true
+
+		selektoren = new ArrayList<Selector<Posten>>();
+		selektoren.add(new Posten.ZeitraumSelektor(new Zeitraum(new Date(basis
+				+ 1000 * stunde), new Date(basis + 1999 * stunde))));
+		druckeSummen(band.getGuV(selektoren));
+
+		selektoren.add(new Posten.ZeitraumSelektor(new Zeitraum(new Date(basis
+				+ 500 * stunde), new Date(basis + 1499 * stunde))));
+		druckeSummen(band.getGuV(selektoren));
+		System.out.println();
+
+		// Testfall: Nach dem Entfernen von zwei Dritteln der Posten wird die
+		// Slotliste kompaktiert, die Spalten werden neu erstellt und danach
+		// wieder erweitert
+		//
+		// Erwartete Ausgabe:
+		// Entfernt: 2000, kompaktiert: true
+		// Einnahmen: 2499500.0, Ausgaben: 2999.0, Gewinn: 2496501.0, gleich
+		// Stream: true
+		// Einnahmen: 2502500.0, Ausgaben: 3003.0, Gewinn: 2499497.0, gleich
+		// Stream: true
+		// Einnahmen: 1124750.0, Ausgaben: 1502.0, Gewinn: 1123248.0, gleich
+		// Stream: true
+
+		epoche = guv.getList().getEpoche();
+		System.out.print("Entfernt: "
+				+ band.getGuV(
+						new Posten.ZeitraumSelektor(new Zeitraum(new Date(
+								basis), new Date(basis + 1999 * stunde))))
+						.remove());
+		System.out.println(", kompaktiert: "
+				+ (guv.getList().getEpoche() != epoche));
+		druckeSummen(guv);
+
+		guv.add(new Posten(3000, 3000 % 7, "Posten 3000", new Date(basis
+				+ 3000 * stunde)));
+		druckeSummen(guv);
+
+		selektoren = new ArrayList<Selector<Posten>>();
+		selektoren.add(new Posten.ZeitraumSelektor(new Zeitraum(new Date(basis
+				+ 1500 * stunde), new Date(basis + 2499 * stunde))));
+		druckeSummen(band.getGuV(selektoren));
+	}
+
+	private static void testeMetriken() {
+		Selection<Integer> zahlen = new Selection<Integer>();
+		List<String> protokoll;
+
+		for (int i = 0; i < 100; i++) {
+			zahlen.add(i);
+		}
+		Metriken.zuruecksetzen();
+		Metriken.setSchwelle(Long.MAX_VALUE);
+
+		// Testfall: Ausgeschaltet wird nichts gezaehlt, eingeschaltet jede
+		// Auswertung und jeder vollstaendige Durchlauf (die gemessene Dauer
+		// haengt vom Rechner ab und wird nicht ausgegeben)
+		//
+		// Erwartete Ausgabe:
+		// 0 Durchlaeufe, 0 Elemente geprueft, 0 selektiert
+		// 2 Durchlaeufe, 200 Elemente geprueft, 20 selektiert
+		// Test.ZehnerSelektor: 200 Auswertungen, 20 durchgelassen
+		// Langsame Abfragen: 0
+
+		durchlaufe(zahlen);
+		System.out.println(bericht());
+
+		Metriken.setAktiv(true);
+		durchlaufe(zahlen);
+		durchlaufe(zahlen);
+		System.out.println(bericht());
+		System.out.println("Langsame Abfragen: "
+				+ Metriken.getLangsameAbfragen().size());
+		System.out.println();
+
+		// Testfall: Mit der Schwelle 0 wird jeder Durchlauf protokolliert,
+		// das Protokoll behaelt nur die letzten 100 Eintraege
+		//
+		// Erwartete Ausgabe:
+		// Langsame Abfragen: 100
+		// Letzter Eintrag: 100 geprueft, 10 selektiert: Test.ZehnerSelektor
+		// 152 Durchlaeufe, 15200 Elemente geprueft, 1520 selektiert
+
+		Metriken.setSchwelle(0);
+		for (int i = 0; i < 150; i++) {
+			durchlaufe(zahlen);
+		}
+		protokoll = Metriken.getLangsameAbfragen();
+
+		System.out.println("Langsame Abfragen: " + protokoll.size());
+		System.out.println("Letzter Eintrag: "
+				+ protokoll.get(protokoll.size() - 1).replaceFirst(
+						"^[0-9.,]+ ms, ", ""));
+		System.out.println(bericht().split("\n")[0]);
+		System.out.println();
+
+		// Testfall: Zuruecksetzen leert Zaehler und Protokoll
+		//
+		// Erwartete Ausgabe:
+		// 0 Durchlaeufe, 0 Elemente geprueft, 0 selektiert
+		// Langsame Abfragen: 0
+
+		Metriken.zuruecksetzen();
+		System.out.println(bericht());
+		System.out.println("Langsame Abfragen: "
+				+ Metriken.getLangsameAbfragen().size());
+
+		Metriken.setAktiv(false);
+		Metriken.setSchwelle(10000000);
+	}
+
+	private static void testeSichten() {
+		Band band = new Band("Wanda", "Pop", 2);
+		Termine termine = band.getTermine();
+		List<Selector<Termin>> selektoren = new ArrayList<Selector<Termin>>();
+		Termin wien = termin(band, Termin.Typ.Auftritt, "Wien", 3, 3);
+		Termin bregenz;
+		int epoche;
+
+		termin(band, Termin.Typ.Probe, "Graz", 3, 4);
+		termin(band, Termin.Typ.Auftritt, "Linz", 3, 5);
+		bregenz = termin(band, Termin.Typ.Auftritt, "Bregenz", 4, 10);
+
+		selektoren.add(new Termin.TypSelektor(Termin.Typ.Auftritt));
+		selektoren.add(new Termin.ZeitraumSelektor(new Zeitraum(toDate(2015,
+				3, 1, 0, 0), toDate(2015, 4, 1, 0, 0))));
+		termine.select(selektoren).speichereSicht("Maerz");
+
+		// Testfall: Eine gespeicherte Sicht wird bei add, remove und restore
+		// nachgefuehrt
+		//
+		// Erwartete Ausgabe:
+		// Sichten: [Maerz]
+		// Gespeichert: [Wien, Linz]
+		// Nach add: [Wien, Linz, Salzburg]
+		// Nach remove: [Wien, Salzburg]
+		// Nach restore: [Wien, Salzburg, Linz]
+
+		System.out.println("Sichten: " + termine.getSichten());
+		System.out.println("Gespeichert: " + orte(termine.getSicht("Maerz")));
+
+		termin(band, Termin.Typ.Auftritt, "Salzburg", 3, 20);
+		System.out.println("Nach add: " + orte(termine.getSicht("Maerz")));
+
+		selektoren = new ArrayList<Selector<Termin>>();
+		selektoren.add(new Termin.ZeitraumSelektor(new Zeitraum(toDate(2015,
+				3, 5, 0, 0), toDate(2015, 3, 6, 0, 0))));
+		termine.select(selektoren).remove();
+		System.out.println("Nach remove: " + orte(termine.getSicht("Maerz")));
+
+		termine.select(selektoren).restore();
+		System.out.println("Nach restore: " + orte(termine.getSicht("Maerz")));
+		System.out.println();
+
+		// Testfall: Aendert sich der Zeitraum eines Termins, wird nur sein
+		// Eintrag in der Sicht neu berechnet
+		//
+		// Erwartete Ausgabe:
+		// Nach Aenderung: [Bregenz, Salzburg, Linz]
+
+		wien.setZeitraum(toDate(2015, 4, 3, 10, 0), toDate(2015, 4, 3, 12, 0));
+		bregenz.setZeitraum(toDate(2015, 3, 10, 10, 0), toDate(2015, 3, 10,
+				12, 0));
+		System.out.println("Nach Aenderung: "
+				+ orte(termine.getSicht("Maerz")));
+		System.out.println();
+
+		// Testfall: Nach dem Entfernen der meisten Termine wird beim naechsten
+		// add kompaktiert, die Sicht zeigt dann auf die neuen Positionen
+		//
+		// Erwartete Ausgabe:
+		// Kompaktiert: true
+		// Nach Kompaktierung: [Bregenz, Salzburg, Linz]
+
+		for (int tag = 1; tag <= 30; tag++) {
+			termin(band, Termin.Typ.Probe, "Graz", 6, tag);
+		}
+		selektoren = new ArrayList<Selector<Termin>>();
+		selektoren.add(new Termin.TypSelektor(Termin.Typ.Probe));
+		termine.select(selektoren).remove();
+		epoche = termine.getList().getEpoche();
+		termin(band, Termin.Typ.Probe, "Graz", 7, 1);
+
+		System.out.println("Kompaktiert: "
+				+ (termine.getList().getEpoche() != epoche));
+		System.out.println("Nach Kompaktierung: "
+				+ orte(termine.getSicht("Maerz")));
+		System.out.println();
+
+		// Testfall: Die Sicht wird mit der Band gespeichert und nach dem Laden
+		// weiter nachgefuehrt
+		//
+		// Erwartete Ausgabe:
+		// Geladen: [Bregenz, Salzburg, Linz]
+		// Nach add: [Bregenz, Salzburg, Linz, Innsbruck]
+		// Entfernt: true, danach: null
+
+		band = kopiere(band);
+		termine = band.getTermine();
+		System.out.println("Geladen: " + orte(termine.getSicht("Maerz")));
+
+		termin(band, Termin.Typ.Auftritt, "Innsbruck", 3, 28);
+		System.out.println("Nach add: " + orte(termine.getSicht("Maerz")));
+		System.out.println("Entfernt: " + termine.entferneSicht("Maerz")
+				+ ", danach: " + termine.getSicht("Maerz"));
+	}
+
+	private static void testeKennzahlen() {
+		Band band = new Band("Bilderbuch", "Pop", 2);
+		List<Selector<Termin>> selektoren = new ArrayList<Selector<Termin>>();
+		Termine abo;
+		Termine ohne;
+		Termin linz;
+		Termin graz;
+
+		termin(band, Termin.Typ.Auftritt, "Wien", 3, 3, 100, 1000);
+		linz = termin(band, Termin.Typ.Auftritt, "Linz", 3, 10, 200, 2000);
+		graz = termin(band, Termin.Typ.Auftritt, "Graz", 3, 20, 300, 3000);
+		termin(band, Termin.Typ.Probe, "Proberaum", 3, 4, 50, 500);
+
+		selektoren.add(new Termin.TypSelektor(Termin.Typ.Auftritt));
+		abo = band.getTermine().select(selektoren);
+		abo.abonniereKennzahlen();
+		ohne = band.getTermine().select(selektoren);
+
+		// Testfall: Die abonnierten Kennzahlen werden bei jeder Aenderung um
+		// das Delta nachgefuehrt und stimmen mit den durch einen Durchlauf
+		// berechneten Kennzahlen ueberein
+		//
+		// Erwartete Ausgabe:
+		// Abonniert: 3 Termine, Einnahmen 6000.0, Kosten 600.0, Gewinn
+		// 5400.0, Beginn 03.03.2015 10:00 - 20.03.2015 10:00, gleich: true
+		// setEinnahmen: 3 Termine, Einnahmen 7500.0, Kosten 600.0, Gewinn
+		// 6900.0, Beginn 03.03.2015 10:00 - 20.03.2015 10:00, gleich: true
+		// setAusgaben: 3 Termine, Einnahmen 7500.0, Kosten 1100.0, Gewinn
+		// 6400.0, Beginn 03.03.2015 10:00 - 20.03.2015 10:00, gleich: true
+		// undo: 3 Termine, Einnahmen 7500.0, Kosten 600.0, Gewinn 6900.0,
+		// Beginn 03.03.2015 10:00 - 20.03.2015 10:00, gleich: true
+		// setZeitraum: 3 Termine, Einnahmen 7500.0, Kosten 600.0, Gewinn
+		// 6900.0, Beginn 03.03.2015 10:00 - 25.03.2015 10:00, gleich: true
+		// remove: 2 Termine, Einnahmen 6500.0, Kosten 500.0, Gewinn 6000.0,
+		// Beginn 10.03.2015 10:00 - 25.03.2015 10:00, gleich: true
+		// restore: 3 Termine, Einnahmen 7500.0, Kosten 600.0, Gewinn 6900.0,
+		// Beginn 03.03.2015 10:00 - 25.03.2015 10:00, gleich: true
+		// add: 4 Termine, Einnahmen 7900.0, Kosten 640.0, Gewinn 7260.0,
+		// Beginn 01.03.2015 10:00 - 25.03.2015 10:00, gleich: true
+		// gekuendigt: 4 Termine, Einnahmen 7900.0, Kosten 640.0, Gewinn
+		// 7260.0, Beginn 01.03.2015 10:00 - 25.03.2015 10:00, gleich: true
+
+		druckeKennzahlen("Abonniert", abo, ohne);
+
+		linz.setEinnahmen(3500);
+		druckeKennzahlen("setEinnahmen", abo, ohne);
+
+		graz.setAusgaben(800);
+		druckeKennzahlen("setAusgaben", abo, ohne);
+
+		graz.undo();
+		druckeKennzahlen("undo", abo, ohne);
+
+		graz.setZeitraum(toDate(2015, 3, 25, 10, 0), toDate(2015, 3, 25, 12, 0));
+		druckeKennzahlen("setZeitraum", abo, ohne);
+
+		selektoren = new ArrayList<Selector<Termin>>();
+		selektoren.add(new Termin.ZeitraumSelektor(new Zeitraum(toDate(2015,
+				3, 3, 0, 0), toDate(2015, 3, 4, 0, 0))));
+		band.getTermine().select(selektoren).remove();
+		druckeKennzahlen("remove", abo, ohne);
+
+		band.getTermine().select(selektoren).restore();
+		druckeKennzahlen("restore", abo, ohne);
+
+		termin(band, Termin.Typ.Auftritt, "Salzburg", 3, 1, 40, 400);
+		druckeKennzahlen("add", abo, ohne);
+
+		abo.kuendigeAggregat();
+		druckeKennzahlen("gekuendigt", abo, ohne);
+	}
+
+	private static void testeAddAll() {
+		// NOTE: die Stapelgroesse von Selection.addAll(Iterator)
+		int stapel = 1 << 16;
+		Selection<Integer> zahlen = new Selection<Integer>();
+		Selection<Integer> gerade = new GeradeZahlen();
+		List<Selector<Integer>> selektoren = new ArrayList<Selector<Integer>>();
+		Ort halle = new Ort("Halle", new ArrayList<String>());
+		Ort keller = new Ort("Keller", new ArrayList<String>());
+		List<Mitglied> teilnehmer = new ArrayList<Mitglied>();
+		List<Termin> neue = new ArrayList<Termin>();
+		Band band = new Band("Ja, Panik", "Indie", 2);
+
+		selektoren.add(new DreierSelektor());
+
+		// Testfall: addAll(Collection) und addAll(Iterator) ueber mehrere
+		// Stapel, genau einen vollen Stapel und einen leeren Iterator. Die
+		// Reihenfolge bleibt erhalten, eine Sicht sieht alle neuen Elemente.
+		//
+		// Erwartete Ausgabe:
+		// Collection: 10, Iterator: 131077, voller Stapel: 65536, leer: 0
+		// Anzahl: 196623, Reihenfolge: true, durch 3 teilbar: 65541
+
+		System.out.println("Collection: "
+				+ zahlen.addAll(IntStream.range(0, 10).boxed()
+						.collect(Collectors.toList()))
+				+ ", Iterator: "
+				+ zahlen.addAll(IntStream.range(10, 2 * stapel + 15).boxed()
+						.iterator())
+				+ ", voller Stapel: "
+				+ zahlen.addAll(IntStream.range(2 * stapel + 15, 3 * stapel + 15)
+						.boxed().iterator()) + ", leer: "
+				+ zahlen.addAll(new ArrayList<Integer>().iterator()));
+		System.out.println("Anzahl: "
+				+ zahlen.count()
+				+ ", Reihenfolge: "
+				+ zahlen.stream().collect(Collectors.toList())
+						.equals(IntStream.range(0, 3 * stapel + 15).boxed()
+								.collect(Collectors.toList()))
+				+ ", durch 3 teilbar: "
+				+ new Selection<Integer>(zahlen, selektoren).count());
+		System.out.println();
+
+		// Testfall: Unzulaessige Elemente werden in jedem Stapel uebersprungen,
+		// auch wenn ein Stapel genau an einer Grenze endet
+		//
+		// Erwartete Ausgabe:
+		// Gerade: 65537 von 131074, Reihenfolge: true
+
+		System.out.println("Gerade: "
+				+ gerade.addAll(IntStream.range(0, 2 * stapel + 2).boxed()
+						.iterator())
+				+ " von "
+				+ (2 * stapel + 2)
+				+ ", Reihenfolge: "
+				+ gerade.stream()
+						.collect(Collectors.toList())
+						.equals(IntStream.range(0, stapel + 1)
+								.map(zahl -> 2 * zahl).boxed()
+								.collect(Collectors.toList())));
+		System.out.println();
+
+		// Testfall: Termine mit Teilnehmern und Termine, die einen
+		// enthaltenen Termin am selben Ort ueberschneiden, werden abgewiesen.
+		// Termine des selben Aufrufs werden nicht gegeneinander geprueft.
+		//
+		// Erwartete Ausgabe:
+		// Hinzugefuegt: 3 von 5
+		// Termine: [Halle, Halle, Halle, Keller], Konflikte: 1
+
+		teilnehmer.add(new Mitglied("Maurice", "444", "Gesang", new Zeitraum(
+				toDate(2005, 1, 1)), false));
+		band.getTermine().add(
+				new Termin(Termin.Typ.Probe, halle, toDate(2015, 4, 1, 10, 0),
+						toDate(2015, 4, 1, 12, 0), 0, 0,
+						new ArrayList<Mitglied>()));
+
+		neue.add(new Termin(Termin.Typ.Probe, halle, toDate(2015, 4, 1, 11, 0),
+				toDate(2015, 4, 1, 13, 0), 0, 0, new ArrayList<Mitglied>()));
+		neue.add(new Termin(Termin.Typ.Probe, halle, toDate(2015, 4, 2, 10, 0),
+				toDate(2015, 4, 2, 12, 0), 0, 0, new ArrayList<Mitglied>()));
+		neue.add(new Termin(Termin.Typ.Probe, halle, toDate(2015, 4, 2, 11, 0),
+				toDate(2015, 4, 2, 13, 0), 0, 0, new ArrayList<Mitglied>()));
+		neue.add(new Termin(Termin.Typ.Probe, keller,
+				toDate(2015, 4, 3, 10, 0), toDate(2015, 4, 3, 12, 0), 0, 0,
+				teilnehmer));
+		neue.add(new Termin(Termin.Typ.Probe, keller,
+				toDate(2015, 4, 1, 10, 0), toDate(2015, 4, 1, 12, 0), 0, 0,
+				new ArrayList<Mitglied>()));
+
+		System.out.println("Hinzugefuegt: " + band.getTermine().addAll(neue)
+				+ " von " + neue.size());
+		System.out.println("Termine: " + orte(band.getTermine())
+				+ ", Konflikte: " + band.getTermine().getAlleKonflikte().size());
+	}
+
+	private static void testeBericht() {
+		double[] betraege = { 0, -0.0, 0.005, 0.015, 0.125, 1.005, 2.675,
+				-9876.5, 1234567.891, 123456789012.345, 9999999999999.995,
+				1e13, -1e15, Double.NaN, Double.NEGATIVE_INFINITY };
+		Date[] zeitpunkte = { toDate(1850, 1, 1, 0, 0),
+				toDate(1901, 1, 1, 0, 30), toDate(2013, 7, 15, 0, 30),
+				toDate(2013, 7, 15, 12, 5), toDate(2016, 2, 29, 23, 59),
+				toDate(9500, 12, 31, 10, 0) };
+		Locale[] locales = { Locale.getDefault(Locale.Category.FORMAT),
+				Locale.US, Locale.GERMANY, Locale.FRANCE,
+				new Locale("de", "CH"), new Locale("ar", "EG"),
+				new Locale("th", "TH", "TH"), new Locale("ja", "JP", "JP") };
+		ZoneId[] zonen = { ZoneId.systemDefault(), ZoneId.of("Asia/Kolkata") };
+		List<String> abweichungen = new ArrayList<String>();
+		int vergleiche = 0;
+
+		// Testfall: Betraege, Daten und Uhrzeiten werden fuer jede Locale und
+		// Zeitzone genau so geschrieben wie mit String.format und java.text
+		// (auch ausserhalb des Bereiches von java.time, mit anderen
+		// Kalendern und anderen Ziffern)
+		//
+		// Erwartete Ausgabe:
+		// Vergleiche: 672, Abweichungen: []
+
+		for (Locale locale : locales) {
+			for (ZoneId zone : zonen) {
+				StringWriter text = new StringWriter();
+				Writer writer = new BufferedWriter(text);
+				Bericht bericht = new Bericht(writer, locale, zone);
+				List<String> erwartet = new ArrayList<String>();
+				DateFormat datum = DateFormat.getDateInstance(
+						DateFormat.DEFAULT, locale);
+				DateFormat uhrzeit = new SimpleDateFormat("dd.MM.yyyy hh:mm",
+						locale);
+
+				datum.setTimeZone(TimeZone.getTimeZone(zone));
+				uhrzeit.setTimeZone(TimeZone.getTimeZone(zone));
+
+				try {
+					for (double betrag : betraege) {
+						bericht.betrag(betrag, false).zeichen('\n');
+						bericht.betrag(betrag, true).zeichen('\n');
+						erwartet.add(String.format(locale, "%,.2f", betrag));
+						erwartet.add(String.format(locale, "%+,.2f", betrag));
+					}
+					for (Date zeitpunkt : zeitpunkte) {
+						bericht.datum(zeitpunkt.getTime()).zeichen('\n');
+						bericht.uhrzeit(zeitpunkt.getTime()).zeichen('\n');
+						erwartet.add(datum.format(zeitpunkt));
+						erwartet.add(uhrzeit.format(zeitpunkt));
+					}
+					writer.flush();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+
+				vergleiche += vergleiche(locale + " " + zone, erwartet,
+						text.toString(), abweichungen);
+			}
+		}
+
+		System.out.println("Vergleiche: " + vergleiche + ", Abweichungen: "
+				+ abweichungen);
+		System.out.println();
+
+		// Testfall: Termine, Posten, Mitglieder, Varianten, Zeitraeume und
+		// Listen werden in einen Writer geschrieben wie mit den frueheren
+		// toString- bzw. toDetailString-Methoden
+		//
+		// Erwartete Ausgabe:
+		// Vergleiche: 10, Abweichungen: []
+
+		Date von = toDate(2013, 7, 15, 0, 30);
+		Date bis = toDate(2013, 7, 15, 13, 5);
+		Zeitraum zeitraum = new Zeitraum(toDate(2012, 1, 1), toDate(2012, 6,
+				30), toDate(2013, 1, 1));
+		Termin termin = new Termin(Termin.Typ.Auftritt, new Ort("Arena",
+				new ArrayList<String>()), von, bis, 1234.5, 99999.999,
+				new ArrayList<Mitglied>());
+		Posten posten = new Posten(5000, 0.125, "Foerderung", von);
+		Mitglied mitglied = new Mitglied("Farin", "0664", "Gitarre", zeitraum,
+				true);
+		Band band = new Band("Die Aerzte", "Punk", 2);
+		StringWriter text = new StringWriter();
+		Writer writer = new BufferedWriter(text);
+		List<String> erwartet = new ArrayList<String>();
+		String terminText;
+
+		band.getGuV().add(posten);
+		band.getGuV().add(new Posten(0, 20.5, "Saiten", bis));
+
+		terminText = "Auftritt: Arena "
+				+ alterZeitraum(termin.getZeitraum(), new SimpleDateFormat(
+						"dd.MM.yyyy hh:mm"));
+		erwartet.add(terminText);
+		erwartet.add(terminText
+				+ String.format(", Kosten: %,.2f, Umsatz: %,.2f", 1234.5,
+						99999.999));
+		erwartet.add("Foerderung: " + String.format("%+,.2f", 5000 - 0.125));
+		erwartet.add(DateFormat.getDateInstance().format(von)
+				+ ": Foerderung ("
+				+ String.format("+%,.2f/-%,.2f", 5000.0, 0.125) + ")");
+		erwartet.add("Farin");
+		erwartet.add("Farin (Gitarre) "
+				+ alterZeitraum(zeitraum, DateFormat.getDateInstance()));
+		erwartet.add("TelefonNr: 0664, Ersatzmitglied");
+		erwartet.add(String.format("%s: %d:%02d", "Live", 62, 5));
+		erwartet.add(alterZeitraum(zeitraum, DateFormat.getDateInstance()));
+		erwartet.add("[Foerderung: " + String.format("%+,.2f", 5000 - 0.125)
+				+ ", Saiten: " + String.format("%+,.2f", -20.5) + "]");
+
+		try {
+			new Bericht(writer).element(termin).zeichen('\n').details(termin)
+					.zeichen('\n').element(posten).zeichen('\n')
+					.details(posten).zeichen('\n').element(mitglied)
+					.zeichen('\n').details(mitglied).zeichen('\n')
+					.element(new Variante("Live", 3725)).zeichen('\n')
+					.element(zeitraum).zeichen('\n')
+					.liste(band.getGuV()).zeichen('\n');
+			writer.flush();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		abweichungen.clear();
+		System.out.println("Vergleiche: "
+				+ vergleiche("Elemente", erwartet, text.toString(),
+						abweichungen) + ", Abweichungen: " + abweichungen);
+	}
+
+	private static void testeNachrichten() {
+		TimeZone zone = TimeZone.getDefault();
+		Band band = new Band("Die Toten Hosen", "Punk", 2);
+		Zeitraum zeitraum = new Zeitraum(toDate(1982, 1, 1));
+		Mitglied campino = new Mitglied("Campino", "111", "Gesang", zeitraum,
+				false);
+		Mitglied kuddel = new Mitglied("Kuddel", "222", "Gitarre", zeitraum,
+				false);
+		Ort halle = new Ort("Halle", new ArrayList<String>());
+		Termin probe;
+		Queue<String> nachrichten;
+		Iterator<String> iter;
+		String gelesen;
+
+		TimeZone.setDefault(TimeZone.getTimeZone("GMT"));
+		band.getMitglieder().add(campino);
+		band.getMitglieder().add(kuddel);
+		probe = new Termin(Termin.Typ.Probe, halle, toDate(2013, 7, 1, 10, 0),
+				toDate(2013, 7, 1, 12, 0), 100, 0, band.getMitglieder()
+						.asList());
+		band.getTermine().add(probe);
+
+		probe.setAusgaben(200);
+		probe.setOrt(new Ort("Keller", new ArrayList<String>()));
+
+		// Testfall: Die Nachrichten halten den Stand bei der Aenderung fest,
+		// der Text wird aber erst beim Lesen erzeugt (hier in einer anderen
+		// Zeitzone als beim Senden). Beide Teilnehmer teilen sich die selbe
+		// Nachricht, der Text wird nur einmal erzeugt.
+		//
+		// Erwartete Ausgabe:
+		// Campino: Probe: Halle [01.07.2013 03:30 - 01.07.2013 05:30] wurde
+		// geaendert: Kosten: 100.0 -> 200.0
+		// Kuddel: Probe: Halle [01.07.2013 03:30 - 01.07.2013 05:30] wurde
+		// geaendert: Kosten: 100.0 -> 200.0
+		// Selber Text: true
+
+		TimeZone.setDefault(TimeZone.getTimeZone("GMT+05:30"));
+		gelesen = campino.getNachrichten().peek();
+		TimeZone.setDefault(TimeZone.getTimeZone("GMT"));
+
+		System.out.println("Campino: " + gelesen);
+		System.out.println("Kuddel: " + kuddel.getNachrichten().peek());
+		System.out.println("Selber Text: "
+				+ (gelesen == kuddel.getNachrichten().peek()));
+		System.out.println();
+
+		// Testfall: getNachrichten ist eine Sicht auf die Nachrichten: peek
+		// entfernt nichts, poll und Iterator.remove entfernen die Nachricht nur
+		// beim jeweiligen Mitglied, offer fuegt eine hinzu. Die erste Nachricht
+		// behaelt den einmal erzeugten Text.
+		//
+		// Erwartete Ausgabe:
+		// Nach peek: 2
+		// poll: Probe: Halle [01.07.2013 03:30 - 01.07.2013 05:30] wurde
+		// geaendert: Kosten: 100.0 -> 200.0
+		// Nach poll: Campino 1, Kuddel 2
+		// Nach Iterator.remove: Campino 1, Kuddel 1
+		// Campino: [Probe: Halle [01.07.2013 10:00 - 01.07.2013 12:00] wurde
+		// geaendert: Halle -> Keller, Hallo]
+		// Kuddel: [Probe: Halle [01.07.2013 03:30 - 01.07.2013 05:30] wurde
+		// geaendert: Kosten: 100.0 -> 200.0]
+		// Nach clear: 0
+
+		nachrichten = campino.getNachrichten();
+		nachrichten.peek();
+		System.out.println("Nach peek: " + campino.getNachrichten().size());
+
+		System.out.println("poll: " + nachrichten.poll());
+		System.out.println("Nach poll: Campino "
+				+ campino.getNachrichten().size() + ", Kuddel "
+				+ kuddel.getNachrichten().size());
+
+		iter = kuddel.getNachrichten().iterator();
+		iter.next();
+		iter.next();
+		iter.remove();
+		System.out.println("Nach Iterator.remove: Campino "
+				+ campino.getNachrichten().size() + ", Kuddel "
+				+ kuddel.getNachrichten().size());
+
+		nachrichten.offer("Hallo");
+		System.out.println("Campino: " + campino.getNachrichten());
+		System.out.println("Kuddel: " + kuddel.getNachrichten());
+
+		nachrichten.clear();
+		System.out.println("Nach clear: " + campino.getNachrichten().size());
+
+		TimeZone.setDefault(zone);
+	}
+
+	/**
+	 * NOTE: Vergleicht die Zeilen von text mit den erwarteten Zeilen und
+	 * merkt sich jede Abweichung.
+	 * 
+	 * @return die Anzahl der verglichenen Zeilen
+	 */
+	private static int vergleiche(String name, List<String> erwartet,
+			String text, List<String> abweichungen) {
+		String[] zeilen = text.split("\n", -1);
+
+		for (int i = 0; i < erwartet.size(); i++) {
+			String zeile = i < zeilen.length ? zeilen[i] : null;
+
+			if (!erwartet.get(i).equals(zeile)) {
+				abweichungen.add(name + ": " + erwartet.get(i) + " != " + zeile);
+			}
+		}
+		return erwartet.size();
+	}
+
+	/**
+	 * NOTE: Das fruehere Format von Zeitraum.toString(DateFormat)
+	 */
+	private static String alterZeitraum(Zeitraum zeitraum, DateFormat format) {
+		StringBuilder builder = new StringBuilder("[");
+		int anzahl = zeitraum.getAnzahlZeitpunkte();
+
+		for (int i = 0; i < anzahl; i++) {
+			if (i > 0) {
+				builder.append((i & 0x1) == 1 ? " - " : ", ");
+			}
+			builder.append(format.format(new Date(zeitraum.getZeitpunkt(i))));
+		}
+		if ((anzahl & 0x1) == 1) {
+			builder.append(" - ");
+		}
+
+		return builder.append(']').toString();
+	}
+
+	/**
+	 * NOTE: Gibt die Kennzahlen einer Sicht aus und vergleicht sie mit einer
+	 * gleichwertigen Sicht ohne Abonnement.
+	 */
+	private static void druckeKennzahlen(String text, Termine abo,
+			Termine ohne) {
+		SimpleDateFormat format = new SimpleDateFormat("dd.MM.yyyy HH:mm");
+
+		System.out.println(text
+				+ ": "
+				+ abo.count()
+				+ " Termine, Einnahmen "
+				+ abo.getEinnahmen()
+				+ ", Kosten "
+				+ abo.getKosten()
+				+ ", Gewinn "
+				+ abo.getGewinn()
+				+ ", Beginn "
+				+ format.format(abo.getErsterBeginn())
+				+ " - "
+				+ format.format(abo.getLetzterBeginn())
+				+ ", gleich: "
+				+ (abo.count() == ohne.count()
+						&& abo.getEinnahmen() == ohne.getEinnahmen()
+						&& abo.getKosten() == ohne.getKosten()
+						&& abo.getGewinn() == ohne.getGewinn()
+						&& abo.getErsterBeginn().equals(ohne.getErsterBeginn()) && abo
+						.getLetzterBeginn().equals(ohne.getLetzterBeginn())));
+	}
+
+	/**
+	 * NOTE: Fuegt einen Termin ohne Teilnehmer und ohne Posten hinzu, siehe
+	 * termin(Band, Termin.Typ, String, int, int, double, double).
+	 */
+	private static Termin termin(Band band, Termin.Typ typ, String ort,
+			int monat, int tag) {
+		return termin(band, typ, ort, monat, tag, 0, 0);
+	}
+
+	/**
+	 * NOTE: Fuegt einen Termin ohne Teilnehmer von 10 bis 12 Uhr (2015) an
+	 * einem neuen Ort hinzu.
+	 */
+	private static Termin termin(Band band, Termin.Typ typ, String ort,
+			int monat, int tag, double ausgaben, double einnahmen) {
+		Termin termin = new Termin(typ, new Ort(ort, new ArrayList<String>()),
+				toDate(2015, monat, tag, 10, 0), toDate(2015, monat, tag, 12, 0),
+				ausgaben, einnahmen, new ArrayList<Mitglied>());
+
+		band.getTermine().add(termin);
+		return termin;
+	}
+
+	/**
+	 * @return die Orte der Termine in ihrer Reihenfolge
+	 */
+	private static List<Ort> orte(Termine termine) {
+		List<Ort> orte = new ArrayList<Ort>();
+
+		for (Termin termin : termine) {
+			orte.add(termin.getOrt());
+		}
+		return orte;
+	}
+
+	/**
+	 * NOTE: Kopiert ein Objekt durch Serialisieren und erneutes Laden.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> T kopiere(T objekt) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			ObjectOutputStream out = new ObjectOutputStream(bytes);
+
+			out.writeObject(objekt);
+			out.close();
+
+			return (T) new ObjectInputStream(new ByteArrayInputStream(
+					bytes.toByteArray())).readObject();
+		} catch (IOException | ClassNotFoundException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * NOTE: Durchlaeuft eine neue Selektion der Vielfachen von 10. Der
+	 * Selektor ist jedes Mal ein neues Objekt, damit kein gemerktes Ergebnis
+	 * verwendet wird.
+	 */
+	private static void durchlaufe(Selection<Integer> zahlen) {
+		List<Selector<Integer>> selektoren = new ArrayList<Selector<Integer>>();
+
+		selektoren.add(new ZehnerSelektor());
+		for (Iterator<Integer> iter = new Selection<Integer>(zahlen,
+				selektoren).iterator(); iter.hasNext();) {
+			iter.next();
+		}
+	}
+
+	/**
+	 * NOTE: Der Bericht der Metriken ohne die gemessenen Dauern
+	 */
+	private static String bericht() {
+		return Metriken.bericht().replaceAll(", [0-9.,]+ ns/Auswertung", "");
+	}
+
+	/**
+	 * NOTE: Gibt die Summen der GuV aus und vergleicht sie mit den Summen
+	 * ueber den Stream der Posten (ohne Spalten).
+	 */
+	private static void druckeSummen(GuV guv) {
+		double einnahmen = guv.getEinnahmen();
+		double ausgaben = guv.getAusgaben();
+		double gewinn = guv.getGewinn();
+
+		System.out.println("Einnahmen: "
+				+ einnahmen
+				+ ", Ausgaben: "
+				+ ausgaben
+				+ ", Gewinn: "
+				+ gewinn
+				+ ", gleich Stream: "
+				+ (einnahmen == guv.stream().mapToDouble(Posten::getEinnahmen)
+						.sum()
+						&& ausgaben == guv.stream()
+								.mapToDouble(Posten::getAusgaben).sum() && gewinn == einnahmen
+						- ausgaben));
+	}
+
+	/**
+	 * NOTE: Eine Selektion, die nur gerade Zahlen aufnimmt
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private static class GeradeZahlen extends Selection<Integer> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean zulaessig(Integer zahl) {
+			return zahl % 2 == 0;
+		}
+	}
+
+	private static class DreierSelektor implements Selector<Integer> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public boolean select(Integer item) {
+			return item % 3 == 0;
+		}
+	}
+
+	/**
+	 * NOTE: Ein teurer Selektor, der alle Zahlen selektiert
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private static class TeurerSelektor implements Selector<Integer> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public boolean select(Integer item) {
+			double summe = 0;
+
+			for (int i = 1; i <= 1000; i++) {
+				summe += Math.sqrt(item + i);
+			}
+			return summe > 0;
+		}
+	}
+
+	/**
+	 * NOTE: Ein guenstiger Selektor, der nur Vielfache von 10 selektiert
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private static class ZehnerSelektor implements Selector<Integer> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public boolean select(Integer item) {
+			return item % 10 == 0;
+		}
+	}
 }
@@ -1,3 +1,4 @@
+import java.io.IOException;
 import java.io.Serializable;
 
 /**
@@ -29,8 +30,17 @@ public class Variante implements Serializable {
 	 * Nachbedingung: der Rueckgabewert ist ungleich null
 	 */
 	public String toString() {
-		return String.format("%s: %d:%02d", bezeichnung, laenge / 60,
-				laenge % 60);
+		return Bericht.alsText(this, false);
+	}
+
+	/**
+	 * NOTE: Format von toString: "Bezeichnung: m:ss"
+	 * 
+	 * Vorbedingung: bericht ist ungleich null
+	 */
+	void schreibe(Bericht bericht) throws IOException {
+		bericht.text(bezeichnung).text(": ").zahl(laenge / 60, 0).zeichen(':')
+				.zahl(laenge % 60, 2);
 	}
 
 	/**
@@ -40,7 +50,16 @@ public class Variante implements Serializable {
 	 * 
 	 * @author VHD
 	 */
-	public static class BezeichnungSelektor implements Selector<Variante> {
+	public static class BezeichnungSelektor implements
+			IndexSelector<Variante> {
+		private static final long serialVersionUID = 1L;
+
+		private static final Indexer<Variante> INDEXER = new Indexer<Variante>() {
+			@Override
+			public Object getSchluessel(Variante item) {
+				return Index.ohneGrossschreibung(item.bezeichnung);
+			}
+		};
 
 		private String bezeichnung;
 
@@ -58,5 +77,29 @@ public class Variante implements Serializable {
 		public boolean select(Variante item) {
 			return bezeichnung.equalsIgnoreCase(item.bezeichnung);
 		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof BezeichnungSelektor)) {
+				return false;
+			}
+			BezeichnungSelektor other = (BezeichnungSelektor) obj;
+			return getSchluessel().equals(other.getSchluessel());
+		}
+
+		@Override
+		public int hashCode() {
+			return getSchluessel().hashCode();
+		}
+
+		@Override
+		public Indexer<Variante> getIndexer() {
+			return INDEXER;
+		}
+
+		@Override
+		public Object getSchluessel() {
+			return Index.ohneGrossschreibung(bezeichnung);
+		}
 	}
 }
@@ -0,0 +1,227 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * NOTE: Versionsgeschichte eines Termins. Fuer jedes veraenderliche Feld
+ * (Ort, Zeitraum, Posten) gibt es eine Spur mit den Zeitpunkten der
+ * Aenderungen und den jeweils neuen (unveraenderlichen) Werten. Der Wert zu
+ * einem Zeitpunkt wird mit binaerer Suche gefunden, unabhaengig von der
+ * Laenge der Geschichte. Eine Spur wird erst bei der ersten Aenderung ihres
+ * Feldes angelegt, ihr erster Eintrag gilt seit jeher.
+ * 
+ * NOTE: Auch ein undo ist eine neue Version. Versionen werden nur gefuehrt,
+ * solange die Chronik der Termine aktiv ist (siehe Chronik), und nur dann
+ * mitgespeichert. Eine Spur haelt hoechstens MAX_VERSIONEN Eintraege: ist sie
+ * voll, wird die aeltere Haelfte verworfen und der aelteste verbliebene Wert
+ * gilt seit jeher. Ebenso verwirft kuerze die Werte vor dem Beginn der
+ * Chronik.
+ * 
+ * Invariante: die Spuren sind null, solange ihr Feld nicht geaendert wurde
+ * 
+ * @author Peter Pilgerstorfer
+ */
+class Versionen implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	// NOTE: die groesste Anzahl an Eintraegen einer Spur
+	private static final int MAX_VERSIONEN = 256;
+
+	private Spur ort;
+	private Spur zeitraum;
+	private Spur posten;
+
+	/**
+	 * Vorbedingung: feld ist Historie.ORT, ZEITRAUM oder POSTEN. alt ist der
+	 * bisherige, neu der neue Wert des Feldes, beide ungleich null.
+	 * 
+	 * Nachbedingung: ab jetzt hat das Feld den Wert neu
+	 */
+	public void merke(byte feld, Object alt, Object neu) {
+		Spur spur = getSpur(feld);
+
+		if (spur == null) {
+			spur = new Spur();
+			spur.add(Long.MIN_VALUE, alt);
+
+			switch (feld) {
+			case Historie.ORT:
+				ort = spur;
+				break;
+			case Historie.ZEITRAUM:
+				zeitraum = spur;
+				break;
+			case Historie.POSTEN:
+				posten = spur;
+				break;
+			}
+		}
+
+		spur.add(Math.max(System.currentTimeMillis(), spur.getLetzten()), neu);
+	}
+
+	/**
+	 * Vorbedingung: feld ist Historie.ORT, ZEITRAUM oder POSTEN
+	 * 
+	 * @return der Wert des Feldes zu zeitpunkt, oder null wenn das Feld nie
+	 *         geaendert wurde (es hat dann noch seinen aktuellen Wert)
+	 */
+	public Object get(byte feld, long zeitpunkt) {
+		Spur spur = getSpur(feld);
+		return spur == null ? null : spur.get(zeitpunkt);
+	}
+
+	/**
+	 * NOTE: Verwirft in jeder Spur die Werte, die vor zeitpunkt bereits
+	 * ersetzt waren. Der Wert zu zeitpunkt gilt danach seit jeher.
+	 */
+	public void kuerze(long zeitpunkt) {
+		for (Spur spur : new Spur[] { ort, zeitraum, posten }) {
+			if (spur != null) {
+				spur.kuerze(zeitpunkt);
+			}
+		}
+	}
+
+	private Spur getSpur(byte feld) {
+		switch (feld) {
+		case Historie.ORT:
+			return ort;
+		case Historie.ZEITRAUM:
+			return zeitraum;
+		default:
+			return posten;
+		}
+	}
+
+	/**
+	 * NOTE: Die Werte eines Feldes, aufsteigend nach dem Zeitpunkt, ab dem
+	 * sie gelten.
+	 * 
+	 * Invariante: zeitpunkte und werte sind gleich lang, die ersten anzahl
+	 * Eintraege sind belegt. zeitpunkte ist aufsteigend sortiert.
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private static class Spur implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private transient long[] zeitpunkte = new long[2];
+		private transient Object[] werte = new Object[2];
+		private transient int anzahl;
+
+		/**
+		 * NOTE: Ist die Spur voll, wird die aeltere Haelfte verworfen.
+		 * 
+		 * Vorbedingung: zeitpunkt ist nicht vor dem letzten Zeitpunkt
+		 */
+		public void add(long zeitpunkt, Object wert) {
+			if (anzahl == MAX_VERSIONEN) {
+				entferneBis(anzahl / 2);
+			}
+			if (anzahl == zeitpunkte.length) {
+				zeitpunkte = Arrays.copyOf(zeitpunkte, anzahl * 2);
+				werte = Arrays.copyOf(werte, anzahl * 2);
+			}
+
+			zeitpunkte[anzahl] = zeitpunkt;
+			werte[anzahl] = wert;
+			anzahl++;
+		}
+
+		/**
+		 * Vorbedingung: die Spur ist nicht leer
+		 */
+		public long getLetzten() {
+			return zeitpunkte[anzahl - 1];
+		}
+
+		/**
+		 * Vorbedingung: der erste Eintrag gilt seit jeher
+		 */
+		public Object get(long zeitpunkt) {
+			return werte[suche(zeitpunkt)];
+		}
+
+		/**
+		 * NOTE: Binaere Suche nach dem letzten Eintrag, der nicht nach
+		 * zeitpunkt liegt.
+		 * 
+		 * Vorbedingung: der erste Eintrag gilt seit jeher
+		 */
+		private int suche(long zeitpunkt) {
+			int von = 0;
+			int bis = anzahl - 1;
+
+			while (von < bis) {
+				int mitte = (von + bis + 1) >>> 1;
+
+				if (zeitpunkte[mitte] <= zeitpunkt) {
+					von = mitte;
+				} else {
+					bis = mitte - 1;
+				}
+			}
+
+			return von;
+		}
+
+		/**
+		 * Vorbedingung: die Spur ist nicht leer
+		 * 
+		 * Nachbedingung: der Wert zu zeitpunkt gilt seit jeher, fruehere Werte
+		 * sind verworfen.
+		 */
+		public void kuerze(long zeitpunkt) {
+			entferneBis(suche(zeitpunkt));
+		}
+
+		/**
+		 * Vorbedingung: 0 <= index < anzahl
+		 * 
+		 * Nachbedingung: die Eintraege vor index sind verworfen, der Eintrag
+		 * index gilt seit jeher.
+		 */
+		private void entferneBis(int index) {
+			anzahl -= index;
+			System.arraycopy(zeitpunkte, index, zeitpunkte, 0, anzahl);
+			System.arraycopy(werte, index, werte, 0, anzahl);
+			Arrays.fill(werte, anzahl, anzahl + index, null);
+			zeitpunkte[0] = Long.MIN_VALUE;
+		}
+
+		/**
+		 * @param out
+		 * @throws IOException
+		 */
+		private void writeObject(ObjectOutputStream out) throws IOException {
+			out.defaultWriteObject();
+			out.writeInt(anzahl);
+
+			for (int i = 0; i < anzahl; i++) {
+				out.writeLong(zeitpunkte[i]);
+				out.writeObject(werte[i]);
+			}
+		}
+
+		/**
+		 * @param in
+		 * @throws IOException
+		 * @throws ClassNotFoundException
+		 */
+		private void readObject(ObjectInputStream in) throws IOException,
+				ClassNotFoundException {
+			in.defaultReadObject();
+			anzahl = in.readInt();
+			zeitpunkte = new long[Math.max(anzahl, 2)];
+			werte = new Object[zeitpunkte.length];
+
+			for (int i = 0; i < anzahl; i++) {
+				zeitpunkte[i] = in.readLong();
+				werte[i] = in.readObject();
+			}
+		}
+	}
+}
@@ -0,0 +1,18 @@
+/**
+ * NOTE: Berechnet den Zeitpunkt, nach dem ein Element in einem Bereichsindex
+ * sortiert wird. Alle Selektoren, die den selben Zeitindexer verwenden, teilen
+ * sich in einer Selection einen Bereichsindex.
+ * 
+ * @author Peter Pilgerstorfer
+ * @param <T>
+ */
+public interface Zeitindexer<T> {
+	/**
+	 * Vorbedingung: item ist ungleich null
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist der Zeitpunkt in Millisekunden seit
+	 * 1.1.1970. Wenn sich der Zeitpunkt eines Elementes aendern kann, muss das
+	 * Element die Aenderung als Beobachtbar melden.
+	 */
+	public long getZeitpunkt(T item);
+}
@@ -1,9 +1,15 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.text.DateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.PriorityQueue;
 
 /**
  * Ermoeglicht die ueberpruefung ob sich Zeitraeume ueberschneiden.
@@ -11,17 +17,42 @@ import java.util.List;
  * GOOD: Schwache Objektkopplung. Es wird auf keine anderen Klassen des
  * Programmes zugegriffen.
  * 
- * Invariante: zeitpunkte ist ungleich NULL und enthaelt keine Elemente gleich
- * NULL
+ * NOTE: Die Zeitpunkte werden als Millisekunden seit 1.1.1970 in einem
+ * long-Array gespeichert. Alle Pruefungen kommen dadurch ohne Objekte und
+ * ohne Erzeugen von Objekten aus. Fuer den haeufigsten Fall (ein einzelnes,
+ * geschlossenes Intervall) gibt es eigene, schleifenlose Pruefungen.
  * 
- * Invariante: zeitpunkte ist aufsteigend sortiert
+ * NOTE: Die Intervalle werden beim Erstellen normalisiert: sich
+ * ueberschneidende oder aneinander grenzende Intervalle werden
+ * zusammengefasst. Das Intervall eines Zeitpunktes kann dann mit binaerer
+ * Suche gefunden werden, und ein Intervall, das ueber die Grenze zweier
+ * aneinander grenzender Intervalle reicht, ist enthalten.
+ * 
+ * NOTE: Ein Zeitraum ohne Zeitpunkte ist nicht beschraenkt (enthaelt alles).
+ * Fuer Ergebnisse der Mengenoperationen gibt es zusaetzlich den leeren
+ * Zeitraum (siehe leer()), der nichts enthaelt.
+ * 
+ * Invariante: zeitpunkte ist ungleich NULL. Ist leer true, ist zeitpunkte
+ * leer.
+ * 
+ * Invariante: zeitpunkte ist aufsteigend sortiert, zwischen zwei Intervallen
+ * liegt mindestens eine nicht enthaltene Millisekunde.
  * 
  * @author Peter Pilgerstorfer
  */
 public class Zeitraum implements Serializable {
 	private static final long serialVersionUID = 1L;
 
-	List<Date> zeitpunkte = new ArrayList<Date>(); 
+	// NOTE: Gespeichert wird weiterhin eine Liste von Dates, damit bereits
+	// gespeicherte Daten gelesen werden koennen.
+	private static final ObjectStreamField[] serialPersistentFields = {
+			new ObjectStreamField("zeitpunkte", List.class),
+			new ObjectStreamField("leer", boolean.class) };
+
+	private static final Zeitraum LEER = new Zeitraum(new long[0], true);
+
+	private transient long[] zeitpunkte;
+	private transient boolean leer;
 
 	/**
 	 * Vorbedingung: zeitpunkte enthaelt keine Elemente gleich NULL
@@ -35,7 +66,123 @@ public class Zeitraum implements Serializable {
 	 * @param zeitpunkte
 	 */
 	public Zeitraum(Date... zeitpunkte) {
-		this.zeitpunkte.addAll(Arrays.asList(zeitpunkte));
+		long[] z = new long[zeitpunkte.length];
+
+		for (int i = 0; i < zeitpunkte.length; i++) {
+			z[i] = zeitpunkte[i].getTime();
+		}
+
+		this.zeitpunkte = normalisiere(z);
+	}
+
+	/**
+	 * Vorbedingung: zeitpunkte erfuellt die Invariante und wird nicht mehr
+	 * veraendert. Ist leer true, ist zeitpunkte leer.
+	 */
+	private Zeitraum(long[] zeitpunkte, boolean leer) {
+		this.zeitpunkte = zeitpunkte;
+		this.leer = leer;
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert ist der leere Zeitraum, er enthaelt
+	 * keinen Zeitpunkt.
+	 */
+	public static Zeitraum leer() {
+		return LEER;
+	}
+
+	/**
+	 * @return true, wenn der Zeitraum keinen Zeitpunkt enthaelt
+	 */
+	public boolean istLeer() {
+		return leer;
+	}
+
+	/**
+	 * @return true, wenn der Zeitraum alle Zeitpunkte enthaelt
+	 */
+	public boolean istUnbeschraenkt() {
+		return zeitpunkte.length == 0 && !leer;
+	}
+
+	/**
+	 * NOTE: Fasst Intervalle zusammen, die sich ueberschneiden oder
+	 * aneinander grenzen (die Grenzen sind enthalten, daher grenzen [a, b] und
+	 * [b + 1, c] aneinander). Ein offenes Endintervall schliesst alle
+	 * folgenden Intervalle ein.
+	 * 
+	 * Vorbedingung: z ist ungleich NULL und aufsteigend sortiert
+	 * 
+	 * Nachbedingung: der Rueckgabewert beschreibt die selben Zeitpunkte wie z
+	 * und erfuellt die Invariante.
+	 */
+	private static long[] normalisiere(long[] z) {
+		int anzahl = 0;
+
+		for (int i = 0; i < z.length; i += 2) {
+			long von = z[i];
+			boolean offen = i + 1 == z.length;
+			long bis = offen ? Long.MAX_VALUE : z[i + 1];
+
+			// NOTE: Grenzt das Intervall an das vorige (geschlossene) an?
+			if (anzahl > 0 && (anzahl & 0x1) == 0
+					&& von - 1 <= z[anzahl - 1]) {
+				if (offen) {
+					anzahl--; // NOTE: das offene Intervall beginnt frueher
+				} else {
+					z[anzahl - 1] = Math.max(z[anzahl - 1], bis);
+				}
+			} else {
+				z[anzahl++] = von;
+				if (!offen) {
+					z[anzahl++] = bis;
+				}
+			}
+		}
+
+		// NOTE: ein offenes Intervall ab dem fruehesten Zeitpunkt ist nicht
+		// beschraenkt
+		if (anzahl == 1 && z[0] == Long.MIN_VALUE) {
+			anzahl = 0;
+		}
+
+		return anzahl == z.length ? z : Arrays.copyOf(z, anzahl);
+	}
+
+	/**
+	 * NOTE: Sucht mit binaerer Suche das letzte Intervall, das bei oder vor
+	 * zeitpunkt beginnt.
+	 * 
+	 * @return der Index des Intervallanfanges in zeitpunkte, oder -1
+	 */
+	private int intervall(long zeitpunkt) {
+		int links = 0;
+		int rechts = ((zeitpunkte.length + 1) >> 1) - 1;
+		int gefunden = -1;
+
+		while (links <= rechts) {
+			int mitte = (links + rechts) >>> 1;
+
+			if (zeitpunkte[mitte << 1] <= zeitpunkt) {
+				gefunden = mitte << 1;
+				links = mitte + 1;
+			} else {
+				rechts = mitte - 1;
+			}
+		}
+
+		return gefunden;
+	}
+
+	/**
+	 * Vorbedingung: anfang ist der Index eines Intervallanfanges
+	 * 
+	 * @return das Ende des Intervalls, Long.MAX_VALUE wenn es offen ist
+	 */
+	private long ende(int anfang) {
+		return anfang + 1 < zeitpunkte.length ? zeitpunkte[anfang + 1]
+				: Long.MAX_VALUE;
 	}
 
 	/**
@@ -46,21 +193,93 @@ public class Zeitraum implements Serializable {
 	 * @param orig
 	 */
 	public Zeitraum(Zeitraum orig) {
-		this.zeitpunkte.addAll(orig.zeitpunkte);
+		// NOTE: zeitpunkte wird nie veraendert und kann geteilt werden
+		this.zeitpunkte = orig.zeitpunkte;
+		this.leer = orig.leer;
 	}
 
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ein neues Date-Objekt, oder NULL
+	 * wenn der Zeitraum nicht beschraenkt oder leer ist.
+	 */
 	public Date getFirst() {
-		if (zeitpunkte.isEmpty()) {
+		if (zeitpunkte.length == 0) {
 			return null;
 		}
-		return zeitpunkte.get(0);
+		return new Date(zeitpunkte[0]);
 	}
 
+	/**
+	 * Nachbedingung: der Rueckgabewert ist ein neues Date-Objekt, oder NULL
+	 * wenn der Zeitraum nicht beschraenkt oder leer ist.
+	 */
 	public Date getLast() {
-		if (zeitpunkte.isEmpty()) {
+		if (zeitpunkte.length == 0) {
 			return null;
 		}
-		return zeitpunkte.get(zeitpunkte.size() - 1);
+		return new Date(zeitpunkte[zeitpunkte.length - 1]);
+	}
+
+	/**
+	 * NOTE: Wie getFirst, jedoch ohne ein Date-Objekt zu erzeugen.
+	 * 
+	 * Vorbedingung: der Zeitraum ist beschraenkt (getFirst() != NULL)
+	 * 
+	 * @return der erste Zeitpunkt in Millisekunden seit 1.1.1970
+	 */
+	long getErsterZeitpunkt() {
+		return zeitpunkte[0];
+	}
+
+	/**
+	 * NOTE: Wie getLast, jedoch ohne ein Date-Objekt zu erzeugen.
+	 * 
+	 * Vorbedingung: der Zeitraum ist beschraenkt (getLast() != NULL)
+	 * 
+	 * @return der letzte Zeitpunkt in Millisekunden seit 1.1.1970
+	 */
+	long getLetzterZeitpunkt() {
+		return zeitpunkte[zeitpunkte.length - 1];
+	}
+
+	/**
+	 * NOTE: Anzahl der gespeicherten Zeitpunkte. Ist sie ungerade, ist das
+	 * letzte Intervall offen.
+	 */
+	int getAnzahlZeitpunkte() {
+		return zeitpunkte.length;
+	}
+
+	/**
+	 * Vorbedingung: 0 <= index < getAnzahlZeitpunkte()
+	 * 
+	 * @return der Zeitpunkt in Millisekunden
+	 */
+	long getZeitpunkt(int index) {
+		return zeitpunkte[index];
+	}
+
+	/**
+	 * NOTE: Liefert die Intervalle als Paare [von, bis] in Millisekunden.
+	 * Beide Grenzen sind enthalten, ein offenes Endintervall endet bei
+	 * Long.MAX_VALUE.
+	 * 
+	 * @return die Grenzen, oder NULL wenn der Zeitraum nicht beschraenkt ist
+	 */
+	long[] getGrenzen() {
+		if (istUnbeschraenkt()) {
+			return null;
+		}
+
+		long[] grenzen = Arrays.copyOf(zeitpunkte,
+				(zeitpunkte.length + 1) & ~0x1);
+
+		// NOTE: Ist das Zeitintervall am Ende offen?
+		if ((zeitpunkte.length & 0x1) == 1) {
+			grenzen[grenzen.length - 1] = Long.MAX_VALUE;
+		}
+
+		return grenzen;
 	}
 
 	/**
@@ -70,31 +289,33 @@ public class Zeitraum implements Serializable {
 	 * @return
 	 */
 	public boolean inZeitraum(Date zeitpunkt) {
-		if (zeitpunkte.isEmpty()) {
-			return true;
-		}
+		return inZeitraum(zeitpunkt.getTime());
+	}
 
-		// NOTE: Ist der Zeitpunkt in einem Intervall enthalten?
-		for (int i = 0; i < zeitpunkte.size() - 1; i += 2) {
-			Date von = zeitpunkte.get(i);
-			Date bis = zeitpunkte.get(i + 1);
+	/**
+	 * NOTE: Wie inZeitraum(Date), der Zeitpunkt wird jedoch in Millisekunden
+	 * seit 1.1.1970 angegeben.
+	 * 
+	 * @param zeitpunkt
+	 * @return
+	 */
+	public boolean inZeitraum(long zeitpunkt) {
+		long[] z = zeitpunkte;
 
-			if (inZeitraum(zeitpunkt, von, bis)) {
-				return true;
-			}
+		// NOTE: der haeufigste Fall, ein geschlossenes Intervall
+		if (z.length == 2) {
+			return z[0] <= zeitpunkt && zeitpunkt <= z[1];
 		}
 
-		// Zusicherung: keines der geschlossenen Intervalle beinhaltet zeitpunkt
-
-		// NOTE: Ist das Zeitintervall am Ende offen?
-		if ((zeitpunkte.size() & 0x1) == 1) {
-			Date von = zeitpunkte.get(zeitpunkte.size() - 1);
-			return !von.after(zeitpunkt);
+		if (z.length == 0) {
+			return !leer;
 		}
 
-		// Zusicherung: kein Intervall beinhaltet zeitpunkt
+		// NOTE: Nur das letzte Intervall, das davor beginnt, kann den
+		// Zeitpunkt enthalten
+		int anfang = intervall(zeitpunkt);
 
-		return false;
+		return anfang >= 0 && zeitpunkt <= ende(anfang);
 	}
 
 	/**
@@ -104,20 +325,27 @@ public class Zeitraum implements Serializable {
 	 * @return
 	 */
 	public boolean enthaelt(Zeitraum other) {
-		if (zeitpunkte.isEmpty()) {
+		long[] o = other.zeitpunkte;
+
+		if (other.leer) {
+			return true; // NOTE: nichts ist immer enthalten
+		} else if (leer) {
+			return false;
+		} else if (zeitpunkte.length == 0) {
 			return true; // NOTE: alles ist enthalten
-		} else if (other.zeitpunkte.isEmpty()) {
+		} else if (o.length == 0) {
 			return false; // NOTE:etwas beschraenktes kann nicht alles enthalten
 		}
 
-		// NOTE: Es muessen alle Intervalle von other in einem Intervall von
-		// this
-		// enthalten sein
-		for (int i = 0; i < other.zeitpunkte.size() - 1; i += 2) {
-			Date von = other.zeitpunkte.get(i);
-			Date bis = other.zeitpunkte.get(i + 1);
+		// NOTE: der haeufigste Fall, ein geschlossenes Intervall
+		if (o.length == 2) {
+			return enthaelt(o[0], o[1]);
+		}
 
-			if (!enthaelt(von, bis)) {
+		// NOTE: Es muessen alle Intervalle von other in einem Intervall von
+		// this enthalten sein
+		for (int i = 0; i < o.length - 1; i += 2) {
+			if (!enthaelt(o[i], o[i + 1])) {
 				return false;
 			}
 		}
@@ -126,9 +354,8 @@ public class Zeitraum implements Serializable {
 		// enthalten
 
 		// NOTE: Ueberpruefung des offenen Endintervalls
-		if ((other.zeitpunkte.size() & 0x1) == 1) {
-			Date von = other.zeitpunkte.get(other.zeitpunkte.size() - 1);
-			return enthaelt(von);
+		if ((o.length & 0x1) == 1) {
+			return enthaelt(o[o.length - 1]);
 		}
 
 		// Zusicherung: other ist im Zeitraum enthalten
@@ -136,12 +363,285 @@ public class Zeitraum implements Serializable {
 		return true;
 	}
 
+	/**
+	 * NOTE: Zwei Zeitraeume sind gleich, wenn sie aus den selben Zeitpunkten
+	 * bestehen.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof Zeitraum)) {
+			return false;
+		}
+		Zeitraum other = (Zeitraum) obj;
+		return leer == other.leer
+				&& Arrays.equals(zeitpunkte, other.zeitpunkte);
+	}
+
+	@Override
+	public int hashCode() {
+		return leer ? -1 : Arrays.hashCode(zeitpunkte);
+	}
+
+	/**
+	 * Vorbedingung: other ist ungleich NULL
+	 * 
+	 * Nachbedingung: der Rueckgabewert enthaelt genau die Zeitpunkte, die in
+	 * this oder in other enthalten sind.
+	 */
+	public Zeitraum vereinigung(Zeitraum other) {
+		return sweep(new long[][] { intervalle(), other.intervalle() }, 1);
+	}
+
+	/**
+	 * Vorbedingung: other ist ungleich NULL
+	 * 
+	 * Nachbedingung: der Rueckgabewert enthaelt genau die Zeitpunkte, die in
+	 * this und in other enthalten sind.
+	 */
+	public Zeitraum schnitt(Zeitraum other) {
+		return sweep(new long[][] { intervalle(), other.intervalle() }, 2);
+	}
+
+	/**
+	 * Vorbedingung: other ist ungleich NULL
+	 * 
+	 * Nachbedingung: der Rueckgabewert enthaelt genau die Zeitpunkte, die in
+	 * this, aber nicht in other enthalten sind.
+	 */
+	public Zeitraum differenz(Zeitraum other) {
+		return sweep(new long[][] { intervalle(),
+				other.komplement().intervalle() }, 2);
+	}
+
+	/**
+	 * Nachbedingung: der Rueckgabewert enthaelt genau die Zeitpunkte, die
+	 * nicht in this enthalten sind.
+	 */
+	public Zeitraum komplement() {
+		long[] z = intervalle();
+		long[] ergebnis = new long[z.length + 2];
+		int anzahl = 0;
+		long naechster = Long.MIN_VALUE; // NOTE: Beginn der naechsten Luecke
+		boolean offen = true; // NOTE: reicht die Luecke bis naechster?
+
+		for (int i = 0; i < z.length; i += 2) {
+			if (z[i] > naechster) {
+				ergebnis[anzahl++] = naechster;
+				ergebnis[anzahl++] = z[i] - 1;
+			}
+			if (z[i + 1] == Long.MAX_VALUE) {
+				offen = false;
+				break;
+			}
+			naechster = z[i + 1] + 1;
+		}
+
+		if (offen) {
+			ergebnis[anzahl++] = naechster;
+			ergebnis[anzahl++] = Long.MAX_VALUE;
+		}
+
+		return aus(ergebnis, anzahl);
+	}
+
+	/**
+	 * NOTE: Vereinigt beliebig viele Zeitraeume in einem Durchlauf.
+	 * 
+	 * Vorbedingung: zeitraeume ist ungleich NULL und enthaelt keine Elemente
+	 * gleich NULL
+	 * 
+	 * Nachbedingung: der Rueckgabewert enthaelt genau die Zeitpunkte, die in
+	 * mindestens einem der Zeitraeume enthalten sind (leer, wenn zeitraeume
+	 * leer ist).
+	 */
+	public static Zeitraum vereinigung(Collection<Zeitraum> zeitraeume) {
+		return sweep(intervalle(zeitraeume), 1);
+	}
+
+	/**
+	 * NOTE: Schneidet beliebig viele Zeitraeume in einem Durchlauf, z.B. die
+	 * Zeitraeume, in denen alle Mitglieder verfuegbar sind.
+	 * 
+	 * Vorbedingung: zeitraeume ist ungleich NULL und enthaelt keine Elemente
+	 * gleich NULL
+	 * 
+	 * Nachbedingung: der Rueckgabewert enthaelt genau die Zeitpunkte, die in
+	 * allen Zeitraeumen enthalten sind (nicht beschraenkt, wenn zeitraeume
+	 * leer ist).
+	 */
+	public static Zeitraum schnitt(Collection<Zeitraum> zeitraeume) {
+		if (zeitraeume.isEmpty()) {
+			return new Zeitraum();
+		}
+		return sweep(intervalle(zeitraeume), zeitraeume.size());
+	}
+
+	/**
+	 * Vorbedingung: zeitraeume ist ungleich NULL
+	 */
+	private static long[][] intervalle(Collection<Zeitraum> zeitraeume) {
+		long[][] intervalle = new long[zeitraeume.size()][];
+		int i = 0;
+
+		for (Zeitraum zeitraum : zeitraeume) {
+			intervalle[i++] = zeitraum.intervalle();
+		}
+
+		return intervalle;
+	}
+
+	/**
+	 * NOTE: Liefert die Intervalle als Paare [von, bis], beide Grenzen sind
+	 * enthalten. Ein offenes Endintervall endet bei Long.MAX_VALUE, ein nicht
+	 * beschraenkter Zeitraum ist [Long.MIN_VALUE, Long.MAX_VALUE].
+	 * 
+	 * Nachbedingung: der Rueckgabewert ist ungleich NULL
+	 */
+	private long[] intervalle() {
+		if (istUnbeschraenkt()) {
+			return new long[] { Long.MIN_VALUE, Long.MAX_VALUE };
+		}
+		return getGrenzen();
+	}
+
+	/**
+	 * NOTE: Umkehrung von intervalle().
+	 * 
+	 * Vorbedingung: die ersten anzahl Elemente von paare sind aufsteigende,
+	 * zusammengefasste Paare [von, bis].
+	 */
+	private static Zeitraum aus(long[] paare, int anzahl) {
+		if (anzahl == 0) {
+			return LEER;
+		}
+
+		// NOTE: ein am Ende offenes Intervall hat kein Ende
+		if (paare[anzahl - 1] == Long.MAX_VALUE) {
+			anzahl--;
+		}
+		if (anzahl == 1 && paare[0] == Long.MIN_VALUE) {
+			anzahl = 0;
+		}
+
+		return new Zeitraum(Arrays.copyOf(paare, anzahl), false);
+	}
+
+	/**
+	 * NOTE: Durchlaeuft alle Intervallgrenzen der Zeitraeume aufsteigend
+	 * (Sweep-Line) und zaehlt, wie viele Zeitraeume den aktuellen Zeitpunkt
+	 * enthalten. Die jeweils naechste Grenze jedes Zeitraumes liegt in einem
+	 * Heap, die Laufzeit ist daher O(n log k) fuer n Intervalle in k
+	 * Zeitraeumen.
+	 * 
+	 * Vorbedingung: intervalle ist ungleich NULL und enthaelt Ergebnisse von
+	 * intervalle(). mindestens ist >= 1
+	 * 
+	 * Nachbedingung: der Rueckgabewert enthaelt genau die Zeitpunkte, die in
+	 * mindestens <code>mindestens</code> Zeitraeumen enthalten sind.
+	 */
+	private static Zeitraum sweep(long[][] intervalle, int mindestens) {
+		PriorityQueue<Grenze> grenzen = new PriorityQueue<Grenze>();
+		int summe = 0;
+
+		for (long[] paare : intervalle) {
+			if (paare.length > 0) {
+				grenzen.add(new Grenze(paare));
+			}
+			summe += paare.length;
+		}
+
+		long[] ergebnis = new long[summe];
+		int anzahl = 0;
+		int enthalten = 0;
+
+		while (!grenzen.isEmpty()) {
+			long zeitpunkt = grenzen.peek().zeitpunkt;
+			int vorher = enthalten;
+
+			// NOTE: alle Grenzen zum selben Zeitpunkt gemeinsam verarbeiten
+			while (!grenzen.isEmpty() && grenzen.peek().zeitpunkt == zeitpunkt) {
+				Grenze grenze = grenzen.poll();
+
+				enthalten += grenze.istBeginn() ? 1 : -1;
+				if (grenze.weiter()) {
+					grenzen.add(grenze);
+				}
+			}
+
+			if (vorher < mindestens && enthalten >= mindestens) {
+				ergebnis[anzahl++] = zeitpunkt;
+			} else if (vorher >= mindestens && enthalten < mindestens) {
+				ergebnis[anzahl++] = zeitpunkt - 1;
+			}
+		}
+
+		// NOTE: die Zeitpunkte bis Long.MAX_VALUE sind noch enthalten
+		if ((anzahl & 0x1) == 1) {
+			ergebnis[anzahl++] = Long.MAX_VALUE;
+		}
+
+		return aus(ergebnis, anzahl);
+	}
+
+	/**
+	 * NOTE: Die naechste Grenze der Intervalle eines Zeitraumes: der Beginn
+	 * eines Intervalles bzw. der erste Zeitpunkt nach seinem Ende. Endet ein
+	 * Intervall bei Long.MAX_VALUE, gibt es keine Grenze mehr.
+	 * 
+	 * Invariante: paare enthaelt aufsteigende, zusammengefasste Paare [von,
+	 * bis]. index ist der Index der aktuellen Grenze in paare.
+	 * 
+	 * @author Peter Pilgerstorfer
+	 */
+	private static class Grenze implements Comparable<Grenze> {
+		private long[] paare;
+		private int index;
+		private long zeitpunkt;
+
+		/**
+		 * Vorbedingung: paare ist nicht leer
+		 */
+		public Grenze(long[] paare) {
+			this.paare = paare;
+			this.index = 0;
+			this.zeitpunkt = paare[0];
+		}
+
+		/**
+		 * @return true, wenn ab zeitpunkt ein Intervall beginnt
+		 */
+		public boolean istBeginn() {
+			return (index & 0x1) == 0;
+		}
+
+		/**
+		 * @return true, wenn es eine weitere Grenze gibt
+		 */
+		public boolean weiter() {
+			index++;
+
+			if (index == paare.length
+					|| (!istBeginn() && paare[index] == Long.MAX_VALUE)) {
+				return false;
+			}
+
+			// NOTE: das Intervall endet nach paare[index]
+			zeitpunkt = istBeginn() ? paare[index] : paare[index] + 1;
+			return true;
+		}
+
+		@Override
+		public int compareTo(Grenze other) {
+			return Long.compare(zeitpunkt, other.zeitpunkt);
+		}
+	}
+
 	@Override
 	/**
 	 * Nachbedingung: der Rueckgabewert ist ungleich NULL
 	 */
 	public String toString() {
-		return toString(DateFormat.getDateInstance());
+		return Bericht.alsText(this, false);
 	}
 
 	/**
@@ -155,39 +655,36 @@ public class Zeitraum implements Serializable {
 	public String toString(DateFormat format) {
 		StringBuilder builder = new StringBuilder();
 
+		if (leer) {
+			return "[leer]";
+		}
+
 		builder.append('[');
 
 		// NOTE: Ausgabe des ersten Intervalls
-		if (0 < zeitpunkte.size() - 1) {
-			Date von = zeitpunkte.get(0);
-			Date bis = zeitpunkte.get(1);
-
-			builder.append(format.format(von));
+		if (0 < zeitpunkte.length - 1) {
+			builder.append(format.format(new Date(zeitpunkte[0])));
 			builder.append(" - ");
-			builder.append(format.format(bis));
+			builder.append(format.format(new Date(zeitpunkte[1])));
 		}
 
 		// NOTE: Ausgabe der folgenden Intervalle
-		for (int i = 2; i < zeitpunkte.size() - 1; i += 2) {
-			Date von = zeitpunkte.get(i);
-			Date bis = zeitpunkte.get(i + 1);
-
+		for (int i = 2; i < zeitpunkte.length - 1; i += 2) {
 			builder.append(", ");
-			builder.append(format.format(von));
+			builder.append(format.format(new Date(zeitpunkte[i])));
 			builder.append(" - ");
-			builder.append(format.format(bis));
+			builder.append(format.format(new Date(zeitpunkte[i + 1])));
 		}
 
 		// NOTE: Ausgabe des offenen Endintervalls
-		if ((zeitpunkte.size() & 0x1) == 1) {
-			Date von = zeitpunkte.get(zeitpunkte.size() - 1);
-
+		if ((zeitpunkte.length & 0x1) == 1) {
 			// NOTE: ", " nur anhaengen, wenn es Intervalle davor gibt.
-			if (zeitpunkte.size() > 1) {
+			if (zeitpunkte.length > 1) {
 				builder.append(", ");
 			}
 
-			builder.append(format.format(von));
+			builder.append(format.format(new Date(
+					zeitpunkte[zeitpunkte.length - 1])));
 			builder.append(" - ");
 		}
 
@@ -197,24 +694,15 @@ public class Zeitraum implements Serializable {
 	}
 
 	/**
-	 * Vorbedingung: t, von und bis sind ungleich NULL
-	 * 
-	 * Vorbedingung: der Zeitpunkt von liegt vor dem Zeitpunkt bis
+	 * Vorbedingung: von ist ein Zeitpunkt in Millisekunden
 	 */
-	private static boolean inZeitraum(Date t, Date von, Date bis) {
-		return !bis.before(t) && !von.after(t);
-	}
-
-	/**
-	 * Vorbedingung: von ist ungleich NULL
-	 */
-	private boolean enthaelt(Date von) {
-		if (zeitpunkte.isEmpty()) {
+	private boolean enthaelt(long von) {
+		if (zeitpunkte.length == 0) {
 			return true;
 		}
 
 		// NOTE: Ist das Zeitraumintervall am Ende geschlossen?
-		if ((zeitpunkte.size() & 0x1) == 0) {
+		if ((zeitpunkte.length & 0x1) == 0) {
 			return false;
 		}
 
@@ -222,43 +710,60 @@ public class Zeitraum implements Serializable {
 
 		// NOTE: Das uebergebene (offene) Intervall ist enthalten,
 		// NOTE: wenn es im offenen Intervall des Zeitraums enthalten ist
-		Date v = zeitpunkte.get(zeitpunkte.size() - 1);
-		return !v.after(von);
+		return zeitpunkte[zeitpunkte.length - 1] <= von;
 	}
 
 	/**
-	 * NOTE: Parameter duerfen nicht NULL sein
-	 * 
-	 * Vorbedingung: von und bis sind ungleich NULL
-	 * 
 	 * Vorbedingung: der Zeitpunkt von liegt vor dem Zeitpunkt bis
 	 */
-	private boolean enthaelt(Date von, Date bis) {
-		if (zeitpunkte.isEmpty()) {
+	private boolean enthaelt(long von, long bis) {
+		if (zeitpunkte.length == 0) {
 			return true;
 		}
 
-		// NOTE: Ist das Intervall in den Zeitraumintervallen enthalten?
-		for (int i = 0; i < zeitpunkte.size() - 1; i += 2) {
-			Date v = zeitpunkte.get(i);
-			Date b = zeitpunkte.get(i + 1);
+		// NOTE: Die Intervalle sind zusammengefasst, [von, bis] muss daher im
+		// Intervall liegen, das von enthaelt
+		int anfang = intervall(von);
 
-			if (inZeitraum(von, v, b) && inZeitraum(bis, v, b)) {
-				return true;
-			}
-		}
+		return anfang >= 0 && bis <= ende(anfang);
+	}
 
-		// Zusicherung: das Intervall [von, bis] ist nicht in den geschlossenen
-		// Intervallen enthalten
+	/**
+	 * NOTE: Die Zeitpunkte werden wie bisher als Liste von Dates gespeichert.
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		List<Date> liste = new ArrayList<Date>(zeitpunkte.length);
 
-		// NOTE: Ist das Zeitraumintervall am Ende offen?
-		if ((zeitpunkte.size() & 0x1) == 1) {
-			Date v = zeitpunkte.get(zeitpunkte.size() - 1);
-			return !v.after(von);
+		for (long zeitpunkt : zeitpunkte) {
+			liste.add(new Date(zeitpunkt));
 		}
 
-		// Zusicherung: das Intervall [von, bis] ist nicht im Zietraum enthalten
+		ObjectOutputStream.PutField felder = out.putFields();
+		felder.put("zeitpunkte", liste);
+		felder.put("leer", leer);
+		out.writeFields();
+	}
+
+	/**
+	 * @param in
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private void readObject(ObjectInputStream in) throws IOException,
+			ClassNotFoundException {
+		ObjectInputStream.GetField felder = in.readFields();
+		@SuppressWarnings("unchecked")
+		List<Date> liste = (List<Date>) felder.get("zeitpunkte", null);
+		long[] z = new long[liste.size()];
+
+		for (int i = 0; i < z.length; i++) {
+			z[i] = liste.get(i).getTime();
+		}
 
-		return false;
+		zeitpunkte = normalisiere(z);
+		leer = felder.get("leer", false);
 	}
 }